@@ -3,6 +3,7 @@ package com.pi4j.crowpi.applications;
 import com.pi4j.context.Context;
 import com.pi4j.crowpi.Application;
 import com.pi4j.crowpi.components.BuzzerComponent;
+import com.pi4j.crowpi.components.helpers.Melody;
 import com.pi4j.crowpi.helpers.Note;
 
 /**
@@ -76,18 +77,20 @@ public class BuzzerApp implements Application {
         // Initialize buzzer component with default pin
         final var buzzer = new BuzzerComponent(pi4j);
 
-        // Loop through all notes and play them one-by-one
+        // Compile all notes into a melody once
+        final var builder = new Melody.Builder();
         for (int i = 0; i < NOTES.length; i++) {
             // Calculate duration of note by dividing one second with tempo
             // Tempo represents the actual note type, e.g. tempo=4 -> quarter note -> 0.25s
             final var duration = 1000 / TEMPO[i];
 
-            // Print note to standard output, play over buzzer
-            System.out.print(NOTES[i] + "(" + duration + ") ");
-            buzzer.playTone(NOTES[i].getFrequency(), duration);
-
-            // Wait shortly between notes to make them more distinguishable
-            buzzer.playSilence((int) (duration * 1.3));
+            // Add a short silence after each note to make them more distinguishable
+            builder.tone(NOTES[i].getFrequency(), duration * 1000L);
+            builder.tone(0, (long) (duration * 1300));
         }
+
+        // Play melody on the sequencer thread and wait until it has finished
+        System.out.println("Playing Super Mario theme song...");
+        buzzer.play(builder.build()).join();
     }
 }
@@ -43,7 +43,7 @@ public class RfidApp implements Application {
             } catch (RfidException e) {
                 System.out.println("Could not write card for person A: " + e.getMessage());
             }
-        });
+        }).join();
 
         // Wait for the user to approach a second card and write person B
         System.out.println("Please approach a second card to write person B");
@@ -54,7 +54,7 @@ public class RfidApp implements Application {
             } catch (RfidException e) {
                 System.out.println("Could not write card for person B: " + e.getMessage());
             }
-        });
+        }).join();
 
         // Register event listener to detect card in proximity
         rfid.onCardDetected(card -> {
@@ -3,22 +3,19 @@ package com.pi4j.crowpi.applications;
 import com.pi4j.context.Context;
 import com.pi4j.crowpi.Application;
 import com.pi4j.crowpi.components.SoundSensorComponent;
+import com.pi4j.crowpi.components.events.ActivityDetector;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A example application to show how the sound sensor could be used. It registers a event handler to the sensors and
- * the program loops until you clapped 3 times.
+ * the program loops until you clapped 3 times within 5 seconds.
  */
 public class SoundSensorApp implements Application {
     @Override
     public void execute(Context pi4j) {
         System.out.println("Welcome to the SoundSensor Test");
 
-        // Initialize clap counting variable
-        // There is a special kind of integer used because java lambda functions support only final variables
-        final var count = new AtomicInteger();
-
         // Initialize a SoundSensor component
         final var soundSensor = new SoundSensorComponent(pi4j);
 
@@ -28,26 +25,31 @@ public class SoundSensorApp implements Application {
             return;
         }
 
-        // Define how many times to clap
+        // Define how many times to clap and how fast
         final int CLAP_THRESHOLD = 3;
+        final long CLAP_WINDOW_MS = 5000;
+
+        // Count the claps within a sliding window and finish once enough claps have been detected
+        // There is a special kind of boolean used because java lambda functions support only final variables
+        final var done = new AtomicBoolean();
+        final var clapDetector = new ActivityDetector<SoundSensorComponent.SoundState>(CLAP_WINDOW_MS, state -> state == SoundSensorComponent.SoundState.NOISE);
+        clapDetector.onBurst(CLAP_THRESHOLD, () -> done.set(true));
+        final var listener = soundSensor.addListener(clapDetector);
 
-        // Ready to start the example so register the event handler which counts the number of claps.
-        soundSensor.onNoise(() -> {
-            final int currentCounter = count.incrementAndGet();
-            if (currentCounter < CLAP_THRESHOLD) {
-                System.out.println("You clapped! " + (CLAP_THRESHOLD - currentCounter) + " more times to finish");
-            }
-        });
+        // Ready to start the example so register the event handler which informs about every clap
+        System.out.println("Clap " + CLAP_THRESHOLD + " times within " + CLAP_WINDOW_MS / 1000 + " seconds");
+        soundSensor.onNoise(() -> System.out.println("You clapped!"));
 
-        // Loop until clapped 3 times
-        while (count.get() < CLAP_THRESHOLD) {
+        // Loop until clapped 3 times within the window
+        while (!done.get()) {
             sleep(10);
         }
 
         // Three times so application completed
         System.out.println("Done");
 
-        // Clean the event handler
+        // Clean the event handlers
         soundSensor.onNoise(null);
+        listener.remove();
     }
 }
@@ -5,8 +5,6 @@ import com.pi4j.crowpi.components.events.SimpleEventHandler;
 import com.pi4j.io.gpio.digital.*;
 
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReferenceArray;
@@ -47,13 +45,13 @@ public class ButtonMatrixComponent extends Component {
     protected static final long DEFAULT_POLLER_PERIOD_MS = 25;
 
     /**
-     * Scheduler instance for running the poller thread.
+     * Shared sampling scheduler for running the poller.
      */
-    private final ScheduledExecutorService scheduler;
+    private final SamplingScheduler scheduler;
     /**
-     * Active poller thread or null if currently not running.
+     * Active poller task or null if currently not running.
      */
-    private ScheduledFuture<?> poller;
+    private SamplingScheduler.Task poller;
 
     /**
      * Atomic array of simple event handlers for "onDown" event.
@@ -127,7 +125,7 @@ public class ButtonMatrixComponent extends Component {
         this.stateMappings = stateMappings;
 
         // Initialize new scheduler and start the poller
-        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.scheduler = SamplingScheduler.getInstance(pi4j);
         this.startPoller(pollerPeriodMs);
     }
 
@@ -140,9 +138,9 @@ public class ButtonMatrixComponent extends Component {
      */
     public void startPoller(long pollerPeriodMs) {
         if (this.poller != null) {
-            this.poller.cancel(true);
+            this.poller.cancel();
         }
-        this.poller = scheduler.scheduleAtFixedRate(new Poller(), 0, pollerPeriodMs, TimeUnit.MILLISECONDS);
+        this.poller = scheduler.schedule("ButtonMatrix", new Poller(), pollerPeriodMs, SamplingScheduler.PRIORITY_HIGH);
     }
 
     /**
@@ -151,17 +149,17 @@ public class ButtonMatrixComponent extends Component {
      */
     public void stopPoller() {
         if (this.poller != null) {
-            this.poller.cancel(true);
+            this.poller.cancel();
             this.poller = null;
         }
     }
 
     /**
-     * Returns the internal scheduled future for the poller thread or null if currently stopped.
+     * Returns the internal sampling task of the poller or null if currently stopped.
      *
      * @return Active poller instance or null
      */
-    protected ScheduledFuture<?> getPoller() {
+    protected SamplingScheduler.Task getPoller() {
         return this.poller;
     }
 
@@ -388,9 +386,9 @@ public class ButtonMatrixComponent extends Component {
     }
 
     /**
-     * Poller class which implements {@link Runnable} to be used with {@link ScheduledExecutorService} for repeated execution.
+     * Poller class which implements {@link Runnable} to be used with {@link SamplingScheduler} for repeated execution.
      * This poller consecutively checks all buttons and updates the internal {@link #states} array.
-     * Additionally, simple event handlers will be triggered during state transitions.
+     * Additionally, simple event handlers will be triggered asynchronously during state transitions.
      */
     private final class Poller implements Runnable {
         @Override
@@ -411,11 +409,11 @@ public class ButtonMatrixComponent extends Component {
                         continue;
                     }
 
-                    // Otherwise trigger the appropriate event handler
+                    // Otherwise hand the appropriate event handler off to the dispatcher
                     if (newState) {
-                        triggerSimpleEvent(downHandlers.get(index));
+                        scheduler.dispatch(ButtonMatrixComponent.this, downHandlers.get(index));
                     } else {
-                        triggerSimpleEvent(upHandlers.get(index));
+                        scheduler.dispatch(ButtonMatrixComponent.this, upHandlers.get(index));
                     }
                 }
 
@@ -1,10 +1,17 @@
 package com.pi4j.crowpi.components;
 
 import com.pi4j.context.Context;
+import com.pi4j.crowpi.components.helpers.Melody;
+import com.pi4j.crowpi.components.helpers.TimingHelpers;
 import com.pi4j.io.pwm.Pwm;
 import com.pi4j.io.pwm.PwmConfig;
 import com.pi4j.io.pwm.PwmType;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Implementation of the CrowPi buzzer using PWM with Pi4J
  */
@@ -13,8 +20,40 @@ public class BuzzerComponent extends Component {
      * If no pin is specified by the user, the default BCM pin 18 is used.
      */
     protected static final int DEFAULT_PIN = 18;
+    /**
+     * Priority for background tunes, which get interrupted by any other melody
+     */
+    public static final int PRIORITY_BACKGROUND = 0;
+    /**
+     * Default priority for melodies
+     */
+    public static final int PRIORITY_NORMAL = 5;
+    /**
+     * Priority for alarms, which interrupt all other melodies
+     */
+    public static final int PRIORITY_ALARM = 10;
+    /**
+     * Remaining time in nanoseconds before the end of a tone, below which the sequencer stops waiting on the lock
+     * and spins for precise timing
+     */
+    private static final long SPIN_THRESHOLD_NANOS = 1_000_000;
+
     protected final Pwm pwm;
 
+    /**
+     * Melodies which are playing or waiting for a melody with higher priority, ordered by descending priority.
+     * Guarded by this component.
+     */
+    private final List<Playback> playbacks = new ArrayList<>();
+    /**
+     * True if the sequencer has been paused, guarded by this component
+     */
+    private boolean paused;
+    /**
+     * Thread executing the sequencer or null if no melody is playing, guarded by this component
+     */
+    private Thread sequencerThread;
+
     /**
      * Creates a new buzzer component using the default pin.
      *
@@ -88,6 +127,118 @@ public class BuzzerComponent extends Component {
         sleep(duration);
     }
 
+    /**
+     * Plays the given melody asynchronously with normal priority.
+     *
+     * @param melody Melody to play
+     * @return Future which completes once the melody has been played
+     * @see #play(Melody, int)
+     */
+    public CompletableFuture<Void> play(Melody melody) {
+        return play(melody, PRIORITY_NORMAL);
+    }
+
+    /**
+     * Plays the given melody asynchronously from a dedicated timing thread and returns immediately.
+     * Only one melody is audible at a time: a melody with higher priority interrupts the current one, which continues
+     * where it left off once the interrupting melody has finished. A melody with lower priority waits until all melodies
+     * with higher priority have finished. A melody with the same priority as a waiting or playing one replaces it.
+     * The returned future can be cancelled to stop the melody, replaced melodies get cancelled as well.
+     * <p>
+     * Please note that the blocking {@link #playTone(int, int)} and {@link #playSilence(int)} methods are not coordinated
+     * with the sequencer and should not be used while a melody is playing.
+     *
+     * @param melody   Melody to play
+     * @param priority Priority of melody, e.g. {@link #PRIORITY_ALARM}
+     * @return Future which completes once the melody has been played
+     */
+    public synchronized CompletableFuture<Void> play(Melody melody, int priority) {
+        final var playback = new Playback(melody, priority);
+        if (melody.size() == 0) {
+            playback.future.complete(null);
+            return playback.future;
+        }
+
+        // Replace melodies with the same priority and insert after all melodies with higher priority
+        int index = 0;
+        for (final var iterator = playbacks.iterator(); iterator.hasNext(); ) {
+            final var other = iterator.next();
+            if (other.priority == priority) {
+                iterator.remove();
+                other.future.cancel(false);
+            } else if (other.priority > priority) {
+                index++;
+            }
+        }
+        playbacks.add(index, playback);
+
+        // Wake up the sequencer when the melody gets cancelled through its future
+        playback.future.whenComplete((result, throwable) -> {
+            synchronized (this) {
+                notifyAll();
+            }
+        });
+
+        // Start sequencer thread if not running yet, otherwise notify it about the new melody
+        if (this.sequencerThread == null) {
+            this.sequencerThread = new Thread(new Sequencer(), "Buzzer-Sequencer");
+            this.sequencerThread.setPriority(Thread.MAX_PRIORITY);
+            this.sequencerThread.setDaemon(true);
+            this.sequencerThread.start();
+        } else {
+            notifyAll();
+        }
+        return playback.future;
+    }
+
+    /**
+     * Pauses the sequencer and silences the buzzer. All melodies continue where they left off once resumed.
+     * Melodies started while paused will not play until the sequencer gets resumed.
+     * If the sequencer is already paused, this method will silently return and do nothing.
+     */
+    public synchronized void pauseMelody() {
+        this.paused = true;
+        notifyAll();
+    }
+
+    /**
+     * Resumes the sequencer after it has been paused.
+     * If the sequencer is not paused, this method will silently return and do nothing.
+     */
+    public synchronized void resumeMelody() {
+        this.paused = false;
+        notifyAll();
+    }
+
+    /**
+     * Stops and cancels all playing and waiting melodies.
+     * If no melody is playing, this method will silently return and do nothing.
+     */
+    public synchronized void stopMelody() {
+        for (final var playback : new ArrayList<>(playbacks)) {
+            playback.future.cancel(false);
+        }
+        playbacks.clear();
+    }
+
+    /**
+     * Checks if the sequencer is currently playing or waiting to play a melody, including while paused.
+     *
+     * @return True if a melody is active, otherwise false
+     */
+    public synchronized boolean isPlayingMelody() {
+        return this.sequencerThread != null;
+    }
+
+    /**
+     * Checks if the sequencer is currently paused.
+     *
+     * @return True if paused, otherwise false
+     */
+    public synchronized boolean isMelodyPaused() {
+        return this.paused;
+    }
+
     /**
      * Returns the created PWM instance for the buzzer
      *
@@ -114,4 +265,121 @@ public class BuzzerComponent extends Component {
             .shutdown(0)
             .build();
     }
+
+    /**
+     * State of a single melody which is playing or waiting to be played.
+     */
+    private static final class Playback {
+        private final Melody melody;
+        private final int priority;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        /**
+         * Position of the current event within the melody
+         */
+        private int index;
+        /**
+         * End of the current event as returned by {@link System#nanoTime()}, only valid while audible
+         */
+        private long eventEndNanos;
+        /**
+         * Remaining duration of the current event in nanoseconds, only valid while interrupted or paused
+         */
+        private long remainingNanos;
+
+        Playback(Melody melody, int priority) {
+            this.melody = melody;
+            this.priority = priority;
+            this.remainingNanos = melody.size() > 0 ? TimeUnit.MICROSECONDS.toNanos(melody.getDuration(0)) : 0;
+        }
+    }
+
+    /**
+     * Sequencer which plays the melody with the highest priority on a dedicated thread.
+     * Events are scheduled against absolute deadlines, so timing errors never accumulate over the course of a melody.
+     * The sequencer waits on the lock of the component for most of each event, which allows pausing, stopping and
+     * interrupting at any time, and only spins during the last millisecond. It exits once no melody is left.
+     */
+    private final class Sequencer implements Runnable {
+        @Override
+        public void run() {
+            Playback active = null;
+
+            while (true) {
+                final long deadline;
+                synchronized (BuzzerComponent.this) {
+                    playbacks.removeIf(playback -> playback.future.isDone());
+                    if (playbacks.isEmpty()) {
+                        playSilence();
+                        sequencerThread = null;
+                        return;
+                    }
+
+                    final long now = System.nanoTime();
+                    final var head = playbacks.get(0);
+
+                    // Silence the buzzer while paused, keeping the remaining duration of the current event
+                    if (paused) {
+                        if (active != null && !active.future.isDone()) {
+                            active.remainingNanos = Math.max(0, active.eventEndNanos - now);
+                        }
+                        active = null;
+                        playSilence();
+                        awaitNotification(0);
+                        continue;
+                    }
+
+                    // Switch to the melody with the highest priority, remembering where an interrupted melody stopped
+                    if (active != head) {
+                        if (active != null && !active.future.isDone()) {
+                            active.remainingNanos = Math.max(0, active.eventEndNanos - now);
+                        }
+                        active = head;
+                        active.eventEndNanos = now + active.remainingNanos;
+                        playTone(active.melody.getFrequency(active.index));
+                    }
+
+                    // Advance to the next event once the current one has ended
+                    if (now - active.eventEndNanos >= 0) {
+                        if (++active.index >= active.melody.size()) {
+                            playbacks.remove(active);
+                            active.future.complete(null);
+                            active = null;
+                            continue;
+                        }
+                        active.eventEndNanos += TimeUnit.MICROSECONDS.toNanos(active.melody.getDuration(active.index));
+                        playTone(active.melody.getFrequency(active.index));
+                    }
+
+                    // Wait on the lock for most of the event to stay responsive
+                    final long remaining = active.eventEndNanos - now;
+                    if (remaining > SPIN_THRESHOLD_NANOS) {
+                        awaitNotification(remaining - SPIN_THRESHOLD_NANOS);
+                        continue;
+                    }
+                    deadline = active.eventEndNanos;
+                }
+
+                // Spin for the remaining time without holding the lock
+                TimingHelpers.waitUntil(deadline);
+            }
+        }
+
+        /**
+         * Waits until the component gets notified or the timeout has passed, must be called while holding the lock of
+         * the component. Interrupting the sequencer thread stops all melodies.
+         *
+         * @param timeoutNanos Timeout in nanoseconds or zero to wait indefinitely
+         */
+        private void awaitNotification(long timeoutNanos) {
+            try {
+                if (timeoutNanos > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(BuzzerComponent.this, timeoutNanos);
+                } else {
+                    BuzzerComponent.this.wait();
+                }
+            } catch (InterruptedException e) {
+                stopMelody();
+            }
+        }
+    }
 }
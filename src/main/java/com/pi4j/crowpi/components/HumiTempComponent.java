@@ -1,10 +1,11 @@
 package com.pi4j.crowpi.components;
 
-import java.io.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import com.pi4j.crowpi.components.events.EventHandler;
+import com.pi4j.crowpi.components.helpers.SampleBuffer;
+import com.pi4j.crowpi.components.helpers.SysfsReader;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This example demonstrates the temperature and humidity component on the CrowPi.
@@ -18,13 +19,17 @@ import java.util.concurrent.TimeUnit;
  */
 public class HumiTempComponent extends Component {
     /**
-     * Scheduler instance for running the poller thread.
+     * Shared sampling scheduler for running the poller.
+     */
+    private final SamplingScheduler scheduler;
+    /**
+     * Active poller task or null if currently not running.
      */
-    private final ScheduledExecutorService scheduler;
+    private SamplingScheduler.Task poller;
     /**
-     * Active poller thread or null if currently not running.
+     * Poller instance of the active task, used to ignore period updates of cancelled pollers.
      */
-    private ScheduledFuture<?> poller;
+    private Poller activePoller;
 
     /**
      * Default paths to the files which are written by the DHT11 driver
@@ -32,18 +37,58 @@ public class HumiTempComponent extends Component {
     private final static String DEFAULT_HUMI_PATH = "/sys/devices/platform/dht11@4/iio:device0/in_humidityrelative_input";
     private final static String DEFAULT_TEMP_PATH = "/sys/devices/platform/dht11@4/iio:device0/in_temp_input";
     /**
-     * Paths effectively used to read the values
+     * Readers for the files effectively used to read the values, keeping them open between polls
      */
-    private final String humiPath;
-    private final String tempPath;
+    private final SysfsReader humiReader;
+    private final SysfsReader tempReader;
 
     /**
      * Polling interval of the file reading poller. Do not go to fast it might cause some issues.
      */
     private final static int DEFAULT_POLLING_DELAY_MS = 1000;
+    /**
+     * Number of consecutive polls without any successful read after which the polling period gets raised
+     */
+    private final static int BACKOFF_AFTER_FAILED_POLLS = 2;
+    /**
+     * Maximum factor by which the polling period gets raised while all reads keep failing
+     */
+    private final static int MAX_BACKOFF_FACTOR = 16;
+
+    /**
+     * Default number of measurements used for rolling statistics
+     */
+    private final static int DEFAULT_STATISTICS_WINDOW = 60;
+
+    /**
+     * Most recent measurement or null if nothing has been read yet, published atomically as a single immutable record
+     */
+    private volatile Measurement measurement;
+    /**
+     * Most recent rolling statistics of temperature and humidity or null if nothing has been read yet
+     */
+    private volatile Statistics temperatureStatistics;
+    private volatile Statistics humidityStatistics;
+    /**
+     * Requested number of measurements used for rolling statistics, applied by the poller
+     */
+    private volatile int statisticsWindow = DEFAULT_STATISTICS_WINDOW;
 
-    private volatile double temperature;
-    private volatile double humidity;
+    /**
+     * Optional history of all temperature and humidity values or null if disabled
+     */
+    private volatile SampleBuffer temperatureHistory;
+    private volatile SampleBuffer humidityHistory;
+
+    /**
+     * Atomic references to the registered triggers for change-driven events
+     */
+    private final AtomicReference<Trigger> temperatureAboveTrigger = new AtomicReference<>();
+    private final AtomicReference<Trigger> temperatureBelowTrigger = new AtomicReference<>();
+    private final AtomicReference<Trigger> temperatureChangeTrigger = new AtomicReference<>();
+    private final AtomicReference<Trigger> humidityAboveTrigger = new AtomicReference<>();
+    private final AtomicReference<Trigger> humidityBelowTrigger = new AtomicReference<>();
+    private final AtomicReference<Trigger> humidityChangeTrigger = new AtomicReference<>();
 
     /**
      * Creates a new humidity and temperature sensor component with default path and polling interval
@@ -69,9 +114,9 @@ public class HumiTempComponent extends Component {
      * @param pollingDelayMs Polling cycle of reading the measured values
      */
     public HumiTempComponent(String humiPath, String tempPath, int pollingDelayMs) {
-        this.humiPath = humiPath;
-        this.tempPath = tempPath;
-        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.humiReader = new SysfsReader(humiPath);
+        this.tempReader = new SysfsReader(tempPath);
+        this.scheduler = SamplingScheduler.getDefault();
         this.startPoller(pollingDelayMs);
     }
 
@@ -81,7 +126,8 @@ public class HumiTempComponent extends Component {
      * @return Return the humidity in %
      */
     public double getHumidity() {
-        return this.humidity;
+        final var measurement = this.measurement;
+        return measurement != null ? measurement.humidity() : 0;
     }
 
     /**
@@ -90,7 +136,176 @@ public class HumiTempComponent extends Component {
      * @return Returns the temperature in °C
      */
     public double getTemperature() {
-        return this.temperature;
+        final var measurement = this.measurement;
+        return measurement != null ? measurement.temperature() : 0;
+    }
+
+    /**
+     * Gets the last read temperature and humidity together with the time of the measurement.
+     * Both values are published as a single record, so they always belong to the same poll.
+     *
+     * @return Last measurement or null if nothing has been read yet
+     */
+    public Measurement getMeasurement() {
+        return this.measurement;
+    }
+
+    /**
+     * Gets the rolling statistics of the last temperature values, see {@link #setStatisticsWindow(int)}.
+     *
+     * @return Temperature statistics in °C or null if nothing has been read yet
+     */
+    public Statistics getTemperatureStatistics() {
+        return this.temperatureStatistics;
+    }
+
+    /**
+     * Gets the rolling statistics of the last humidity values, see {@link #setStatisticsWindow(int)}.
+     *
+     * @return Humidity statistics in % or null if nothing has been read yet
+     */
+    public Statistics getHumidityStatistics() {
+        return this.humidityStatistics;
+    }
+
+    /**
+     * Sets the number of most recent measurements which are used for the rolling statistics.
+     * Changing the window discards all previously collected values.
+     *
+     * @param measurements Number of measurements within window
+     */
+    public void setStatisticsWindow(int measurements) {
+        if (measurements < 1) {
+            throw new IllegalArgumentException("Statistics window must contain at least one measurement");
+        }
+        this.statisticsWindow = measurements;
+    }
+
+    /**
+     * Enables recording the history of all temperature and humidity values, each stored with the timestamp of its
+     * measurement in milliseconds since epoch. Previously recorded values get discarded.
+     *
+     * @param capacity Maximum number of values retained per quantity
+     */
+    public void enableHistory(int capacity) {
+        this.temperatureHistory = new SampleBuffer(capacity);
+        this.humidityHistory = new SampleBuffer(capacity);
+    }
+
+    /**
+     * Disables recording the history of temperature and humidity values and discards all recorded values.
+     */
+    public void disableHistory() {
+        this.temperatureHistory = null;
+        this.humidityHistory = null;
+    }
+
+    /**
+     * Returns the recorded history of temperature values, see {@link #enableHistory(int)}.
+     *
+     * @return Temperature history in °C or null if disabled
+     */
+    public SampleBuffer getTemperatureHistory() {
+        return this.temperatureHistory;
+    }
+
+    /**
+     * Returns the recorded history of humidity values, see {@link #enableHistory(int)}.
+     *
+     * @return Humidity history in % or null if disabled
+     */
+    public SampleBuffer getHumidityHistory() {
+        return this.humidityHistory;
+    }
+
+    /**
+     * Sets or disables the handler which gets called when the temperature rises above the given threshold.
+     * The handler is called once per crossing, including the first measurement if it already exceeds the threshold.
+     * Only a single event handler can be registered at once.
+     *
+     * @param threshold Temperature threshold in °C
+     * @param handler   Event handler to call with the triggering measurement or null to disable
+     */
+    public void onTemperatureAbove(double threshold, EventHandler<Measurement> handler) {
+        temperatureAboveTrigger.set(handler != null ? new Trigger(threshold, handler) : null);
+    }
+
+    /**
+     * Sets or disables the handler which gets called when the temperature falls below the given threshold.
+     * The handler is called once per crossing, including the first measurement if it is already below the threshold.
+     * Only a single event handler can be registered at once.
+     *
+     * @param threshold Temperature threshold in °C
+     * @param handler   Event handler to call with the triggering measurement or null to disable
+     */
+    public void onTemperatureBelow(double threshold, EventHandler<Measurement> handler) {
+        temperatureBelowTrigger.set(handler != null ? new Trigger(threshold, handler) : null);
+    }
+
+    /**
+     * Sets or disables the handler which gets called when the temperature changed by at least the given delta.
+     * The delta is measured against the value which triggered the previous event, so slow drifts are reported as well.
+     * Only a single event handler can be registered at once.
+     *
+     * @param delta   Minimum change in °C
+     * @param handler Event handler to call with the triggering measurement or null to disable
+     */
+    public void onTemperatureChange(double delta, EventHandler<Measurement> handler) {
+        temperatureChangeTrigger.set(handler != null ? new Trigger(delta, handler) : null);
+    }
+
+    /**
+     * Sets or disables the handler which gets called when the humidity rises above the given threshold.
+     *
+     * @param threshold Humidity threshold in %
+     * @param handler   Event handler to call with the triggering measurement or null to disable
+     * @see #onTemperatureAbove(double, EventHandler)
+     */
+    public void onHumidityAbove(double threshold, EventHandler<Measurement> handler) {
+        humidityAboveTrigger.set(handler != null ? new Trigger(threshold, handler) : null);
+    }
+
+    /**
+     * Sets or disables the handler which gets called when the humidity falls below the given threshold.
+     *
+     * @param threshold Humidity threshold in %
+     * @param handler   Event handler to call with the triggering measurement or null to disable
+     * @see #onTemperatureBelow(double, EventHandler)
+     */
+    public void onHumidityBelow(double threshold, EventHandler<Measurement> handler) {
+        humidityBelowTrigger.set(handler != null ? new Trigger(threshold, handler) : null);
+    }
+
+    /**
+     * Sets or disables the handler which gets called when the humidity changed by at least the given delta.
+     *
+     * @param delta   Minimum change in %
+     * @param handler Event handler to call with the triggering measurement or null to disable
+     * @see #onTemperatureChange(double, EventHandler)
+     */
+    public void onHumidityChange(double delta, EventHandler<Measurement> handler) {
+        humidityChangeTrigger.set(handler != null ? new Trigger(delta, handler) : null);
+    }
+
+    /**
+     * Returns the total number of failed reads of the humidity and temperature files.
+     * Failed reads are not retried within the same poll, the next poll simply reads again. If both reads keep failing,
+     * the polling period gets doubled with every further failed poll up to 16 times the requested period, and is reset as
+     * soon as any read succeeds again.
+     *
+     * @return Number of failed reads
+     */
+    public long getReadFailures() {
+        return humiReader.getFailureCount() + tempReader.getFailureCount();
+    }
+
+    /**
+     * Returns the total number of reads of the humidity and temperature files which retried a previously failed read.
+     *
+     * @return Number of retries
+     */
+    public long getReadRetries() {
+        return humiReader.getRetryCount() + tempReader.getRetryCount();
     }
 
     /**
@@ -102,62 +317,268 @@ public class HumiTempComponent extends Component {
      */
     protected synchronized void startPoller(long pollerPeriodMs) {
         if (this.poller != null) {
-            this.poller.cancel(true);
+            this.poller.cancel();
         }
-        this.poller = scheduler.scheduleAtFixedRate(new Poller(), 0, pollerPeriodMs, TimeUnit.MILLISECONDS);
+        this.activePoller = new Poller(pollerPeriodMs);
+        this.poller = scheduler.schedule("HumiTemp", this.activePoller, pollerPeriodMs, SamplingScheduler.PRIORITY_LOW);
     }
 
     /**
-     * Returns the internal scheduled future for the poller thread or null if currently stopped.
+     * Changes the period of the poller task, unless the given poller has been replaced in the meantime.
+     *
+     * @param poller   Poller requesting the change
+     * @param periodMs New polling period in milliseconds
+     */
+    private synchronized void updatePollerPeriod(Poller poller, long periodMs) {
+        if (this.activePoller == poller && this.poller != null) {
+            this.poller.setPeriod(periodMs);
+        }
+    }
+
+    /**
+     * Returns the internal sampling task of the poller or null if currently stopped.
      *
      * @return Active poller instance or null
      */
-    protected ScheduledFuture<?> getPoller() {
+    protected SamplingScheduler.Task getPoller() {
         return this.poller;
     }
 
     /**
-     * Poller class which implements {@link Runnable} to be used with {@link ScheduledExecutorService} for repeated execution.
-     * This poller consecutively starts reads the values in the humidity and temperature files
+     * Immutable measurement of temperature and humidity which were read within the same poll.
+     *
+     * @param temperature Temperature in °C
+     * @param humidity    Humidity in %
+     * @param timestamp   Time of measurement in milliseconds since epoch
+     */
+    public record Measurement(double temperature, double humidity, long timestamp) {
+    }
+
+    /**
+     * Immutable rolling statistics over the most recent measurements of a single value.
+     *
+     * @param min   Minimum value within window
+     * @param max   Maximum value within window
+     * @param mean  Arithmetic mean of all values within window
+     * @param count Number of values within window
+     */
+    public record Statistics(double min, double max, double mean, int count) {
+    }
+
+    /**
+     * Registered event handler together with its threshold or delta and the state of the previous measurement.
+     * The state is only accessed by the poller thread, which hands the handler off to the dispatcher of the scheduler.
+     */
+    private static final class Trigger {
+        private final double value;
+        private final EventHandler<Measurement> handler;
+        private boolean active;
+        private double reference = Double.NaN;
+
+        Trigger(double value, EventHandler<Measurement> handler) {
+            this.value = value;
+            this.handler = handler;
+        }
+
+        /**
+         * Checks if the value crossed the threshold in the given direction since the last call.
+         */
+        boolean checkThreshold(double current, boolean above) {
+            final boolean crossed = above ? current > value : current < value;
+            final boolean fired = crossed && !active;
+            active = crossed;
+            return fired;
+        }
+
+        /**
+         * Checks if the value changed by at least the delta since the last call.
+         */
+        boolean checkDelta(double current) {
+            if (Double.isNaN(reference)) {
+                reference = current;
+            } else if (Math.abs(current - reference) >= value) {
+                reference = current;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Primitive ring buffer of the most recent values, used for calculating rolling statistics without boxing.
+     * Only accessed by the poller thread.
+     */
+    private static final class RingBuffer {
+        private final double[] values;
+        private int count;
+        private int next;
+
+        RingBuffer(int capacity) {
+            this.values = new double[capacity];
+        }
+
+        int capacity() {
+            return values.length;
+        }
+
+        void add(double value) {
+            values[next] = value;
+            next = (next + 1) % values.length;
+            if (count < values.length) {
+                count++;
+            }
+        }
+
+        Statistics statistics() {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0;
+            for (int i = 0; i < count; i++) {
+                final double value = values[i];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                sum += value;
+            }
+            return new Statistics(min, max, sum / count, count);
+        }
+    }
+
+    /**
+     * Poller class which implements {@link Runnable} to be used with {@link SamplingScheduler} for repeated execution.
+     * This poller consecutively reads the values in the humidity and temperature files.
+     * Failed reads keep the previous value, the failure is counted by the respective {@link SysfsReader}.
+     * Each successful poll publishes a new {@link Measurement}, updates the rolling statistics and evaluates all triggers.
+     * Instead of sleeping between retries, the poller backs off by raising its own period while no read succeeds.
      */
     private final class Poller implements Runnable {
+        private final long basePeriodMs;
+        private long periodMs;
+        private int failedPolls;
+        private RingBuffer temperatureValues = new RingBuffer(statisticsWindow);
+        private RingBuffer humidityValues = new RingBuffer(statisticsWindow);
+
+        Poller(long basePeriodMs) {
+            this.basePeriodMs = basePeriodMs;
+            this.periodMs = basePeriodMs;
+        }
+
         @Override
         public void run() {
+            final var previous = measurement;
+            double humidity = previous != null ? previous.humidity() : 0;
+            double temperature = previous != null ? previous.temperature() : 0;
+            boolean humidityRead = false;
+            boolean temperatureRead = false;
+
             // Read humidity file and convert to value
             try {
-                humidity = convertToValue(readFile(humiPath));
-            } catch (IOException ignored) {
-                ;
+                humidity = convertToValue(humiReader.readInt());
+                humidityRead = true;
+            } catch (IOException e) {
+                logger.debug("Could not read humidity: %s", e.getMessage());
             }
             // Read temperature file and convert to value
             try {
-                temperature = convertToValue(readFile(tempPath));
-            } catch (IOException ignored) {
-                ;
+                temperature = convertToValue(tempReader.readInt());
+                temperatureRead = true;
+            } catch (IOException e) {
+                logger.debug("Could not read temperature: %s", e.getMessage());
+            }
+
+            // Nothing to publish if both reads failed, back off exponentially after repeated failures
+            if (!humidityRead && !temperatureRead) {
+                if (++failedPolls >= BACKOFF_AFTER_FAILED_POLLS) {
+                    changePeriod(Math.min(periodMs * 2, basePeriodMs * MAX_BACKOFF_FACTOR));
+                }
+                return;
+            }
+            failedPolls = 0;
+            changePeriod(basePeriodMs);
+
+            // Publish both values at once
+            final var current = new Measurement(temperature, humidity, System.currentTimeMillis());
+            measurement = current;
+
+            // Recreate ring buffers if the statistics window has been changed
+            final int window = statisticsWindow;
+            if (temperatureValues.capacity() != window) {
+                temperatureValues = new RingBuffer(window);
+                humidityValues = new RingBuffer(window);
+            }
+
+            // Update history, rolling statistics and triggers of all values which were read successfully
+            if (temperatureRead) {
+                record(temperatureHistory, current.timestamp(), temperature);
+                temperatureValues.add(temperature);
+                temperatureStatistics = temperatureValues.statistics();
+                checkTriggers(temperature, current, temperatureAboveTrigger, temperatureBelowTrigger, temperatureChangeTrigger);
+            }
+            if (humidityRead) {
+                record(humidityHistory, current.timestamp(), humidity);
+                humidityValues.add(humidity);
+                humidityStatistics = humidityValues.statistics();
+                checkTriggers(humidity, current, humidityAboveTrigger, humidityBelowTrigger, humidityChangeTrigger);
             }
         }
 
         /**
-         * Reads a specified file and returns the first line as string
+         * Changes the polling period if it differs from the current one.
          *
-         * @param path Path to the file
-         * @return First line of the file as string
-         * @throws IOException If the reading fails the IOException is thrown
+         * @param newPeriodMs New polling period in milliseconds
          */
-        protected String readFile(String path) throws IOException {
-            try (var input = new BufferedReader(new FileReader(path))) {
-                return input.readLine();
+        private void changePeriod(long newPeriodMs) {
+            if (newPeriodMs != periodMs) {
+                periodMs = newPeriodMs;
+                updatePollerPeriod(this, newPeriodMs);
+            }
+        }
+
+        /**
+         * Adds a value to the given history unless recording is disabled.
+         *
+         * @param history   History to add the value to or null
+         * @param timestamp Time of measurement in milliseconds since epoch
+         * @param value     Measured value
+         */
+        private void record(SampleBuffer history, long timestamp, double value) {
+            if (history != null) {
+                history.add(timestamp, value);
+            }
+        }
+
+        /**
+         * Evaluates the threshold and delta triggers of a single value and dispatches the handlers of all fired triggers.
+         *
+         * @param value         Current value
+         * @param measurement   Current measurement passed to the handlers
+         * @param aboveTrigger  Trigger for rising above threshold
+         * @param belowTrigger  Trigger for falling below threshold
+         * @param changeTrigger Trigger for changes by delta
+         */
+        private void checkTriggers(double value, Measurement measurement, AtomicReference<Trigger> aboveTrigger,
+                                   AtomicReference<Trigger> belowTrigger, AtomicReference<Trigger> changeTrigger) {
+            final var above = aboveTrigger.get();
+            if (above != null && above.checkThreshold(value, true)) {
+                scheduler.dispatch(HumiTempComponent.this, above.handler, measurement);
+            }
+            final var below = belowTrigger.get();
+            if (below != null && below.checkThreshold(value, false)) {
+                scheduler.dispatch(HumiTempComponent.this, below.handler, measurement);
+            }
+            final var change = changeTrigger.get();
+            if (change != null && change.checkDelta(value)) {
+                scheduler.dispatch(HumiTempComponent.this, change.handler, measurement);
             }
         }
 
         /**
-         * Calculates and converts a string into a temperature or humidity value
+         * Converts a value in milli-units as written by the driver into a temperature or humidity value
          *
-         * @param line Pass the a line of a humidity or temperature file here
+         * @param milliValue Value of a humidity or temperature file in milli-units
          * @return Return the calculated value as double
          */
-        protected double convertToValue(String line) {
-            return Double.parseDouble(line) / 1000;
+        protected double convertToValue(int milliValue) {
+            return milliValue / 1000.0;
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.pi4j.crowpi.components;
 
 import com.pi4j.context.Context;
+import com.pi4j.crowpi.components.helpers.SampleBuffer;
 import com.pi4j.io.i2c.I2C;
 import com.pi4j.io.i2c.I2CConfig;
 
@@ -26,6 +27,53 @@ public class LightSensorComponent extends Component {
     private static final int ONE_TIME_HIGH_RES_MODE_2 = 0x21;
     // Start measurement at 1lx resolution. Time typically 120ms
     private static final int ONE_TIME_LOW_RES_MODE = 0x23;
+    // Wake up the sensor and wait for measurement command
+    private static final int POWER_ON = 0x01;
+    // Change high bits of measurement time register, lower 3 bits of command contain bits 7-5 of MTreg
+    private static final int MEASUREMENT_TIME_HIGH_BITS = 0x40;
+    // Change low bits of measurement time register, lower 5 bits of command contain bits 4-0 of MTreg
+    private static final int MEASUREMENT_TIME_LOW_BITS = 0x60;
+
+    /**
+     * Default, minimum and maximum value of the measurement time register (MTreg) as specified by the BH1750 datasheet
+     */
+    public static final int DEFAULT_MEASUREMENT_TIME = 69;
+    public static final int MIN_MEASUREMENT_TIME = 31;
+    public static final int MAX_MEASUREMENT_TIME = 254;
+
+    /**
+     * Shared sampling scheduler for running the background sampler in continuous mode
+     */
+    private final SamplingScheduler scheduler;
+    /**
+     * Reusable buffer for reading a single measurement from the sensor, only accessed by the sampler
+     */
+    private final byte[] sampleBuffer = new byte[2];
+    /**
+     * Currently active sampler task or null if continuous mode is not running
+     */
+    private SamplingScheduler.Task sampler;
+    /**
+     * Mode and measurement time of the currently active sampler
+     */
+    private volatile Mode continuousMode;
+    private volatile int measurementTime = DEFAULT_MEASUREMENT_TIME;
+    /**
+     * Latest reading published by the sampler or null if no measurement has been completed yet
+     */
+    private volatile Reading reading;
+    /**
+     * Optional history of all raw measurements or null if disabled
+     */
+    private volatile SampleBuffer history;
+    /**
+     * Number of measurements used for the moving average, 1 disables averaging
+     */
+    private volatile int averagingSamples = 1;
+    /**
+     * Smoothing factor of the exponential moving average, 1 disables smoothing
+     */
+    private volatile double smoothingFactor = 1;
 
     /**
      * Creates a new light sensor component using the default setup.
@@ -45,6 +93,7 @@ public class LightSensorComponent extends Component {
      */
     public LightSensorComponent(Context pi4j, int bus, int device) {
         this.i2c = pi4j.create(buildI2CConfig(pi4j, bus, device));
+        this.scheduler = SamplingScheduler.getInstance(pi4j);
     }
 
     /**
@@ -57,6 +106,9 @@ public class LightSensorComponent extends Component {
         if (resolution > 2 || resolution < 0) {
             throw new IllegalArgumentException("Invalid Resolution Selected");
         }
+        if (isContinuous()) {
+            throw new IllegalStateException("One-time measurements are not possible while continuous mode is running");
+        }
 
         int resolutionRegisterValue = 0;
         switch (resolution) {
@@ -75,14 +127,176 @@ public class LightSensorComponent extends Component {
     }
 
     /**
-     * Measure current light intensity with default resolution (1lx)
+     * Measure current light intensity with default resolution (1lx).
+     * If continuous mode is running, the latest value of the background sampler is returned without blocking.
      *
      * @return Light intensity in lux
      */
     public double readLight() {
+        if (isContinuous()) {
+            return getLight();
+        }
         return calculateLux(i2c.readRegisterWord(ONE_TIME_HIGH_RES_MODE_1));
     }
 
+    /**
+     * Starts continuous measurements with the given mode and the current measurement time.
+     *
+     * @param mode Resolution of continuous measurements
+     * @see #startContinuous(Mode, int)
+     */
+    public void startContinuous(Mode mode) {
+        startContinuous(mode, measurementTime);
+    }
+
+    /**
+     * Starts continuous measurements in the background. The sensor is configured once and afterwards only the
+     * result register is read whenever a new conversion has finished, so callers never block on the I2C bus.
+     * The latest value can be retrieved using {@link #getLight()} or {@link #getReading()}.
+     * If continuous mode is already running, it gets restarted with the new settings.
+     * <p>
+     * The measurement time register (MTreg) scales the conversion time and sensitivity of the sensor.
+     * Lower values allow faster sampling at the cost of resolution, e.g. {@link Mode#LOW_RES} with the minimum
+     * measurement time completes a conversion roughly every 11ms, {@link Mode#HIGH_RES} every 81ms.
+     *
+     * @param mode            Resolution of continuous measurements
+     * @param measurementTime Value of measurement time register between {@link #MIN_MEASUREMENT_TIME} and {@link #MAX_MEASUREMENT_TIME}
+     */
+    public synchronized void startContinuous(Mode mode, int measurementTime) {
+        if (measurementTime < MIN_MEASUREMENT_TIME || measurementTime > MAX_MEASUREMENT_TIME) {
+            throw new IllegalArgumentException("Measurement time must be between " + MIN_MEASUREMENT_TIME + " and " + MAX_MEASUREMENT_TIME);
+        }
+
+        // Cancel previous sampler, the new one reconfigures the sensor on its first run
+        if (this.sampler != null) {
+            this.sampler.cancel();
+        }
+        this.continuousMode = mode;
+        this.measurementTime = measurementTime;
+        this.reading = null;
+
+        final long periodMs = mode.getConversionTimeMs(measurementTime);
+        this.sampler = scheduler.schedule("LightSensor", new Sampler(mode, measurementTime), periodMs, SamplingScheduler.PRIORITY_NORMAL);
+    }
+
+    /**
+     * Stops continuous measurements. The last reading stays available until continuous mode gets started again.
+     */
+    public synchronized void stopContinuous() {
+        if (this.sampler != null) {
+            this.sampler.cancel();
+            this.sampler = null;
+        }
+        this.continuousMode = null;
+    }
+
+    /**
+     * Checks if continuous measurements are currently running.
+     *
+     * @return True if continuous mode is active, otherwise false
+     */
+    public boolean isContinuous() {
+        return this.continuousMode != null;
+    }
+
+    /**
+     * Changes the measurement time register (MTreg) of the sensor. If continuous mode is running, it gets restarted
+     * with the new measurement time, otherwise the value gets applied when continuous mode is started.
+     *
+     * @param measurementTime Value of measurement time register between {@link #MIN_MEASUREMENT_TIME} and {@link #MAX_MEASUREMENT_TIME}
+     */
+    public synchronized void setMeasurementTime(int measurementTime) {
+        if (measurementTime < MIN_MEASUREMENT_TIME || measurementTime > MAX_MEASUREMENT_TIME) {
+            throw new IllegalArgumentException("Measurement time must be between " + MIN_MEASUREMENT_TIME + " and " + MAX_MEASUREMENT_TIME);
+        }
+        if (isContinuous()) {
+            startContinuous(this.continuousMode, measurementTime);
+        } else {
+            this.measurementTime = measurementTime;
+        }
+    }
+
+    /**
+     * Returns the current value of the measurement time register (MTreg).
+     *
+     * @return Measurement time register value
+     */
+    public int getMeasurementTime() {
+        return this.measurementTime;
+    }
+
+    /**
+     * Sets the number of measurements which are averaged by the background sampler.
+     * Changing this value restarts the averaging with the next measurement.
+     *
+     * @param samples Number of measurements for moving average, 1 disables averaging
+     */
+    public void setAveraging(int samples) {
+        if (samples < 1) {
+            throw new IllegalArgumentException("At least one sample is required for averaging");
+        }
+        this.averagingSamples = samples;
+    }
+
+    /**
+     * Sets the smoothing factor of the exponential moving average which is applied by the background sampler after averaging.
+     * Smaller values result in a smoother but slower reacting value.
+     *
+     * @param factor Smoothing factor greater than 0 and at most 1, 1 disables smoothing
+     */
+    public void setSmoothing(double factor) {
+        if (!(factor > 0 && factor <= 1)) {
+            throw new IllegalArgumentException("Smoothing factor must be greater than 0 and at most 1");
+        }
+        this.smoothingFactor = factor;
+    }
+
+    /**
+     * Enables recording the history of all raw measurements of the background sampler, each stored with the
+     * time of its measurement in milliseconds since epoch. Previously recorded values get discarded.
+     *
+     * @param capacity Maximum number of measurements retained
+     */
+    public void enableHistory(int capacity) {
+        this.history = new SampleBuffer(capacity);
+    }
+
+    /**
+     * Disables recording the history of measurements and discards all recorded values.
+     */
+    public void disableHistory() {
+        this.history = null;
+    }
+
+    /**
+     * Returns the recorded history of raw light intensities in lux, see {@link #enableHistory(int)}.
+     *
+     * @return Light intensity history or null if disabled
+     */
+    public SampleBuffer getHistory() {
+        return this.history;
+    }
+
+    /**
+     * Returns the latest light intensity of the background sampler without blocking.
+     * Averaging and smoothing have already been applied to this value.
+     *
+     * @return Light intensity in lux or 0 if no measurement has been completed yet
+     */
+    public double getLight() {
+        final var reading = this.reading;
+        return reading != null ? reading.lux() : 0;
+    }
+
+    /**
+     * Returns the latest reading of the background sampler without blocking.
+     *
+     * @return Latest reading or null if no measurement has been completed yet
+     */
+    public Reading getReading() {
+        return this.reading;
+    }
+
     /**
      * Calculates Lux values from measurement values
      *
@@ -93,6 +307,18 @@ public class LightSensorComponent extends Component {
         return measurementValue / MEASUREMENT_TO_LUX_FACTOR;
     }
 
+    /**
+     * Calculates lux values from measurement values taken with a custom mode and measurement time
+     *
+     * @param measurementValue Measurement value from light sensor
+     * @param mode             Mode used for the measurement
+     * @param measurementTime  Measurement time register value used for the measurement
+     * @return Calculated value in lux
+     */
+    protected double calculateLux(double measurementValue, Mode mode, int measurementTime) {
+        return calculateLux(measurementValue) * DEFAULT_MEASUREMENT_TIME / measurementTime / mode.getSensitivity();
+    }
+
     /**
      * Returns the created PWM instance for the buzzer
      *
@@ -102,6 +328,15 @@ public class LightSensorComponent extends Component {
         return this.i2c;
     }
 
+    /**
+     * Returns the internal sampling task of the continuous mode
+     *
+     * @return Sampler task or null if continuous mode is not running
+     */
+    protected SamplingScheduler.Task getSampler() {
+        return this.sampler;
+    }
+
     /**
      * Build a I2C Configuration to use the light Sensor
      *
@@ -118,4 +353,159 @@ public class LightSensorComponent extends Component {
             .device(device)
             .build();
     }
+
+    /**
+     * Resolution modes for continuous measurements
+     */
+    public enum Mode {
+        /**
+         * 1lx resolution, conversion takes up to 180ms with default measurement time
+         */
+        HIGH_RES(0x10, 1, 180),
+        /**
+         * 0.5lx resolution, conversion takes up to 180ms with default measurement time
+         */
+        HIGH_RES_2(0x11, 2, 180),
+        /**
+         * 4lx resolution, conversion takes up to 24ms with default measurement time
+         */
+        LOW_RES(0x13, 1, 24);
+
+        private final int command;
+        private final int sensitivity;
+        private final int maxConversionTimeMs;
+
+        Mode(int command, int sensitivity, int maxConversionTimeMs) {
+            this.command = command;
+            this.sensitivity = sensitivity;
+            this.maxConversionTimeMs = maxConversionTimeMs;
+        }
+
+        /**
+         * Returns the command which starts continuous measurements in this mode
+         *
+         * @return Command byte
+         */
+        int getCommand() {
+            return command;
+        }
+
+        /**
+         * Returns the divisor which has to be applied to measurement values, as HIGH_RES_2 doubles the sensitivity
+         *
+         * @return Sensitivity divisor
+         */
+        int getSensitivity() {
+            return sensitivity;
+        }
+
+        /**
+         * Calculates the maximum conversion time for the given measurement time register value.
+         *
+         * @param measurementTime Measurement time register value
+         * @return Conversion time in milliseconds
+         */
+        long getConversionTimeMs(int measurementTime) {
+            return Math.max(1, (maxConversionTimeMs * measurementTime + DEFAULT_MEASUREMENT_TIME - 1) / DEFAULT_MEASUREMENT_TIME);
+        }
+    }
+
+    /**
+     * Immutable reading published by the background sampler.
+     *
+     * @param lux       Light intensity in lux after averaging and smoothing
+     * @param rawLux    Light intensity in lux of the latest measurement
+     * @param timestamp Time of the latest measurement in nanoseconds as returned by {@link System#nanoTime()}
+     */
+    public record Reading(double lux, double rawLux, long timestamp) {
+    }
+
+    /**
+     * Sampler class which implements {@link Runnable} to be used with {@link SamplingScheduler} for repeated execution.
+     * The first run configures the sensor for continuous measurements, every further run reads the latest result,
+     * applies averaging and smoothing and publishes a new {@link Reading}.
+     */
+    private final class Sampler implements Runnable {
+        private final Mode mode;
+        private final int measurementTime;
+        private boolean configured;
+        private double[] window = new double[1];
+        private double windowSum;
+        private int windowCount;
+        private int windowIndex;
+        private double smoothed = Double.NaN;
+
+        Sampler(Mode mode, int measurementTime) {
+            this.mode = mode;
+            this.measurementTime = measurementTime;
+        }
+
+        @Override
+        public void run() {
+            // Configure sensor on first run and wait for the first conversion
+            if (!configured) {
+                i2c.write(POWER_ON);
+                i2c.write(MEASUREMENT_TIME_HIGH_BITS | (measurementTime >> 5));
+                i2c.write(MEASUREMENT_TIME_LOW_BITS | (measurementTime & 0x1F));
+                i2c.write(mode.getCommand());
+                configured = true;
+                return;
+            }
+
+            // Read latest result without issuing a new command, sensor sends high byte first
+            if (i2c.read(sampleBuffer, 0, 2) < 2) {
+                logger.debug("Incomplete measurement read from light sensor");
+                return;
+            }
+            final int value = ((sampleBuffer[0] & 0xFF) << 8) | (sampleBuffer[1] & 0xFF);
+            final double rawLux = calculateLux(value, mode, measurementTime);
+
+            // Publish reading with averaging and smoothing applied
+            final double lux = smooth(average(rawLux));
+            reading = new Reading(lux, rawLux, System.nanoTime());
+
+            // Record raw measurement if history is enabled
+            final var history = LightSensorComponent.this.history;
+            if (history != null) {
+                history.add(System.currentTimeMillis(), rawLux);
+            }
+        }
+
+        /**
+         * Calculates the moving average over the configured number of samples using a running sum.
+         */
+        private double average(double value) {
+            final int samples = averagingSamples;
+            if (window.length != samples) {
+                window = new double[samples];
+                windowSum = 0;
+                windowCount = 0;
+                windowIndex = 0;
+            }
+
+            if (windowCount == samples) {
+                windowSum -= window[windowIndex];
+            } else {
+                windowCount++;
+            }
+            window[windowIndex] = value;
+            windowSum += value;
+            windowIndex = (windowIndex + 1) % samples;
+
+            return windowSum / windowCount;
+        }
+
+        /**
+         * Applies the exponential moving average with the configured smoothing factor.
+         */
+        private double smooth(double value) {
+            final double factor = smoothingFactor;
+            if (factor >= 1 || Double.isNaN(smoothed)) {
+                smoothed = value;
+            } else {
+                smoothed += factor * (value - smoothed);
+            }
+            return smoothed;
+        }
+    }
 }
@@ -0,0 +1,451 @@
+package com.pi4j.crowpi.components;
+
+import com.pi4j.crowpi.components.helpers.Logger;
+import com.pi4j.crowpi.components.helpers.TimingHelpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinator which moves several actuators, e.g. a step motor and a servo of a pan/tilt rig, along a common timeline.
+ * A trajectory consists of timed waypoints containing one position per axis. All axes are updated from a single dedicated
+ * timing thread which wakes up once per period, interpolates the positions for the current time and passes them to the axes.
+ * The thread only exists while a trajectory is being executed.
+ * <p>
+ * Positions are specified in the native unit of each axis, which is degrees for servos and sequence entries for step motors.
+ * Step motors execute at most one step per period, so the period limits their maximum speed.
+ */
+public final class MotionCoordinator {
+    /**
+     * Default period of the timing loop in microseconds
+     */
+    private static final long DEFAULT_PERIOD_MICROS = 1000;
+    /**
+     * Maximum time in milliseconds to wait for lagging axes after the last waypoint
+     */
+    private static final long SETTLE_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * Logger instance
+     */
+    private final Logger logger = new Logger();
+    /**
+     * Axes which are moved by this coordinator, positions of waypoints are in the same order
+     */
+    private final Axis[] axes;
+    /**
+     * Period of the timing loop in nanoseconds
+     */
+    private final long periodNanos;
+
+    /**
+     * Trajectory which is currently executed or null if idle, guarded by this coordinator
+     */
+    private Trajectory trajectory;
+    /**
+     * Thread executing the timing loop or null if idle, guarded by this coordinator
+     */
+    private Thread thread;
+
+    /**
+     * Number of executed periods, only written by the timing thread
+     */
+    private volatile long ticks;
+    /**
+     * Number of times the timing loop missed at least one period, only written by the timing thread
+     */
+    private volatile long overruns;
+    /**
+     * Sum of all wakeup delays in nanoseconds, only written by the timing thread
+     */
+    private volatile long totalJitterNanos;
+    /**
+     * Maximum wakeup delay in nanoseconds, only written by the timing thread
+     */
+    private volatile long maxJitterNanos;
+
+    /**
+     * Creates a new motion coordinator with the default period of 1ms for the given axes.
+     *
+     * @param axes Axes to coordinate
+     */
+    public MotionCoordinator(Axis... axes) {
+        this(DEFAULT_PERIOD_MICROS, axes);
+    }
+
+    /**
+     * Creates a new motion coordinator with a custom period for the given axes.
+     *
+     * @param periodMicros Period of the timing loop in microseconds
+     * @param axes         Axes to coordinate
+     */
+    public MotionCoordinator(long periodMicros, Axis... axes) {
+        if (periodMicros < 1) {
+            throw new IllegalArgumentException("Period must be at least 1us");
+        }
+        if (axes.length == 0) {
+            throw new IllegalArgumentException("At least one axis is required");
+        }
+        this.axes = axes.clone();
+        this.periodNanos = TimeUnit.MICROSECONDS.toNanos(periodMicros);
+    }
+
+    /**
+     * Creates an axis which moves the given servo, using positions in degrees.
+     * Any motion started with {@link ServoMotorComponent#moveTo(float, float, float)} gets cancelled when a trajectory starts.
+     *
+     * @param servo Servo motor
+     * @return Servo axis
+     */
+    public static Axis axis(ServoMotorComponent servo) {
+        return new Axis() {
+            @Override
+            public double getPosition() {
+                return servo.getAngle();
+            }
+
+            @Override
+            public void start() {
+                servo.stopMotion();
+            }
+
+            @Override
+            public void update(double position) {
+                servo.applyAngle((float) position);
+            }
+        };
+    }
+
+    /**
+     * Creates an axis which moves the given step motor, using positions in sequence entries.
+     * Any motion started with {@link StepMotorComponent#moveTo(long)} gets cancelled when a trajectory starts.
+     *
+     * @param stepMotor Step motor
+     * @return Step motor axis
+     */
+    public static Axis axis(StepMotorComponent stepMotor) {
+        return new Axis() {
+            @Override
+            public double getPosition() {
+                return stepMotor.getPosition();
+            }
+
+            @Override
+            public void start() {
+                stepMotor.stopMotion();
+            }
+
+            @Override
+            public void update(double position) {
+                stepMotor.stepTowards(Math.round(position));
+            }
+
+            @Override
+            public void finish() {
+                stepMotor.releaseOutputs();
+            }
+        };
+    }
+
+    /**
+     * Starts executing a trajectory through the given waypoints. If the first waypoint is not at time zero, the trajectory
+     * starts at the current position of all axes, using the first waypoint for axes with an unknown position.
+     * A trajectory which is currently executed gets cancelled.
+     * The returned future can be cancelled to stop all axes at their current position.
+     *
+     * @param waypoints     Waypoints in chronological order
+     * @param interpolation Interpolation between waypoints
+     * @return Future which completes once the last waypoint has been reached
+     */
+    public synchronized CompletableFuture<Void> execute(List<Waypoint> waypoints, Interpolation interpolation) {
+        if (waypoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one waypoint is required");
+        }
+
+        // Validate waypoints
+        long previousTime = 0;
+        for (final var waypoint : waypoints) {
+            if (waypoint.positions().length != axes.length) {
+                throw new IllegalArgumentException("Waypoint must contain exactly one position per axis");
+            }
+            if (waypoint.timeMillis() < previousTime) {
+                throw new IllegalArgumentException("Waypoints must be in chronological order");
+            }
+            previousTime = waypoint.timeMillis();
+        }
+
+        // Prepend current positions if the first waypoint is not at the start
+        final var points = new ArrayList<Waypoint>(waypoints.size() + 1);
+        if (waypoints.get(0).timeMillis() > 0) {
+            final var positions = new double[axes.length];
+            for (int i = 0; i < axes.length; i++) {
+                final double position = axes[i].getPosition();
+                positions[i] = Double.isNaN(position) ? waypoints.get(0).positions()[i] : position;
+            }
+            points.add(new Waypoint(0, positions));
+        }
+        points.addAll(waypoints);
+
+        // Replace previous trajectory, the timing loop continues with the new one
+        if (this.trajectory != null) {
+            this.trajectory.future.cancel(false);
+        }
+        for (final var axis : axes) {
+            axis.start();
+        }
+        this.trajectory = new Trajectory(points, interpolation);
+
+        // Start timing thread if not running yet
+        if (this.thread == null) {
+            this.thread = new Thread(this::run, "MotionCoordinator");
+            this.thread.setPriority(Thread.MAX_PRIORITY);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+        return this.trajectory.future;
+    }
+
+    /**
+     * Stops the current trajectory, leaving all axes at their current position.
+     * If no trajectory is being executed, this method will silently return and do nothing.
+     */
+    public synchronized void stop() {
+        if (this.trajectory != null) {
+            this.trajectory.future.cancel(false);
+        }
+    }
+
+    /**
+     * Checks if a trajectory is currently being executed.
+     *
+     * @return True if running, otherwise false
+     */
+    public synchronized boolean isRunning() {
+        return this.thread != null;
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the timing loop since creation of this coordinator.
+     *
+     * @return Timing statistics
+     */
+    public Statistics getStatistics() {
+        final long ticks = this.ticks;
+        return new Statistics(ticks, overruns, ticks > 0 ? totalJitterNanos / ticks : 0, maxJitterNanos);
+    }
+
+    /**
+     * Timing loop which updates all axes once per period until the trajectory has been finished or cancelled.
+     */
+    private void run() {
+        long deadline = System.nanoTime();
+        Trajectory current = null;
+
+        while (true) {
+            // Pick up new trajectories and exit when idle
+            synchronized (this) {
+                if (trajectory != current) {
+                    current = trajectory;
+                    if (current != null) {
+                        current.startNanos = deadline;
+                    }
+                }
+                if (current == null || current.future.isDone()) {
+                    trajectory = null;
+                    thread = null;
+                    for (final var axis : axes) {
+                        axis.finish();
+                    }
+                    return;
+                }
+            }
+
+            // Update all axes with the interpolated positions
+            final double time = (deadline - current.startNanos) / 1e6;
+            try {
+                for (int i = 0; i < axes.length; i++) {
+                    axes[i].update(current.position(i, time));
+                }
+            } catch (RuntimeException e) {
+                logger.error("Motion coordinator failed to update axes: %s", e.getMessage());
+                current.future.completeExceptionally(e);
+                continue;
+            }
+            if (time >= current.durationMillis && (time >= current.durationMillis + SETTLE_TIMEOUT_MILLIS || current.isSettled(axes))) {
+                current.future.complete(null);
+                continue;
+            }
+
+            // Wait for the next period, skipping periods which have already passed
+            deadline += periodNanos;
+            final long now = System.nanoTime();
+            if (now - deadline > 0) {
+                overruns++;
+                deadline += ((now - deadline) / periodNanos + 1) * periodNanos;
+            }
+            TimingHelpers.waitUntil(deadline);
+
+            // Record how late the loop woke up
+            final long jitter = System.nanoTime() - deadline;
+            totalJitterNanos += jitter;
+            maxJitterNanos = Math.max(maxJitterNanos, jitter);
+            ticks++;
+        }
+    }
+
+    /**
+     * Interpolation methods between waypoints
+     */
+    public enum Interpolation {
+        /**
+         * Constant speed between waypoints, changing abruptly at every waypoint
+         */
+        LINEAR,
+        /**
+         * Cubic Hermite spline through all waypoints with continuous speed, starting and ending at standstill
+         */
+        CUBIC
+    }
+
+    /**
+     * Single waypoint of a trajectory.
+     *
+     * @param timeMillis Time in milliseconds relative to the start of the trajectory
+     * @param positions  Position per axis in the order of the axes passed to the coordinator
+     */
+    public record Waypoint(long timeMillis, double... positions) {
+    }
+
+    /**
+     * Statistics of the timing loop.
+     *
+     * @param ticks           Number of executed periods
+     * @param overruns        Number of times the loop missed at least one period
+     * @param meanJitterNanos Mean delay in nanoseconds between deadline and wakeup
+     * @param maxJitterNanos  Maximum delay in nanoseconds between deadline and wakeup
+     */
+    public record Statistics(long ticks, long overruns, long meanJitterNanos, long maxJitterNanos) {
+    }
+
+    /**
+     * Single actuator which can be moved by the coordinator.
+     */
+    public interface Axis {
+        /**
+         * Returns the current position of the actuator.
+         *
+         * @return Current position or NaN if unknown
+         */
+        double getPosition();
+
+        /**
+         * Called once when a trajectory starts, before the first update.
+         */
+        default void start() {
+        }
+
+        /**
+         * Moves the actuator to the given position, called once per period from the timing thread.
+         *
+         * @param position Interpolated position
+         */
+        void update(double position);
+
+        /**
+         * Called once from the timing thread after the last trajectory has been finished or cancelled.
+         */
+        default void finish() {
+        }
+    }
+
+    /**
+     * Trajectory which is currently executed, including its future and start time.
+     */
+    private static final class Trajectory {
+        private final List<Waypoint> waypoints;
+        private final Interpolation interpolation;
+        private final double durationMillis;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private long startNanos;
+
+        Trajectory(List<Waypoint> waypoints, Interpolation interpolation) {
+            this.waypoints = waypoints;
+            this.interpolation = interpolation;
+            this.durationMillis = waypoints.get(waypoints.size() - 1).timeMillis();
+        }
+
+        /**
+         * Interpolates the position of an axis at the given time.
+         *
+         * @param axis Index of axis
+         * @param time Time in milliseconds since start of trajectory
+         * @return Interpolated position
+         */
+        double position(int axis, double time) {
+            // Find segment containing the given time
+            final int last = waypoints.size() - 1;
+            if (time >= waypoints.get(last).timeMillis()) {
+                return waypoints.get(last).positions()[axis];
+            }
+            int segment = 0;
+            while (waypoints.get(segment + 1).timeMillis() <= time) {
+                segment++;
+            }
+
+            final var from = waypoints.get(segment);
+            final var to = waypoints.get(segment + 1);
+            final double duration = to.timeMillis() - from.timeMillis();
+            final double t = (time - from.timeMillis()) / duration;
+            final double p0 = from.positions()[axis];
+            final double p1 = to.positions()[axis];
+
+            if (interpolation == Interpolation.LINEAR) {
+                return p0 + (p1 - p0) * t;
+            }
+
+            // Cubic Hermite interpolation using finite differences of the neighbouring waypoints as tangents
+            final double m0 = tangent(axis, segment) * duration;
+            final double m1 = tangent(axis, segment + 1) * duration;
+            final double t2 = t * t;
+            final double t3 = t2 * t;
+            return (2 * t3 - 3 * t2 + 1) * p0 + (t3 - 2 * t2 + t) * m0 + (-2 * t3 + 3 * t2) * p1 + (t3 - t2) * m1;
+        }
+
+        /**
+         * Checks if all axes with a known position have reached the last waypoint.
+         * Step motors execute at most one step per period and might therefore lag behind after fast segments.
+         *
+         * @param axes Axes of coordinator
+         * @return True if all axes are at their final position, otherwise false
+         */
+        boolean isSettled(Axis[] axes) {
+            final var target = waypoints.get(waypoints.size() - 1).positions();
+            for (int i = 0; i < axes.length; i++) {
+                final double position = axes[i].getPosition();
+                if (!Double.isNaN(position) && Math.abs(position - target[i]) > 0.5) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Calculates the speed of an axis at the given waypoint, which is zero for the first and last waypoint.
+         *
+         * @param axis  Index of axis
+         * @param index Index of waypoint
+         * @return Speed in units per millisecond
+         */
+        private double tangent(int axis, int index) {
+            if (index == 0 || index == waypoints.size() - 1) {
+                return 0;
+            }
+            final var previous = waypoints.get(index - 1);
+            final var next = waypoints.get(index + 1);
+            final double duration = next.timeMillis() - previous.timeMillis();
+            return duration > 0 ? (next.positions()[axis] - previous.positions()[axis]) / duration : 0;
+        }
+    }
+}
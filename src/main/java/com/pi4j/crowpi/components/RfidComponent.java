@@ -6,15 +6,20 @@ import com.pi4j.crowpi.components.exceptions.RfidException;
 import com.pi4j.crowpi.components.exceptions.RfidUnsupportedCardException;
 import com.pi4j.crowpi.components.internal.rfid.MFRC522;
 import com.pi4j.crowpi.components.internal.rfid.RfidCard;
+import com.pi4j.crowpi.components.internal.rfid.RfidCardUid;
+import com.pi4j.crowpi.components.internal.rfid.RfidInventory;
+import com.pi4j.io.gpio.digital.DigitalInput;
+import com.pi4j.io.gpio.digital.DigitalInputConfig;
 import com.pi4j.io.gpio.digital.DigitalOutput;
 import com.pi4j.io.gpio.digital.DigitalOutputConfig;
 import com.pi4j.io.gpio.digital.DigitalState;
+import com.pi4j.io.gpio.digital.PullResistance;
 import com.pi4j.io.spi.Spi;
 import com.pi4j.io.spi.SpiConfig;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -37,25 +42,74 @@ public class RfidComponent extends MFRC522 {
     protected static final int DEFAULT_SPI_BAUD_RATE = 1000000;
 
     /**
-     * Default polling period in milliseconds for detecting new cards
+     * Default minimum polling period in milliseconds, used right after a card has been seen
      */
-    protected static final long DEFAULT_POLLER_PERIOD_MS = 100;
+    protected static final long DEFAULT_POLLER_MIN_PERIOD_MS = 20;
+    /**
+     * Default maximum polling period in milliseconds, reached after the reader has been idle for a while
+     */
+    protected static final long DEFAULT_POLLER_MAX_PERIOD_MS = 500;
+    /**
+     * Default maximum number of cards which get enumerated within a single inventory cycle
+     */
+    protected static final int DEFAULT_INVENTORY_MAX_CARDS = 16;
+    /**
+     * Default time in milliseconds a tracked card must be absent before it is considered as removed
+     */
+    protected static final long DEFAULT_CARD_REMOVAL_TIMEOUT_MS = 1000;
 
     /**
      * Atomic reference to event handler for card detection
      */
     private final AtomicReference<EventHandler<RfidCard>> cardDetectedHandler;
+    /**
+     * Atomic reference to event handler for inventory cycles
+     */
+    private final AtomicReference<EventHandler<RfidInventory>> inventoryHandler;
+    /**
+     * Atomic reference to event handler for cards arriving at the reader when using presence tracking
+     */
+    private final AtomicReference<EventHandler<RfidCard>> cardArrivedHandler;
+    /**
+     * Atomic reference to event handler for cards leaving the reader when using presence tracking
+     */
+    private final AtomicReference<EventHandler<RfidCardUid>> cardLeftHandler;
+
+    /**
+     * Cards currently considered as present, using the card serial as key, only accessed by the poller thread
+     */
+    private final Map<String, TrackedCard> trackedCards = new LinkedHashMap<>();
+    /**
+     * Time in milliseconds a tracked card must be absent before it is considered as removed
+     */
+    private volatile long cardRemovalTimeoutMs = DEFAULT_CARD_REMOVAL_TIMEOUT_MS;
 
+    /**
+     * Future of the pending {@link #waitForCard(EventHandler, boolean)} call or null if nobody is waiting
+     */
+    private CompletableFuture<Void> cardWait;
+
+    /**
+     * Specifies if only new cards (REQA) or any card (WUPA) should be detected by the poller
+     */
     private final AtomicBoolean pollOnlyNewCards;
 
     /**
-     * Scheduler instance for running the poller thread.
+     * Shared sampling scheduler for running the poller.
+     */
+    private final SamplingScheduler scheduler;
+    /**
+     * Active poller task or null if currently not running.
+     */
+    private SamplingScheduler.Task poller;
+    /**
+     * Currently active poller instance or null if not running, used to ignore reschedules of cancelled pollers.
      */
-    private final ScheduledExecutorService scheduler;
+    private Poller activePoller;
     /**
-     * Active poller thread or null if currently not running.
+     * Specifies if a card has been handed off to a handler which still owns the PCD, polls are skipped meanwhile
      */
-    private ScheduledFuture<?> poller;
+    private volatile boolean cardHandlerActive;
 
     /**
      * Creates a new RFID component with the default reset pin, channel and baud rate.
@@ -86,14 +140,33 @@ public class RfidComponent extends MFRC522 {
      * @param spiBaud      SPI baud rate
      */
     public RfidComponent(Context pi4j, Integer gpioResetPin, int spiChannel, int spiBaud) {
+        this(pi4j, gpioResetPin, null, spiChannel, spiBaud);
+    }
+
+    /**
+     * Creates a new RFID component with a custom reset pin, IRQ pin, channel and baud rate.
+     * When an IRQ pin is specified, the component waits for the interrupt output of the MFRC522 instead of busy polling.
+     * The CrowPi does not connect the IRQ output by default, so this requires wiring it to a free GPIO pin.
+     *
+     * @param pi4j         Pi4J context
+     * @param gpioResetPin BCM address of GPIO reset pin
+     * @param gpioIrqPin   BCM address of GPIO pin connected to the IRQ output or null to disable interrupts
+     * @param spiChannel   SPI channel
+     * @param spiBaud      SPI baud rate
+     */
+    public RfidComponent(Context pi4j, Integer gpioResetPin, Integer gpioIrqPin, int spiChannel, int spiBaud) {
         super(
             pi4j.create(buildResetPinConfig(pi4j, gpioResetPin)),
-            pi4j.create(buildSpiConfig(pi4j, spiChannel, spiBaud))
+            pi4j.create(buildSpiConfig(pi4j, spiChannel, spiBaud)),
+            gpioIrqPin != null ? pi4j.create(buildIrqPinConfig(pi4j, gpioIrqPin)) : null
         );
 
         this.cardDetectedHandler = new AtomicReference<>();
+        this.inventoryHandler = new AtomicReference<>();
+        this.cardArrivedHandler = new AtomicReference<>();
+        this.cardLeftHandler = new AtomicReference<>();
         this.pollOnlyNewCards = new AtomicBoolean(true);
-        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.scheduler = SamplingScheduler.getInstance(pi4j);
     }
 
     /**
@@ -104,51 +177,151 @@ public class RfidComponent extends MFRC522 {
      */
     public synchronized void onCardDetected(EventHandler<RfidCard> handler) {
         this.cardDetectedHandler.set(handler);
-        if (handler != null) {
-            startPoller(DEFAULT_POLLER_PERIOD_MS);
+        updatePoller();
+    }
+
+    /**
+     * Sets or disables the handler for inventory cycles, which enumerate all new cards in the proximity of the PCD at once.
+     * Each poll runs the full anti-collision loop and passes the UIDs of all discovered cards as a single batch to the handler.
+     * The handler only gets called if at least one card has been discovered. All discovered cards are left in HALT state,
+     * so they will not be reported again until they leave the field. While an inventory handler is registered, it takes
+     * precedence over {@link #onCardDetected(EventHandler)} as both would compete for the same cards.
+     *
+     * @param handler Event handler to call with the result of each inventory cycle
+     */
+    public synchronized void onInventory(EventHandler<RfidInventory> handler) {
+        this.inventoryHandler.set(handler);
+        updatePoller();
+    }
+
+    /**
+     * Sets or disables the handler for cards arriving at the reader, which enables presence tracking.
+     * In contrast to {@link #onCardDetected(EventHandler)}, every card is only reported once while it stays near the reader.
+     * A card which briefly leaves and returns within the removal timeout is not reported again, which avoids
+     * processing the same card multiple times per tap. Presence tracking takes precedence over {@link #onCardDetected(EventHandler)}.
+     *
+     * @param handler Event handler to call when a card arrives
+     * @see #setCardRemovalTimeout(long)
+     */
+    public synchronized void onCardArrived(EventHandler<RfidCard> handler) {
+        this.cardArrivedHandler.set(handler);
+        updatePoller();
+    }
+
+    /**
+     * Sets or disables the handler for cards leaving the reader, which enables presence tracking.
+     * A card is considered as removed once it did not answer for longer than the removal timeout.
+     * As the card is no longer available at that point, only its UID gets passed to the handler.
+     *
+     * @param handler Event handler to call when a card leaves
+     * @see #setCardRemovalTimeout(long)
+     */
+    public synchronized void onCardLeft(EventHandler<RfidCardUid> handler) {
+        this.cardLeftHandler.set(handler);
+        updatePoller();
+    }
+
+    /**
+     * Sets the time in milliseconds a tracked card must be absent before it is considered as removed.
+     * Higher values suppress duplicate detections of cards which are shortly moved out of range, but delay removal events.
+     *
+     * @param timeoutMs Removal timeout in milliseconds
+     */
+    public void setCardRemovalTimeout(long timeoutMs) {
+        if (timeoutMs < 0) {
+            throw new IllegalArgumentException("Removal timeout must not be negative");
+        }
+        this.cardRemovalTimeoutMs = timeoutMs;
+    }
+
+    /**
+     * Returns the time in milliseconds a tracked card must be absent before it is considered as removed.
+     *
+     * @return Removal timeout in milliseconds
+     */
+    public long getCardRemovalTimeout() {
+        return this.cardRemovalTimeoutMs;
+    }
+
+    /**
+     * Returns true if presence tracking is currently enabled due to registered arrival or removal handlers.
+     *
+     * @return True if presence tracking is enabled, otherwise false
+     */
+    private boolean isPresenceTracking() {
+        return cardArrivedHandler.get() != null || cardLeftHandler.get() != null;
+    }
+
+    /**
+     * Starts or stops the poller depending on the currently registered handlers.
+     */
+    private synchronized void updatePoller() {
+        // Inventory and presence tracking take precedence, so a pending wait for a single card would never complete
+        if (cardWait != null && (inventoryHandler.get() != null || isPresenceTracking())) {
+            final var pending = cardWait;
+            cardWait = null;
+            pending.completeExceptionally(new IllegalStateException("Waiting for a card was interrupted by an inventory or presence tracking handler"));
+        }
+
+        if (cardDetectedHandler.get() != null || inventoryHandler.get() != null || isPresenceTracking()) {
+            startPoller(DEFAULT_POLLER_MIN_PERIOD_MS, DEFAULT_POLLER_MAX_PERIOD_MS);
         } else {
             stopPoller();
         }
     }
 
     /**
-     * Blocks current thread until a new card has been detected, then runs the handler and continues.
+     * Waits asynchronously until a new card has been detected, then runs the handler once.
      *
      * @see #waitForCard(EventHandler, boolean)
      */
-    public void waitForNewCard(EventHandler<RfidCard> handler) {
-        waitForCard(handler, true);
+    public CompletableFuture<Void> waitForNewCard(EventHandler<RfidCard> handler) {
+        return waitForCard(handler, true);
     }
 
     /**
-     * Blocks current thread until any card has been detected, then runs the handler and continues.
+     * Waits asynchronously until any card has been detected, then runs the handler once.
      *
      * @see #waitForCard(EventHandler, boolean)
      */
-    public void waitForAnyCard(EventHandler<RfidCard> handler) {
-        waitForCard(handler, false);
+    public CompletableFuture<Void> waitForAnyCard(EventHandler<RfidCard> handler) {
+        return waitForCard(handler, false);
     }
 
     /**
-     * Acts like {@link #onCardDetected(EventHandler)}, but only executes the handler once and waits for the event to happen.
-     * This can be used to simplify synchronous programming without having to deal with asynchronous event logic.
+     * Acts like {@link #onCardDetected(EventHandler)}, but only executes the handler once and returns a future for the event.
+     * The returned future completes after the handler has been executed, or exceptionally if the handler threw an exception.
+     * Use {@link CompletableFuture#join()} to simplify synchronous programming without having to deal with asynchronous event logic.
+     * Cancelling the future unregisters the handler again without waiting for a card.
+     * As inventory and presence tracking handlers take precedence over card detection, the returned future fails with an
+     * {@link IllegalStateException} if such a handler is registered before or while waiting.
      *
      * @param handler Event handler to call when new card is approached
      * @param onlyNew Specifies if only new cards (true) or any card (false) should be detected
+     * @return Future which completes once the handler has been executed
      */
-    private void waitForCard(EventHandler<RfidCard> handler, boolean onlyNew) {
-        final var done = new AtomicBoolean(false);
+    private synchronized CompletableFuture<Void> waitForCard(EventHandler<RfidCard> handler, boolean onlyNew) {
+        // Fail fast as the poller would never detect a single card
+        if (inventoryHandler.get() != null || isPresenceTracking()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Unable to wait for a card while an inventory or presence tracking handler is registered"));
+        }
+
+        final var future = new CompletableFuture<Void>();
+        this.cardWait = future;
 
         // Register new event handler which triggers exactly once
-        onCardDetected(card -> {
+        final var onceHandler = new AtomicReference<EventHandler<RfidCard>>();
+        onceHandler.set(card -> {
             try {
                 handler.handle(card);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
             } finally {
-                onCardDetected(null);
-                this.pollOnlyNewCards.set(true);
-                done.set(true);
+                unregisterCardDetected(onceHandler.get());
+                future.complete(null);
             }
         });
+        onCardDetected(onceHandler.get());
 
         // If only new has been disabled, switch poller mode to detect any card
         // This will wakeup any existing cards, forcing them to be re-detected
@@ -156,24 +329,66 @@ public class RfidComponent extends MFRC522 {
             this.pollOnlyNewCards.set(false);
         }
 
-        // Wait until event handler has been called once
-        while (!done.get()) {
-            sleep(10);
+        // Unregister handler if the caller is no longer interested
+        future.whenComplete((result, throwable) -> {
+            clearCardWait(future);
+            unregisterCardDetected(onceHandler.get());
+        });
+
+        return future;
+    }
+
+    /**
+     * Forgets the given future of {@link #waitForCard(EventHandler, boolean)} if it is still the pending one.
+     *
+     * @param future Completed future
+     */
+    private synchronized void clearCardWait(CompletableFuture<Void> future) {
+        if (this.cardWait == future) {
+            this.cardWait = null;
         }
     }
 
     /**
-     * (Re-)starts the poller with the desired time period in milliseconds.
-     * If the poller is already running, it will be cancelled and rescheduled with the given time.
-     * The first poll happens immediately in a separate thread and does not get delayed.
+     * Unregisters the given handler for card detection if it is still the active one and restores the default poller mode.
      *
-     * @param pollerPeriodMs Polling period in milliseconds
+     * @param handler Previously registered event handler
      */
-    protected synchronized void startPoller(long pollerPeriodMs) {
-        if (this.poller != null) {
-            this.poller.cancel(true);
+    private synchronized void unregisterCardDetected(EventHandler<RfidCard> handler) {
+        if (this.cardDetectedHandler.compareAndSet(handler, null)) {
+            this.pollOnlyNewCards.set(true);
+            updatePoller();
+        }
+    }
+
+    /**
+     * (Re-)starts the poller with an adaptive polling period between the given bounds in milliseconds.
+     * The poller uses the minimum period right after a card has been seen and doubles the period after every idle poll,
+     * until the maximum period has been reached. This keeps the reader responsive while reducing SPI and RF activity when idle.
+     * If the poller is already running, it will be cancelled and rescheduled. The first poll happens immediately in a separate thread.
+     *
+     * @param minPeriodMs Minimum polling period in milliseconds
+     * @param maxPeriodMs Maximum polling period in milliseconds
+     */
+    protected synchronized void startPoller(long minPeriodMs, long maxPeriodMs) {
+        if (minPeriodMs < 1 || maxPeriodMs < minPeriodMs) {
+            throw new IllegalArgumentException("Polling periods must be positive and minimum must not exceed maximum");
+        }
+        stopPoller();
+        this.activePoller = new Poller(minPeriodMs, maxPeriodMs);
+        this.poller = scheduler.schedule("Rfid", this.activePoller, minPeriodMs, SamplingScheduler.PRIORITY_NORMAL, maxPeriodMs);
+    }
+
+    /**
+     * Changes the period of the poller task for the given poller, unless it has been stopped or replaced in the meantime.
+     *
+     * @param poller   Poller instance requesting the new period
+     * @param periodMs Period in milliseconds until next execution
+     */
+    private synchronized void updatePollerPeriod(Poller poller, long periodMs) {
+        if (this.activePoller == poller && this.poller != null) {
+            this.poller.setPeriod(periodMs);
         }
-        this.poller = scheduler.scheduleAtFixedRate(new Poller(), 0, pollerPeriodMs, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -181,18 +396,19 @@ public class RfidComponent extends MFRC522 {
      * If the poller is already stopped, this method will silently return and do nothing.
      */
     protected synchronized void stopPoller() {
+        this.activePoller = null;
         if (this.poller != null) {
-            this.poller.cancel(true);
+            this.poller.cancel();
             this.poller = null;
         }
     }
 
     /**
-     * Returns the internal scheduled future for the poller thread or null if currently stopped.
+     * Returns the internal sampling task of the poller or null if currently stopped.
      *
      * @return Active poller instance or null
      */
-    protected ScheduledFuture<?> getPoller() {
+    protected SamplingScheduler.Task getPoller() {
         return this.poller;
     }
 
@@ -205,6 +421,15 @@ public class RfidComponent extends MFRC522 {
         return this.resetPin;
     }
 
+    /**
+     * Returns the current IRQ pin for the RFID component.
+     *
+     * @return IRQ pin as digital input or null if not used
+     */
+    protected DigitalInput getIrqPin() {
+        return this.irqPin;
+    }
+
     /**
      * Returns the current SPI instance for the LED matrix.
      *
@@ -231,6 +456,24 @@ public class RfidComponent extends MFRC522 {
             .build();
     }
 
+    /**
+     * Builds a new digital input configuration for the GPIO IRQ pin.
+     * Debouncing is disabled as the IRQ output of the MFRC522 does not bounce and must be signalled without delay.
+     *
+     * @param pi4j    Pi4J context
+     * @param address BCM address
+     * @return Digital input configuration
+     */
+    private static DigitalInputConfig buildIrqPinConfig(Context pi4j, int address) {
+        return DigitalInput.newConfigBuilder(pi4j)
+            .id("BCM" + address)
+            .name("RFID IRQ Pin")
+            .address(address)
+            .pull(PullResistance.PULL_UP)
+            .debounce(0L)
+            .build();
+    }
+
     /**
      * Builds a new SPI configuration for the RFID component
      *
@@ -249,38 +492,98 @@ public class RfidComponent extends MFRC522 {
     }
 
     /**
-     * Poller class which implements {@link Runnable} to be used with {@link ScheduledExecutorService} for repeated execution.
+     * Poller class which implements {@link Runnable} to be used with {@link SamplingScheduler} for repeated execution.
      * This poller consecutively calls {@link MFRC522#isNewCardPresent()} to check for any new idle PICCs within the proximity of the PCD.
      * If any new card is found, it will be read and passed to the registered handler before being put into a HALT state.
+     * When an inventory handler is registered, all new cards get enumerated at once using {@link MFRC522#inventory(int)} instead.
+     * When presence tracking is enabled, cards are only reported once on arrival and again when they leave the reader.
+     * Instead of running at a fixed rate, the poller adapts the period of its task depending on recent card activity.
+     * <p>
+     * All handlers run on the dispatcher of the {@link SamplingScheduler} instead of the worker thread. As card handlers
+     * still communicate with the card, polls are skipped until such a handler has finished and the card has been halted.
      */
     private final class Poller implements Runnable {
+        private final long minPeriodMs;
+        private final long maxPeriodMs;
+        private long periodMs;
+
+        Poller(long minPeriodMs, long maxPeriodMs) {
+            this.minPeriodMs = minPeriodMs;
+            this.maxPeriodMs = maxPeriodMs;
+            this.periodMs = minPeriodMs;
+        }
+
         @Override
         public void run() {
+            // Skip this poll and keep the current period while a card handler still uses the PCD
+            if (cardHandlerActive) {
+                return;
+            }
+
+            try {
+                // Poll fast after any activity and back off exponentially while idle
+                if (poll()) {
+                    periodMs = minPeriodMs;
+                } else {
+                    periodMs = Math.min(periodMs * 2, maxPeriodMs);
+                }
+            } finally {
+                updatePollerPeriod(this, periodMs);
+            }
+        }
+
+        /**
+         * Executes a single poll and returns if any card has been seen.
+         *
+         * @return True if a card was within the proximity of the PCD, otherwise false
+         */
+        private boolean poll() {
+            // Run a whole inventory cycle instead of detecting a single card if requested
+            final var inventoryHandler = RfidComponent.this.inventoryHandler.get();
+            if (inventoryHandler != null) {
+                final var inventory = inventory(DEFAULT_INVENTORY_MAX_CARDS);
+                logger.debug("Finished inventory cycle: %s", inventory);
+                if (!inventory.isEmpty()) {
+                    scheduler.dispatch(RfidComponent.this, inventoryHandler, inventory);
+                    return true;
+                }
+                return false;
+            }
+
+            // Track presence of cards instead of reporting every detection if requested
+            if (isPresenceTracking()) {
+                return trackPresence();
+            } else {
+                trackedCards.clear();
+            }
+
             // Retrieve handler and store to avoid race conditions
             final var handler = cardDetectedHandler.get();
 
             // Abort if handler is not registered to avoid putting PICCs into HALT state too early
             if (handler == null) {
-                return;
+                return false;
             }
 
             // Abort if no eligible card is within proximity of PCD
             // We can either only check for new cards (REQA) or any card (WUPA)
             if (pollOnlyNewCards.get()) {
                 if (!isNewCardPresent()) {
-                    return;
+                    return false;
                 }
             } else {
                 if (!isAnyCardPresent()) {
-                    return;
+                    return false;
                 }
             }
 
             // Trigger onCardDetected handler for this new PICC
+            boolean handedOff = false;
             try {
-                // Initialize new card and pass instance to handler
+                // Initialize new card and hand instance off to handler
                 final var card = initializeCard();
-                handler.handle(card);
+                dispatchCard(handler, card);
+                handedOff = true;
             } catch (RfidUnsupportedCardException e) {
                 // While this card is unsupported, this is not an abnormal exception
                 // We therefore handle this situation separately from the generic RfidException to avoid resetting the MFRC522
@@ -291,13 +594,117 @@ public class RfidComponent extends MFRC522 {
                 logger.warn("Resetting RFID component due to abnormal exception: %s", e);
                 reset();
             } finally {
-                // Always attempt to uninitialize the current card
+                // Uninitialize the current card unless the handler does so once it has finished
                 // This will put the card into a HALT state and avoid further detection
+                if (!handedOff) {
+                    haltCard();
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Executes a single poll with presence tracking and returns if any card has been seen.
+         * All tracked cards are checked with a direct SELECT of their known UID, which avoids the whole anti-collision loop.
+         * New cards are then selected as usual, but only reported if they are not already tracked.
+         *
+         * @return True if a card was within the proximity of the PCD, otherwise false
+         */
+        private boolean trackPresence() {
+            final long now = System.nanoTime();
+            final long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(cardRemovalTimeoutMs);
+
+            // Check if all tracked cards are still present and report the ones which are absent for too long
+            final var iterator = trackedCards.values().iterator();
+            while (iterator.hasNext()) {
+                final var tracked = iterator.next();
+                if (isCardPresent(tracked.uid)) {
+                    tracked.lastSeenNanos = now;
+                } else if (now - tracked.lastSeenNanos > timeoutNanos) {
+                    iterator.remove();
+                    logger.debug("Card %s has left the reader", tracked.uid.getSerial());
+
+                    scheduler.dispatch(RfidComponent.this, cardLeftHandler.get(), tracked.uid);
+                }
+            }
+
+            // Abort if no new card is within proximity of PCD
+            if (!isNewCardPresent()) {
+                return !trackedCards.isEmpty();
+            }
+
+            boolean handedOff = false;
+            try {
+                // Select new card and ignore it if it is already being tracked, e.g. after briefly leaving the field
+                final var uid = select();
+                final var tracked = trackedCards.get(uid.getSerial());
+                if (tracked != null) {
+                    tracked.lastSeenNanos = now;
+                    return true;
+                }
+
+                // Start tracking the card before reporting it, so that unsupported cards are only reported once
+                trackedCards.put(uid.getSerial(), new TrackedCard(uid, now));
+                logger.debug("Card %s has arrived at the reader", uid.getSerial());
+
+                final var arrivedHandler = cardArrivedHandler.get();
+                if (arrivedHandler != null) {
+                    dispatchCard(arrivedHandler, createCard(uid));
+                    handedOff = true;
+                }
+            } catch (RfidUnsupportedCardException e) {
+                logger.warn("Ignoring unsupported RFID card type: %s", e.getCardType());
+            } catch (RfidException e) {
+                logger.warn("Resetting RFID component due to abnormal exception: %s", e);
+                reset();
+            } finally {
+                if (!handedOff) {
+                    haltCard();
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Hands a selected card off to the given handler on the dispatcher of the scheduler.
+         * Polls are skipped until the handler has finished and the card has been put into HALT state.
+         *
+         * @param handler Event handler to call with the card
+         * @param card    Selected card
+         */
+        private void dispatchCard(EventHandler<RfidCard> handler, RfidCard card) {
+            cardHandlerActive = true;
+            scheduler.dispatch(RfidComponent.this, value -> {
                 try {
-                    uninitializeCard();
-                } catch (RfidException ignored) {
+                    handler.handle(value);
+                } finally {
+                    haltCard();
+                    cardHandlerActive = false;
                 }
+            }, card);
+        }
+
+        /**
+         * Attempts to put the current card into HALT state, ignoring any errors as the card might already be gone.
+         */
+        private void haltCard() {
+            try {
+                uninitializeCard();
+            } catch (RfidException ignored) {
             }
         }
     }
+
+    /**
+     * Card which is currently considered as present by the presence tracking
+     */
+    private static final class TrackedCard {
+        private final RfidCardUid uid;
+        private long lastSeenNanos;
+
+        TrackedCard(RfidCardUid uid, long lastSeenNanos) {
+            this.uid = uid;
+            this.lastSeenNanos = lastSeenNanos;
+        }
+    }
 }
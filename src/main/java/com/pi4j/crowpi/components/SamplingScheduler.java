@@ -0,0 +1,603 @@
+package com.pi4j.crowpi.components;
+
+import com.pi4j.context.Context;
+import com.pi4j.crowpi.components.events.EventDispatcher;
+import com.pi4j.crowpi.components.events.EventHandler;
+import com.pi4j.crowpi.components.events.SimpleEventHandler;
+import com.pi4j.crowpi.components.helpers.Logger;
+import com.pi4j.event.ShutdownListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared scheduler for the periodic sampling tasks of all polled components.
+ * Instead of every component creating its own thread, the tasks of a Pi4J context are released by a single timer thread
+ * and executed by a small pool of worker threads. Whenever more tasks are pending than workers are available,
+ * the task with the highest priority runs first.
+ * <p>
+ * Each task has a period, a priority and a deadline relative to its release time. Releases follow a fixed timeline
+ * without drift, a release is skipped and counted as overrun if the previous execution has not finished yet.
+ * The scheduler keeps per-task metrics about release jitter, execution time and deadline misses.
+ * <p>
+ * As the workers are shared by all components, tasks must never block beyond their own I/O. Event handlers of users are
+ * therefore handed off to a separate {@link EventDispatcher} using {@link #dispatch(Object, EventHandler, Object)},
+ * and failed reads are retried on the next release instead of sleeping within the task.
+ * <p>
+ * Use {@link #getInstance(Context)} to retrieve the scheduler of a Pi4J context, which gets shut down together with the context.
+ */
+public final class SamplingScheduler {
+    /**
+     * Predefined task priorities, higher values are executed first
+     */
+    public static final int PRIORITY_LOW = 0;
+    public static final int PRIORITY_NORMAL = 5;
+    public static final int PRIORITY_HIGH = 10;
+
+    /**
+     * Default number of worker threads per scheduler
+     */
+    private static final int DEFAULT_WORKERS = 2;
+
+    /**
+     * Schedulers of all active Pi4J contexts
+     */
+    private static final Map<Context, SamplingScheduler> instances = new WeakHashMap<>();
+    /**
+     * Scheduler for components which do not depend on a Pi4J context or null if not created yet
+     */
+    private static SamplingScheduler defaultInstance;
+    /**
+     * Counter used for naming the threads of all schedulers
+     */
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    /**
+     * Logger instance
+     */
+    private final Logger logger = new Logger();
+    /**
+     * Timer thread which releases tasks according to their period
+     */
+    private final ScheduledThreadPoolExecutor timer;
+    /**
+     * Worker threads which execute released tasks ordered by priority
+     */
+    private final ThreadPoolExecutor workers;
+    /**
+     * All tasks which have been scheduled and not been cancelled yet
+     */
+    private final Set<Task> tasks = ConcurrentHashMap.newKeySet();
+    /**
+     * Dispatcher which runs the event handlers triggered by tasks outside of the worker threads
+     */
+    private final EventDispatcher dispatcher = new EventDispatcher();
+    /**
+     * Specifies if this scheduler has been shut down
+     */
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a new sampling scheduler with the given amount of worker threads.
+     * Usually {@link #getInstance(Context)} should be used instead to share the scheduler among all components.
+     *
+     * @param workers Number of worker threads, must be at least 1
+     */
+    public SamplingScheduler(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker thread is required");
+        }
+
+        final int id = threadCounter.incrementAndGet();
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> createThread(runnable, "SamplingScheduler-" + id + "-timer"));
+        this.timer.setRemoveOnCancelPolicy(true);
+
+        final var workerCounter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+            runnable -> createThread(runnable, "SamplingScheduler-" + id + "-worker-" + workerCounter.incrementAndGet()));
+    }
+
+    /**
+     * Returns the shared scheduler of the given Pi4J context, creating it on first use.
+     * The scheduler gets shut down automatically when the context is shut down.
+     *
+     * @param pi4j Pi4J context
+     * @return Shared scheduler of context
+     */
+    public static synchronized SamplingScheduler getInstance(Context pi4j) {
+        final var existing = instances.get(pi4j);
+        if (existing != null && !existing.isShutdown()) {
+            return existing;
+        }
+
+        final var scheduler = new SamplingScheduler(DEFAULT_WORKERS);
+        pi4j.addListener(new ShutdownListener() {
+            @Override
+            public void beforeShutdown(Context context) {
+                // Stop sampling before the I/O instances used by the tasks get shut down
+                scheduler.shutdown();
+            }
+
+            @Override
+            public void onShutdown(Context context) {
+                scheduler.shutdown();
+                removeInstance(context, scheduler);
+            }
+        });
+        instances.put(pi4j, scheduler);
+        return scheduler;
+    }
+
+    /**
+     * Returns the shared scheduler for components which do not depend on a Pi4J context, e.g. sysfs based sensors.
+     * This scheduler only uses daemon threads and lives until it gets shut down explicitly.
+     *
+     * @return Shared default scheduler
+     */
+    public static synchronized SamplingScheduler getDefault() {
+        if (defaultInstance == null || defaultInstance.isShutdown()) {
+            defaultInstance = new SamplingScheduler(DEFAULT_WORKERS);
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * Removes the scheduler of a context which has been shut down, unless it has been replaced in the meantime.
+     *
+     * @param pi4j      Pi4J context
+     * @param scheduler Scheduler to remove
+     */
+    private static synchronized void removeInstance(Context pi4j, SamplingScheduler scheduler) {
+        if (instances.get(pi4j) == scheduler) {
+            instances.remove(pi4j);
+        }
+    }
+
+    /**
+     * Schedules a new sampling task whose deadline equals its period, so every execution must finish before the next release.
+     *
+     * @param name     Name of task for diagnostics
+     * @param action   Action to execute on every release
+     * @param periodMs Period in milliseconds
+     * @param priority Priority of task, see {@link #PRIORITY_NORMAL}
+     * @return Handle of scheduled task
+     * @see #schedule(String, Runnable, long, int, long)
+     */
+    public Task schedule(String name, Runnable action, long periodMs, int priority) {
+        return schedule(name, action, periodMs, priority, periodMs);
+    }
+
+    /**
+     * Schedules a new sampling task which gets released immediately and afterwards once per period.
+     *
+     * @param name       Name of task for diagnostics
+     * @param action     Action to execute on every release
+     * @param periodMs   Period in milliseconds
+     * @param priority   Priority of task, see {@link #PRIORITY_NORMAL}
+     * @param deadlineMs Maximum time in milliseconds from release until the execution must be finished
+     * @return Handle of scheduled task
+     * @throws IllegalStateException Scheduler has already been shut down
+     */
+    public Task schedule(String name, Runnable action, long periodMs, int priority, long deadlineMs) {
+        if (periodMs < 1) {
+            throw new IllegalArgumentException("Period must be at least 1ms");
+        }
+        if (deadlineMs < 1) {
+            throw new IllegalArgumentException("Deadline must be at least 1ms");
+        }
+        if (shutdown) {
+            throw new IllegalStateException("Sampling scheduler has already been shut down");
+        }
+
+        final var task = new Task(name, action, periodMs, priority, deadlineMs);
+        tasks.add(task);
+        task.start();
+        return task;
+    }
+
+    /**
+     * Runs the given event handler asynchronously on the event dispatcher of this scheduler, so that a slow handler does not
+     * occupy a worker thread. Handlers with the same key, usually the component triggering the event, run in order.
+     * If the handler is null, this method will silently return and do nothing.
+     *
+     * @param key     Key of the dispatcher lane, usually the component triggering the event
+     * @param handler Event handler to call or null
+     * @param value   Event value
+     * @param <V>     Type of event value
+     */
+    public <V> void dispatch(Object key, EventHandler<V> handler, V value) {
+        if (handler != null) {
+            dispatcher.submit(key, handler, value);
+        }
+    }
+
+    /**
+     * Runs the given simple event handler asynchronously on the event dispatcher of this scheduler.
+     *
+     * @param key     Key of the dispatcher lane, usually the component triggering the event
+     * @param handler Simple event handler to call or null
+     * @see #dispatch(Object, EventHandler, Object)
+     */
+    public void dispatch(Object key, SimpleEventHandler handler) {
+        if (handler != null) {
+            dispatcher.submit(key, value -> handler.handle(), null);
+        }
+    }
+
+    /**
+     * Returns the event dispatcher which runs the handlers passed to {@link #dispatch(Object, EventHandler, Object)},
+     * e.g. for inspecting its metrics.
+     *
+     * @return Event dispatcher of this scheduler
+     */
+    public EventDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Returns all tasks which are currently scheduled, e.g. for inspecting their metrics.
+     *
+     * @return Snapshot of scheduled tasks
+     */
+    public List<Task> getTasks() {
+        return List.copyOf(tasks);
+    }
+
+    /**
+     * Cancels all tasks and stops the threads of this scheduler including its event dispatcher. Running tasks get interrupted.
+     * If the scheduler has already been shut down, this method will silently return and do nothing.
+     */
+    public void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+
+        for (final var task : tasks) {
+            task.cancel();
+        }
+        timer.shutdownNow();
+        workers.shutdownNow();
+        dispatcher.shutdown();
+    }
+
+    /**
+     * Checks if this scheduler has been shut down.
+     *
+     * @return True if shut down, otherwise false
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Creates a new daemon thread for the timer or worker pool.
+     *
+     * @param runnable Runnable to execute
+     * @param name     Name of thread
+     * @return Created thread
+     */
+    private static Thread createThread(Runnable runnable, String name) {
+        final var thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Immutable snapshot of the metrics of a single task.
+     *
+     * @param executions        Number of finished executions
+     * @param overruns          Number of skipped releases because the previous execution was still pending
+     * @param deadlineMisses    Number of executions which finished after their deadline
+     * @param failures          Number of executions which threw an exception
+     * @param meanJitterNanos   Mean delay in nanoseconds between release and start of execution
+     * @param maxJitterNanos    Maximum delay in nanoseconds between release and start of execution
+     * @param lastDurationNanos Duration in nanoseconds of the last execution
+     * @param maxDurationNanos  Maximum duration in nanoseconds of all executions
+     */
+    public record Metrics(long executions, long overruns, long deadlineMisses, long failures,
+                          long meanJitterNanos, long maxJitterNanos, long lastDurationNanos, long maxDurationNanos) {
+    }
+
+    /**
+     * Handle of a scheduled sampling task.
+     * The timing state is only accessed by the timer thread, the metrics are only written by the executing worker.
+     */
+    public final class Task implements Runnable, Comparable<Task> {
+        private final String name;
+        private final Runnable action;
+        private final int priority;
+        private final long deadlineNanos;
+        private volatile long periodNanos;
+        private volatile boolean cancelled;
+
+        /**
+         * Specifies if the task is currently queued or running, used for detecting overruns
+         */
+        private final AtomicBoolean pending = new AtomicBoolean();
+        /**
+         * Next scheduled release, guarded by this task
+         */
+        private ScheduledFuture<?> nextRelease;
+        /**
+         * Worker thread currently executing this task, guarded by this task
+         */
+        private Thread runner;
+
+        /**
+         * Nominal time of the last and next release, only accessed by the timer thread
+         */
+        private long lastReleaseNanos;
+        private long nextReleaseNanos;
+        /**
+         * Nominal release time of the currently pending execution, written by the timer before queuing
+         */
+        private long pendingReleaseNanos;
+
+        private volatile long executions;
+        private volatile long overruns;
+        private volatile long deadlineMisses;
+        private volatile long failures;
+        private volatile long totalJitterNanos;
+        private volatile long maxJitterNanos;
+        private volatile long lastDurationNanos;
+        private volatile long maxDurationNanos;
+
+        private Task(String name, Runnable action, long periodMs, int priority, long deadlineMs) {
+            this.name = name;
+            this.action = action;
+            this.priority = priority;
+            this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMs);
+            this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        }
+
+        /**
+         * Returns the name of this task.
+         *
+         * @return Task name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the priority of this task.
+         *
+         * @return Task priority
+         */
+        public int getPriority() {
+            return priority;
+        }
+
+        /**
+         * Returns the current period of this task in milliseconds.
+         *
+         * @return Period in milliseconds
+         */
+        public long getPeriod() {
+            return TimeUnit.NANOSECONDS.toMillis(periodNanos);
+        }
+
+        /**
+         * Changes the period of this task. The pending release is moved to one new period after the last release,
+         * so shortening the period takes effect immediately instead of waiting for the old period to elapse.
+         * This method may be called from within the task itself, e.g. for adaptive polling.
+         *
+         * @param periodMs New period in milliseconds
+         */
+        public void setPeriod(long periodMs) {
+            if (periodMs < 1) {
+                throw new IllegalArgumentException("Period must be at least 1ms");
+            }
+
+            final long newPeriodNanos = TimeUnit.MILLISECONDS.toNanos(periodMs);
+            if (newPeriodNanos == periodNanos) {
+                return;
+            }
+            periodNanos = newPeriodNanos;
+
+            try {
+                timer.execute(this::reschedule);
+            } catch (RejectedExecutionException ignored) {
+                // Scheduler has been shut down in the meantime
+            }
+        }
+
+        /**
+         * Returns the deadline of this task in milliseconds relative to its release.
+         *
+         * @return Deadline in milliseconds
+         */
+        public long getDeadline() {
+            return TimeUnit.NANOSECONDS.toMillis(deadlineNanos);
+        }
+
+        /**
+         * Returns a snapshot of the metrics of this task.
+         * As the metrics are updated concurrently, the values of a snapshot might stem from different executions.
+         *
+         * @return Task metrics
+         */
+        public Metrics getMetrics() {
+            final long executions = this.executions;
+            return new Metrics(
+                executions, overruns, deadlineMisses, failures,
+                executions > 0 ? totalJitterNanos / executions : 0, maxJitterNanos,
+                lastDurationNanos, maxDurationNanos
+            );
+        }
+
+        /**
+         * Cancels this task. A currently running execution gets interrupted and no further releases will happen.
+         * If the task has already been cancelled, this method will silently return and do nothing.
+         */
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                if (nextRelease != null) {
+                    nextRelease.cancel(false);
+                    nextRelease = null;
+                }
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+            tasks.remove(this);
+        }
+
+        /**
+         * Checks if this task has been cancelled, either explicitly or by shutting down the scheduler.
+         *
+         * @return True if no further executions will happen, otherwise false
+         */
+        public boolean isDone() {
+            return cancelled;
+        }
+
+        /**
+         * Schedules the first release of this task immediately.
+         */
+        private void start() {
+            final long now = System.nanoTime();
+            lastReleaseNanos = now - periodNanos;
+            nextReleaseNanos = now;
+            scheduleRelease(0);
+        }
+
+        /**
+         * Releases this task for execution and schedules the next release.
+         * Must only be called by the timer thread.
+         */
+        private void release() {
+            if (cancelled) {
+                return;
+            }
+
+            // Queue task for execution unless the previous execution is still pending
+            final long release = nextReleaseNanos;
+            if (pending.compareAndSet(false, true)) {
+                pendingReleaseNanos = release;
+                try {
+                    workers.execute(this);
+                } catch (RejectedExecutionException e) {
+                    pending.set(false);
+                    return;
+                }
+            } else {
+                overruns++;
+            }
+
+            // Advance along the nominal timeline, but never schedule releases in the past to avoid bursts
+            lastReleaseNanos = release;
+            final long now = System.nanoTime();
+            nextReleaseNanos = Math.max(release + periodNanos, now);
+            scheduleRelease(nextReleaseNanos - now);
+        }
+
+        /**
+         * Moves the pending release according to the current period.
+         * Must only be called by the timer thread.
+         */
+        private void reschedule() {
+            synchronized (this) {
+                if (cancelled || nextRelease == null || !nextRelease.cancel(false)) {
+                    return;
+                }
+            }
+
+            final long now = System.nanoTime();
+            nextReleaseNanos = Math.max(lastReleaseNanos + periodNanos, now);
+            scheduleRelease(nextReleaseNanos - now);
+        }
+
+        /**
+         * Schedules the next release on the timer thread.
+         *
+         * @param delayNanos Delay in nanoseconds until release
+         */
+        private synchronized void scheduleRelease(long delayNanos) {
+            if (cancelled) {
+                return;
+            }
+            try {
+                nextRelease = timer.schedule(this::release, delayNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException ignored) {
+                // Scheduler has been shut down in the meantime
+                cancelled = true;
+            }
+        }
+
+        /**
+         * Executes the action of this task and updates the metrics.
+         * Must only be called by a worker thread.
+         */
+        @Override
+        public void run() {
+            final long release = pendingReleaseNanos;
+            final long start = System.nanoTime();
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+
+            try {
+                if (!cancelled) {
+                    action.run();
+                }
+            } catch (RuntimeException e) {
+                failures++;
+                logger.error("Sampling task %s failed: %s", name, e.getMessage());
+            } finally {
+                synchronized (this) {
+                    // Clear a possible interrupt by cancel() so it does not affect the next task of this worker
+                    runner = null;
+                    Thread.interrupted();
+                }
+
+                // Update metrics, only a single execution of this task can run at once
+                final long end = System.nanoTime();
+                final long jitter = start - release;
+                final long duration = end - start;
+                totalJitterNanos += jitter;
+                maxJitterNanos = Math.max(maxJitterNanos, jitter);
+                lastDurationNanos = duration;
+                maxDurationNanos = Math.max(maxDurationNanos, duration);
+                if (end - release > deadlineNanos) {
+                    deadlineMisses++;
+                }
+                executions++;
+
+                pending.set(false);
+            }
+        }
+
+        /**
+         * Orders pending tasks by descending priority and afterwards by their release time.
+         *
+         * @param other Task to compare with
+         * @return Comparison result
+         */
+        @Override
+        public int compareTo(Task other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            return Long.compare(pendingReleaseNanos - other.pendingReleaseNanos, 0);
+        }
+
+        @Override
+        public String toString() {
+            return "Task{name=" + name + ", priority=" + priority + ", periodMs=" + getPeriod() + ", metrics=" + getMetrics() + "}";
+        }
+    }
+}
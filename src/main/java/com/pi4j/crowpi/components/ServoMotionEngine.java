@@ -0,0 +1,355 @@
+package com.pi4j.crowpi.components;
+
+import com.pi4j.context.Context;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Motion engine which moves servos smoothly along a velocity profile instead of jumping to the target position.
+ * All servos of a Pi4J context share a single periodic task of the {@link SamplingScheduler}, which updates every moving
+ * servo once per PWM frame. Positions are calculated from the time elapsed since the start of a motion, so scheduling
+ * jitter never accumulates into position errors.
+ * <p>
+ * Several servos can be moved together using {@link #moveTogether(Map, float, float, Profile)}, in which case all of
+ * them follow the same normalized profile and therefore start and finish at the same time.
+ */
+public final class ServoMotionEngine {
+    /**
+     * Default period in milliseconds for updating the servo positions, equal to one PWM frame at 50 Hz
+     */
+    private static final long DEFAULT_UPDATE_PERIOD_MS = 20;
+
+    /**
+     * Motion engines of all active Pi4J contexts
+     */
+    private static final Map<Context, ServoMotionEngine> instances = new WeakHashMap<>();
+
+    /**
+     * Scheduler used for running the update task
+     */
+    private final SamplingScheduler scheduler;
+    /**
+     * Active motion of every moving servo, guarded by this engine
+     */
+    private final Map<ServoMotorComponent, Motion> motions = new HashMap<>();
+    /**
+     * Update task or null if no servo is currently moving, guarded by this engine
+     */
+    private SamplingScheduler.Task task;
+
+    /**
+     * Creates a new motion engine which runs its updates on the given scheduler.
+     *
+     * @param scheduler Sampling scheduler
+     */
+    private ServoMotionEngine(SamplingScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the shared motion engine of the given Pi4J context, creating it on first use.
+     *
+     * @param pi4j Pi4J context
+     * @return Shared motion engine of context
+     */
+    public static synchronized ServoMotionEngine getInstance(Context pi4j) {
+        final var scheduler = SamplingScheduler.getInstance(pi4j);
+        final var existing = instances.get(pi4j);
+        if (existing != null && existing.scheduler == scheduler) {
+            return existing;
+        }
+
+        final var engine = new ServoMotionEngine(scheduler);
+        instances.put(pi4j, engine);
+        return engine;
+    }
+
+    /**
+     * Moves a single servo to the given angle.
+     *
+     * @param servo        Servo to move
+     * @param angle        Target angle in degrees, clamped to the range of the servo
+     * @param maxSpeed     Maximum speed in degrees per second
+     * @param acceleration Maximum acceleration in degrees per second squared
+     * @param profile      Velocity profile of the motion
+     * @return Future which completes once the target has been reached
+     * @see #moveTogether(Map, float, float, Profile)
+     */
+    public CompletableFuture<Void> move(ServoMotorComponent servo, float angle, float maxSpeed, float acceleration, Profile profile) {
+        return moveTogether(Map.of(servo, angle), maxSpeed, acceleration, profile);
+    }
+
+    /**
+     * Moves several servos to their target angles in a coordinated way. The speed and acceleration limits apply to the
+     * servo with the longest distance, all other servos are slowed down so that every servo finishes at the same time.
+     * <p>
+     * Any motion which is currently running for one of the given servos gets cancelled, including all other servos
+     * which were part of the same coordinated motion. Those stop at their current position.
+     * Servos whose current position is unknown, because they have not been positioned yet, jump to their target immediately.
+     * The returned future can be cancelled to stop the motion at the current position.
+     *
+     * @param targets      Target angle in degrees per servo, clamped to the range of the respective servo
+     * @param maxSpeed     Maximum speed in degrees per second
+     * @param acceleration Maximum acceleration in degrees per second squared
+     * @param profile      Velocity profile of the motion
+     * @return Future which completes once all targets have been reached
+     */
+    public CompletableFuture<Void> moveTogether(Map<ServoMotorComponent, Float> targets, float maxSpeed, float acceleration, Profile profile) {
+        if (!(maxSpeed > 0) || !(acceleration > 0)) {
+            throw new IllegalArgumentException("Speed and acceleration must be positive");
+        }
+
+        final var future = new CompletableFuture<Void>();
+        final var axes = new ArrayList<Axis>(targets.size());
+        double distance = 0;
+
+        synchronized (this) {
+            for (final var entry : targets.entrySet()) {
+                final var servo = entry.getKey();
+                final float target = servo.clampAngle(entry.getValue());
+                cancel(servo);
+
+                // Jump directly if the current position is unknown
+                final float start = servo.getAngle();
+                if (Float.isNaN(start)) {
+                    servo.applyAngle(target);
+                    continue;
+                }
+
+                axes.add(new Axis(servo, start, target - start));
+                distance = Math.max(distance, Math.abs(target - start));
+            }
+
+            // Nothing to do if all servos are already at their targets
+            if (distance == 0) {
+                for (final var axis : axes) {
+                    axis.servo.applyAngle(axis.start + axis.delta);
+                }
+                future.complete(null);
+                return future;
+            }
+
+            // Register motion for all servos and start the update task if necessary
+            final var motion = new Motion(axes, new Trajectory(profile, distance, maxSpeed, acceleration), future);
+            for (final var axis : axes) {
+                motions.put(axis.servo, motion);
+                axis.servo.setMoving(true);
+            }
+            if (task == null || task.isDone()) {
+                task = scheduler.schedule("ServoMotion", this::update, DEFAULT_UPDATE_PERIOD_MS, SamplingScheduler.PRIORITY_HIGH);
+            }
+        }
+
+        return future;
+    }
+
+    /**
+     * Rotates several servos to the given angles at once, cancelling their motions and writing only the duty cycles
+     * which actually changed. This is intended for high-rate control loops which update several servos per iteration.
+     *
+     * @param angles Angle in degrees per servo, clamped to the range of the respective servo
+     */
+    public synchronized void setAngles(Map<ServoMotorComponent, Float> angles) {
+        for (final var servo : angles.keySet()) {
+            cancel(servo);
+        }
+        for (final var entry : angles.entrySet()) {
+            entry.getKey().applyAngle(entry.getValue());
+        }
+    }
+
+    /**
+     * Stops the motion of the given servo at its current position.
+     * If the servo is part of a coordinated motion, all other servos of that motion get stopped as well.
+     * If the servo is not moving, this method will silently return and do nothing.
+     *
+     * @param servo Servo to stop
+     */
+    public synchronized void stop(ServoMotorComponent servo) {
+        cancel(servo);
+    }
+
+    /**
+     * Cancels the motion of the given servo, must be called while holding the lock of this engine.
+     *
+     * @param servo Servo to stop
+     */
+    private void cancel(ServoMotorComponent servo) {
+        final var motion = motions.get(servo);
+        if (motion != null) {
+            remove(motion);
+            motion.future.cancel(false);
+        }
+    }
+
+    /**
+     * Removes the given motion for all of its servos, must be called while holding the lock of this engine.
+     *
+     * @param motion Motion to remove
+     */
+    private void remove(Motion motion) {
+        for (final var axis : motion.axes) {
+            if (motions.remove(axis.servo, motion)) {
+                axis.servo.setMoving(false);
+            }
+        }
+    }
+
+    /**
+     * Updates the positions of all moving servos, called periodically by the update task.
+     */
+    private synchronized void update() {
+        final long now = System.nanoTime();
+
+        // Collect distinct motions, as coordinated motions are registered for several servos
+        final var active = new ArrayList<Motion>();
+        for (final var motion : motions.values()) {
+            if (!active.contains(motion)) {
+                active.add(motion);
+            }
+        }
+
+        for (final var motion : active) {
+            // Drop motions which have been cancelled through their future
+            if (motion.future.isDone()) {
+                remove(motion);
+                continue;
+            }
+
+            // Move all servos according to the common progress of the motion
+            final double elapsed = (now - motion.startNanos) / 1e9;
+            final double progress = motion.trajectory.progress(elapsed);
+            for (final var axis : motion.axes) {
+                axis.servo.applyAngle((float) (axis.start + axis.delta * progress));
+            }
+
+            if (elapsed >= motion.trajectory.duration) {
+                remove(motion);
+                motion.future.complete(null);
+            }
+        }
+
+        // Stop update task while no servo is moving
+        if (motions.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Velocity profiles for servo motions
+     */
+    public enum Profile {
+        /**
+         * Constant acceleration up to the maximum speed and constant deceleration afterwards
+         */
+        TRAPEZOIDAL,
+        /**
+         * Acceleration rises and falls smoothly, avoiding jerk at the start and end of the acceleration phases
+         */
+        S_CURVE
+    }
+
+    /**
+     * Single servo participating in a motion.
+     *
+     * @param servo Servo to move
+     * @param start Start angle in degrees
+     * @param delta Distance to target angle in degrees, negative when moving towards smaller angles
+     */
+    private record Axis(ServoMotorComponent servo, float start, float delta) {
+    }
+
+    /**
+     * Active motion of one or more servos which share the same trajectory.
+     */
+    private static final class Motion {
+        private final List<Axis> axes;
+        private final Trajectory trajectory;
+        private final CompletableFuture<Void> future;
+        private final long startNanos = System.nanoTime();
+
+        Motion(List<Axis> axes, Trajectory trajectory, CompletableFuture<Void> future) {
+            this.axes = axes;
+            this.trajectory = trajectory;
+            this.future = future;
+        }
+    }
+
+    /**
+     * Precalculated symmetric velocity profile over a given distance, consisting of an acceleration phase,
+     * an optional phase at constant speed and a deceleration phase.
+     */
+    private static final class Trajectory {
+        private final Profile profile;
+        private final double distance;
+        private final double peakSpeed;
+        private final double accelerationTime;
+        private final double accelerationDistance;
+        private final double duration;
+
+        Trajectory(Profile profile, double distance, double maxSpeed, double acceleration) {
+            this.profile = profile;
+            this.distance = distance;
+
+            // The S-curve uses a sine-shaped acceleration, which requires a longer phase to respect the same peak acceleration
+            final double timeFactor = profile == Profile.S_CURVE ? Math.PI / 2 : 1;
+
+            // Reduce peak speed if the distance is too short for reaching the maximum speed
+            double peakSpeed = maxSpeed;
+            if (peakSpeed * peakSpeed * timeFactor / acceleration > distance) {
+                peakSpeed = Math.sqrt(distance * acceleration / timeFactor);
+            }
+
+            // Both profiles cover half of the peak speed times the phase duration while accelerating
+            this.peakSpeed = peakSpeed;
+            this.accelerationTime = peakSpeed * timeFactor / acceleration;
+            this.accelerationDistance = peakSpeed * accelerationTime / 2;
+            this.duration = 2 * accelerationTime + (distance - 2 * accelerationDistance) / peakSpeed;
+        }
+
+        /**
+         * Calculates the progress of the motion at the given time.
+         *
+         * @param time Time in seconds since start of motion
+         * @return Progress between 0 (start) and 1 (target)
+         */
+        double progress(double time) {
+            if (time <= 0) {
+                return 0;
+            }
+            if (time >= duration) {
+                return 1;
+            }
+
+            final double position;
+            if (time < accelerationTime) {
+                position = accelerate(time);
+            } else if (time > duration - accelerationTime) {
+                position = distance - accelerate(duration - time);
+            } else {
+                position = accelerationDistance + peakSpeed * (time - accelerationTime);
+            }
+            return position / distance;
+        }
+
+        /**
+         * Calculates the distance covered after the given time within the acceleration phase.
+         *
+         * @param time Time in seconds since start of acceleration
+         * @return Covered distance
+         */
+        private double accelerate(double time) {
+            if (profile == Profile.S_CURVE) {
+                // Velocity follows a raised cosine from zero to peak speed
+                return peakSpeed / 2 * (time - accelerationTime / Math.PI * Math.sin(Math.PI * time / accelerationTime));
+            }
+            return peakSpeed / accelerationTime / 2 * time * time;
+        }
+    }
+}
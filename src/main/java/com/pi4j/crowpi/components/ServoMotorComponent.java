@@ -4,6 +4,8 @@ import com.pi4j.context.Context;
 import com.pi4j.io.pwm.Pwm;
 import com.pi4j.io.pwm.PwmConfig;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Implementation of the CrowPi Servo Motor using PWM with Pi4J
  */
@@ -35,6 +37,11 @@ public class ServoMotorComponent extends Component {
      */
     protected final static float DEFAULT_MAX_DUTY_CYCLE = 12;
 
+    /**
+     * Number of quantization steps of the duty cycle lookup table, resulting in 0.1 degrees with the default angle range
+     */
+    private final static int DUTY_CYCLE_STEPS = 1800;
+
     /**
      * Pi4J PWM instance for this servo
      */
@@ -57,6 +64,37 @@ public class ServoMotorComponent extends Component {
      */
     private final float maxDutyCycle;
 
+    /**
+     * Lower and upper bound of the angle range, independent of the order of {@link #minAngle} and {@link #maxAngle}
+     */
+    private final float lowAngle;
+    private final float highAngle;
+    /**
+     * Precomputed duty cycle for every quantized angle between {@link #lowAngle} and {@link #highAngle}
+     */
+    private final float[] dutyCycleTable;
+    /**
+     * Duty cycle which has last been written to the PWM or NaN if none, guarded by this servo
+     */
+    private float dutyCycle = Float.NaN;
+    /**
+     * Number of PWM updates which have been skipped as the duty cycle did not change, guarded by this servo
+     */
+    private long suppressedUpdates;
+
+    /**
+     * Motion engine used for smooth movements of this servo
+     */
+    private final ServoMotionEngine motionEngine;
+    /**
+     * Last angle this servo has been moved to or NaN if unknown
+     */
+    private volatile float angle = Float.NaN;
+    /**
+     * Specifies if this servo is currently moved by the motion engine
+     */
+    private volatile boolean moving;
+
     /**
      * Minimum value for user-defined range, defaults to 0
      */
@@ -106,6 +144,10 @@ public class ServoMotorComponent extends Component {
         this.maxAngle = maxAngle;
         this.minDutyCycle = minDutyCycle;
         this.maxDutyCycle = maxDutyCycle;
+        this.lowAngle = Math.min(minAngle, maxAngle);
+        this.highAngle = Math.max(minAngle, maxAngle);
+        this.dutyCycleTable = buildDutyCycleTable(minDutyCycle, maxDutyCycle);
+        this.motionEngine = ServoMotionEngine.getInstance(pi4j);
     }
 
     /**
@@ -116,7 +158,65 @@ public class ServoMotorComponent extends Component {
      * @param angle New absolute angle
      */
     public void setAngle(float angle) {
-        pwm.on(mapAngleToDutyCycle(angle));
+        stopMotion();
+        applyAngle(angle);
+    }
+
+    /**
+     * Moves the servo smoothly to the specified angle using a trapezoidal velocity profile.
+     *
+     * @param angle        Target angle in degrees, automatically clamped between {@link #getMinAngle()} and {@link #getMaxAngle()}
+     * @param maxSpeed     Maximum speed in degrees per second
+     * @param acceleration Maximum acceleration in degrees per second squared
+     * @return Future which completes once the target has been reached
+     * @see #moveTo(float, float, float, ServoMotionEngine.Profile)
+     */
+    public CompletableFuture<Void> moveTo(float angle, float maxSpeed, float acceleration) {
+        return moveTo(angle, maxSpeed, acceleration, ServoMotionEngine.Profile.TRAPEZOIDAL);
+    }
+
+    /**
+     * Moves the servo smoothly to the specified angle in the background, limiting speed and acceleration.
+     * Any previous motion of this servo gets cancelled. If the current position is unknown, because the servo has not been
+     * positioned since its creation, the servo jumps to the target immediately.
+     * The returned future can be cancelled to stop the servo at its current position.
+     *
+     * @param angle        Target angle in degrees, automatically clamped between {@link #getMinAngle()} and {@link #getMaxAngle()}
+     * @param maxSpeed     Maximum speed in degrees per second
+     * @param acceleration Maximum acceleration in degrees per second squared
+     * @param profile      Velocity profile of the motion
+     * @return Future which completes once the target has been reached
+     */
+    public CompletableFuture<Void> moveTo(float angle, float maxSpeed, float acceleration, ServoMotionEngine.Profile profile) {
+        return motionEngine.move(this, angle, maxSpeed, acceleration, profile);
+    }
+
+    /**
+     * Stops the current motion of this servo at its current position.
+     * If the servo is not moving, this method will silently return and do nothing.
+     */
+    public void stopMotion() {
+        if (moving) {
+            motionEngine.stop(this);
+        }
+    }
+
+    /**
+     * Checks if this servo is currently being moved by {@link #moveTo(float, float, float)}.
+     *
+     * @return True if moving, otherwise false
+     */
+    public boolean isMoving() {
+        return moving;
+    }
+
+    /**
+     * Returns the angle this servo has last been moved to.
+     *
+     * @return Current angle in degrees or NaN if the servo has not been positioned yet
+     */
+    public float getAngle() {
+        return angle;
     }
 
     /**
@@ -148,7 +248,13 @@ public class ServoMotorComponent extends Component {
      * @param maxValue Maximum range value
      */
     public void moveOnRange(float value, float minValue, float maxValue) {
-        pwm.on(mapToDutyCycle(value, minValue, maxValue));
+        stopMotion();
+
+        // Map value onto the angle range, automatically swapping an inverted input range and clamping the value
+        final float low = Math.min(minValue, maxValue);
+        final float high = Math.max(minValue, maxValue);
+        final float fraction = high > low ? (Math.min(high, Math.max(low, value)) - low) / (high - low) : 0;
+        applyAngle(lowAngle + fraction * (highAngle - lowAngle));
     }
 
     /**
@@ -182,55 +288,89 @@ public class ServoMotorComponent extends Component {
     }
 
     /**
-     * Helper function to map an angle between {@link #minAngle} and {@link #maxAngle} to the configured duty cycle range.
+     * Rotates the servo to the specified angle without affecting a running motion, used by the motion engine.
      *
-     * @param angle Desired angle
-     * @return Duty cycle required to achieve this position
+     * @param angle New absolute angle, automatically clamped
      */
-    private float mapAngleToDutyCycle(float angle) {
-        return mapToDutyCycle(angle, minAngle, maxAngle);
+    void applyAngle(float angle) {
+        final float clampedAngle = clampAngle(angle);
+        updateDutyCycle(lookupDutyCycle(clampedAngle));
+        this.angle = clampedAngle;
     }
 
     /**
-     * Helper function to map an input value between a specified range to the configured duty cycle range.
+     * Writes the given duty cycle to the PWM unless it equals the previously written one.
      *
-     * @param input      Value to map
-     * @param inputStart Minimum value for custom range
-     * @param inputEnd   Maximum value for custom range
-     * @return Duty cycle required to achieve this position
+     * @param dutyCycle New duty cycle
      */
-    private float mapToDutyCycle(float input, float inputStart, float inputEnd) {
-        return mapRange(input, inputStart, inputEnd, minDutyCycle, maxDutyCycle);
+    private synchronized void updateDutyCycle(float dutyCycle) {
+        if (dutyCycle == this.dutyCycle) {
+            suppressedUpdates++;
+            return;
+        }
+        pwm.on(dutyCycle);
+        this.dutyCycle = dutyCycle;
     }
 
     /**
-     * Helper function to map an input value from its input range to a possibly different output range.
+     * Returns the number of PWM updates which have been skipped because the duty cycle did not change.
      *
-     * @param input       Input value to map
-     * @param inputStart  Minimum value for input
-     * @param inputEnd    Maximum value for input
-     * @param outputStart Minimum value for output
-     * @param outputEnd   Maximum value for output
-     * @return Mapped input value
-     */
-    private static float mapRange(float input, float inputStart, float inputEnd, float outputStart, float outputEnd) {
-        // Automatically swap minimum/maximum of input if inverted
-        if (inputStart > inputEnd) {
-            final float tmp = inputEnd;
-            inputEnd = inputStart;
-            inputStart = tmp;
-        }
+     * @return Number of suppressed updates
+     */
+    protected synchronized long getSuppressedUpdates() {
+        return suppressedUpdates;
+    }
+
+    /**
+     * Marks this servo as being moved by the motion engine or not.
+     *
+     * @param moving True if a motion is active, otherwise false
+     */
+    void setMoving(boolean moving) {
+        this.moving = moving;
+    }
 
-        // Automatically swap minimum/maximum of output if inverted
-        if (outputStart > outputEnd) {
-            final float tmp = outputEnd;
-            outputEnd = outputStart;
-            outputStart = tmp;
+    /**
+     * Helper function to clamp an angle between {@link #minAngle} and {@link #maxAngle}, supporting inverted ranges.
+     *
+     * @param angle Angle to clamp
+     * @return Clamped angle
+     */
+    float clampAngle(float angle) {
+        return Math.min(highAngle, Math.max(lowAngle, angle));
+    }
+
+    /**
+     * Helper function to look up the duty cycle for an angle between {@link #lowAngle} and {@link #highAngle}.
+     * The angle gets quantized to the nearest entry of the lookup table.
+     *
+     * @param angle Clamped angle
+     * @return Duty cycle required to achieve this position
+     */
+    private float lookupDutyCycle(float angle) {
+        if (highAngle <= lowAngle) {
+            return dutyCycleTable[0];
         }
+        return dutyCycleTable[Math.round((angle - lowAngle) / (highAngle - lowAngle) * DUTY_CYCLE_STEPS)];
+    }
 
-        // Automatically clamp the input value and calculate the mapped value
-        final float clampedInput = Math.min(inputEnd, Math.max(inputStart, input));
-        return outputStart + ((outputEnd - outputStart) / (inputEnd - inputStart)) * (clampedInput - inputStart);
+    /**
+     * Builds the lookup table which maps quantized angles to duty cycles. The lowest angle always maps to the lower duty
+     * cycle, so an inverted duty cycle range gets swapped automatically.
+     *
+     * @param minDutyCycle Minimum duty cycle
+     * @param maxDutyCycle Maximum duty cycle
+     * @return Duty cycle for every quantization step
+     */
+    private static float[] buildDutyCycleTable(float minDutyCycle, float maxDutyCycle) {
+        final double lowDutyCycle = Math.min(minDutyCycle, maxDutyCycle);
+        final double highDutyCycle = Math.max(minDutyCycle, maxDutyCycle);
+
+        final var table = new float[DUTY_CYCLE_STEPS + 1];
+        for (int i = 0; i <= DUTY_CYCLE_STEPS; i++) {
+            table[i] = (float) (lowDutyCycle + (highDutyCycle - lowDutyCycle) * i / DUTY_CYCLE_STEPS);
+        }
+        return table;
     }
 
     /**
@@ -1,14 +1,21 @@
 package com.pi4j.crowpi.components;
 
 import com.pi4j.context.Context;
+import com.pi4j.crowpi.components.helpers.TimingHelpers;
 import com.pi4j.io.gpio.digital.DigitalOutput;
 import com.pi4j.io.gpio.digital.DigitalOutputConfig;
 import com.pi4j.io.gpio.digital.DigitalState;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Implementation of the CrowPi Step Motor using GPIO with Pi4J
+ * <p>
+ * Besides the blocking {@link #turnForward(int)} and {@link #turnBackward(int)} methods, this component offers an asynchronous
+ * motion controller using {@link #moveTo(long)} and {@link #moveBy(long)}. Its position is measured in single entries of the
+ * step sequence, which equals half steps when using the default sequence. Motions accelerate and decelerate with the
+ * configured acceleration and are timed by a dedicated high-priority thread, which only exists while the motor is moving.
  */
 public class StepMotorComponent extends Component {
     /**
@@ -34,23 +41,61 @@ public class StepMotorComponent extends Component {
      * Default duration in milliseconds when pulsing one step, increasing this value makes the step motor turn slower.
      */
     private static final long DEFAULT_PULSE_MILLISECONDS = 1;
+    /**
+     * Default maximum speed of the motion controller in sequence entries per second
+     */
+    private static final double DEFAULT_MAX_SPEED = 800;
+    /**
+     * Default acceleration of the motion controller in sequence entries per second squared
+     */
+    private static final double DEFAULT_ACCELERATION = 4000;
 
     /**
      * Desired pulse duration in milliseconds when executing a single step
      */
     private final long pulseMilliseconds;
     /**
-     * Array of digital outputs used by this component, can be contained within {@link #stepsForward} or {@link #stepsBackward}
+     * Array of digital outputs used by this component, referenced by their index within {@link #stepOutputs} and {@link #stepPatterns}
      */
     private final DigitalOutput[] digitalOutputs;
     /**
-     * Pre-generated list of forward steps, containing a set of all digital outputs which need to be pulsed for each step
+     * Pre-generated forward steps, containing the indices of all digital outputs which need to be pulsed for each step in order
+     */
+    private final int[][] stepOutputs;
+    /**
+     * Pre-generated forward steps as packed bitmasks, where bit N represents the digital output with index N
+     */
+    private final int[] stepPatterns;
+    /**
+     * Mode used for switching the outputs between steps
+     */
+    private volatile DriveMode driveMode = DriveMode.PULSE;
+    /**
+     * Bitmask of the outputs which are currently driven high when switching directly between patterns
+     */
+    private int activePattern;
+
+    /**
+     * Maximum speed and acceleration of the motion controller
+     */
+    private volatile double maxSpeed = DEFAULT_MAX_SPEED;
+    private volatile double acceleration = DEFAULT_ACCELERATION;
+    /**
+     * Current position in sequence entries, only written while holding the lock of this component
+     */
+    private volatile long position;
+    /**
+     * Target position of the active motion, guarded by this component
+     */
+    private long targetPosition;
+    /**
+     * Future of the active motion or null if not moving, guarded by this component
      */
-    private final List<Set<DigitalOutput>> stepsForward;
+    private CompletableFuture<Void> motion;
     /**
-     * Pre-generated list of backward steps, always equal to {@link #stepsForward} in reversed order.
+     * Thread executing the active motion or null if not moving, guarded by this component
      */
-    private final List<Set<DigitalOutput>> stepsBackward;
+    private Thread driverThread;
 
     /**
      * Creates a new step motor component with the default pins, steps and pulse duration.
@@ -75,6 +120,9 @@ public class StepMotorComponent extends Component {
      */
     public StepMotorComponent(Context pi4j, int[] addresses, int[][] steps, long pulseMilliseconds) {
         this.pulseMilliseconds = pulseMilliseconds;
+        if (addresses.length > Integer.SIZE) {
+            throw new IllegalArgumentException("At most " + Integer.SIZE + " outputs are supported");
+        }
 
         // Initialize digital outputs
         this.digitalOutputs = new DigitalOutput[addresses.length];
@@ -82,31 +130,32 @@ public class StepMotorComponent extends Component {
             this.digitalOutputs[i] = pi4j.create(buildDigitalOutputConfig(pi4j, addresses[i]));
         }
 
-        // Transform two-dimensional array with steps into List<Set<DigitalOutput>>
+        // Compile two-dimensional array with steps into output indices and packed bitmasks
         // The first dimension of the array indicates which step is being described
         // The second dimension of the array indicates which outputs (referenced by their index) should be driven
-        this.stepsForward = new ArrayList<>();
-        for (final var step : steps) {
-            // Generate set of outputs driven as part of this step
-            final var stepOutputs = new LinkedHashSet<DigitalOutput>();
-            for (final var outputIndex : step) {
+        this.stepOutputs = new int[steps.length][];
+        this.stepPatterns = new int[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            // Collect distinct outputs driven as part of this step, keeping their order
+            int pattern = 0;
+            final var outputs = new int[steps[i].length];
+            int outputCount = 0;
+            for (final var outputIndex : steps[i]) {
                 // Ensure output index is within bounds
-                if (outputIndex < 0 || outputIndex > this.digitalOutputs.length) {
-                    throw new IllegalArgumentException("Output index must be between 0 and " + this.digitalOutputs.length);
+                if (outputIndex < 0 || outputIndex >= this.digitalOutputs.length) {
+                    throw new IllegalArgumentException("Output index must be between 0 and " + (this.digitalOutputs.length - 1));
                 }
 
-                // Add specified output to set
-                stepOutputs.add(this.digitalOutputs[outputIndex]);
+                // Add specified output unless already contained
+                if ((pattern & (1 << outputIndex)) == 0) {
+                    pattern |= 1 << outputIndex;
+                    outputs[outputCount++] = outputIndex;
+                }
             }
 
-            // Add collected step outputs to list of steps
-            this.stepsForward.add(stepOutputs);
+            this.stepOutputs[i] = Arrays.copyOf(outputs, outputCount);
+            this.stepPatterns[i] = pattern;
         }
-
-        // Generate list of reversed steps
-        this.stepsBackward = new ArrayList<>();
-        this.stepsBackward.addAll(this.stepsForward);
-        Collections.reverse(this.stepsBackward);
     }
 
     /**
@@ -126,47 +175,295 @@ public class StepMotorComponent extends Component {
 
     /**
      * Turns the step motor forward for the given amount of steps.
+     * Any active motion gets stopped first and this method waits until its driver has released the outputs.
      *
      * @param steps Steps to turn forward
      */
-    public void turnForward(int steps) {
-        turn(steps, stepsForward);
+    public synchronized void turnForward(int steps) {
+        if (stopDriver()) {
+            turn(steps, true);
+            position += (long) steps * stepPatterns.length;
+        }
     }
 
     /**
      * Turns the step motor backward for the given amount of steps.
+     * Any active motion gets stopped first and this method waits until its driver has released the outputs.
      *
      * @param steps Steps to turn backward
      */
-    public void turnBackward(int steps) {
-        turn(steps, stepsBackward);
+    public synchronized void turnBackward(int steps) {
+        if (stopDriver()) {
+            turn(steps, false);
+            position -= (long) steps * stepPatterns.length;
+        }
+    }
+
+    /**
+     * Moves the step motor asynchronously to the given absolute position, accelerating and decelerating as configured.
+     * If the motor is already moving, the previous motion gets cancelled and the motor continues towards the new target
+     * without stopping, decelerating first if the direction changes.
+     * The returned future can be cancelled to stop the motor immediately at its current position.
+     *
+     * @param position Target position in sequence entries
+     * @return Future which completes once the target has been reached
+     */
+    public synchronized CompletableFuture<Void> moveTo(long position) {
+        // Replace previous motion, the driver continues with the new target
+        if (this.motion != null) {
+            this.motion.cancel(false);
+        }
+        final var future = new CompletableFuture<Void>();
+        this.motion = future;
+        this.targetPosition = position;
+
+        // Start driver thread if not running yet
+        if (this.driverThread == null) {
+            this.driverThread = new Thread(new Driver(), "StepMotor-Driver");
+            this.driverThread.setPriority(Thread.MAX_PRIORITY);
+            this.driverThread.setDaemon(true);
+            this.driverThread.start();
+        }
+        return future;
     }
 
     /**
-     * Turns the step motor for the given amount of steps using the provided step data.
+     * Moves the step motor asynchronously by the given amount relative to its current target or position.
      *
-     * @param count Amount of steps to be turned
-     * @param steps List of steps with associated digital outputs to iterate through
+     * @param distance Distance in sequence entries, negative values move backward
+     * @return Future which completes once the target has been reached
+     * @see #moveTo(long)
      */
-    private void turn(int count, List<Set<DigitalOutput>> steps) {
+    public synchronized CompletableFuture<Void> moveBy(long distance) {
+        return moveTo((motion != null ? targetPosition : position) + distance);
+    }
+
+    /**
+     * Stops the active motion immediately at the current position.
+     * If the motor is not moving, this method will silently return and do nothing.
+     */
+    public synchronized void stopMotion() {
+        if (this.motion != null) {
+            this.motion.cancel(false);
+            this.motion = null;
+        }
+    }
+
+    /**
+     * Stops the active motion and waits until the driver thread has exited, must be called while holding the lock of this component.
+     * If the current thread gets interrupted while waiting, the interrupt flag is restored and false is returned.
+     *
+     * @return True if no driver thread is running anymore, otherwise false
+     */
+    private boolean stopDriver() {
+        stopMotion();
+        while (this.driverThread != null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the motion controller is currently moving the motor.
+     *
+     * @return True if moving, otherwise false
+     */
+    public synchronized boolean isMoving() {
+        return this.driverThread != null;
+    }
+
+    /**
+     * Returns the current position of the motor in sequence entries.
+     *
+     * @return Current position
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Redefines the current position of the motor, e.g. after homing.
+     *
+     * @param position New current position in sequence entries
+     * @throws IllegalStateException Motor is currently moving
+     */
+    public synchronized void setPosition(long position) {
+        if (isMoving()) {
+            throw new IllegalStateException("Position can not be changed while the motor is moving");
+        }
+        this.position = position;
+    }
+
+    /**
+     * Sets the maximum speed of the motion controller.
+     *
+     * @param maxSpeed Maximum speed in sequence entries per second
+     */
+    public void setMaxSpeed(double maxSpeed) {
+        if (!(maxSpeed > 0)) {
+            throw new IllegalArgumentException("Maximum speed must be positive");
+        }
+        this.maxSpeed = maxSpeed;
+    }
+
+    /**
+     * Returns the maximum speed of the motion controller.
+     *
+     * @return Maximum speed in sequence entries per second
+     */
+    public double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    /**
+     * Sets the acceleration which is used for speeding up and slowing down.
+     *
+     * @param acceleration Acceleration in sequence entries per second squared
+     */
+    public void setAcceleration(double acceleration) {
+        if (!(acceleration > 0)) {
+            throw new IllegalArgumentException("Acceleration must be positive");
+        }
+        this.acceleration = acceleration;
+    }
+
+    /**
+     * Returns the acceleration which is used for speeding up and slowing down.
+     *
+     * @return Acceleration in sequence entries per second squared
+     */
+    public double getAcceleration() {
+        return acceleration;
+    }
+
+    /**
+     * Sets the mode used for switching the outputs between steps.
+     *
+     * @param driveMode New drive mode
+     */
+    public void setDriveMode(DriveMode driveMode) {
+        this.driveMode = driveMode;
+    }
+
+    /**
+     * Returns the mode used for switching the outputs between steps.
+     *
+     * @return Current drive mode
+     */
+    public DriveMode getDriveMode() {
+        return driveMode;
+    }
+
+    /**
+     * Turns the step motor for the given amount of steps using the compiled step data.
+     * The sequence continues from the phase of the current position, just like the motion controller does, so
+     * mixing both ways of moving never skips any entries. The position itself must be updated by the caller.
+     *
+     * @param count   Amount of steps to be turned
+     * @param forward True to iterate the steps in forward order, false for backward order
+     */
+    private void turn(int count, boolean forward) {
+        final var mode = driveMode;
+        final int length = stepPatterns.length;
+        final int phase = (int) Math.floorMod(position, (long) length);
+
         // Loop to reach desired count of steps
         for (int i = 0; i < count; i++) {
-            // Iterate through all known steps
-            for (final var step : steps) {
-                // Turn all outputs for the current step to HIGH
-                for (final var output : step) {
-                    output.high();
-                }
+            // Iterate through all known steps, starting with the entry next to the current phase
+            for (int j = 1; j <= length; j++) {
+                final int step = Math.floorMod(forward ? phase + j : phase - j, length);
+                if (mode == DriveMode.DIRECT) {
+                    // Switch directly to the next pattern and hold it for the given duration
+                    applyPattern(stepPatterns[step]);
+                    sleep(pulseMilliseconds);
+                } else {
+                    // Turn all outputs for the current step to HIGH
+                    for (final int output : stepOutputs[step]) {
+                        digitalOutputs[output].high();
+                    }
 
-                // Sleep for the given duration in milliseconds
-                sleep(pulseMilliseconds);
+                    // Sleep for the given duration in milliseconds
+                    sleep(pulseMilliseconds);
 
-                // Turn all outputs for the current step to LOW
-                for (final var output : step) {
-                    output.low();
+                    // Turn all outputs for the current step to LOW
+                    for (final int output : stepOutputs[step]) {
+                        digitalOutputs[output].low();
+                    }
                 }
             }
         }
+
+        // Release all outputs after the last step
+        applyPattern(0);
+    }
+
+    /**
+     * Executes a single step towards the given position without any ramp, used by {@link MotionCoordinator}.
+     * Does nothing if the position has already been reached or the motion controller is currently moving the motor.
+     *
+     * @param target Target position in sequence entries
+     */
+    synchronized void stepTowards(long target) {
+        if (driverThread != null || target == position) {
+            return;
+        }
+        position += Long.signum(target - position);
+        driveStep((int) Math.floorMod(position, (long) stepPatterns.length));
+    }
+
+    /**
+     * Turns off all outputs unless the motion controller is currently moving the motor, used by {@link MotionCoordinator}.
+     */
+    synchronized void releaseOutputs() {
+        if (driverThread == null) {
+            driveStep(-1);
+        }
+    }
+
+    /**
+     * Drives the outputs of the given step of the forward sequence, must be called while holding the lock of this component.
+     * In {@link DriveMode#PULSE} the previous outputs are turned off before the next ones are turned on,
+     * whereas {@link DriveMode#DIRECT} only toggles the outputs which differ between both steps.
+     *
+     * @param step Index within forward sequence or -1 to turn off all outputs
+     */
+    private void driveStep(int step) {
+        final int pattern = step >= 0 ? stepPatterns[step] : 0;
+        if (driveMode == DriveMode.PULSE) {
+            applyPattern(0);
+        }
+        applyPattern(pattern);
+    }
+
+    /**
+     * Switches the outputs from the currently active pattern to the given one, only toggling outputs which differ.
+     * New outputs are turned on before old ones are turned off, so there is no gap without any energized coil.
+     *
+     * @param pattern Bitmask of outputs to drive high
+     */
+    private void applyPattern(int pattern) {
+        final int changed = pattern ^ activePattern;
+
+        // Turn on all outputs which are part of the new pattern only
+        int on = changed & pattern;
+        while (on != 0) {
+            digitalOutputs[Integer.numberOfTrailingZeros(on)].high();
+            on &= on - 1;
+        }
+
+        // Turn off all outputs which are part of the old pattern only
+        int off = changed & ~pattern;
+        while (off != 0) {
+            digitalOutputs[Integer.numberOfTrailingZeros(off)].low();
+            off &= off - 1;
+        }
+
+        activePattern = pattern;
     }
 
     /**
@@ -194,4 +491,98 @@ public class StepMotorComponent extends Component {
             .shutdown(DigitalState.LOW)
             .build();
     }
+
+    /**
+     * Modes for switching the outputs between two consecutive steps
+     */
+    public enum DriveMode {
+        /**
+         * Every step pulses its outputs and turns all of them off again before the next step
+         */
+        PULSE,
+        /**
+         * Outputs stay on until the next step and only outputs which differ between both steps are toggled
+         */
+        DIRECT
+    }
+
+    /**
+     * Driver which executes the motion of the motor on a dedicated thread.
+     * The speed is adjusted once per step: it grows by the configured acceleration, is limited by the maximum speed and
+     * by the speed from which the motor can still stop at the target. The driver exits once the motor has come to a
+     * standstill at the target or the motion has been cancelled.
+     */
+    private final class Driver implements Runnable {
+        @Override
+        public void run() {
+            double speed = 0;
+            int direction = 0;
+            long lastStepNanos = System.nanoTime();
+
+            while (true) {
+                final CompletableFuture<Void> future;
+                final long distance;
+                synchronized (StepMotorComponent.this) {
+                    future = motion;
+                    if (future == null || future.isDone()) {
+                        finish();
+                        return;
+                    }
+                    distance = targetPosition - position;
+                }
+
+                // Calculate speed and direction for the next step
+                final double accel = acceleration;
+                final double minSpeed = Math.sqrt(2 * accel);
+                final int desiredDirection = Long.signum(distance);
+                if (direction != 0 && desiredDirection != direction) {
+                    // Slow down before reversing or stopping, as the motor would otherwise lose steps
+                    speed = Math.sqrt(Math.max(0, speed * speed - 2 * accel));
+                    if (speed < minSpeed) {
+                        speed = 0;
+                        direction = 0;
+                        continue;
+                    }
+                } else if (desiredDirection == 0) {
+                    // Target reached at standstill
+                    synchronized (StepMotorComponent.this) {
+                        if (motion == future) {
+                            motion = null;
+                            future.complete(null);
+                        }
+                    }
+                    continue;
+                } else {
+                    // Start timing from now when starting from standstill
+                    if (direction == 0) {
+                        lastStepNanos = System.nanoTime();
+                    }
+                    direction = desiredDirection;
+                    speed = Math.min(maxSpeed, Math.min(Math.sqrt(speed * speed + 2 * accel), Math.sqrt(2 * accel * Math.abs(distance))));
+                }
+
+                // Wait for the next step and execute it unless the motion has been cancelled in the meantime
+                lastStepNanos += (long) (1e9 / speed);
+                TimingHelpers.waitUntil(lastStepNanos);
+                synchronized (StepMotorComponent.this) {
+                    if (motion == null || motion.isDone()) {
+                        continue;
+                    }
+                    position += direction;
+                    driveStep((int) Math.floorMod(position, (long) stepPatterns.length));
+                }
+            }
+        }
+
+        /**
+         * Turns off all outputs and marks the driver as stopped, must be called while holding the lock of the component.
+         * Wakes up any blocking turn which waits for the driver to exit.
+         */
+        private void finish() {
+            driveStep(-1);
+            motion = null;
+            driverThread = null;
+            StepMotorComponent.this.notifyAll();
+        }
+    }
 }
@@ -5,9 +5,6 @@ import com.pi4j.crowpi.components.events.SimpleEventHandler;
 import com.pi4j.crowpi.components.exceptions.MeasurementException;
 import com.pi4j.io.gpio.digital.*;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -17,13 +14,13 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class UltrasonicDistanceSensorComponent extends Component {
     /**
-     * Scheduler instance for running the poller thread.
+     * Shared sampling scheduler for running the poller.
      */
-    private final ScheduledExecutorService scheduler;
+    private final SamplingScheduler scheduler;
     /**
-     * Active poller thread or null if currently not running.
+     * Active poller task or null if currently not running.
      */
-    private ScheduledFuture<?> poller;
+    private SamplingScheduler.Task poller;
 
     /**
      * Atomic simple event handler for "objectFound" and "objectDisappeared" event.
@@ -93,7 +90,7 @@ public class UltrasonicDistanceSensorComponent extends Component {
         this.objectDisappearedHandler = new AtomicReference<>();
         this.state = new AtomicBoolean(false);
 
-        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.scheduler = SamplingScheduler.getInstance(pi4j);
         this.temperature = DEFAULT_TEMPERATURE;
     }
 
@@ -142,9 +139,9 @@ public class UltrasonicDistanceSensorComponent extends Component {
      */
     protected synchronized void startPoller(long pollerPeriodMs) {
         if (this.poller != null) {
-            this.poller.cancel(true);
+            this.poller.cancel();
         }
-        this.poller = scheduler.scheduleAtFixedRate(new Poller(), 0, pollerPeriodMs, TimeUnit.MILLISECONDS);
+        this.poller = scheduler.schedule("UltrasonicDistanceSensor", new Poller(), pollerPeriodMs, SamplingScheduler.PRIORITY_NORMAL);
     }
 
     /**
@@ -153,17 +150,17 @@ public class UltrasonicDistanceSensorComponent extends Component {
      */
     protected synchronized void stopPoller() {
         if (this.poller != null && objectDisappearedHandler.get() == null && objectFoundHandler.get() == null) {
-            this.poller.cancel(true);
+            this.poller.cancel();
             this.poller = null;
         }
     }
 
     /**
-     * Returns the internal scheduled future for the poller thread or null if currently stopped.
+     * Returns the internal sampling task of the poller or null if currently stopped.
      *
      * @return Active poller instance or null
      */
-    protected ScheduledFuture<?> getPoller() {
+    protected SamplingScheduler.Task getPoller() {
         return this.poller;
     }
 
@@ -333,9 +330,9 @@ public class UltrasonicDistanceSensorComponent extends Component {
     }
 
     /**
-     * Poller class which implements {@link Runnable} to be used with {@link ScheduledExecutorService} for repeated execution.
+     * Poller class which implements {@link Runnable} to be used with {@link SamplingScheduler} for repeated execution.
      * This poller consecutively starts a measurement and checks if it's in range of object
-     * Additionally, simple event handlers will be triggered during state transitions.
+     * Additionally, simple event handlers will be triggered asynchronously during state transitions.
      */
     private final class Poller implements Runnable {
         @Override
@@ -358,11 +355,11 @@ public class UltrasonicDistanceSensorComponent extends Component {
                 return;
             }
 
-            // Fire events if the state changed
+            // Fire events asynchronously if the state changed
             if (newState) {
-                triggerSimpleEvent(objectFoundHandler.get());
+                scheduler.dispatch(UltrasonicDistanceSensorComponent.this, objectFoundHandler.get());
             } else {
-                triggerSimpleEvent(objectDisappearedHandler.get());
+                scheduler.dispatch(UltrasonicDistanceSensorComponent.this, objectDisappearedHandler.get());
             }
         }
     }
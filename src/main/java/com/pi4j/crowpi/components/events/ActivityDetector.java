@@ -0,0 +1,298 @@
+package com.pi4j.crowpi.components.events;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Generic event handler which measures the rate of events within a sliding time window, e.g. the number of noises
+ * reported by a sound sensor, motions detected by a PIR sensor or flapping of a tilt sensor. Any instance should be
+ * registered in a component using {@link EventProvider#addListener(EventHandler)} to actually receive events.
+ * <p>
+ * Based on the measured rate, two kinds of simple events can be triggered:
+ * <ul>
+ *     <li>Burst: a given number of events occurred within the window. The event fires once and re-arms as soon as the
+ *     rate has dropped below the threshold again.</li>
+ *     <li>Sustained activity: the window contained at least a given number of events continuously for a given duration.
+ *     The event fires once per period of activity.</li>
+ * </ul>
+ * Timestamps are stored in a primitive ring buffer, so recording an event neither locks nor allocates.
+ * Events must be delivered by a single thread at a time, which is the case for all Pi4J listeners of an input,
+ * whereas {@link #getCount()} and {@link #getRate()} may be called from any thread.
+ *
+ * @param <V> Type of value which gets passed to event handlers.
+ */
+public final class ActivityDetector<V> implements EventHandler<V> {
+    /**
+     * Default maximum number of events which are retained within the window
+     */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Length of the sliding window in nanoseconds
+     */
+    private final long windowNanos;
+    /**
+     * Maximum number of events which are retained within the window
+     */
+    private final int capacity;
+    /**
+     * Filter deciding which values are counted or null to count all values
+     */
+    private final Predicate<V> filter;
+    /**
+     * Timestamps of all retained events, indexed by event number modulo array length.
+     * The array contains one additional slot for the event which is currently being written.
+     */
+    private final long[] timestamps;
+
+    /**
+     * Total number of recorded events, only written by the event thread
+     */
+    private volatile long count;
+    /**
+     * Number of the oldest event within the window at the time of the last event, only written by the event thread
+     */
+    private volatile long windowStart;
+
+    /**
+     * Settings of the burst event or null if disabled
+     */
+    private volatile Burst burst;
+    /**
+     * Specifies if the burst event has fired and not been re-armed yet, only accessed by the event thread
+     */
+    private boolean burstActive;
+    /**
+     * Settings of the sustained activity event or null if disabled
+     */
+    private volatile Sustained sustained;
+    /**
+     * Specifies if a period of activity is currently ongoing, as any timestamp including negative ones is valid,
+     * only accessed by the event thread
+     */
+    private boolean active;
+    /**
+     * Time at which the current period of activity started, only valid while {@link #active}, only accessed by the event thread
+     */
+    private long activeSince;
+    /**
+     * Specifies if the sustained activity event has fired for the current period, only accessed by the event thread
+     */
+    private boolean sustainedFired;
+
+    /**
+     * Initializes a new {@link ActivityDetector} which counts all events within the given window.
+     *
+     * @param window Length of sliding window in milliseconds
+     */
+    public ActivityDetector(long window) {
+        this(window, null);
+    }
+
+    /**
+     * Initializes a new {@link ActivityDetector} which counts all events within the given window matching the filter.
+     *
+     * @param window Length of sliding window in milliseconds
+     * @param filter Filter deciding which values are counted, e.g. only {@code NOISE}, or null to count all values
+     */
+    public ActivityDetector(long window, Predicate<V> filter) {
+        this(window, DEFAULT_CAPACITY, filter);
+    }
+
+    /**
+     * Initializes a new {@link ActivityDetector} with a custom capacity, which limits the measurable number of events
+     * per window and must therefore be larger than all thresholds.
+     *
+     * @param window   Length of sliding window in milliseconds
+     * @param capacity Maximum number of events which are retained within the window
+     * @param filter   Filter deciding which values are counted or null to count all values
+     */
+    public ActivityDetector(long window, int capacity, Predicate<V> filter) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must be at least 1ms");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(window);
+        this.capacity = capacity;
+        this.filter = filter;
+        this.timestamps = new long[capacity + 1];
+    }
+
+    /**
+     * Sets or disables the handler for the burst event, which fires once the given number of events occurred within the window.
+     *
+     * @param threshold Number of events within window
+     * @param handler   Event handler to call, null to disable
+     */
+    public void onBurst(int threshold, SimpleEventHandler handler) {
+        checkThreshold(threshold);
+        this.burst = handler != null ? new Burst(threshold, handler) : null;
+    }
+
+    /**
+     * Sets or disables the handler for the sustained activity event, which fires once the window continuously
+     * contained at least the given number of events for the given duration.
+     *
+     * @param threshold Minimum number of events within window
+     * @param duration  Duration of activity in milliseconds
+     * @param handler   Event handler to call, null to disable
+     */
+    public void onSustained(int threshold, long duration, SimpleEventHandler handler) {
+        checkThreshold(threshold);
+        this.sustained = handler != null ? new Sustained(threshold, TimeUnit.MILLISECONDS.toNanos(duration), handler) : null;
+    }
+
+    /**
+     * Implementation of {@link EventHandler} which must be added as a listener for this detector to work.
+     * It records all values matching the filter with the current time.
+     *
+     * @param value Event value
+     */
+    @Override
+    public void handle(V value) {
+        if (filter == null || filter.test(value)) {
+            record(System.nanoTime());
+        }
+    }
+
+    /**
+     * Records an event at the given time, e.g. the timestamp of a {@link DigitalEvent} or of a recorded trace.
+     * Events must be recorded in chronological order by a single thread at a time.
+     *
+     * @param timestampNanos Time of event as returned by {@link System#nanoTime()}
+     */
+    public void record(long timestampNanos) {
+        // Store timestamp and publish it by incrementing the counter
+        final long current = count;
+        timestamps[(int) (current % timestamps.length)] = timestampNanos;
+        final long end = current + 1;
+        count = end;
+
+        // Advance the start of the window past all events which have left it
+        long start = Math.max(windowStart, end - capacity);
+        while (start < end && timestampNanos - timestamps[(int) (start % timestamps.length)] >= windowNanos) {
+            start++;
+        }
+        windowStart = start;
+
+        final int inWindow = (int) (end - start);
+        checkBurst(inWindow);
+        checkSustained(inWindow, timestampNanos);
+    }
+
+    /**
+     * Returns the number of events within the window ending now.
+     *
+     * @return Number of events
+     */
+    public int getCount() {
+        final long now = System.nanoTime();
+        final long end = count;
+
+        // Skip events which left the window since the last event, starting with the position known by the writer
+        long start = Math.max(windowStart, end - capacity);
+        while (start < end && now - timestamps[(int) (start % timestamps.length)] >= windowNanos) {
+            start++;
+        }
+
+        // Discard events which might have been overwritten while scanning
+        start = Math.max(start, count - capacity);
+        return (int) Math.max(0, end - start);
+    }
+
+    /**
+     * Returns the current event rate based on the number of events within the window.
+     *
+     * @return Events per second
+     */
+    public double getRate() {
+        return getCount() * 1e9 / windowNanos;
+    }
+
+    /**
+     * Returns the total number of recorded events since creation.
+     *
+     * @return Total number of events
+     */
+    public long getTotalCount() {
+        return count;
+    }
+
+    /**
+     * Fires or re-arms the burst event based on the number of events within the window.
+     *
+     * @param inWindow Number of events within window
+     */
+    private void checkBurst(int inWindow) {
+        final var burst = this.burst;
+        if (burst == null) {
+            burstActive = false;
+            return;
+        }
+
+        if (burstActive && inWindow < burst.threshold) {
+            burstActive = false;
+        }
+        if (!burstActive && inWindow >= burst.threshold) {
+            burstActive = true;
+            burst.handler.handle();
+        }
+    }
+
+    /**
+     * Tracks the current period of activity and fires the sustained activity event once it lasted long enough.
+     *
+     * @param inWindow       Number of events within window
+     * @param timestampNanos Time of current event
+     */
+    private void checkSustained(int inWindow, long timestampNanos) {
+        final var sustained = this.sustained;
+        if (sustained == null || inWindow < sustained.threshold) {
+            active = false;
+            sustainedFired = false;
+            return;
+        }
+
+        if (!active) {
+            active = true;
+            activeSince = timestampNanos;
+        }
+        if (!sustainedFired && timestampNanos - activeSince >= sustained.durationNanos) {
+            sustainedFired = true;
+            sustained.handler.handle();
+        }
+    }
+
+    /**
+     * Ensures that the threshold can be measured with the capacity of this detector.
+     *
+     * @param threshold Number of events within window
+     */
+    private void checkThreshold(int threshold) {
+        if (threshold < 1 || threshold > capacity) {
+            throw new IllegalArgumentException("Threshold must be between 1 and the capacity of " + capacity);
+        }
+    }
+
+    /**
+     * Settings of the burst event.
+     *
+     * @param threshold Number of events within window
+     * @param handler   Event handler to call
+     */
+    private record Burst(int threshold, SimpleEventHandler handler) {
+    }
+
+    /**
+     * Settings of the sustained activity event.
+     *
+     * @param threshold     Minimum number of events within window
+     * @param durationNanos Duration of activity in nanoseconds
+     * @param handler       Event handler to call
+     */
+    private record Sustained(int threshold, long durationNanos, SimpleEventHandler handler) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.pi4j.crowpi.components.events;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+
+/**
+ * Digital state change including timing information, passed to handlers registered with
+ * {@link DigitalEventProvider#addTimedListener(EventHandler)}.
+ *
+ * @param value          Mapped event value
+ * @param state          Raw Pi4J digital state
+ * @param timestampNanos Time at which the Pi4J callback was entered, as returned by {@link System#nanoTime()}
+ * @param sequence       Number of this event, counted per digital input and starting at 1, so gaps reveal dropped events
+ * @param <V>            Type of event value
+ */
+public record DigitalEvent<V>(V value, DigitalState state, long timestampNanos, long sequence) {
+    /**
+     * Returns the time which has passed since the Pi4J callback was entered.
+     *
+     * @return Elapsed time in nanoseconds
+     */
+    public long elapsedNanos() {
+        return System.nanoTime() - timestampNanos;
+    }
+}
@@ -0,0 +1,490 @@
+package com.pi4j.crowpi.components.events;
+
+import com.pi4j.io.gpio.digital.DigitalState;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Software filter for digital events which can be placed in front of any handler, e.g. by passing it to
+ * {@link DigitalEventProvider#addTimedListener(EventHandler)}. Unlike the fixed debounce time of the Pi4J input configuration,
+ * the filter can be tuned per deployment and combines the following stages, each of which is optional:
+ * <ol>
+ *     <li>Minimum pulse width: a new state is only forwarded once it has persisted for the given time, so shorter glitches
+ *     get suppressed entirely. Forwarded events are delayed by the pulse width.</li>
+ *     <li>Debounce: after forwarding an event, all further changes are ignored for the given time. Once this time has
+ *     passed, the current state gets forwarded if it differs from the last forwarded one.</li>
+ *     <li>Rate limit: at most the given number of events is forwarded per period, further events are dropped.</li>
+ * </ol>
+ * Events are forwarded unchanged, so handlers still see the time at which the edge has been reported by Pi4J.
+ * All decisions are based on the timestamps of the events, which allows running the filter against recorded traces.
+ * Delayed events are released by the next incoming event, by calling {@link #flush(long)} or, unless disabled,
+ * by a timer thread. This thread gets started once when the first event is delayed and stays parked while no events are
+ * pending, so apart from starting it, filtering does not allocate any memory. It exits once the filter is no longer used.
+ * <p>
+ * The downstream handler is called after the filter lock has been released, one event at a time and in order, so a slow
+ * handler never blocks the Pi4J callback or the timer thread while they are waiting for the filter.
+ *
+ * @param <V> Type of event value
+ */
+public final class DigitalEventFilter<V> implements EventHandler<DigitalEvent<V>> {
+    /**
+     * Time in nanoseconds after which an idle timer thread checks if its filter is still in use
+     */
+    private static final long TIMER_IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Handler which receives all forwarded events
+     */
+    private final EventHandler<DigitalEvent<V>> downstream;
+    /**
+     * Minimum duration in nanoseconds of a state before it gets forwarded, zero to disable
+     */
+    private final long minPulseWidthNanos;
+    /**
+     * Duration in nanoseconds during which changes are ignored after forwarding an event, zero to disable
+     */
+    private final long debounceNanos;
+    /**
+     * Maximum number of forwarded events per rate limit period, zero to disable
+     */
+    private final int rateLimitEvents;
+    /**
+     * Period of the rate limit in nanoseconds
+     */
+    private final long rateLimitPeriodNanos;
+    /**
+     * Specifies if a timer thread releases delayed events, otherwise {@link #flush(long)} must be called
+     */
+    private final boolean timerEnabled;
+
+    /**
+     * Last state received from the input, guarded by this filter
+     */
+    private DigitalState inputState;
+    /**
+     * Last state forwarded to the downstream handler, guarded by this filter
+     */
+    private DigitalState forwardedState;
+    /**
+     * Event waiting for the minimum pulse width to pass or null, guarded by this filter
+     */
+    private DigitalEvent<V> pulseCandidate;
+    /**
+     * Time at which the pulse candidate gets released, guarded by this filter
+     */
+    private long pulseDeadline;
+    /**
+     * Latest event received during the debounce time or null, guarded by this filter
+     */
+    private DigitalEvent<V> debounceCandidate;
+    /**
+     * End of the current debounce time, guarded by this filter
+     */
+    private long debounceDeadline;
+    /**
+     * Available rate limit tokens and time of last refill, guarded by this filter
+     */
+    private double tokens;
+    private long lastRefillNanos;
+    /**
+     * Specifies if the rate limit tokens have been refilled before, as any timestamp including zero is valid, guarded by this filter
+     */
+    private boolean refilled;
+    /**
+     * Accepted events which still have to be passed to the downstream handler, guarded by this filter
+     */
+    private final ArrayDeque<DigitalEvent<V>> outbox = new ArrayDeque<>();
+    /**
+     * Specifies if a thread is currently passing events to the downstream handler, guarded by this filter
+     */
+    private boolean delivering;
+    /**
+     * Timer thread releasing delayed events or null if not started yet, guarded by this filter
+     */
+    private Thread timerThread;
+
+    /**
+     * Number of received, forwarded, suppressed and rate limited events
+     */
+    private volatile long received;
+    private volatile long forwarded;
+    private volatile long suppressed;
+    private volatile long rateLimited;
+
+    /**
+     * Creates a new filter from the given builder.
+     *
+     * @param builder    Builder containing the filter settings
+     * @param downstream Handler which receives all forwarded events
+     */
+    private DigitalEventFilter(Builder builder, EventHandler<DigitalEvent<V>> downstream) {
+        this.downstream = downstream;
+        this.minPulseWidthNanos = builder.minPulseWidthNanos;
+        this.debounceNanos = builder.debounceNanos;
+        this.rateLimitEvents = builder.rateLimitEvents;
+        this.rateLimitPeriodNanos = builder.rateLimitPeriodNanos;
+        this.timerEnabled = builder.timerEnabled;
+        this.tokens = builder.rateLimitEvents;
+    }
+
+    /**
+     * Passes an event through all filter stages and forwards it to the downstream handler if accepted.
+     * Events must be passed in chronological order.
+     *
+     * @param event Digital event
+     */
+    @Override
+    public void handle(DigitalEvent<V> event) {
+        synchronized (this) {
+            filter(event);
+        }
+        deliver();
+    }
+
+    /**
+     * Releases all delayed events which are due at the given time. This is only required if the timer thread has been
+     * disabled, e.g. when replaying recorded traces, in which case the time is taken from the trace.
+     *
+     * @param nowNanos Current time in the time base of the event timestamps
+     */
+    public void flush(long nowNanos) {
+        synchronized (this) {
+            release(nowNanos);
+        }
+        deliver();
+    }
+
+    /**
+     * Passes an event through all filter stages, must be called while holding the lock.
+     *
+     * @param event Digital event
+     */
+    private void filter(DigitalEvent<V> event) {
+        received++;
+
+        // Release delayed events which were due before this event
+        release(event.timestampNanos());
+
+        // Ignore repeated states, e.g. caused by missed edges
+        if (event.state() == inputState) {
+            return;
+        }
+        inputState = event.state();
+
+        // Delay the event until the minimum pulse width has passed, replacing any shorter pulse
+        if (minPulseWidthNanos > 0) {
+            if (pulseCandidate != null) {
+                suppressed++;
+            }
+            pulseCandidate = event;
+            pulseDeadline = event.timestampNanos() + minPulseWidthNanos;
+            wakeTimer();
+            return;
+        }
+
+        debounce(event, event.timestampNanos());
+    }
+
+    /**
+     * Releases all delayed events which are due at the given time, must be called while holding the lock.
+     *
+     * @param nowNanos Current time in the time base of the event timestamps
+     */
+    private void release(long nowNanos) {
+        // Release due events in chronological order, as releasing a pulse might start a new debounce time
+        while (true) {
+            final boolean pulseDue = pulseCandidate != null && nowNanos - pulseDeadline >= 0;
+            final boolean debounceDue = debounceCandidate != null && nowNanos - debounceDeadline >= 0;
+            if (debounceDue && (!pulseDue || debounceDeadline - pulseDeadline <= 0)) {
+                final var event = debounceCandidate;
+                debounceCandidate = null;
+                if (event.state() != forwardedState) {
+                    suppressed--;
+                    forward(event, debounceDeadline);
+                }
+            } else if (pulseDue) {
+                final var event = pulseCandidate;
+                pulseCandidate = null;
+                debounce(event, pulseDeadline);
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events passed to this filter.
+     *
+     * @return Number of received events
+     */
+    public long getReceivedCount() {
+        return received;
+    }
+
+    /**
+     * Returns the number of events forwarded to the downstream handler.
+     *
+     * @return Number of forwarded events
+     */
+    public long getForwardedCount() {
+        return forwarded;
+    }
+
+    /**
+     * Returns the number of events suppressed as glitch or bounce.
+     *
+     * @return Number of suppressed events
+     */
+    public long getSuppressedCount() {
+        return suppressed;
+    }
+
+    /**
+     * Returns the number of events dropped by the rate limit.
+     *
+     * @return Number of rate limited events
+     */
+    public long getRateLimitedCount() {
+        return rateLimited;
+    }
+
+    /**
+     * Applies the debounce stage to an event which passed the minimum pulse width, must be called while holding the lock.
+     *
+     * @param event    Digital event
+     * @param nowNanos Time at which the event passed the previous stage
+     */
+    private void debounce(DigitalEvent<V> event, long nowNanos) {
+        // Remember the latest event during the debounce time, it gets forwarded afterwards if the state differs
+        if (debounceNanos > 0 && forwardedState != null && nowNanos - debounceDeadline < 0) {
+            debounceCandidate = event;
+            suppressed++;
+            wakeTimer();
+            return;
+        }
+
+        debounceCandidate = null;
+        if (event.state() != forwardedState) {
+            forward(event, nowNanos);
+        }
+    }
+
+    /**
+     * Applies the rate limit and queues the event for the downstream handler, must be called while holding the lock.
+     *
+     * @param event    Digital event
+     * @param nowNanos Time at which the event passed the previous stages
+     */
+    private void forward(DigitalEvent<V> event, long nowNanos) {
+        if (rateLimitEvents > 0) {
+            // Refill tokens continuously according to the elapsed time
+            if (refilled) {
+                tokens = Math.min(rateLimitEvents, tokens + (double) (nowNanos - lastRefillNanos) * rateLimitEvents / rateLimitPeriodNanos);
+            }
+            lastRefillNanos = nowNanos;
+            refilled = true;
+            if (tokens < 1) {
+                rateLimited++;
+                return;
+            }
+            tokens--;
+        }
+
+        forwardedState = event.state();
+        debounceDeadline = nowNanos + debounceNanos;
+        forwarded++;
+        outbox.add(event);
+    }
+
+    /**
+     * Passes all queued events to the downstream handler without holding the lock. If another thread is already
+     * delivering, it also takes over the events queued by the current thread, which keeps them in order.
+     */
+    private void deliver() {
+        synchronized (this) {
+            if (delivering || outbox.isEmpty()) {
+                return;
+            }
+            delivering = true;
+        }
+
+        DigitalEvent<V> event = null;
+        try {
+            while (true) {
+                synchronized (this) {
+                    event = outbox.poll();
+                    if (event == null) {
+                        delivering = false;
+                        return;
+                    }
+                }
+                downstream.handle(event);
+            }
+        } finally {
+            // Allow other threads to continue delivering if the downstream handler failed
+            if (event != null) {
+                synchronized (this) {
+                    delivering = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts or wakes up the timer thread for releasing delayed events, must be called while holding the lock.
+     */
+    private void wakeTimer() {
+        if (!timerEnabled) {
+            return;
+        }
+        if (timerThread == null) {
+            timerThread = new Thread(new Timer(this), "DigitalEventFilter-Timer");
+            timerThread.setDaemon(true);
+            timerThread.start();
+        } else {
+            LockSupport.unpark(timerThread);
+        }
+    }
+
+    /**
+     * Releases and delivers all delayed events which are due, called by the timer thread.
+     *
+     * @return Time in nanoseconds until the next delayed event is due
+     */
+    private long releaseDue() {
+        final long deadline;
+        synchronized (this) {
+            final long now = System.nanoTime();
+            release(now);
+
+            // Wait for the earliest pending deadline or check again later if nothing is pending
+            if (pulseCandidate != null && debounceCandidate != null) {
+                deadline = pulseDeadline - debounceDeadline < 0 ? pulseDeadline : debounceDeadline;
+            } else if (pulseCandidate != null) {
+                deadline = pulseDeadline;
+            } else if (debounceCandidate != null) {
+                deadline = debounceDeadline;
+            } else {
+                deadline = now + TIMER_IDLE_NANOS;
+            }
+        }
+
+        deliver();
+        return deadline - System.nanoTime();
+    }
+
+    /**
+     * Timer loop which releases delayed events once they are due and parks while nothing is pending.
+     * Only a weak reference to the filter is kept, so the thread exits once the filter has been garbage collected.
+     */
+    private static final class Timer implements Runnable {
+        private final WeakReference<DigitalEventFilter<?>> filter;
+
+        Timer(DigitalEventFilter<?> filter) {
+            this.filter = new WeakReference<>(filter);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final long waitNanos = releaseDue();
+                if (waitNanos == Long.MIN_VALUE) {
+                    return;
+                }
+                LockSupport.parkNanos(this, waitNanos);
+            }
+        }
+
+        /**
+         * Releases due events of the filter without keeping a strong reference while parked.
+         *
+         * @return Time in nanoseconds until the next check or {@link Long#MIN_VALUE} if the filter is gone
+         */
+        private long releaseDue() {
+            final var target = filter.get();
+            return target != null ? target.releaseDue() : Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Builder for configuring digital event filters. All stages are disabled by default.
+     */
+    public static final class Builder {
+        private long minPulseWidthNanos;
+        private long debounceNanos;
+        private int rateLimitEvents;
+        private long rateLimitPeriodNanos;
+        private boolean timerEnabled = true;
+
+        /**
+         * Suppresses all pulses shorter than the given duration.
+         *
+         * @param minPulseWidth Minimum pulse width in microseconds
+         * @return Builder instance
+         */
+        public Builder minPulseWidth(long minPulseWidth) {
+            this.minPulseWidthNanos = TimeUnit.MICROSECONDS.toNanos(checkNotNegative(minPulseWidth));
+            return this;
+        }
+
+        /**
+         * Ignores all changes for the given duration after forwarding an event.
+         *
+         * @param debounce Debounce time in microseconds
+         * @return Builder instance
+         */
+        public Builder debounce(long debounce) {
+            this.debounceNanos = TimeUnit.MICROSECONDS.toNanos(checkNotNegative(debounce));
+            return this;
+        }
+
+        /**
+         * Forwards at most the given number of events per period.
+         *
+         * @param events Maximum number of events per period
+         * @param period Period in milliseconds
+         * @return Builder instance
+         */
+        public Builder rateLimit(int events, long period) {
+            if (events < 1 || period < 1) {
+                throw new IllegalArgumentException("Rate limit requires at least one event per period of at least 1ms");
+            }
+            this.rateLimitEvents = events;
+            this.rateLimitPeriodNanos = TimeUnit.MILLISECONDS.toNanos(period);
+            return this;
+        }
+
+        /**
+         * Disables the timer thread, so delayed events are only released by subsequent events or {@link #flush(long)}.
+         * This is intended for running the filter against recorded traces.
+         *
+         * @return Builder instance
+         */
+        public Builder manualFlush() {
+            this.timerEnabled = false;
+            return this;
+        }
+
+        /**
+         * Creates a new filter which forwards accepted events to the given handler.
+         * Every filter keeps its own state, so a separate filter is required per input.
+         *
+         * @param downstream Handler which receives all forwarded events
+         * @param <V>        Type of event value
+         * @return Digital event filter
+         */
+        public <V> DigitalEventFilter<V> build(EventHandler<DigitalEvent<V>> downstream) {
+            return new DigitalEventFilter<>(this, downstream);
+        }
+
+        private static long checkNotNegative(long value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("Duration must not be negative");
+            }
+            return value;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.pi4j.crowpi.components.events;
 
+import com.pi4j.crowpi.components.helpers.LatencyHistogram;
 import com.pi4j.io.gpio.digital.DigitalInput;
 import com.pi4j.io.gpio.digital.DigitalState;
 import com.pi4j.io.gpio.digital.DigitalStateChangeEvent;
 import com.pi4j.io.gpio.digital.DigitalStateChangeListener;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.function.Function;
 
 /**
@@ -14,10 +18,19 @@ import java.util.function.Function;
  * Whenever a Pi4J {@link DigitalStateChangeEvent} occurs, the provided {@link DigitalState} gets converted into the target type {@link V}
  * by calling the provided {@link #mapper} function. This mapped value then gets passed to the provided {@link EventHandler} to actually
  * handle the event with the function provided by the user.
+ * <p>
+ * Timed listeners created by {@link #timed(DigitalInput, Function, EventHandler, EventDispatcher, LatencyHistogram)} pass a
+ * {@link DigitalEvent} to their {@link #timedHandler} instead. Sequence numbers and latency histograms of timed listeners are
+ * kept per digital input, so all timed listeners of the same input observe the same numbering.
  *
  * @param <V> Target type of event value which gets passed to event handler.
  */
 public class DigitalEventListener<V> implements EventListener, DigitalStateChangeListener {
+    /**
+     * Timing state of all digital inputs with timed listeners, guarded by this map
+     */
+    private static final Map<DigitalInput, InputTiming> timings = new WeakHashMap<>();
+
     /**
      * Pi4J digital input to which this digital event listener has been attached
      */
@@ -29,10 +42,24 @@ public class DigitalEventListener<V> implements EventListener, DigitalStateChang
     protected final Function<DigitalState, V> mapper;
 
     /**
-     * Handler function which gets called
+     * Handler function which gets called, null for timed listeners
      */
     protected final EventHandler<V> handler;
 
+    /**
+     * Handler function which gets called with the timed event after recording the latency, null for plain listeners
+     */
+    protected final EventHandler<DigitalEvent<V>> timedHandler;
+
+    /**
+     * Timing state of the digital input or null for plain listeners
+     */
+    private final InputTiming timing;
+    /**
+     * Histogram of the time between entering the Pi4J callback and calling the user handler or null for plain listeners
+     */
+    private final LatencyHistogram latency;
+
     /**
      * Creates a new digital event listener for the given digital input which uses the provided mapper and event handler.
      * This class instance gets automatically registered as a {@link DigitalStateChangeListener} for the passed {@link DigitalInput}.
@@ -42,19 +69,106 @@ public class DigitalEventListener<V> implements EventListener, DigitalStateChang
      * @param handler      Handler function which gets called
      */
     public DigitalEventListener(DigitalInput digitalInput, Function<DigitalState, V> mapper, EventHandler<V> handler) {
+        this(digitalInput, mapper, handler, null);
+    }
+
+    /**
+     * Creates a new digital event listener like {@link #DigitalEventListener(DigitalInput, Function, EventHandler)}, which
+     * optionally executes the handler asynchronously using the given dispatcher. The state is still mapped on the Pi4J
+     * callback thread, whereas the handler runs within the dispatcher lane of the digital input, so all asynchronous
+     * handlers of the same input observe the events in order.
+     *
+     * @param digitalInput Digital input where event listener gets attached
+     * @param mapper       Mapping function from {@link DigitalState} to target type {@link V}
+     * @param handler      Handler function which gets called
+     * @param dispatcher   Dispatcher for asynchronous execution or null to call the handler synchronously
+     */
+    public DigitalEventListener(DigitalInput digitalInput, Function<DigitalState, V> mapper, EventHandler<V> handler, EventDispatcher dispatcher) {
+        this.mapper = mapper;
+        this.handler = dispatcher != null ? dispatcher.wrap(digitalInput, handler) : handler;
+        this.timedHandler = null;
+        this.timing = null;
+        this.latency = null;
         this.digitalInput = digitalInput.addListener(this);
+    }
+
+    /**
+     * Creates a new digital event listener which passes the value together with its timing information to the handler.
+     *
+     * @param digitalInput Digital input where event listener gets attached
+     * @param mapper       Mapping function from {@link DigitalState} to target type {@link V}
+     * @param dispatcher   Dispatcher for asynchronous execution or null to call the handler synchronously
+     * @param latency      Histogram for recording the handler latency or null to use the histogram of the digital input
+     * @param handler      Handler function which gets called
+     */
+    private DigitalEventListener(DigitalInput digitalInput, Function<DigitalState, V> mapper, EventDispatcher dispatcher, LatencyHistogram latency, EventHandler<DigitalEvent<V>> handler) {
         this.mapper = mapper;
-        this.handler = handler;
+        this.handler = null;
+        this.timing = getTiming(digitalInput);
+        this.latency = latency != null ? latency : this.timing.latency;
+
+        // Record the latency right before calling the user handler, which includes any time spent in the dispatcher
+        final EventHandler<DigitalEvent<V>> measuredHandler = event -> {
+            this.latency.record(event.elapsedNanos());
+            handler.handle(event);
+        };
+        this.timedHandler = dispatcher != null ? dispatcher.wrap(digitalInput, measuredHandler) : measuredHandler;
+        this.digitalInput = digitalInput.addListener(this);
+    }
+
+    /**
+     * Creates a new digital event listener whose handler receives the mapped value together with the time at which the
+     * Pi4J callback was entered and a sequence number, see {@link DigitalEvent}.
+     *
+     * @param digitalInput Digital input where event listener gets attached
+     * @param mapper       Mapping function from {@link DigitalState} to target type {@link V}
+     * @param handler      Handler function which gets called
+     * @param dispatcher   Dispatcher for asynchronous execution or null to call the handler synchronously
+     * @param latency      Histogram for recording the handler latency or null to use the histogram of the digital input
+     * @param <V>          Target type of event value
+     * @return Digital event listener
+     */
+    public static <V> DigitalEventListener<V> timed(DigitalInput digitalInput, Function<DigitalState, V> mapper, EventHandler<DigitalEvent<V>> handler,
+                                                    EventDispatcher dispatcher, LatencyHistogram latency) {
+        return new DigitalEventListener<>(digitalInput, mapper, dispatcher, latency, handler);
+    }
+
+    /**
+     * Returns the latency histogram shared by all timed listeners of the given digital input which did not specify their own one.
+     *
+     * @param digitalInput Digital input
+     * @return Latency histogram of digital input
+     */
+    public static LatencyHistogram latencyOf(DigitalInput digitalInput) {
+        return getTiming(digitalInput).latency;
     }
 
     /**
      * Handles incoming Pi4J events by calling our own {@link #handler} with the mapped value from {@link #mapper}.
+     * Timed listeners capture the time before anything else, so the recorded latency covers mapping and dispatching as well.
      *
      * @param event Pi4J event
      */
     @Override
     public void onDigitalStateChange(DigitalStateChangeEvent event) {
-        handler.handle(mapper.apply(event.state()));
+        if (timing == null) {
+            handler.handle(mapper.apply(event.state()));
+            return;
+        }
+
+        final long timestamp = System.nanoTime();
+        final var state = event.state();
+        timedHandler.handle(timing.next(event, mapper.apply(state), state, timestamp));
+    }
+
+    /**
+     * Returns the histogram of the time between entering the Pi4J callback and calling the handler of this listener.
+     * Unless a custom histogram has been passed, it is shared by all timed listeners of the same digital input.
+     *
+     * @return Latency histogram or null if this is not a timed listener
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latency;
     }
 
     /**
@@ -64,4 +178,40 @@ public class DigitalEventListener<V> implements EventListener, DigitalStateChang
     public void remove() {
         digitalInput.removeListener(this);
     }
+
+    /**
+     * Returns the timing state of the given digital input, creating it on first use.
+     *
+     * @param digitalInput Digital input
+     * @return Timing state of digital input
+     */
+    private static InputTiming getTiming(DigitalInput digitalInput) {
+        synchronized (timings) {
+            return timings.computeIfAbsent(digitalInput, input -> new InputTiming());
+        }
+    }
+
+    /**
+     * Sequence counter and latency histogram of a single digital input, shared by all of its timed listeners.
+     * Pi4J passes the same event instance to every listener of an input, so each edge gets numbered and timestamped
+     * exactly once, no matter how many timed listeners receive it.
+     */
+    private static final class InputTiming {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private WeakReference<DigitalStateChangeEvent> lastEvent = new WeakReference<>(null);
+        private long lastSequence;
+        private long lastTimestamp;
+
+        /**
+         * Creates the timed event for the given Pi4J event, numbering it if no other listener has seen it yet.
+         */
+        synchronized <V> DigitalEvent<V> next(DigitalStateChangeEvent event, V value, DigitalState state, long timestamp) {
+            if (lastEvent.get() != event) {
+                lastEvent = new WeakReference<>(event);
+                lastSequence++;
+                lastTimestamp = timestamp;
+            }
+            return new DigitalEvent<>(value, state, lastTimestamp, lastSequence);
+        }
+    }
 }
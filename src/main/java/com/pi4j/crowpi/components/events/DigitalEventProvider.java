@@ -1,5 +1,6 @@
 package com.pi4j.crowpi.components.events;
 
+import com.pi4j.crowpi.components.helpers.LatencyHistogram;
 import com.pi4j.io.gpio.digital.DigitalInput;
 import com.pi4j.io.gpio.digital.DigitalState;
 
@@ -39,6 +40,53 @@ public interface DigitalEventProvider<V> extends EventProvider<DigitalEventListe
         return new DigitalEventListener<>(getDigitalInput(), this::mapDigitalState, handler);
     }
 
+    /**
+     * Adds a new event listener to this component, which gets executed asynchronously by the given dispatcher instead
+     * of the Pi4J callback thread. All asynchronous listeners of this component receive their events in order.
+     *
+     * @param handler    Event handler to call
+     * @param dispatcher Dispatcher for asynchronous execution
+     * @return Event listener instance
+     */
+    default DigitalEventListener<V> addListener(EventHandler<V> handler, EventDispatcher dispatcher) {
+        return new DigitalEventListener<>(getDigitalInput(), this::mapDigitalState, handler, dispatcher);
+    }
+
+    /**
+     * Adds a new event listener to this component, whose handler receives the mapped value together with the time at
+     * which the edge has been reported by Pi4J and a sequence number.
+     *
+     * @param handler Event handler to call
+     * @return Event listener instance
+     */
+    default DigitalEventListener<V> addTimedListener(EventHandler<DigitalEvent<V>> handler) {
+        return addTimedListener(handler, null, null);
+    }
+
+    /**
+     * Adds a new timed event listener to this component, optionally executed by the given dispatcher. The time between
+     * the Pi4J callback and calling the handler gets recorded in the given histogram, which defaults to the histogram
+     * shared by all timed listeners of this component, see {@link #getLatencyHistogram()}.
+     *
+     * @param handler    Event handler to call
+     * @param dispatcher Dispatcher for asynchronous execution or null to call the handler synchronously
+     * @param latency    Histogram for recording the handler latency or null to use the histogram of this component
+     * @return Event listener instance, providing access to its latency histogram
+     */
+    default DigitalEventListener<V> addTimedListener(EventHandler<DigitalEvent<V>> handler, EventDispatcher dispatcher, LatencyHistogram latency) {
+        return DigitalEventListener.timed(getDigitalInput(), this::mapDigitalState, handler, dispatcher, latency);
+    }
+
+    /**
+     * Returns the histogram of the handler latencies of all timed listeners of this component which did not specify
+     * their own histogram.
+     *
+     * @return Latency histogram of this component
+     */
+    default LatencyHistogram getLatencyHistogram() {
+        return DigitalEventListener.latencyOf(getDigitalInput());
+    }
+
     /**
      * Removes an existing event listener from this component.
      *
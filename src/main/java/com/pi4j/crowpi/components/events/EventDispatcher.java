@@ -0,0 +1,355 @@
+package com.pi4j.crowpi.components.events;
+
+import com.pi4j.crowpi.components.helpers.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dispatcher which decouples event handlers from the thread delivering the events, e.g. the Pi4J GPIO callback thread.
+ * Wrapped handlers only queue the event value and return immediately, the actual handler gets executed by a small pool
+ * of worker threads. This way a slow handler, like updating a display on a button press, no longer delays other events.
+ * <p>
+ * Events are queued in lanes, which are identified by a key like the component delivering the events. All handlers of
+ * the same lane are executed one after another in the order in which their events arrived, whereas different lanes are
+ * processed concurrently. Every lane holds a bounded number of events, the {@link OverflowPolicy} defines what happens
+ * once a lane is full.
+ */
+public final class EventDispatcher {
+    /**
+     * Default number of worker threads
+     */
+    private static final int DEFAULT_WORKERS = 2;
+    /**
+     * Default maximum number of queued events per lane
+     */
+    private static final int DEFAULT_CAPACITY = 64;
+    /**
+     * Maximum number of events processed per lane before giving other lanes a chance to run
+     */
+    private static final int BATCH_SIZE = 16;
+
+    /**
+     * Counter used for naming the threads of all dispatchers
+     */
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    /**
+     * Logger instance
+     */
+    private final Logger logger = new Logger();
+    /**
+     * Worker threads which process lanes with pending events
+     */
+    private final ThreadPoolExecutor workers;
+    /**
+     * Maximum number of queued events per lane
+     */
+    private final int capacity;
+    /**
+     * Behavior once a lane is full
+     */
+    private final OverflowPolicy policy;
+    /**
+     * Lanes by their key, guarded by this map
+     */
+    private final Map<Object, Lane> lanes = new WeakHashMap<>();
+
+    /**
+     * Counters and gauges for metrics
+     */
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    /**
+     * Creates a new event dispatcher with two worker threads and up to 64 queued events per lane, dropping the oldest
+     * event once a lane is full.
+     */
+    public EventDispatcher() {
+        this(DEFAULT_WORKERS, DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Creates a new event dispatcher with custom settings.
+     *
+     * @param workers  Number of worker threads, must be at least 1
+     * @param capacity Maximum number of queued events per lane, must be at least 1
+     * @param policy   Behavior once a lane is full
+     */
+    public EventDispatcher(int workers, int capacity, OverflowPolicy policy) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker thread is required");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+
+        final int id = threadCounter.incrementAndGet();
+        final var workerCounter = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            final var thread = new Thread(runnable, "EventDispatcher-" + id + "-worker-" + workerCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    /**
+     * Wraps the given event handler so that it gets executed asynchronously within the lane of the given key.
+     *
+     * @param key     Key of the lane, e.g. the component delivering the events
+     * @param handler Event handler to execute asynchronously
+     * @param <V>     Type of event value
+     * @return Event handler which queues events and returns immediately
+     */
+    public <V> EventHandler<V> wrap(Object key, EventHandler<V> handler) {
+        final var lane = getLane(key);
+        return value -> lane.submit(handler, value);
+    }
+
+    /**
+     * Wraps the given simple event handler so that it gets executed asynchronously within the lane of the given key.
+     * This allows moving the handlers of simple events like {@code onDown} off the GPIO callback thread.
+     *
+     * @param key     Key of the lane, e.g. the component delivering the events
+     * @param handler Simple event handler to execute asynchronously
+     * @return Simple event handler which queues events and returns immediately
+     */
+    public SimpleEventHandler wrap(Object key, SimpleEventHandler handler) {
+        final var lane = getLane(key);
+        final EventHandler<Void> wrapper = value -> handler.handle();
+        return () -> lane.submit(wrapper, null);
+    }
+
+    /**
+     * Queues a single event for the given handler within the lane of the given key and returns immediately.
+     * This allows handing off events from a polling thread without wrapping every handler upfront.
+     *
+     * @param key     Key of the lane, e.g. the component delivering the events
+     * @param handler Event handler to execute asynchronously
+     * @param value   Event value
+     * @param <V>     Type of event value
+     */
+    public <V> void submit(Object key, EventHandler<V> handler, V value) {
+        getLane(key).submit(handler, value);
+    }
+
+    /**
+     * Returns a snapshot of the metrics of this dispatcher across all lanes.
+     *
+     * @return Dispatcher metrics
+     */
+    public Metrics getMetrics() {
+        return new Metrics(submitted.sum(), dispatched.sum(), dropped.sum(), coalesced.sum(), failures.sum(),
+            queueDepth.get(), maxQueueDepth.get());
+    }
+
+    /**
+     * Shuts down all worker threads. Events which are queued or submitted afterwards get dropped.
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Returns the lane for the given key, creating it on first use.
+     *
+     * @param key Key of the lane
+     * @return Lane of key
+     */
+    private Lane getLane(Object key) {
+        synchronized (lanes) {
+            return lanes.computeIfAbsent(key, k -> new Lane());
+        }
+    }
+
+    /**
+     * Behavior once the lane of an event is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drops the oldest queued event of the lane to make room for the new one
+         */
+        DROP_OLDEST,
+        /**
+         * Replaces the value of the newest queued event for the same handler, so the handler only sees the latest value.
+         * Falls back to dropping the oldest event if no event for the same handler is queued.
+         */
+        COALESCE_LATEST,
+        /**
+         * Blocks the submitting thread until the lane has room again. Handlers must not submit events to their own
+         * lane with this policy, as they would wait for themselves.
+         */
+        BLOCK
+    }
+
+    /**
+     * Immutable snapshot of the dispatcher metrics.
+     *
+     * @param submitted     Number of events which have been queued
+     * @param dispatched    Number of events which have been passed to their handler
+     * @param dropped       Number of events which have been dropped due to overflow or shutdown
+     * @param coalesced     Number of events which have been merged into an already queued event
+     * @param failures      Number of handler executions which threw an exception
+     * @param queueDepth    Number of events which are currently queued across all lanes
+     * @param maxQueueDepth Maximum number of events which were queued at the same time across all lanes
+     */
+    public record Metrics(long submitted, long dispatched, long dropped, long coalesced, long failures,
+                          int queueDepth, int maxQueueDepth) {
+    }
+
+    /**
+     * Queued event consisting of the handler and its value, which gets replaced when coalescing.
+     */
+    private static final class Event {
+        private final EventHandler<?> handler;
+        private Object value;
+
+        Event(EventHandler<?> handler, Object value) {
+            this.handler = handler;
+            this.value = value;
+        }
+
+        @SuppressWarnings("unchecked")
+        void dispatch() {
+            ((EventHandler<Object>) handler).handle(value);
+        }
+    }
+
+    /**
+     * Bounded queue of events which are processed in order by at most one worker thread at a time.
+     */
+    private final class Lane implements Runnable {
+        /**
+         * Queued events, guarded by this lane
+         */
+        private final ArrayDeque<Event> queue = new ArrayDeque<>();
+        /**
+         * Specifies if this lane has been passed to a worker thread, guarded by this lane
+         */
+        private boolean scheduled;
+
+        /**
+         * Queues an event and schedules this lane if necessary, applying the overflow policy if the lane is full.
+         *
+         * @param handler Event handler to call
+         * @param value   Event value
+         */
+        void submit(EventHandler<?> handler, Object value) {
+            if (workers.isShutdown()) {
+                dropped.increment();
+                return;
+            }
+
+            synchronized (this) {
+                while (queue.size() >= capacity) {
+                    if (policy == OverflowPolicy.BLOCK) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            dropped.increment();
+                            return;
+                        }
+                    } else if (policy == OverflowPolicy.COALESCE_LATEST && coalesce(handler, value)) {
+                        return;
+                    } else {
+                        queue.poll();
+                        queueDepth.decrementAndGet();
+                        dropped.increment();
+                    }
+                }
+
+                queue.add(new Event(handler, value));
+                maxQueueDepth.accumulateAndGet(queueDepth.incrementAndGet(), Math::max);
+                submitted.increment();
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+
+            schedule();
+        }
+
+        /**
+         * Processes a batch of queued events and reschedules itself if further events are pending.
+         */
+        @Override
+        public void run() {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                final Event event;
+                synchronized (this) {
+                    event = queue.poll();
+                    if (event == null) {
+                        scheduled = false;
+                        return;
+                    }
+                    notifyAll();
+                }
+                queueDepth.decrementAndGet();
+
+                try {
+                    event.dispatch();
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    logger.warn("Event handler failed: %s", e);
+                }
+                dispatched.increment();
+            }
+
+            // Let other lanes run before processing the remaining events
+            schedule();
+        }
+
+        /**
+         * Replaces the value of the newest queued event of the given handler, must be called while holding the lock of this lane.
+         *
+         * @param handler Event handler
+         * @param value   New event value
+         * @return True if an event has been coalesced, otherwise false
+         */
+        private boolean coalesce(EventHandler<?> handler, Object value) {
+            for (final Iterator<Event> iterator = queue.descendingIterator(); iterator.hasNext(); ) {
+                final var event = iterator.next();
+                if (event.handler == handler) {
+                    event.value = value;
+                    coalesced.increment();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Passes this lane to a worker thread, dropping all queued events if the dispatcher has been shut down.
+         */
+        private void schedule() {
+            try {
+                workers.execute(this);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    dropped.add(queue.size());
+                    queueDepth.addAndGet(-queue.size());
+                    queue.clear();
+                    scheduled = false;
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -51,4 +51,23 @@ public class ByteHelpers {
         }
         return new String(chars);
     }
+
+    /**
+     * Calculates the CRC-16/CCITT-FALSE checksum (polynomial 0x1021, initial value 0xFFFF) of the given byte range.
+     *
+     * @param bytes  Bytes to checksum
+     * @param offset Offset of first byte
+     * @param length Number of bytes
+     * @return Checksum as unsigned 16-bit value
+     */
+    public static int crc16(byte[] bytes, int offset, int length) {
+        int crc = 0xFFFF;
+        for (int i = offset; i < offset + length; i++) {
+            crc ^= (bytes[i] & 0xFF) << 8;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+            }
+        }
+        return crc & 0xFFFF;
+    }
 }
@@ -0,0 +1,168 @@
+package com.pi4j.crowpi.components.helpers;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds with a log-linear bucket layout.
+ * Every power of two is split into eight buckets, so all values are recorded with a relative error of at most 12.5%
+ * while the histogram covers the full range of positive longs with a fixed amount of memory.
+ * Recording a value never allocates and may happen concurrently from any number of threads.
+ */
+public final class LatencyHistogram {
+    /**
+     * Number of bits used for the linear sub-buckets within every power of two
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+    /**
+     * Number of linear sub-buckets within every power of two
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * Total number of buckets, covering all values up to {@link Long#MAX_VALUE}
+     */
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /**
+     * Number of recorded values per bucket
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    /**
+     * Number of recorded values
+     */
+    private final LongAdder count = new LongAdder();
+    /**
+     * Sum of all recorded values in nanoseconds
+     */
+    private final LongAdder sum = new LongAdder();
+    /**
+     * Maximum recorded value in nanoseconds
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a single latency, negative values are recorded as zero.
+     *
+     * @param nanos Latency in nanoseconds
+     */
+    public void record(long nanos) {
+        final long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return Number of values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean of all recorded values.
+     *
+     * @return Mean latency in nanoseconds or 0 if nothing has been recorded
+     */
+    public long getMean() {
+        final long count = this.count.sum();
+        return count > 0 ? sum.sum() / count : 0;
+    }
+
+    /**
+     * Returns the maximum of all recorded values.
+     *
+     * @return Maximum latency in nanoseconds or 0 if nothing has been recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the latency below which the given percentage of all recorded values falls, e.g. 99 for the 99th percentile.
+     * The result is the upper bound of the bucket containing the percentile, but never more than the recorded maximum.
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return Latency in nanoseconds or 0 if nothing has been recorded
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+
+        // Sum up the buckets instead of using the counter, as concurrent recordings might not be visible in both yet
+        final var counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        // Find the first bucket where the cumulative count reaches the requested rank
+        final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Resets all recorded values. Values recorded concurrently might be partially retained.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count=" + getCount() + ", meanNanos=" + getMean() + ", p50Nanos=" + getPercentile(50) +
+            ", p99Nanos=" + getPercentile(99) + ", maxNanos=" + getMax() + "}";
+    }
+
+    /**
+     * Calculates the bucket of a non-negative value. Values below the number of sub-buckets are mapped exactly,
+     * larger values are mapped by their highest bit and the following sub-bucket bits.
+     *
+     * @param value Non-negative value
+     * @return Index of bucket
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Calculates the largest value which is mapped to the given bucket.
+     *
+     * @param bucket Index of bucket
+     * @return Upper bound of bucket
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
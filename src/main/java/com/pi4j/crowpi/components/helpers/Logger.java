@@ -13,6 +13,10 @@ public class Logger {
         logger.setLevel(Level.INFO);
     }
 
+    public boolean isDebugEnabled() {
+        return logger.isLoggable(Level.FINER);
+    }
+
     public void trace(String message, Object... args) {
         logger.finest(() -> String.format(message, args));
     }
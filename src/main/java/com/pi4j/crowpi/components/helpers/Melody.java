@@ -0,0 +1,480 @@
+package com.pi4j.crowpi.components.helpers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable melody which has been compiled into a sequence of tone events, each consisting of a frequency in Hz and a
+ * duration in microseconds. Events are stored in primitive arrays, so playing a melody neither parses nor allocates.
+ * A frequency of zero represents silence.
+ * <p>
+ * Melodies can be created using {@link Builder}, which supports specifying note lengths relative to a tempo, compiled from
+ * the RTTTL text notation using {@link #fromRtttl(String)} or loaded from a compact binary file using {@link #load(Path)}.
+ */
+public final class Melody {
+    /**
+     * Magic number at the start of every melody file, "CPML" in ASCII
+     */
+    private static final int MAGIC = 0x43504D4C;
+    /**
+     * Version of the binary format
+     */
+    private static final int VERSION = 1;
+    /**
+     * Size of the file header in bytes: magic, version and event count
+     */
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+    /**
+     * Size of a single event within a file in bytes
+     */
+    private static final int EVENT_SIZE = 2 * Integer.BYTES;
+    /**
+     * Maximum number of compiled RTTTL melodies which are kept in the cache
+     */
+    private static final int CACHE_SIZE = 64;
+    /**
+     * Semitone offset within an octave for the note letters a to h, where h is the german name of b
+     */
+    private static final int[] SEMITONES = {9, 11, 0, 2, 4, 5, 7, 11};
+
+    /**
+     * Cache of compiled RTTTL melodies by their source text, evicting the least recently used melody
+     */
+    private static final Map<String, Melody> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Melody> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+    /**
+     * Frequency in Hz of every event, zero for silence
+     */
+    private final int[] frequencies;
+    /**
+     * Duration in microseconds of every event
+     */
+    private final int[] durations;
+    /**
+     * Sum of all durations in microseconds
+     */
+    private final long totalDuration;
+
+    /**
+     * Creates a new melody from the given event arrays without copying them.
+     *
+     * @param frequencies Frequency in Hz per event
+     * @param durations   Duration in microseconds per event
+     */
+    private Melody(int[] frequencies, int[] durations) {
+        long totalDuration = 0;
+        for (int i = 0; i < frequencies.length; i++) {
+            if (frequencies[i] < 0 || durations[i] < 0) {
+                throw new IllegalArgumentException("Frequency and duration of event " + i + " must not be negative");
+            }
+            totalDuration += durations[i];
+        }
+
+        this.frequencies = frequencies;
+        this.durations = durations;
+        this.totalDuration = totalDuration;
+    }
+
+    /**
+     * Creates a new melody from the given event arrays, which get copied.
+     *
+     * @param frequencies Frequency in Hz per event, zero for silence
+     * @param durations   Duration in microseconds per event, must have the same length as the frequencies
+     * @return Compiled melody
+     */
+    public static Melody of(int[] frequencies, int[] durations) {
+        if (frequencies.length != durations.length) {
+            throw new IllegalArgumentException("Frequencies and durations must have the same length");
+        }
+        return new Melody(frequencies.clone(), durations.clone());
+    }
+
+    /**
+     * Returns the compiled melody for the given RTTTL text, compiling it only once and serving subsequent requests for
+     * the same text from a cache of recently used melodies.
+     *
+     * @param rtttl Melody in RTTTL notation
+     * @return Compiled melody
+     * @throws IllegalArgumentException Text is not valid RTTTL
+     * @see #parseRtttl(String)
+     */
+    public static Melody fromRtttl(String rtttl) {
+        synchronized (cache) {
+            final var cached = cache.get(rtttl);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Compile outside the lock, concurrent compilations of the same text yield equal melodies
+        final var melody = parseRtttl(rtttl);
+        synchronized (cache) {
+            cache.put(rtttl, melody);
+        }
+        return melody;
+    }
+
+    /**
+     * Compiles a melody in RTTTL (ring tone text transfer language) notation, e.g. {@code "beep:d=8,o=6,b=120:c,p,c"}.
+     * The text consists of a name, the default duration, octave and tempo and a comma-separated list of notes.
+     * Every note consists of an optional duration (1, 2, 4, 8, 16 or 32), the note letter (a-g, h for b or p for a pause),
+     * an optional sharp (#), an optional octave and an optional dot which extends the note by half of its length.
+     * The text is parsed case-insensitive and may contain whitespace between notes and settings.
+     *
+     * @param rtttl Melody in RTTTL notation
+     * @return Compiled melody
+     * @throws IllegalArgumentException Text is not valid RTTTL
+     */
+    public static Melody parseRtttl(String rtttl) {
+        final var sections = rtttl.toLowerCase(Locale.ROOT).split(":", -1);
+        if (sections.length != 3) {
+            throw new IllegalArgumentException("RTTTL must consist of name, settings and notes separated by colons");
+        }
+
+        // Parse default settings, using the defaults of the specification for missing values
+        int defaultDuration = 4;
+        int defaultOctave = 6;
+        int tempo = 63;
+        for (final var setting : sections[1].split(",")) {
+            if (setting.isBlank()) {
+                continue;
+            }
+            final var parts = setting.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid RTTTL setting: " + setting.trim());
+            }
+            final int value = parseNumber(parts[1].trim(), setting);
+            switch (parts[0].trim()) {
+                case "d":
+                    defaultDuration = checkDuration(value);
+                    break;
+                case "o":
+                    defaultOctave = checkOctave(value);
+                    break;
+                case "b":
+                    tempo = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown RTTTL setting: " + setting.trim());
+            }
+        }
+
+        // Parse notes one by one
+        final var builder = new Builder().tempo(tempo);
+        for (final var token : sections[2].split(",")) {
+            final var note = token.trim();
+            if (note.isEmpty()) {
+                continue;
+            }
+
+            // Optional duration
+            int index = 0;
+            while (index < note.length() && Character.isDigit(note.charAt(index))) {
+                index++;
+            }
+            final int duration = index > 0 ? checkDuration(parseNumber(note.substring(0, index), note)) : defaultDuration;
+
+            // Note letter and optional sharp, which only applies to actual notes
+            if (index >= note.length()) {
+                throw new IllegalArgumentException("Missing note letter in RTTTL note: " + note);
+            }
+            final char letter = note.charAt(index++);
+            if (letter != 'p' && (letter < 'a' || letter > 'h')) {
+                throw new IllegalArgumentException("Invalid note letter in RTTTL note: " + note);
+            }
+            int semitone = letter == 'p' ? -1 : SEMITONES[letter - 'a'];
+            if (index < note.length() && note.charAt(index) == '#') {
+                if (letter == 'p') {
+                    throw new IllegalArgumentException("Pause can not be sharp in RTTTL note: " + note);
+                }
+                semitone++;
+                index++;
+            }
+
+            // Dot and octave, the dot is accepted before and after the octave as both variants are common
+            boolean dotted = false;
+            if (index < note.length() && note.charAt(index) == '.') {
+                dotted = true;
+                index++;
+            }
+            int octave = defaultOctave;
+            if (index < note.length() && Character.isDigit(note.charAt(index))) {
+                octave = checkOctave(note.charAt(index++) - '0');
+            }
+            if (index < note.length() && note.charAt(index) == '.' && !dotted) {
+                dotted = true;
+                index++;
+            }
+            if (index != note.length()) {
+                throw new IllegalArgumentException("Unexpected trailing characters in RTTTL note: " + note);
+            }
+
+            // A whole note lasts four beats
+            long micros = 4 * 60_000_000L / tempo / duration;
+            if (dotted) {
+                micros += micros / 2;
+            }
+            builder.tone(semitone < 0 ? 0 : frequency(octave, semitone), micros);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Loads a melody from a file previously written by {@link #save(Path)}.
+     * The file gets memory-mapped and its events are copied in bulk, so loading does not parse anything.
+     *
+     * @param path Source file
+     * @return Loaded melody
+     * @throws IOException Reading the file failed or the file has an invalid format
+     */
+    public static Melody load(Path path) throws IOException {
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("File " + path + " does not contain a melody");
+            }
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+
+            // Validate header
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("File " + path + " does not contain a melody");
+            }
+            final int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported melody format version " + version + " in " + path);
+            }
+            final int size = buffer.getInt();
+            if (size < 0 || fileSize != HEADER_SIZE + (long) size * EVENT_SIZE) {
+                throw new IOException("Invalid melody header in " + path);
+            }
+
+            // Copy frequencies and durations, which are stored as separate blocks
+            final var frequencies = new int[size];
+            final var durations = new int[size];
+            final var events = buffer.asIntBuffer();
+            events.get(frequencies);
+            events.get(durations);
+
+            try {
+                return new Melody(frequencies, durations);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid melody event in " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Writes this melody to the given file using a compact binary format.
+     * The file starts with a header (magic number, format version and event count as 32-bit integers), followed by the
+     * frequencies of all events and afterwards the durations of all events, all as 32-bit integers.
+     * All numbers are stored in big-endian byte order. Existing files get replaced.
+     *
+     * @param path Target file
+     * @throws IOException Writing the file failed
+     */
+    public void save(Path path) throws IOException {
+        final var buffer = ByteBuffer.allocate(HEADER_SIZE + size() * EVENT_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(size());
+        buffer.asIntBuffer().put(frequencies).put(durations);
+        buffer.rewind();
+
+        try (final var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events within this melody.
+     *
+     * @return Number of events
+     */
+    public int size() {
+        return frequencies.length;
+    }
+
+    /**
+     * Returns the frequency of the event at the given position.
+     *
+     * @param index Position of event
+     * @return Frequency in Hz, zero for silence
+     */
+    public int getFrequency(int index) {
+        return frequencies[index];
+    }
+
+    /**
+     * Returns the duration of the event at the given position.
+     *
+     * @param index Position of event
+     * @return Duration in microseconds
+     */
+    public int getDuration(int index) {
+        return durations[index];
+    }
+
+    /**
+     * Returns the total duration of this melody.
+     *
+     * @return Total duration in microseconds
+     */
+    public long getTotalDuration() {
+        return totalDuration;
+    }
+
+    /**
+     * Calculates the equal-tempered frequency of a note relative to A4 at 440 Hz.
+     *
+     * @param octave   Octave of note
+     * @param semitone Semitone within octave, starting with 0 for c
+     * @return Frequency in Hz
+     */
+    private static int frequency(int octave, int semitone) {
+        final int key = 12 * (octave + 1) + semitone;
+        return (int) Math.round(440 * Math.pow(2, (key - 69) / 12.0));
+    }
+
+    /**
+     * Parses a positive decimal number of a RTTTL setting or note.
+     *
+     * @param value   Text to parse
+     * @param context Setting or note containing the value, used for error messages
+     * @return Parsed number
+     */
+    private static int parseNumber(String value, String context) {
+        try {
+            final int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("Invalid number in RTTTL: " + context.trim());
+    }
+
+    /**
+     * Ensures that the given RTTTL duration is a power of two up to 32.
+     *
+     * @param duration Note length as fraction of a whole note
+     * @return Validated duration
+     */
+    private static int checkDuration(int duration) {
+        if (Integer.bitCount(duration) != 1 || duration > 32) {
+            throw new IllegalArgumentException("Invalid RTTTL duration: " + duration);
+        }
+        return duration;
+    }
+
+    /**
+     * Ensures that the given RTTTL octave is within the audible range of the buzzer.
+     *
+     * @param octave Octave number
+     * @return Validated octave
+     */
+    private static int checkOctave(int octave) {
+        if (octave < 1 || octave > 8) {
+            throw new IllegalArgumentException("Invalid RTTTL octave: " + octave);
+        }
+        return octave;
+    }
+
+    /**
+     * Builder for compiling melodies event by event.
+     */
+    public static final class Builder {
+        /**
+         * Default tempo in beats (quarter notes) per minute
+         */
+        private static final int DEFAULT_TEMPO = 120;
+
+        private int[] frequencies = new int[16];
+        private int[] durations = new int[16];
+        private int size;
+        private int tempo = DEFAULT_TEMPO;
+
+        /**
+         * Sets the tempo which is used for all following notes and rests.
+         *
+         * @param bpm Tempo in beats (quarter notes) per minute
+         * @return Builder instance
+         */
+        public Builder tempo(int bpm) {
+            if (bpm < 1) {
+                throw new IllegalArgumentException("Tempo must be at least 1 bpm");
+            }
+            this.tempo = bpm;
+            return this;
+        }
+
+        /**
+         * Appends a note with a length relative to the current tempo, e.g. a division of 4 for a quarter note.
+         *
+         * @param frequency Frequency in Hz, zero for silence
+         * @param division  Note length as fraction of a whole note
+         * @return Builder instance
+         */
+        public Builder note(int frequency, int division) {
+            if (division < 1) {
+                throw new IllegalArgumentException("Note division must be at least 1");
+            }
+            // A whole note lasts four beats
+            return tone(frequency, 4 * 60_000_000L / tempo / division);
+        }
+
+        /**
+         * Appends a rest with a length relative to the current tempo, e.g. a division of 4 for a quarter rest.
+         *
+         * @param division Rest length as fraction of a whole note
+         * @return Builder instance
+         */
+        public Builder rest(int division) {
+            return note(0, division);
+        }
+
+        /**
+         * Appends a tone with an absolute duration.
+         *
+         * @param frequency Frequency in Hz, zero for silence
+         * @param duration  Duration in microseconds
+         * @return Builder instance
+         */
+        public Builder tone(int frequency, long duration) {
+            if (frequency < 0 || duration < 0 || duration > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Frequency or duration out of range");
+            }
+
+            // Grow arrays if necessary
+            if (size == frequencies.length) {
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+                durations = Arrays.copyOf(durations, size * 2);
+            }
+
+            frequencies[size] = frequency;
+            durations[size] = (int) duration;
+            size++;
+            return this;
+        }
+
+        /**
+         * Compiles all appended events into a melody.
+         *
+         * @return Compiled melody
+         */
+        public Melody build() {
+            return new Melody(Arrays.copyOf(frequencies, size), Arrays.copyOf(durations, size));
+        }
+    }
+}
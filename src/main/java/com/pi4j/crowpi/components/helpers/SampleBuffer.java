@@ -0,0 +1,339 @@
+package com.pi4j.crowpi.components.helpers;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fixed-capacity ring buffer of timestamped samples, storing timestamps and values in primitive arrays.
+ * Once the buffer is full, every new sample overwrites the oldest one, so adding samples never allocates.
+ * All timestamps are milliseconds since epoch as returned by {@link System#currentTimeMillis()}, which keeps them
+ * comparable across components and still meaningful after a dump has been restored by another process.
+ * <p>
+ * The buffer supports a single writer and any number of concurrent readers without locking, similar to a seqlock. The
+ * writer claims the slot of every sample before storing it and publishes the sample afterwards. Readers copy the
+ * requested range and afterwards discard all samples whose slot has been claimed again in the meantime, so a snapshot
+ * never contains torn samples.
+ * <p>
+ * The contents can be written to and restored from disk using a compact binary format, see {@link #dump(Path)}.
+ */
+public final class SampleBuffer {
+    /**
+     * Magic number at the start of every dump file, "CPSB" in ASCII
+     */
+    private static final int MAGIC = 0x43505342;
+    /**
+     * Version of the binary format
+     */
+    private static final int VERSION = 1;
+    /**
+     * Size of the dump header in bytes: magic, version, capacity and sample count
+     */
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+    /**
+     * Size of a single sample within a dump in bytes
+     */
+    private static final int SAMPLE_SIZE = Long.BYTES + Double.BYTES;
+    /**
+     * Number of samples which are transferred per chunk when dumping or restoring
+     */
+    private static final int CHUNK_SAMPLES = 512;
+
+    /**
+     * Maximum number of retained samples
+     */
+    private final int capacity;
+    /**
+     * Timestamps of all samples, indexed by sample number modulo array length.
+     * The arrays contain one additional slot for the sample which is currently being written.
+     */
+    private final long[] timestamps;
+    /**
+     * Values of all samples, indexed by sample number modulo array length
+     */
+    private final double[] values;
+    /**
+     * Total number of samples which have been added, only written by the writer
+     */
+    private volatile long count;
+    /**
+     * Total number of samples whose slot has been claimed by the writer, which exceeds {@link #count} by one while a
+     * sample is being stored, only written by the writer
+     */
+    private volatile long claimed;
+
+    /**
+     * Creates a new empty sample buffer with the given capacity.
+     *
+     * @param capacity Maximum number of samples which are retained
+     */
+    public SampleBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.timestamps = new long[capacity + 1];
+        this.values = new double[capacity + 1];
+    }
+
+    /**
+     * Adds a new sample and overwrites the oldest one if the buffer is full.
+     * Must only be called by a single writer thread.
+     *
+     * @param timestamp Timestamp of sample in milliseconds since epoch, see {@link System#currentTimeMillis()}
+     * @param value     Value of sample
+     */
+    public void add(long timestamp, double value) {
+        final long current = count;
+        final int index = (int) (current % timestamps.length);
+
+        // Claim the slot before overwriting it, the fence keeps the stores below from being reordered before the claim
+        claimed = current + 1;
+        VarHandle.storeStoreFence();
+
+        timestamps[index] = timestamp;
+        values[index] = value;
+        count = current + 1;
+    }
+
+    /**
+     * Returns the maximum number of samples which are retained.
+     *
+     * @return Capacity of buffer
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of samples which are currently retained.
+     *
+     * @return Number of samples
+     */
+    public int size() {
+        return (int) Math.min(count, capacity);
+    }
+
+    /**
+     * Returns the total number of samples which have been added since creation, including overwritten ones.
+     *
+     * @return Total number of samples
+     */
+    public long getTotalCount() {
+        return count;
+    }
+
+    /**
+     * Copies the retained samples from oldest to newest into new arrays.
+     *
+     * @return Snapshot of retained samples
+     */
+    public Snapshot snapshot() {
+        final var timestamps = new long[capacity()];
+        final var values = new double[capacity()];
+        final int size = snapshot(timestamps, values);
+        return new Snapshot(timestamps, values, size);
+    }
+
+    /**
+     * Copies the newest retained samples from oldest to newest into the given arrays without allocating.
+     * If the arrays are smaller than the number of retained samples, only the newest samples are copied.
+     *
+     * @param timestamps Target array for timestamps
+     * @param values     Target array for values, must have the same length as the timestamps
+     * @return Number of copied samples
+     */
+    public int snapshot(long[] timestamps, double[] values) {
+        if (timestamps.length != values.length) {
+            throw new IllegalArgumentException("Target arrays must have the same length");
+        }
+
+        final int length = this.timestamps.length;
+        final long end = count;
+        final long start = Math.max(0, end - Math.min(capacity, timestamps.length));
+
+        // Copy samples at once, as the writer might overwrite the oldest ones in the meantime
+        for (long i = start; i < end; i++) {
+            final int index = (int) (i % length);
+            final int target = (int) (i - start);
+            timestamps[target] = this.timestamps[index];
+            values[target] = this.values[index];
+        }
+
+        // Discard all samples whose slot has been claimed by the writer during the copy
+        // The fence keeps the copy above from being reordered after reading the claimed counter
+        // Thanks to the additional slot, a sample is only claimed again once it is no longer retained anyway
+        VarHandle.loadLoadFence();
+        final long overwritten = claimed - length - start;
+        if (overwritten <= 0) {
+            return (int) (end - start);
+        }
+        if (overwritten >= end - start) {
+            return 0;
+        }
+        final int valid = (int) (end - start - overwritten);
+        System.arraycopy(timestamps, (int) overwritten, timestamps, 0, valid);
+        System.arraycopy(values, (int) overwritten, values, 0, valid);
+        return valid;
+    }
+
+    /**
+     * Writes a snapshot of the retained samples to the given file using a compact binary format.
+     * The file starts with a header (magic number, format version, capacity and sample count as 32-bit integers),
+     * followed by all samples from oldest to newest as pairs of a 64-bit timestamp in milliseconds since epoch and a
+     * 64-bit floating point value.
+     * All numbers are stored in big-endian byte order. Existing files get replaced.
+     *
+     * @param path Target file
+     * @throws IOException Writing the file failed
+     */
+    public void dump(Path path) throws IOException {
+        final var snapshot = snapshot();
+        final var buffer = ByteBuffer.allocateDirect(Math.max(HEADER_SIZE, CHUNK_SAMPLES * SAMPLE_SIZE));
+
+        try (final var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Write header
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(capacity()).putInt(snapshot.size());
+            writeFully(channel, buffer);
+
+            // Write samples in chunks
+            for (int i = 0; i < snapshot.size(); i++) {
+                buffer.putLong(snapshot.getTimestamp(i)).putDouble(snapshot.getValue(i));
+                if (!buffer.hasRemaining()) {
+                    writeFully(channel, buffer);
+                }
+            }
+            writeFully(channel, buffer);
+        }
+    }
+
+    /**
+     * Restores a sample buffer from a file previously written by {@link #dump(Path)}.
+     * The restored buffer has the same capacity and contains the same samples as the dumped one.
+     *
+     * @param path Source file
+     * @return Restored sample buffer
+     * @throws IOException Reading the file failed or the file has an invalid format
+     */
+    public static SampleBuffer restore(Path path) throws IOException {
+        final var buffer = ByteBuffer.allocateDirect(Math.max(HEADER_SIZE, CHUNK_SAMPLES * SAMPLE_SIZE));
+
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Read and validate header
+            buffer.limit(HEADER_SIZE);
+            readFully(channel, buffer);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("File " + path + " does not contain a sample buffer");
+            }
+            final int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported sample buffer format version " + version + " in " + path);
+            }
+            final int capacity = buffer.getInt();
+            final int size = buffer.getInt();
+            if (capacity < 1 || size < 0 || size > capacity) {
+                throw new IOException("Invalid sample buffer header in " + path);
+            }
+
+            // Read samples in chunks
+            final var sampleBuffer = new SampleBuffer(capacity);
+            int remaining = size;
+            while (remaining > 0) {
+                final int chunk = Math.min(remaining, CHUNK_SAMPLES);
+                buffer.clear().limit(chunk * SAMPLE_SIZE);
+                readFully(channel, buffer);
+                for (int i = 0; i < chunk; i++) {
+                    sampleBuffer.add(buffer.getLong(), buffer.getDouble());
+                }
+                remaining -= chunk;
+            }
+            return sampleBuffer;
+        }
+    }
+
+    /**
+     * Writes all remaining bytes of the flipped buffer and clears it afterwards.
+     *
+     * @param channel Target channel
+     * @param buffer  Buffer in write mode, gets flipped by this method
+     * @throws IOException Writing failed
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads until the buffer has been filled up to its limit and flips it afterwards.
+     *
+     * @param channel Source channel
+     * @param buffer  Buffer with limit set to the number of bytes to read
+     * @throws IOException Reading failed or end of file has been reached prematurely
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Unexpected end of sample buffer file");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Immutable copy of the samples which were retained at the time of the snapshot, ordered from oldest to newest.
+     */
+    public static final class Snapshot {
+        private final long[] timestamps;
+        private final double[] values;
+        private final int size;
+
+        private Snapshot(long[] timestamps, double[] values, int size) {
+            this.timestamps = timestamps;
+            this.values = values;
+            this.size = size;
+        }
+
+        /**
+         * Returns the number of samples within this snapshot.
+         *
+         * @return Number of samples
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns the timestamp of the sample at the given position.
+         *
+         * @param index Position of sample, 0 being the oldest one
+         * @return Timestamp of sample
+         */
+        public long getTimestamp(int index) {
+            return timestamps[checkIndex(index)];
+        }
+
+        /**
+         * Returns the value of the sample at the given position.
+         *
+         * @param index Position of sample, 0 being the oldest one
+         * @return Value of sample
+         */
+        public double getValue(int index) {
+            return values[checkIndex(index)];
+        }
+
+        private int checkIndex(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Sample index " + index + " out of bounds for size " + size);
+            }
+            return index;
+        }
+    }
+}
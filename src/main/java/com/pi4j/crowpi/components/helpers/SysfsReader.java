@@ -0,0 +1,210 @@
+package com.pi4j.crowpi.components.helpers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader for sysfs attribute files which contain a single integer value, e.g. the IIO files written by kernel drivers.
+ * The file is kept open and every read uses a positional read at offset zero into a reusable buffer, which makes the
+ * kernel regenerate the attribute contents without reopening the file. The value is parsed without creating any strings.
+ * <p>
+ * Some drivers (like the DHT11 one) frequently fail with EIO. Failed reads are not retried immediately, as sleeping would
+ * block the shared sampling workers. Instead, the next read of the poller acts as retry and reopens the file first.
+ * Pollers should back off by raising their period after consecutive failures instead of sleeping.
+ * All failures and retries are counted and can be retrieved for diagnostics.
+ * Reads must only be executed by a single poller thread, whereas the failure counters may be retrieved from any thread.
+ */
+public final class SysfsReader implements Closeable {
+    /**
+     * Size of the reusable read buffer, large enough for any integer attribute
+     */
+    private static final int BUFFER_SIZE = 32;
+
+    /**
+     * Path of the sysfs attribute
+     */
+    private final Path path;
+    /**
+     * Reusable buffer for reading the file contents
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * Open file channel or null if not opened yet or closed after an error
+     */
+    private FileChannel channel;
+    /**
+     * Total number of reads which failed
+     */
+    private volatile long failureCount;
+    /**
+     * Total number of reads which followed a failed read
+     */
+    private volatile long retryCount;
+    /**
+     * Number of consecutive reads which failed
+     */
+    private volatile int consecutiveFailures;
+
+    /**
+     * Creates a new reader for the given path.
+     *
+     * @param path Path to sysfs attribute
+     */
+    public SysfsReader(String path) {
+        this.path = Path.of(path);
+    }
+
+    /**
+     * Reads the current integer value of the attribute with a single attempt and without blocking beyond the read itself.
+     * A failed read closes the file, so the next call reopens it in case the driver is in a broken state.
+     *
+     * @return Current value of the attribute
+     * @throws IOException Reading or parsing failed
+     */
+    public int readInt() throws IOException {
+        // Count this read as retry if the previous one failed
+        if (consecutiveFailures > 0) {
+            retryCount++;
+        }
+
+        try {
+            final int value = readOnce();
+            consecutiveFailures = 0;
+            return value;
+        } catch (IOException e) {
+            close();
+            failureCount++;
+            consecutiveFailures++;
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the total number of reads which failed.
+     *
+     * @return Number of failed reads
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Returns the total number of reads which followed a failed read and therefore acted as retry.
+     *
+     * @return Number of retries
+     */
+    public long getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Returns the number of consecutive reads which failed, reset by every successful read.
+     *
+     * @return Number of consecutive failures
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * Closes the underlying file channel. The reader may still be used afterwards and reopens the file on demand.
+     */
+    @Override
+    public void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Executes a single positional read of the attribute and parses the result.
+     *
+     * @return Parsed value
+     * @throws IOException Reading or parsing failed
+     */
+    private int readOnce() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+
+        // Read from the start of the file, repeating until the buffer is full or the end has been reached
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) <= 0) {
+                break;
+            }
+        }
+
+        return parseInt(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Parses a decimal integer with optional sign from the start of the buffer, ignoring leading and trailing whitespace.
+     *
+     * @param bytes  Buffer containing ASCII characters
+     * @param length Number of valid bytes within buffer
+     * @return Parsed value
+     * @throws IOException Buffer does not contain a valid integer
+     */
+    private int parseInt(byte[] bytes, int length) throws IOException {
+        int index = 0;
+        while (index < length && isWhitespace(bytes[index])) {
+            index++;
+        }
+
+        // Parse optional sign
+        boolean negative = false;
+        if (index < length && (bytes[index] == '-' || bytes[index] == '+')) {
+            negative = bytes[index] == '-';
+            index++;
+        }
+
+        // Accumulate digits as negative value to support the full integer range
+        final int firstDigit = index;
+        long value = 0;
+        while (index < length && bytes[index] >= '0' && bytes[index] <= '9') {
+            value = value * 10 - (bytes[index] - '0');
+            if (value < Integer.MIN_VALUE) {
+                throw new IOException("Value of " + path + " exceeds integer range");
+            }
+            index++;
+        }
+
+        // Ensure at least one digit was found and nothing but whitespace follows
+        if (index == firstDigit) {
+            throw new IOException("No integer value found in " + path);
+        }
+        while (index < length) {
+            if (!isWhitespace(bytes[index++])) {
+                throw new IOException("Unexpected trailing characters in " + path);
+            }
+        }
+
+        if (negative) {
+            return (int) value;
+        }
+        if (value == Integer.MIN_VALUE) {
+            throw new IOException("Value of " + path + " exceeds integer range");
+        }
+        return (int) -value;
+    }
+
+    /**
+     * Checks if the given ASCII character is considered as whitespace.
+     *
+     * @param c ASCII character
+     * @return True if whitespace, otherwise false
+     */
+    private static boolean isWhitespace(byte c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+}
@@ -0,0 +1,28 @@
+package com.pi4j.crowpi.components.helpers;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class provides helper methods for precise timing below the granularity of {@link Thread#sleep(long)}.
+ */
+public class TimingHelpers {
+    /**
+     * Remaining time in nanoseconds before a deadline, below which the thread spins instead of parking to avoid oversleeping
+     */
+    private static final long SPIN_THRESHOLD_NANOS = 50_000;
+
+    /**
+     * Waits until the given point in time, parking the thread for most of the time and spinning right before the deadline.
+     *
+     * @param deadlineNanos Deadline as returned by {@link System#nanoTime()}
+     */
+    public static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > SPIN_THRESHOLD_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+        }
+        while (deadlineNanos - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package com.pi4j.crowpi.components.internal.rfid;
+
+import com.pi4j.crowpi.components.exceptions.RfidException;
+import com.pi4j.crowpi.components.helpers.ByteHelpers;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Compact schema-based binary codec for records and simple POJOs, optimized for the limited capacity of RFID cards.
+ * The schema is derived once from the given class via reflection and each field is then written without any names or type descriptors:
+ * <ul>
+ *     <li>{@code boolean} and {@code byte} as a single byte</li>
+ *     <li>{@code short}, {@code int}, {@code long} and {@code char} as variable-length integers (zig-zag encoded if signed)</li>
+ *     <li>{@code float} and {@code double} as fixed 4 / 8 bytes</li>
+ *     <li>{@link String} and {@code byte[]} as length-prefixed bytes, enums as ordinal</li>
+ *     <li>{@link UUID} as fixed 16 bytes, {@link LocalDate} as epoch day and {@link Instant} as epoch second and nanoseconds</li>
+ *     <li>Nested records or POJOs with their own fields</li>
+ * </ul>
+ * Boxed types and other references may be null, which is encoded within the length prefix or as an additional presence byte.
+ * Every payload starts with a format marker and a 16-bit fingerprint of the schema and ends with a CRC-16 checksum,
+ * so reading a card written with a different schema or corrupted data fails with an exception instead of returning garbage.
+ * <p>
+ * Records are created using their canonical constructor. POJOs need a constructor without parameters and all non-static,
+ * non-transient fields are mapped in alphabetical order. Reflective access requires the package of the class to be open.
+ * Types which contain themselves, either directly or through other nested types, are rejected as the schema would be infinite.
+ *
+ * @param <T> Type of objects handled by this codec
+ */
+public final class BinaryCodec<T> implements RfidCardCodec<T> {
+    /**
+     * Marker byte at the start of every payload written by this codec
+     */
+    private static final byte FORMAT_MARKER = (byte) 0xB1;
+    /**
+     * Number of bytes used for the format marker and the schema fingerprint
+     */
+    private static final int HEADER_SIZE = 3;
+    /**
+     * Number of bytes used for the trailing checksum
+     */
+    private static final int CHECKSUM_SIZE = 2;
+
+    /**
+     * Mapper for the root type of this codec
+     */
+    private final ObjectMapper<T> mapper;
+    /**
+     * 16-bit fingerprint of the schema, derived from all field names and types
+     */
+    private final int fingerprint;
+
+    /**
+     * Creates a new binary codec for the given record or POJO class.
+     *
+     * @param type Class of objects handled by this codec
+     * @throws IllegalArgumentException Class or one of its fields is not supported or the class references itself
+     */
+    public BinaryCodec(Class<T> type) {
+        this.mapper = new ObjectMapper<>(type, new HashSet<>());
+
+        final var schema = new StringBuilder();
+        mapper.describe(schema);
+        final var schemaBytes = schema.toString().getBytes(StandardCharsets.UTF_8);
+        this.fingerprint = ByteHelpers.crc16(schemaBytes, 0, schemaBytes.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] encode(T value) throws RfidException {
+        if (value == null) {
+            throw new RfidException("Could not write object to card: value must not be null");
+        }
+
+        final var writer = new Writer();
+        writer.writeByte(FORMAT_MARKER);
+        writer.writeByte((byte) (fingerprint >> 8));
+        writer.writeByte((byte) fingerprint);
+        try {
+            mapper.write(writer, value);
+        } catch (ReflectiveOperationException e) {
+            throw new RfidException("Could not write object to card: " + e.getMessage(), e);
+        }
+
+        final int checksum = ByteHelpers.crc16(writer.buffer, 0, writer.length);
+        writer.writeByte((byte) (checksum >> 8));
+        writer.writeByte((byte) checksum);
+        return writer.toByteArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T decode(byte[] data) throws RfidException {
+        // Verify header and checksum before touching any field
+        if (data.length < HEADER_SIZE + CHECKSUM_SIZE || data[0] != FORMAT_MARKER) {
+            throw new RfidException("Could not read object from card: unknown data format");
+        }
+        final int length = data.length - CHECKSUM_SIZE;
+        final int expectedChecksum = ((data[length] & 0xFF) << 8) | (data[length + 1] & 0xFF);
+        if (ByteHelpers.crc16(data, 0, length) != expectedChecksum) {
+            throw new RfidException("Could not read object from card: checksum mismatch");
+        }
+        if ((((data[1] & 0xFF) << 8) | (data[2] & 0xFF)) != fingerprint) {
+            throw new RfidException("Could not read object from card: data was written with a different schema");
+        }
+
+        // Decode all fields of the root object
+        final var reader = new Reader(data, HEADER_SIZE, length);
+        try {
+            final var value = mapper.read(reader);
+            if (reader.position != length) {
+                throw new RfidException("Could not read object from card: unexpected trailing data");
+            }
+            return value;
+        } catch (ReflectiveOperationException | IndexOutOfBoundsException | DateTimeException | ArithmeticException e) {
+            // Dates and instants outside the supported range can only result from corrupted or foreign data
+            throw new RfidException("Could not read object from card: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Encoder and decoder for a single supported type.
+     */
+    private interface TypeHandler {
+        void write(Writer writer, Object value) throws ReflectiveOperationException;
+
+        Object read(Reader reader) throws ReflectiveOperationException;
+
+        void describe(StringBuilder schema);
+    }
+
+    /**
+     * Resolves the handler for the given type, which is either a built-in type or a nested record / POJO.
+     *
+     * @param type    Type of field
+     * @param parents Records and POJOs which are currently being mapped, used to detect self-referential types
+     * @return Handler for given type
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static TypeHandler handlerFor(Class<?> type, Set<Class<?>> parents) {
+        // Primitive types which can never be null
+        if (type == boolean.class) {
+            return simple("Z", (w, v) -> w.writeByte((byte) ((Boolean) v ? 1 : 0)), r -> r.readByte() != 0);
+        }
+        if (type == byte.class) {
+            return simple("B", (w, v) -> w.writeByte((Byte) v), Reader::readByte);
+        }
+        if (type == short.class) {
+            return simple("S", (w, v) -> w.writeSignedVarint((Short) v), r -> (short) r.readSignedVarint());
+        }
+        if (type == int.class) {
+            return simple("I", (w, v) -> w.writeSignedVarint((Integer) v), r -> (int) r.readSignedVarint());
+        }
+        if (type == long.class) {
+            return simple("J", (w, v) -> w.writeSignedVarint((Long) v), Reader::readSignedVarint);
+        }
+        if (type == char.class) {
+            return simple("C", (w, v) -> w.writeVarint((Character) v), r -> (char) r.readVarint());
+        }
+        if (type == float.class) {
+            return simple("F", (w, v) -> w.writeFixed(Float.floatToIntBits((Float) v), 4), r -> Float.intBitsToFloat((int) r.readFixed(4)));
+        }
+        if (type == double.class) {
+            return simple("D", (w, v) -> w.writeFixed(Double.doubleToLongBits((Double) v), 8), r -> Double.longBitsToDouble(r.readFixed(8)));
+        }
+
+        // Boxed primitives are nullable variants of the primitive types
+        if (type == Boolean.class) {
+            return nullable(handlerFor(boolean.class, parents));
+        }
+        if (type == Byte.class) {
+            return nullable(handlerFor(byte.class, parents));
+        }
+        if (type == Short.class) {
+            return nullable(handlerFor(short.class, parents));
+        }
+        if (type == Integer.class) {
+            return nullable(handlerFor(int.class, parents));
+        }
+        if (type == Long.class) {
+            return nullable(handlerFor(long.class, parents));
+        }
+        if (type == Character.class) {
+            return nullable(handlerFor(char.class, parents));
+        }
+        if (type == Float.class) {
+            return nullable(handlerFor(float.class, parents));
+        }
+        if (type == Double.class) {
+            return nullable(handlerFor(double.class, parents));
+        }
+
+        // Length-prefixed types, where a length of zero represents null
+        if (type == String.class) {
+            return simple("T", (w, v) -> w.writeBytes(v != null ? ((String) v).getBytes(StandardCharsets.UTF_8) : null),
+                r -> {
+                    final var bytes = r.readBytes();
+                    return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+                });
+        }
+        if (type == byte[].class) {
+            return simple("A", (w, v) -> w.writeBytes((byte[]) v), Reader::readBytes);
+        }
+        if (type.isEnum()) {
+            final var constants = type.getEnumConstants();
+            return simple("E" + constants.length, (w, v) -> w.writeVarint(v != null ? ((Enum) v).ordinal() + 1 : 0),
+                r -> {
+                    final int ordinal = (int) r.readVarint();
+                    return ordinal != 0 ? constants[ordinal - 1] : null;
+                });
+        }
+
+        // Well-known value types with a compact representation
+        if (type == UUID.class) {
+            return nullable(simple("U",
+                (w, v) -> {
+                    w.writeFixed(((UUID) v).getMostSignificantBits(), 8);
+                    w.writeFixed(((UUID) v).getLeastSignificantBits(), 8);
+                },
+                r -> new UUID(r.readFixed(8), r.readFixed(8))));
+        }
+        if (type == LocalDate.class) {
+            return nullable(simple("L", (w, v) -> w.writeSignedVarint(((LocalDate) v).toEpochDay()), r -> LocalDate.ofEpochDay(r.readSignedVarint())));
+        }
+        if (type == Instant.class) {
+            return nullable(simple("N",
+                (w, v) -> {
+                    w.writeSignedVarint(((Instant) v).getEpochSecond());
+                    w.writeVarint(((Instant) v).getNano());
+                },
+                r -> Instant.ofEpochSecond(r.readSignedVarint(), r.readVarint())));
+        }
+
+        // Everything else must be a nested record or POJO
+        if (type.isPrimitive() || type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException("Unsupported type for binary codec: " + type.getName());
+        }
+        return nullable(new ObjectMapper<>(type, parents));
+    }
+
+    /**
+     * Functional interface for writing a single non-null value.
+     */
+    private interface ValueWriter {
+        void write(Writer writer, Object value);
+    }
+
+    /**
+     * Functional interface for reading a single value.
+     */
+    private interface ValueReader {
+        Object read(Reader reader);
+    }
+
+    /**
+     * Creates a handler from the given writer and reader functions.
+     */
+    private static TypeHandler simple(String descriptor, ValueWriter valueWriter, ValueReader valueReader) {
+        return new TypeHandler() {
+            @Override
+            public void write(Writer writer, Object value) {
+                valueWriter.write(writer, value);
+            }
+
+            @Override
+            public Object read(Reader reader) {
+                return valueReader.read(reader);
+            }
+
+            @Override
+            public void describe(StringBuilder schema) {
+                schema.append(descriptor);
+            }
+        };
+    }
+
+    /**
+     * Wraps the given handler with an additional presence byte to support null values.
+     */
+    private static TypeHandler nullable(TypeHandler handler) {
+        return new TypeHandler() {
+            @Override
+            public void write(Writer writer, Object value) throws ReflectiveOperationException {
+                writer.writeByte((byte) (value != null ? 1 : 0));
+                if (value != null) {
+                    handler.write(writer, value);
+                }
+            }
+
+            @Override
+            public Object read(Reader reader) throws ReflectiveOperationException {
+                return reader.readByte() != 0 ? handler.read(reader) : null;
+            }
+
+            @Override
+            public void describe(StringBuilder schema) {
+                schema.append('?');
+                handler.describe(schema);
+            }
+        };
+    }
+
+    /**
+     * Maps a record or POJO to its fields, which are encoded in a well-defined order.
+     *
+     * @param <O> Type of mapped object
+     */
+    private static final class ObjectMapper<O> implements TypeHandler {
+        private final Class<O> type;
+        private final List<String> names = new ArrayList<>();
+        private final List<TypeHandler> handlers = new ArrayList<>();
+        private final Field[] fields;
+        private final RecordComponent[] components;
+        private final Constructor<O> constructor;
+
+        ObjectMapper(Class<O> type, Set<Class<?>> parents) {
+            this.type = type;
+            if (!parents.add(type)) {
+                throw new IllegalArgumentException("Type " + type.getName() + " references itself, which is not supported by binary codec");
+            }
+            try {
+                if (type.isRecord()) {
+                    // Records are mapped by their components in declaration order and created using the canonical constructor
+                    this.components = type.getRecordComponents();
+                    this.fields = null;
+                    final var parameterTypes = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+                    this.constructor = type.getDeclaredConstructor(parameterTypes);
+                    for (final var component : components) {
+                        component.getAccessor().setAccessible(true);
+                        names.add(component.getName());
+                        handlers.add(handlerFor(component.getType(), parents));
+                    }
+                } else {
+                    // POJOs are mapped by all instance fields in alphabetical order and created using the no-args constructor
+                    this.components = null;
+                    this.fields = Arrays.stream(type.getDeclaredFields())
+                        .filter(field -> !Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers()))
+                        .filter(field -> !field.isSynthetic())
+                        .sorted(Comparator.comparing(Field::getName))
+                        .toArray(Field[]::new);
+                    this.constructor = type.getDeclaredConstructor();
+                    for (final var field : fields) {
+                        field.setAccessible(true);
+                        names.add(field.getName());
+                        handlers.add(handlerFor(field.getType(), parents));
+                    }
+                }
+                this.constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("Type " + type.getName() + " requires a canonical or no-args constructor for binary codec", e);
+            } finally {
+                // Siblings may use the same type again, only nesting within itself is a cycle
+                parents.remove(type);
+            }
+        }
+
+        @Override
+        public void write(Writer writer, Object value) throws ReflectiveOperationException {
+            for (int i = 0; i < handlers.size(); i++) {
+                final var fieldValue = components != null ? components[i].getAccessor().invoke(value) : fields[i].get(value);
+                handlers.get(i).write(writer, fieldValue);
+            }
+        }
+
+        @Override
+        public O read(Reader reader) throws ReflectiveOperationException {
+            final var values = new Object[handlers.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = handlers.get(i).read(reader);
+            }
+
+            if (components != null) {
+                return constructor.newInstance(values);
+            }
+
+            final var instance = constructor.newInstance();
+            for (int i = 0; i < values.length; i++) {
+                fields[i].set(instance, values[i]);
+            }
+            return instance;
+        }
+
+        @Override
+        public void describe(StringBuilder schema) {
+            schema.append('{').append(type.getSimpleName());
+            for (int i = 0; i < handlers.size(); i++) {
+                schema.append(';').append(names.get(i)).append(':');
+                handlers.get(i).describe(schema);
+            }
+            schema.append('}');
+        }
+    }
+
+    /**
+     * Growable byte buffer with helpers for writing variable-length and fixed-length values.
+     */
+    private static final class Writer {
+        private byte[] buffer = new byte[64];
+        private int length;
+
+        void writeByte(byte value) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[length++] = value;
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((byte) value);
+        }
+
+        void writeSignedVarint(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeFixed(long value, int bytes) {
+            for (int i = bytes - 1; i >= 0; i--) {
+                writeByte((byte) (value >>> (i * 8)));
+            }
+        }
+
+        void writeBytes(byte[] bytes) {
+            if (bytes == null) {
+                writeVarint(0);
+                return;
+            }
+            writeVarint(bytes.length + 1L);
+            for (final var b : bytes) {
+                writeByte(b);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    /**
+     * Reader for a byte range with helpers for reading variable-length and fixed-length values.
+     */
+    private static final class Reader {
+        private final byte[] buffer;
+        private final int limit;
+        private int position;
+
+        Reader(byte[] buffer, int offset, int limit) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = limit;
+        }
+
+        byte readByte() {
+            if (position >= limit) {
+                throw new IndexOutOfBoundsException("Unexpected end of data");
+            }
+            return buffer[position++];
+        }
+
+        long readVarint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IndexOutOfBoundsException("Malformed variable-length integer");
+        }
+
+        long readSignedVarint() {
+            final long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readFixed(int bytes) {
+            long result = 0;
+            for (int i = 0; i < bytes; i++) {
+                result = (result << 8) | (readByte() & 0xFF);
+            }
+            return result;
+        }
+
+        byte[] readBytes() {
+            final long prefix = readVarint();
+            if (prefix == 0) {
+                return null;
+            }
+            final int length = (int) (prefix - 1);
+            if (length < 0 || length > limit - position) {
+                throw new IndexOutOfBoundsException("Length prefix exceeds available data");
+            }
+            final var bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+    }
+}
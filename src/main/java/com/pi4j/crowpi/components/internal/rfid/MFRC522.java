@@ -6,12 +6,16 @@ import com.pi4j.crowpi.components.exceptions.RfidException;
 import com.pi4j.crowpi.components.exceptions.RfidTimeoutException;
 import com.pi4j.crowpi.components.exceptions.RfidUnsupportedCardException;
 import com.pi4j.crowpi.components.helpers.ByteHelpers;
+import com.pi4j.io.gpio.digital.DigitalInput;
 import com.pi4j.io.gpio.digital.DigitalOutput;
+import com.pi4j.io.gpio.digital.DigitalState;
 import com.pi4j.io.spi.Spi;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Set;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Implementation of MFRC522 RFID Reader/Writer used for interacting with RFID cards.
@@ -29,6 +33,47 @@ public class MFRC522 extends Component {
      */
     protected final Spi spi;
 
+    /**
+     * Pi4J digital input optionally connected to the IRQ output of the MFRC522, null if interrupts are not used
+     */
+    protected final DigitalInput irqPin;
+
+    /**
+     * Thread currently parked while waiting for an interrupt of the PCD or null if nobody is waiting
+     */
+    private volatile Thread irqWaiter;
+
+    /**
+     * Reusable transaction builder used for all register accesses
+     */
+    private final PcdTransaction transaction;
+
+    /**
+     * Reusable response of the most recent PICC request, large enough for the whole FIFO buffer
+     */
+    private final PiccResponse response = new PiccResponse(FIFO_SIZE);
+    /**
+     * Reusable buffer for building requests to the PICC including their CRC_A checksum
+     */
+    private final byte[] requestBuffer = new byte[REQUEST_BUFFER_SIZE];
+    /**
+     * Reusable buffer for the SELECT and ANTICOLLISION procedure
+     */
+    private final byte[] selectBuffer = new byte[9];
+    /**
+     * Reusable buffer for collecting the UID bytes of all cascade levels
+     */
+    private final byte[] uidBuffer = new byte[10];
+    /**
+     * Reusable buffer for the ATQA response to REQA and WUPA
+     */
+    private final byte[] atqaBuffer = new byte[2];
+
+    /**
+     * Number of collisions which have been resolved by {@link #select()} since the PCD was created
+     */
+    private int collisionCount;
+
     /**
      * Timeout in milliseconds when calculating CRC_A checksums on the PCD
      */
@@ -39,6 +84,33 @@ public class MFRC522 extends Component {
      */
     private static final long PICC_COMMAND_TIMEOUT_MS = 250;
 
+    /**
+     * Size of the FIFO buffer of the PCD in bytes
+     */
+    private static final int FIFO_SIZE = 64;
+    /**
+     * Size of the reusable request buffer, large enough for a MIFARE block with CRC_A checksum
+     */
+    private static final int REQUEST_BUFFER_SIZE = 18;
+
+    /**
+     * Precomputed COM IRQ mask signalling completion of {@link PcdCommand#TRANSCEIVE}
+     */
+    private static final byte TRANSCEIVE_WAIT_IRQ = (byte) (PcdComIrq.RX_IRQ.getValue() | PcdComIrq.IDLE_IRQ.getValue());
+    /**
+     * Precomputed COM IRQ mask signalling completion of {@link PcdCommand#MF_AUTHENT}
+     */
+    private static final byte AUTHENT_WAIT_IRQ = PcdComIrq.IDLE_IRQ.getValue();
+    /**
+     * Errors which abort a PICC request before any received data is processed
+     */
+    private static final PcdError[] EARLY_ERRORS = {PcdError.BUFFER_OVFL, PcdError.PARITY_ERR, PcdError.PROTOCOL_ERR};
+
+    /**
+     * Maximum number of failed selections within a single inventory cycle before giving up
+     */
+    private static final int INVENTORY_MAX_FAILURES = 3;
+
     /**
      * Well-known value used by MIFARE PICCs as ACKnowledge response
      */
@@ -60,9 +132,35 @@ public class MFRC522 extends Component {
      * @param spi      SPI instance
      */
     public MFRC522(DigitalOutput resetPin, Spi spi) {
+        this(resetPin, spi, null);
+    }
+
+    /**
+     * Creates a new MFRC522 instance using the given reset pin, SPI instance and IRQ pin from Pi4J.
+     * If an IRQ pin is given, the PCD gets configured to signal completed commands on its IRQ output.
+     * Threads waiting for a PICC response or a CRC calculation are then parked until the interrupt occurs
+     * instead of continuously polling the interrupt registers over SPI.
+     *
+     * @param resetPin Digital output used as reset pin for MFRC522, high is considered as power-on, low as power-off
+     * @param spi      SPI instance
+     * @param irqPin   Digital input connected to the IRQ output of the MFRC522 or null to use polling
+     */
+    public MFRC522(DigitalOutput resetPin, Spi spi, DigitalInput irqPin) {
         this.resetPin = resetPin;
         this.spi = spi;
+        this.irqPin = irqPin;
+        this.transaction = new PcdTransaction(spi);
         this.reset();
+
+        // Wake up the waiting thread whenever the IRQ output gets asserted (active low)
+        if (this.irqPin != null) {
+            this.irqPin.addListener(event -> {
+                final var waiter = irqWaiter;
+                if (event.state() == DigitalState.LOW && waiter != null) {
+                    LockSupport.unpark(waiter);
+                }
+            });
+        }
     }
 
     /**
@@ -81,14 +179,24 @@ public class MFRC522 extends Component {
      * The antennas of the PCD will automatically be enabled as part of this routine.
      */
     private void init() {
-        // Setup internal timer with 40kHz / 25us and 25ms auto-timeout
-        writeRegister(PcdRegister.T_MODE_REG, (byte) 0b1000_0000); // TAuto[1], TGated[00], TAutoRestart[0], TPrescaler_Hi[0000]
-        writeRegister(PcdRegister.T_PRESCALER_REG, (byte) 0b1010_1001); // TPrescaler_Lo[10101001]
-        writeRegister(PcdRegister.T_RELOAD_REG_HIGH, PcdRegister.T_RELOAD_REG_LOW, (short) 1000); // TReloadReg[25ms]
-
-        // Setup modulation and CRC coprocessor
-        writeRegister(PcdRegister.TX_ASK_REG, (byte) 0b0100_0000); // Force100ASK[1]
-        writeRegister(PcdRegister.MODE_REG, (byte) 0b0011_1101); // TxWaitRF[1], PolMFin[1], CRCPreset[01] (= 0x6363 / ISO 14443-3 CRC_A)
+        transaction.begin()
+            // Setup internal timer with 40kHz / 25us and 25ms auto-timeout
+            .write(PcdRegister.T_MODE_REG, (byte) 0b1000_0000) // TAuto[1], TGated[00], TAutoRestart[0], TPrescaler_Hi[0000]
+            .write(PcdRegister.T_PRESCALER_REG, (byte) 0b1010_1001) // TPrescaler_Lo[10101001]
+            .write(PcdRegister.T_RELOAD_REG_HIGH, (byte) ((1000 >> 8) & 0xFF)) // TReloadReg[25ms]
+            .write(PcdRegister.T_RELOAD_REG_LOW, (byte) (1000 & 0xFF))
+            // Setup modulation and CRC coprocessor
+            .write(PcdRegister.TX_ASK_REG, (byte) 0b0100_0000) // Force100ASK[1]
+            .write(PcdRegister.MODE_REG, (byte) 0b0011_1101) // TxWaitRF[1], PolMFin[1], CRCPreset[01] (= 0x6363 / ISO 14443-3 CRC_A)
+            .execute();
+
+        // Route all interrupts we are waiting for to the IRQ output if an IRQ pin is used
+        if (irqPin != null) {
+            transaction.begin()
+                .write(PcdRegister.COM_I_EN_REG, (byte) 0b1011_0001) // IRqInv[1], RxIEn[1], IdleIEn[1], TimerIEn[1]
+                .write(PcdRegister.DIV_I_EN_REG, (byte) 0b1000_0100) // IRQPushPull[1], CRCIEn[1]
+                .execute();
+        }
 
         // Enable antenna to communicate with nearby PICCs
         setAntennaState(true);
@@ -130,12 +238,7 @@ public class MFRC522 extends Component {
     private boolean isCardPresent(boolean onlyNew) {
         resetTransmission();
         try {
-            if (onlyNew) {
-                requestA(new byte[2]);
-            } else {
-                wakeupA(new byte[2]);
-            }
-            return true;
+            return onlyNew ? requestA(atqaBuffer) : wakeupA(atqaBuffer);
         } catch (RfidCollisionException ignored) {
             return true;
         } catch (Exception ignored) {
@@ -143,6 +246,80 @@ public class MFRC522 extends Component {
         }
     }
 
+    /**
+     * Enumerates all new PICCs within the proximity of the PCD using the anti-collision loop according to ISO 14443-3.
+     * Every cycle sends a REQA, resolves any collisions until a single PICC has been selected and then puts it into HALT state.
+     * As halted PICCs no longer respond to REQA, this gets repeated until no PICC answers anymore or the limit has been reached.
+     * <p>
+     * Only PICCs in IDLE state are enumerated, PICCs which were previously halted stay silent until they leave the field.
+     * All enumerated PICCs will be in HALT state after this method returns, so no card is active afterwards.
+     *
+     * @param maxCards Maximum number of PICCs to enumerate within this cycle
+     * @return Inventory result with UIDs of all enumerated PICCs and timing report
+     */
+    public RfidInventory inventory(int maxCards) {
+        if (maxCards < 1) {
+            throw new IllegalArgumentException("Maximum number of cards must be at least 1");
+        }
+
+        // Initialize state of inventory cycle
+        final var uids = new ArrayList<RfidCardUid>(Math.min(maxCards, 16));
+        final var discoveryNanos = new long[maxCards];
+        final int initialCollisions = collisionCount;
+        final long startTime = System.nanoTime();
+        long lastTime = startTime;
+        int failures = 0;
+
+        // Repeat until no more PICCs answer, each iteration removes a single PICC from the field by halting it
+        while (uids.size() < maxCards && failures < INVENTORY_MAX_FAILURES && isNewCardPresent()) {
+            try {
+                // Select a single PICC, any collisions get resolved by choosing the higher UID bit
+                final var uid = select();
+
+                // Abort if the same PICC answered again, which happens if it could not be halted previously
+                if (containsUid(uids, uid)) {
+                    logger.debug("Aborting inventory as card %s has already been enumerated", uid.getSerial());
+                    break;
+                }
+
+                // Remember UID and time which was required for discovering this PICC
+                final long now = System.nanoTime();
+                discoveryNanos[uids.size()] = now - lastTime;
+                uids.add(uid);
+                lastTime = now;
+                logger.debug("Enumerated card %s as part of inventory", uid.getSerial());
+            } catch (RfidException e) {
+                logger.debug("Could not select card during inventory: %s", e.getMessage());
+                failures++;
+            } finally {
+                // Always attempt to halt the current PICC to remove it from the next iteration
+                try {
+                    uninitializeCard();
+                } catch (RfidException ignored) {
+                }
+            }
+        }
+
+        return new RfidInventory(uids, Arrays.copyOf(discoveryNanos, uids.size()), System.nanoTime() - startTime,
+            collisionCount - initialCollisions, failures);
+    }
+
+    /**
+     * Checks if the given list already contains a PICC with the same UID.
+     *
+     * @param uids List of known UIDs
+     * @param uid  UID to search for
+     * @return True if UID is already contained, otherwise false
+     */
+    private static boolean containsUid(List<RfidCardUid> uids, RfidCardUid uid) {
+        for (final var other : uids) {
+            if (Arrays.equals(other.getUid(), uid.getUid())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Selects a single PICC and transitions it from READY to ACTIVE state, then returns an appropriate {@link RfidCard} instance.
      * Must only be called when a previous call to {@link #isNewCardPresent()} returned true.
@@ -151,7 +328,17 @@ public class MFRC522 extends Component {
      * @throws RfidException Communication with PICC failed or card is unsupported
      */
     public RfidCard initializeCard() throws RfidException {
-        final var cardUid = select();
+        return createCard(select());
+    }
+
+    /**
+     * Creates an appropriate {@link RfidCard} instance for a PICC which has already been selected.
+     *
+     * @param cardUid UID of PICC in ACTIVE state
+     * @return Card instance for further interaction
+     * @throws RfidUnsupportedCardException Card type is not supported
+     */
+    protected RfidCard createCard(RfidCardUid cardUid) throws RfidUnsupportedCardException {
         final var cardType = RfidCardType.fromSak(cardUid.getSak());
 
         //noinspection SwitchStatementWithTooFewBranches
@@ -163,6 +350,39 @@ public class MFRC522 extends Component {
         }
     }
 
+    /**
+     * Checks if a previously seen PICC is still within the proximity of the PCD, even if it is currently in HALT state.
+     * This sends a WUPA followed by a direct SELECT with the known UID, which skips the whole anti-collision loop.
+     * The PICC will be put back into HALT state afterwards, so it does not interfere with the detection of new PICCs.
+     *
+     * @param uid UID of previously seen PICC
+     * @return True if PICC answered, otherwise false
+     */
+    public boolean isCardPresent(RfidCardUid uid) {
+        resetTransmission();
+        try {
+            if (!wakeupA(atqaBuffer)) {
+                return false;
+            }
+        } catch (RfidCollisionException ignored) {
+            // Multiple PICCs answered, the SELECT will address the right one
+        } catch (RfidException e) {
+            return false;
+        }
+
+        try {
+            select(uid);
+            return true;
+        } catch (RfidException e) {
+            return false;
+        } finally {
+            try {
+                uninitializeCard();
+            } catch (RfidException ignored) {
+            }
+        }
+    }
+
     /**
      * Uninitializes the currently active card by sending it back into HALT state and stopping encrypted communication.
      * Any previously created instance of {@link RfidCard} will be INVALID and must no longer be used after calling this method.
@@ -191,12 +411,13 @@ public class MFRC522 extends Component {
      * This should always be called after a hard- or soft-reset.
      */
     private void resetTransmission() {
-        // Reset baud rates
-        writeRegister(PcdRegister.TX_MODE_REG, (byte) 0x00); // TxSpeed[000] = 106kBd
-        writeRegister(PcdRegister.RX_MODE_REG, (byte) 0x00); // TxSpeed[000] = 106kBd
-
-        // Reset modulation width
-        writeRegister(PcdRegister.MOD_WIDTH_REG, (byte) 0x26); // ModWidth[0x26]
+        transaction.begin()
+            // Reset baud rates
+            .write(PcdRegister.TX_MODE_REG, (byte) 0x00) // TxSpeed[000] = 106kBd
+            .write(PcdRegister.RX_MODE_REG, (byte) 0x00) // TxSpeed[000] = 106kBd
+            // Reset modulation width
+            .write(PcdRegister.MOD_WIDTH_REG, (byte) 0x26) // ModWidth[0x26]
+            .execute();
     }
 
     /**
@@ -212,6 +433,9 @@ public class MFRC522 extends Component {
             this.executePcd(PcdCommand.SOFT_RESET);
         }
 
+        // All registers are back at their default values, so previously cached values are no longer valid
+        transaction.invalidateShadows();
+
         // Give the PCD some time to startup
         sleep(50);
 
@@ -248,13 +472,14 @@ public class MFRC522 extends Component {
         //      Byte 7: CRC_A       Checksum
         //      Byte 8: CRC_A       Checksum
         // The BCC and CRC_A may only be transmitted once all UID bits are known.
-        final var buffer = new byte[9];
+        final var buffer = selectBuffer;
+        Arrays.fill(buffer, (byte) 0);
 
         // Clear all received bits after a collision
         writeRegister(PcdRegister.COLL_REG, (byte) 0x80); // ValuesAfterColl[1]
 
         // Initialize state for cascading loop
-        final var uidBytes = new ArrayList<Byte>();
+        int uidLength = 0;
         boolean uidComplete = false;
         byte uidSak = 0;
         PiccCascadeLevel cascadeLevel = PiccCascadeLevel.CL1;
@@ -263,24 +488,13 @@ public class MFRC522 extends Component {
         while (!uidComplete) {
             logger.debug("Processing UID cascade level %s", cascadeLevel);
 
-            // Initialize for current cascade level and determine if cascade tag must be parsed
+            // Initialize for current cascade level, a cascade tag gets reported by the PICC like any other UID byte
             buffer[0] = cascadeLevel.getCommand().getValue();
             final int uidOffset = cascadeLevel.getUidOffset();
-            final boolean useCascadeTag = uidBytes.size() > cascadeLevel.getNextThreshold();
 
             // We do not know any bits of this cascade level yet
             int knownLevelBits = 0;
 
-            // Add cascade tag command to buffer if needed
-            if (useCascadeTag) {
-                buffer[2] = PiccCommand.CASCADE_TAG.getValue();
-            }
-
-            // Add size of cascade tag to current known bits after copying data
-            if (useCascadeTag) {
-                knownLevelBits += 8;
-            }
-
             // Initialize variables used by anti-collision loop
             byte[] responseBuffer = null;
             int responseLength = 0;
@@ -304,8 +518,9 @@ public class MFRC522 extends Component {
                     buffer[6] = (byte) (buffer[2] ^ buffer[3] ^ buffer[4] ^ buffer[5]); // Calculate BCC using XOR
 
                     // Calculate CRC_A checksum of first 7 bytes and copy into buffer
-                    final var checksum = calculateCrc(Arrays.copyOfRange(buffer, 0, 7));
-                    System.arraycopy(checksum, 0, buffer, 7, Math.min(2, checksum.length));
+                    final int checksum = calculateCrc(buffer, 0, 7);
+                    buffer[7] = (byte) (checksum & 0xFF);
+                    buffer[8] = (byte) ((checksum >> 8) & 0xFF);
 
                     // Transmit all 9 bytes without any extra bits
                     txFullBytes = 9;
@@ -316,7 +531,9 @@ public class MFRC522 extends Component {
                     rxBytes = 3;
 
                     // Print log message about SELECT request
-                    logger.debug("Preparing SELECT request with payload %s", ByteHelpers.toString(buffer));
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Preparing SELECT request with payload %s", ByteHelpers.toString(buffer));
+                    }
                 } else {
                     // We do not know all bits in this cascade level and must treat this as ANTI COLLISION
 
@@ -332,25 +549,28 @@ public class MFRC522 extends Component {
                     rxBytes = buffer.length - txFullBytes;
 
                     // Print log message about ANTI COLLISION request
-                    logger.debug("Preparing ANTI COLLISION request with payload %s", ByteHelpers.toString(buffer));
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Preparing ANTI COLLISION request with payload %s", ByteHelpers.toString(buffer));
+                    }
                 }
 
-                // Prepare request buffer based on required size for storing all full bytes and extra bits
+                // Determine required size for transmitting all full bytes and extra bits
                 final int txBytes = txFullBytes + (txExtraBits != 0 ? 1 : 0);
-                final var requestBuffer = Arrays.copyOfRange(buffer, 0, txBytes);
 
                 // Try to receive UID for this cascade level from PICC
                 try {
                     // Transceive request buffer to PCD and use same amount of TX/RX extra bits
-                    final var response = transceivePicc(requestBuffer, txExtraBits, txExtraBits);
+                    final var piccResponse = transceivePicc(buffer, txBytes, txExtraBits, txExtraBits, false);
 
                     // Store buffer and length in result variables outside of this loop
-                    responseBuffer = response.getBytes();
-                    responseLength = response.getLength();
+                    responseBuffer = piccResponse.getBuffer();
+                    responseLength = piccResponse.getLength();
 
-                    // Copy response back into buffer starting at previously determined offset
-                    System.arraycopy(responseBuffer, 0, buffer, rxTargetOffset, Math.min(rxBytes, responseLength));
-                    logger.debug("Received PICC response: %s", ByteHelpers.toString(responseBuffer));
+                    // Merge response into buffer starting at previously determined offset
+                    mergeResponse(piccResponse, buffer, rxTargetOffset, rxBytes, txExtraBits);
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Received PICC response: %s", piccResponse);
+                    }
 
                     // Determine how to continue
                     if (knownLevelBits >= 32) {
@@ -371,6 +591,7 @@ public class MFRC522 extends Component {
                     }
                 } catch (RfidCollisionException ignored) {
                     logger.debug("Handling detected collision between multiple PICCs");
+                    collisionCount++;
 
                     // Retrieve collision position register from PICC
                     final byte collReg = readRegister(PcdRegister.COLL_REG);
@@ -387,9 +608,13 @@ public class MFRC522 extends Component {
                         throw new RfidCollisionException("Can not continue due to lack of progress in anti collision routine");
                     }
 
+                    // Keep all bits which were received before the collision, the response has been stored regardless
+                    mergeResponse(response, buffer, rxTargetOffset, rxBytes, txExtraBits);
+
                     // Calculate the index of the byte and bit where the collision occurred
+                    // The collision position counts from the first UID bit of this cascade level, which starts at byte 2
                     final int collisionBit = (collisionPos - 1) % 8;
-                    final int collisionByte = (collisionPos / 8) + (collisionBit != 0 ? 1 : 0);
+                    final int collisionByte = 2 + (collisionPos - 1) / 8;
 
                     // Set the bit at the determined position and update known level bits
                     buffer[collisionByte] |= (1 << collisionBit);
@@ -399,15 +624,15 @@ public class MFRC522 extends Component {
             // End of anti-collision loop, UID is either complete or failed due to too many iterations
 
             // Throw an exception if we received no valid response
-            if (responseBuffer == null || responseLength < 1) {
+            if (!selectComplete || responseBuffer == null || responseLength < 1) {
                 throw new RfidException("Could not finish selection of target PICC as part of anti-collision routine");
             }
 
             // Verify CRC_A checksum of SAK
-            final byte[] actualChecksum = new byte[]{responseBuffer[1], responseBuffer[2]};
-            final byte[] expectedChecksum = calculateCrc(new byte[]{responseBuffer[0]});
-            logger.debug("SAK checksum: expected=%s actual=%s", ByteHelpers.toString(expectedChecksum), ByteHelpers.toString(actualChecksum));
-            if (!Arrays.equals(actualChecksum, expectedChecksum)) {
+            final int actualChecksum = (responseBuffer[1] & 0xFF) | ((responseBuffer[2] & 0xFF) << 8);
+            final int expectedChecksum = calculateCrc(responseBuffer, 0, 1);
+            logger.debug("SAK checksum: expected=%s actual=%s", expectedChecksum, actualChecksum);
+            if (actualChecksum != expectedChecksum) {
                 throw new RfidException("Checksum of SAK does not match expected value");
             }
 
@@ -417,12 +642,11 @@ public class MFRC522 extends Component {
             final int bytesToCopy = hasCascadeTag ? 3 : 4;
 
             // Copy retrieved UID bytes into result buffer
-            for (int i = 0; i < bytesToCopy; i++) {
-                uidBytes.add(buffer[bufferOffset + i]);
-                if (uidBytes.size() != uidOffset + i + 1) {
-                    throw new RfidException("UID result buffer has invalid size");
-                }
+            if (uidLength != uidOffset || uidLength + bytesToCopy > uidBuffer.length) {
+                throw new RfidException("UID result buffer has invalid size");
             }
+            System.arraycopy(buffer, bufferOffset, uidBuffer, uidLength, bytesToCopy);
+            uidLength += bytesToCopy;
 
             // Determine if we need to continue or have the whole UID
             if ((responseBuffer[0] & 0x04) != 0) {
@@ -436,7 +660,98 @@ public class MFRC522 extends Component {
         }
 
         // Return new tag instance
-        return new RfidCardUid(uidBytes, uidSak);
+        return new RfidCardUid(Arrays.copyOf(uidBuffer, uidLength), uidSak);
+    }
+
+    /**
+     * Merges a PICC response into the given buffer during the anti-collision loop.
+     * For bit-oriented frames, the first received byte only contains bits starting at {@code rxAlignBits},
+     * so the lower bits of the first target byte are kept as they have been transmitted as part of the request.
+     *
+     * @param piccResponse Response of the PICC
+     * @param buffer       Target buffer
+     * @param offset       Offset of the first target byte within buffer
+     * @param maxLength    Maximum number of bytes to merge
+     * @param rxAlignBits  Position of first received bit within the first byte
+     */
+    private static void mergeResponse(PiccResponse piccResponse, byte[] buffer, int offset, int maxLength, int rxAlignBits) {
+        final int length = Math.min(maxLength, piccResponse.getLength());
+        if (length == 0) {
+            return;
+        }
+
+        final var rxData = piccResponse.getBuffer();
+        final int knownMask = (1 << rxAlignBits) - 1;
+        buffer[offset] = (byte) ((buffer[offset] & knownMask) | (rxData[0] & ~knownMask));
+        System.arraycopy(rxData, 1, buffer, offset + 1, length - 1);
+    }
+
+    /**
+     * Selects a single PICC with an already known UID, skipping the anti-collision loop of {@link #select()}.
+     * This method expects the PICC to be in READY state, which can be achieved using {@link #requestA(byte[])} or {@link #wakeupA(byte[])}.
+     * Upon successful completion, the PICC will be in ACTIVE state while all other PICCs return to their IDLE or HALT state.
+     *
+     * @param uid Known UID of target PICC
+     * @throws RfidException Unable to select PICC, e.g. timeout, missing presence, protocol error, ...
+     */
+    protected void select(RfidCardUid uid) throws RfidException {
+        // Determine number of cascade levels based on UID length
+        final var uidBytes = uid.getUid();
+        final int levels;
+        switch (uidBytes.length) {
+            case 4:
+                levels = 1;
+                break;
+            case 7:
+                levels = 2;
+                break;
+            case 10:
+                levels = 3;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported UID length of " + uidBytes.length + " bytes");
+        }
+
+        // Send a SELECT with all 32 bits of each cascade level, prefixing all but the last level with a cascade tag
+        final var buffer = selectBuffer;
+        PiccCascadeLevel cascadeLevel = PiccCascadeLevel.CL1;
+        int uidOffset = 0;
+        for (int level = 1; level <= levels; level++) {
+            final boolean lastLevel = level == levels;
+            buffer[0] = cascadeLevel.getCommand().getValue();
+            buffer[1] = 0x70; // Set NVB to 7 full bytes and 0 extra bits
+            if (lastLevel) {
+                System.arraycopy(uidBytes, uidOffset, buffer, 2, 4);
+                uidOffset += 4;
+            } else {
+                buffer[2] = PiccCommand.CASCADE_TAG.getValue();
+                System.arraycopy(uidBytes, uidOffset, buffer, 3, 3);
+                uidOffset += 3;
+            }
+            buffer[6] = (byte) (buffer[2] ^ buffer[3] ^ buffer[4] ^ buffer[5]); // Calculate BCC using XOR
+
+            // Calculate CRC_A checksum of first 7 bytes and copy into buffer
+            final int checksum = calculateCrc(buffer, 0, 7);
+            buffer[7] = (byte) (checksum & 0xFF);
+            buffer[8] = (byte) ((checksum >> 8) & 0xFF);
+
+            // Transmit SELECT and verify that SAK indicates the expected cascade state
+            final var piccResponse = transceivePicc(buffer, buffer.length);
+            if (piccResponse.getLength() != 3) {
+                throw new RfidException("Received invalid SAK from PICC, expected exactly 24 bits");
+            }
+            final byte sak = piccResponse.getByte(0);
+            if (((sak & 0x04) != 0) == lastLevel) {
+                throw new RfidException("Received SAK with unexpected cascade bit from PICC");
+            }
+            if (lastLevel && sak != uid.getSak()) {
+                throw new RfidException("Received SAK does not match the known SAK of the PICC");
+            }
+
+            if (!lastLevel) {
+                cascadeLevel = cascadeLevel.getNext();
+            }
+        }
     }
 
     /**
@@ -451,17 +766,19 @@ public class MFRC522 extends Component {
      */
     protected void mifareAuth(MifareKey key, byte blockAddr, RfidCardUid uid) throws RfidException {
         // Prepare buffer for authentication command
-        final byte[] buffer = new byte[12];
+        final var buffer = requestBuffer;
         buffer[0] = key.getType().getCommand().getValue();
         buffer[1] = blockAddr;
         System.arraycopy(key.getBytes(), 0, buffer, 2, Math.min(6, key.getLength()));
         System.arraycopy(uid.getUid(), uid.getUidLength() - 4, buffer, 8, Math.min(4, uid.getUidLength()));
 
         // Log authentication buffer
-        logger.debug("Using MIFARE authentication against PICC with %s", ByteHelpers.toString(buffer));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Using MIFARE authentication against PICC with %s", ByteHelpers.toString(Arrays.copyOf(buffer, 12)));
+        }
 
         // Start authentication against PICC
-        sendPiccRequest(PcdCommand.MF_AUTHENT, PcdComIrq.IDLE_IRQ, buffer);
+        sendPiccRequest(PcdCommand.MF_AUTHENT, AUTHENT_WAIT_IRQ, buffer, 12, 0, 0, false);
     }
 
     /**
@@ -474,25 +791,41 @@ public class MFRC522 extends Component {
 
     /**
      * Reads the specified block from a MIFARE PICC using {@link PiccCommand#MF_READ}.
-     * The affected sector must be authenticated in advance using {@link #mifareAuth(MifareKey, byte, RfidCardUid)}.
-     * WARNING: Not all block contain user-provided data, make sure to pay attention to this when deciding which blocks to read.
+     * This method allocates a new array for the result, use {@link #mifareRead(byte, byte[], int)} to avoid this.
      *
      * @param blockAddr Block address to read from
      * @return Data read from PICC, length varies depending on type
      * @throws RfidException Reading data from specified block has failed
+     * @see #mifareRead(byte, byte[], int)
      */
     protected byte[] mifareRead(byte blockAddr) throws RfidException {
-        // Construct payload and calculate CRC_A checksum
-        final var payload = new byte[]{PiccCommand.MF_READ.getValue(), blockAddr};
-        final var checksum = calculateCrc(payload);
-
-        // Build buffer based on payload and CRC_A checksum
-        final var buffer = new byte[payload.length + checksum.length];
-        System.arraycopy(payload, 0, buffer, 0, payload.length);
-        System.arraycopy(checksum, 0, buffer, payload.length, checksum.length);
+        final var result = new byte[16];
+        final int length = mifareRead(blockAddr, result, 0);
+        return length == result.length ? result : Arrays.copyOf(result, length);
+    }
 
-        final var response = transceivePicc(buffer, 0, 0, true);
-        return response.getBytes();
+    /**
+     * Reads the specified block from a MIFARE PICC using {@link PiccCommand#MF_READ} into the given buffer.
+     * The affected sector must be authenticated in advance using {@link #mifareAuth(MifareKey, byte, RfidCardUid)}.
+     * WARNING: Not all block contain user-provided data, make sure to pay attention to this when deciding which blocks to read.
+     *
+     * @param blockAddr Block address to read from
+     * @param dest      Destination buffer for data read from PICC
+     * @param offset    Offset within destination buffer
+     * @return Number of bytes read from PICC, varies depending on type
+     * @throws RfidException Reading data from specified block has failed
+     */
+    protected int mifareRead(byte blockAddr, byte[] dest, int offset) throws RfidException {
+        // Construct payload and append CRC_A checksum
+        requestBuffer[0] = PiccCommand.MF_READ.getValue();
+        requestBuffer[1] = blockAddr;
+        appendCrc(requestBuffer, 2);
+
+        // Transceive request and copy response without CRC_A checksum into destination
+        final var piccResponse = transceivePicc(requestBuffer, 4, 0, 0, true);
+        final int length = Math.min(piccResponse.getLength(), dest.length - offset);
+        System.arraycopy(piccResponse.getBuffer(), 0, dest, offset, length);
+        return length;
     }
 
     /**
@@ -505,43 +838,43 @@ public class MFRC522 extends Component {
      * @throws RfidException Writing data to specified block has failed
      */
     protected void mifareWrite(byte blockAddr, byte[] dataBuffer) throws RfidException {
-        // Generate command buffer for first step
-        final var cmdBuffer = new byte[]{PiccCommand.MF_WRITE.getValue(), blockAddr};
-        logger.debug("Executing first step for MIFARE write using %s", ByteHelpers.toString(cmdBuffer));
-        mifareTransceive(cmdBuffer);
+        // Transmit command as first step
+        requestBuffer[0] = PiccCommand.MF_WRITE.getValue();
+        requestBuffer[1] = blockAddr;
+        logger.debug("Executing first step for MIFARE write to block #%s", blockAddr);
+        mifareTransceive(2);
 
         // Transmit actual payload as second step
-        logger.debug("Executing second step for MIFARE write using %s", ByteHelpers.toString(dataBuffer));
-        mifareTransceive(dataBuffer);
+        if (dataBuffer == null || dataBuffer.length > 16) {
+            throw new IllegalArgumentException("Payload must be a byte array with up to 16 bytes");
+        }
+        System.arraycopy(dataBuffer, 0, requestBuffer, 0, dataBuffer.length);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Executing second step for MIFARE write using %s", ByteHelpers.toString(dataBuffer));
+        }
+        mifareTransceive(dataBuffer.length);
     }
 
     /**
-     * Transceives data to a MIFARE PICC by using CRC_A checksums and expecting a {@link #PICC_MIFARE_ACK} response.
+     * Transceives the payload within {@link #requestBuffer} to a MIFARE PICC by appending a CRC_A checksum and
+     * expecting a {@link #PICC_MIFARE_ACK} response.
      *
-     * @param payload Data to be sent to the MIFARE PICC
+     * @param length Length of payload within request buffer, must leave room for the checksum
      * @throws RfidException Invalid response from PICC or received MIFARE NACK
      */
-    private void mifareTransceive(byte[] payload) throws RfidException {
-        // Ensure payload is not too long
-        if (payload == null || payload.length > 16) {
-            throw new IllegalArgumentException("Payload must be a byte array with up to 16 bytes");
-        }
-
-        // Calculate CRC_A checksum for payload
-        final var checksum = calculateCrc(payload);
-
-        // Generate final buffer with payload and checksum
-        final var buffer = new byte[payload.length + checksum.length];
-        System.arraycopy(payload, 0, buffer, 0, payload.length);
-        System.arraycopy(checksum, 0, buffer, payload.length, checksum.length);
+    private void mifareTransceive(int length) throws RfidException {
+        // Append CRC_A checksum to payload
+        appendCrc(requestBuffer, length);
 
         // Transceive buffer to PICC and verify response
-        final var response = transceivePicc(buffer);
-        logger.debug("Response from MIFARE transceive: %s", ByteHelpers.toString(response.getBytes()));
-        if (response.getBytes().length != 1 || response.getLastBits() != 4) {
+        final var piccResponse = transceivePicc(requestBuffer, length + 2);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Response from MIFARE transceive: %s", piccResponse);
+        }
+        if (piccResponse.getLength() != 1 || piccResponse.getLastBits() != 4) {
             throw new RfidException("PICC response must be exactly 4 bits for MIFARE ACK");
         }
-        if (response.getBytes()[0] != PICC_MIFARE_ACK) {
+        if (piccResponse.getByte(0) != PICC_MIFARE_ACK) {
             throw new RfidException("Received MIFARE NACK from PICC due to unknown error");
         }
     }
@@ -550,36 +883,57 @@ public class MFRC522 extends Component {
      * Calculates the CRC_A checksum on the PCD for the given payload.
      * This operation is also subject to the default {@link #PCD_CHECKSUM_TIMEOUT_MS} timeout.
      *
-     * @param data Payload for which checksum should be calculated
-     * @return Calculated CRC_A checksum, exactly two bytes
+     * @param data   Buffer containing the payload for which checksum should be calculated
+     * @param offset Offset of payload within buffer
+     * @param length Length of payload
+     * @return Calculated CRC_A checksum with the first byte in the lower and the second byte in the upper 8 bits
      * @throws RfidTimeoutException Checksum operation timed out on PCD
      */
-    private byte[] calculateCrc(byte[] data) throws RfidTimeoutException {
+    private int calculateCrc(byte[] data, int offset, int length) throws RfidTimeoutException {
         // Trigger CRC_A checksum calculation on PCD
-        executePcd(PcdCommand.IDLE); // Pause any active command
-        writeRegister(PcdRegister.DIV_IRQ_REG, (byte) 0x04); // Clear CRCIRq interrupt request bits
-        writeRegister(PcdRegister.FIFO_LEVEL_REG, (byte) 0x80); // FlushBuffer[7], FIFOLevel[0]
-        writeRegister(PcdRegister.FIFO_DATA_REG, data); // Write data to FIFO buffer
-        executePcd(PcdCommand.CALC_CRC); // Start the CRC calculation
-
-        // Wait for CRC calculation to complete
-        final long deadline = System.currentTimeMillis() + PCD_CHECKSUM_TIMEOUT_MS;
-        do {
-            byte divIrqReg = readRegister(PcdRegister.DIV_IRQ_REG);
-            if (PcdDivIrq.CRC_IRQ.isSet(divIrqReg)) {
-                // Stop CRC calculation for future FIFO buffer content
-                executePcd(PcdCommand.IDLE);
-
-                // Transfer calculated checksum from PCD into result buffer
-                final var result = new byte[2];
-                result[0] = readRegister(PcdRegister.CRC_RESULT_REG_LOW);
-                result[1] = readRegister(PcdRegister.CRC_RESULT_REG_HIGH);
-                return result;
-            }
-        } while (System.currentTimeMillis() < deadline);
+        transaction.begin()
+            .write(PcdRegister.COMMAND_REG, PcdCommand.IDLE.getValue()) // Pause any active command
+            .write(PcdRegister.DIV_IRQ_REG, (byte) 0x04); // Clear CRCIRq interrupt request bits
+
+        // Release the IRQ output, which may still be asserted by a previous command
+        if (irqPin != null) {
+            transaction.write(PcdRegister.COM_IRQ_REG, (byte) 0b01111111); // Clear all interrupt request bits
+        }
+
+        transaction
+            .write(PcdRegister.FIFO_LEVEL_REG, (byte) 0x80) // FlushBuffer[7], FIFOLevel[0]
+            .write(PcdRegister.FIFO_DATA_REG, data, offset, length) // Write data to FIFO buffer
+            .write(PcdRegister.COMMAND_REG, PcdCommand.CALC_CRC.getValue()) // Start the CRC calculation
+            .execute();
+
+        // Wait for CRC calculation to complete and throw exception if timeout was reached
+        final byte divIrqReg = awaitRegister(PcdRegister.DIV_IRQ_REG, PcdDivIrq.CRC_IRQ.getValue(), PCD_CHECKSUM_TIMEOUT_MS);
+        if (!PcdDivIrq.CRC_IRQ.isSet(divIrqReg)) {
+            throw new RfidTimeoutException("CRC calculation deadline reached after " + PCD_CHECKSUM_TIMEOUT_MS + " milliseconds");
+        }
 
-        // Throw exception if timeout was reached
-        throw new RfidTimeoutException("CRC calculation deadline reached after " + PCD_CHECKSUM_TIMEOUT_MS + " milliseconds");
+        // Stop CRC calculation for future FIFO buffer content
+        executePcd(PcdCommand.IDLE);
+
+        // Transfer calculated checksum from PCD using a single transfer
+        transaction.begin()
+            .read(PcdRegister.CRC_RESULT_REG_LOW)
+            .read(PcdRegister.CRC_RESULT_REG_HIGH)
+            .execute();
+        return (transaction.getResult(0) & 0xFF) | ((transaction.getResult(1) & 0xFF) << 8);
+    }
+
+    /**
+     * Calculates the CRC_A checksum of the first bytes within the given buffer and stores it right after the payload.
+     *
+     * @param buffer Buffer containing the payload, must have room for two additional bytes
+     * @param length Length of payload
+     * @throws RfidTimeoutException Checksum operation timed out on PCD
+     */
+    private void appendCrc(byte[] buffer, int length) throws RfidTimeoutException {
+        final int checksum = calculateCrc(buffer, 0, length);
+        buffer[length] = (byte) (checksum & 0xFF);
+        buffer[length + 1] = (byte) ((checksum >> 8) & 0xFF);
     }
 
     /**
@@ -587,8 +941,8 @@ public class MFRC522 extends Component {
      *
      * @see #requestOrWakeupA(PiccCommand, byte[])
      */
-    private void requestA(byte[] buffer) throws RfidException {
-        requestOrWakeupA(PiccCommand.REQA, buffer);
+    private boolean requestA(byte[] buffer) throws RfidException {
+        return requestOrWakeupA(PiccCommand.REQA, buffer);
     }
 
     /**
@@ -596,20 +950,22 @@ public class MFRC522 extends Component {
      *
      * @see #requestOrWakeupA(PiccCommand, byte[])
      */
-    private void wakeupA(byte[] buffer) throws RfidException {
-        requestOrWakeupA(PiccCommand.WUPA, buffer);
+    private boolean wakeupA(byte[] buffer) throws RfidException {
+        return requestOrWakeupA(PiccCommand.WUPA, buffer);
     }
 
     /**
      * Sends a REQA or WUPA command to the PICC to start communication with a PICC.
      * REQA will transition a PICC from IDLE into READY state.
      * WUPA will transition a PICC in either HALT or IDLE into READY state.
+     * As no answer is the regular outcome when polling for PICCs, a timeout is signalled by the return value instead of an exception.
      *
      * @param command Must be either {@link PiccCommand#REQA} or {@link PiccCommand#WUPA}
-     * @param buffer  Buffer to transmit as part of the REQA/WUPA command, must be exactly two bytes
+     * @param buffer  Buffer for storing the ATQA response of the PICC, must be exactly two bytes
+     * @return True if at least one PICC answered, false if no PICC answered in time
      * @throws RfidException Invalid response received from PICC
      */
-    private void requestOrWakeupA(PiccCommand command, byte[] buffer) throws RfidException {
+    private boolean requestOrWakeupA(PiccCommand command, byte[] buffer) throws RfidException {
         // Ensure command is supported by this method
         if (command != PiccCommand.REQA && command != PiccCommand.WUPA) {
             throw new IllegalArgumentException("Command must be either REQA or WUPA");
@@ -624,12 +980,19 @@ public class MFRC522 extends Component {
         writeRegister(PcdRegister.COLL_REG, (byte) 0x80); // ValuesAfterColl[1]
 
         // Use 7-bit frames for REQA or WUPA and transceive to PICC
-        final var response = transceivePicc(new byte[]{command.getValue()}, 7);
+        requestBuffer[0] = command.getValue();
+        if (!trySendPiccRequest(PcdCommand.TRANSCEIVE, TRANSCEIVE_WAIT_IRQ, requestBuffer, 1, 7, 0, false)) {
+            return false;
+        }
 
         // Ensure response is valid
         if (response.getLength() != 2 || response.getLastBits() != 0) {
             throw new RfidException("Received invalid response to REQA/WUPA command");
         }
+
+        // Store ATQA within the given buffer
+        System.arraycopy(response.getBuffer(), 0, buffer, 0, 2);
+        return true;
     }
 
     /**
@@ -638,164 +1001,141 @@ public class MFRC522 extends Component {
      * @throws RfidException Halting of PICC failed
      */
     private void haltA() throws RfidException {
-        // Construct payload and calculate CRC_A checksum
-        final var payload = new byte[]{PiccCommand.HLTA.getValue(), 0};
-        final var checksum = calculateCrc(payload);
-
-        // Build buffer based on payload and CRC_A checksum
-        final var buffer = new byte[payload.length + checksum.length];
-        System.arraycopy(payload, 0, buffer, 0, payload.length);
-        System.arraycopy(checksum, 0, buffer, payload.length, checksum.length);
+        // Construct payload and append CRC_A checksum
+        requestBuffer[0] = PiccCommand.HLTA.getValue();
+        requestBuffer[1] = 0;
+        appendCrc(requestBuffer, 2);
 
         // Send the command to the PICC and expect a timeout
         // Funnily enough this is the only acceptable result, a valid response or any other error is considered as a failure
-        try {
-            transceivePicc(buffer);
+        if (trySendPiccRequest(PcdCommand.TRANSCEIVE, TRANSCEIVE_WAIT_IRQ, requestBuffer, 4, 0, 0, false)) {
             throw new RfidException("Could not halt currently active PICC");
-        } catch (RfidTimeoutException e) {
-            // Do nothing here, this is what we expect as a timeout signals success
         }
     }
 
     /**
      * Transceives data to the PICC expecting no partial bytes in either direction with CRC_A checksum processing disabled by default.
      *
-     * @see #transceivePicc(byte[], int, int, boolean)
-     */
-    private PiccResponse transceivePicc(byte[] txData) throws RfidException {
-        return transceivePicc(txData, 0);
-    }
-
-    /**
-     * Transceives data to the PICC expecting a reply with no partial bytes with CRC_A checksum processing disabled by default.
-     *
-     * @see #transceivePicc(byte[], int, int, boolean)
-     */
-    private PiccResponse transceivePicc(byte[] txData, int txLastBits) throws RfidException {
-        return transceivePicc(txData, txLastBits, 0);
-    }
-
-    /**
-     * Transceives data to the PICC with CRC_A checksum processing disabled by default.
-     *
-     * @see #transceivePicc(byte[], int, int, boolean)
+     * @see #transceivePicc(byte[], int, int, int, boolean)
      */
-    private PiccResponse transceivePicc(byte[] txData, int txLastBits, int rxAlignBits) throws RfidException {
-        return transceivePicc(txData, txLastBits, rxAlignBits, false);
+    private PiccResponse transceivePicc(byte[] txData, int txLength) throws RfidException {
+        return transceivePicc(txData, txLength, 0, 0, false);
     }
 
     /**
      * Transmits data to the PICC and receives the resulting data, also known as transceiving.
      * Uses the PCD command {@link PcdCommand#TRANSCEIVE} for interacting with the PICC.
      *
-     * @param txData      Data to be transmitted to the PICC
+     * @param txData      Buffer containing the data to be transmitted to the PICC
+     * @param txLength    Number of bytes within the buffer to be transmitted
      * @param txLastBits  Number of valid bits to be transmitted as part of the last byte, 0 means all 8 bits are valid
      * @param rxAlignBits Position of first valid bit in received data, 0 means all 8 bits are valid
      * @param checkCrc    Boolean which specifies if CRC_A checksum according to ISO-14443 should be processed
-     * @return Response from PICC with result data
+     * @return Reusable response from PICC with result data, only valid until the next request
      * @throws RfidException Timeout, collision or generic error occurred during PICC request
      */
-    private PiccResponse transceivePicc(byte[] txData, int txLastBits, int rxAlignBits, boolean checkCrc) throws RfidException {
-        final var waitIrq = Set.of(PcdComIrq.RX_IRQ, PcdComIrq.IDLE_IRQ);
-        return sendPiccRequest(PcdCommand.TRANSCEIVE, waitIrq, txData, txLastBits, rxAlignBits, checkCrc);
-    }
-
-    /**
-     * Sends a request to the PICC with a single wait IRQ and CRC_A checksum processing disabled by default.
-     *
-     * @see #sendPiccRequest(PcdCommand, Set, byte[], int, int, boolean)
-     */
-    private PiccResponse sendPiccRequest(PcdCommand command, PcdComIrq waitIrq, byte[] txData) throws RfidException {
-        return sendPiccRequest(command, Set.of(waitIrq), txData);
-    }
-
-    /**
-     * Sends a request to the PICC with CRC_A checksum processing disabled by default.
-     *
-     * @see #sendPiccRequest(PcdCommand, Set, byte[], int, int, boolean)
-     */
-    private PiccResponse sendPiccRequest(PcdCommand command, Set<PcdComIrq> waitIrq, byte[] txData) throws RfidException {
-        return sendPiccRequest(command, waitIrq, txData, 0, 0, false);
+    private PiccResponse transceivePicc(byte[] txData, int txLength, int txLastBits, int rxAlignBits, boolean checkCrc) throws RfidException {
+        return sendPiccRequest(PcdCommand.TRANSCEIVE, TRANSCEIVE_WAIT_IRQ, txData, txLength, txLastBits, rxAlignBits, checkCrc);
     }
 
     /**
      * Sends a request to the PICC, waits for an appropriate response and processes it accordingly.
      * Common error IRQs are automatically handled and a timeout of {@link #PICC_COMMAND_TIMEOUT_MS} applies.
+     * The response gets stored within a reusable instance, so no memory is allocated for regular requests.
      *
      * @param command     PCD command to use which will trigger PICC communication
-     * @param waitIrq     IRQs to consider as an indicator for a valid response
-     * @param txData      Bytes used as data for the PCD command, effectively influencing what is sent to the PICC
+     * @param waitIrqMask Bitmask of COM IRQs to consider as an indicator for a valid response
+     * @param txData      Buffer containing the bytes used as data for the PCD command
+     * @param txLength    Number of bytes within the buffer to be used
      * @param txLastBits  Number of valid bits to be transmitted as part of the last byte, 0 means all 8 bits are valid
      * @param rxAlignBits Position of first valid bit in received data, 0 means all 8 bits are valid
      * @param checkCrc    Boolean which specifies if CRC_A checksum according to ISO-14443 should be processed
-     * @return Response from PICC with payload
+     * @return Reusable response from PICC with payload, only valid until the next request
      * @throws RfidException Timeout, collision or generic error occurred during PICC request
      */
-    private PiccResponse sendPiccRequest(PcdCommand command, Set<PcdComIrq> waitIrq, byte[] txData, int txLastBits, int rxAlignBits, boolean checkCrc) throws RfidException {
+    private PiccResponse sendPiccRequest(PcdCommand command, byte waitIrqMask, byte[] txData, int txLength, int txLastBits, int rxAlignBits, boolean checkCrc) throws RfidException {
+        if (!trySendPiccRequest(command, waitIrqMask, txData, txLength, txLastBits, rxAlignBits, checkCrc)) {
+            throw new RfidTimeoutException("Deadline reached after " + PICC_COMMAND_TIMEOUT_MS + " milliseconds");
+        }
+        return response;
+    }
+
+    /**
+     * Acts like {@link #sendPiccRequest(PcdCommand, byte, byte[], int, int, int, boolean)}, but signals a timeout by returning false.
+     * This avoids creating exceptions for expected timeouts, e.g. when polling for PICCs or halting a PICC.
+     * The response is available within {@link #response} if this method returned true.
+     *
+     * @return True if the PICC answered, false if the deadline was reached
+     * @throws RfidException Collision or generic error occurred during PICC request
+     * @see #sendPiccRequest(PcdCommand, byte, byte[], int, int, int, boolean)
+     */
+    private boolean trySendPiccRequest(PcdCommand command, byte waitIrqMask, byte[] txData, int txLength, int txLastBits, int rxAlignBits, boolean checkCrc) throws RfidException {
         // Calculate adjustments for bit-oriented frames
         // BitFramingReg[6..4] => RxAlign, position of first bit to be stored in FIFO, 0 = use all bits
         // BitFramingReg[2..0] => TxLastBits, number of transmitted bits in last byte, 0 = use all bits
         final var bitFraming = (byte) (((rxAlignBits & 0x7) << 4) + (txLastBits & 0x7));
 
         // Prepare PCD for communication with PICC
-        executePcd(PcdCommand.IDLE);
-        writeRegister(PcdRegister.COM_IRQ_REG, (byte) 0b01111111); // Clear all interrupt request bits
-        writeRegister(PcdRegister.FIFO_LEVEL_REG, (byte) 0b10000000); // FlushBuffer[1], FIFOLevel[0000000]
-        writeRegister(PcdRegister.FIFO_DATA_REG, txData); // Write TX data to FIFO
-        writeRegister(PcdRegister.BIT_FRAMING_REG, bitFraming); // Set bit adjustments for RX/TX
-        executePcd(command);
+        transaction.begin()
+            .write(PcdRegister.COMMAND_REG, PcdCommand.IDLE.getValue())
+            .write(PcdRegister.COM_IRQ_REG, (byte) 0b01111111) // Clear all interrupt request bits
+            .write(PcdRegister.DIV_IRQ_REG, (byte) 0x04) // Clear CRCIRq interrupt request bits, releasing the IRQ output
+            .write(PcdRegister.FIFO_LEVEL_REG, (byte) 0b10000000) // FlushBuffer[1], FIFOLevel[0000000]
+            .write(PcdRegister.FIFO_DATA_REG, txData, 0, txLength) // Write TX data to FIFO
+            .write(PcdRegister.BIT_FRAMING_REG, bitFraming) // Set bit adjustments for RX/TX
+            .write(PcdRegister.COMMAND_REG, command.getValue());
 
         // Enable StartSend=1 flag in BitFramingReg for transceive command to start transmission
+        // The full register value is already known, so no read-modify-write cycle is required here
         if (command == PcdCommand.TRANSCEIVE) {
-            setBitMask(PcdRegister.BIT_FRAMING_REG, (byte) 0x80); // StartSend[1]
+            transaction.write(PcdRegister.BIT_FRAMING_REG, (byte) (bitFraming | 0x80)); // StartSend[1]
         }
+        transaction.execute();
 
         // Wait for completion of command execution with timeout
-        boolean deadlineReached = true;
-        final long deadline = System.currentTimeMillis() + PICC_COMMAND_TIMEOUT_MS;
-        do {
-            final byte comIrqReg = readRegister(PcdRegister.COM_IRQ_REG);
-            // Did we receive any of the expected IRQs? If so, break out of loop without timeout
-            if (waitIrq.stream().anyMatch(irq -> irq.isSet(comIrqReg))) {
-                deadlineReached = false;
-                break;
-            }
-            // Did we receive a timer IRQ? Nothing happened for 25ms (see init() method), abort with timeout
-            if (PcdComIrq.TIMER_IRQ.isSet(comIrqReg)) {
-                break;
-            }
-        } while (System.currentTimeMillis() < deadline);
+        // A timer IRQ means that nothing happened for 25ms (see init() method), which is treated as a timeout as well
+        final byte comIrqReg = awaitRegister(PcdRegister.COM_IRQ_REG, (byte) (waitIrqMask | PcdComIrq.TIMER_IRQ.getValue()), PICC_COMMAND_TIMEOUT_MS);
+        final boolean deadlineReached = (comIrqReg & waitIrqMask) == 0;
 
         // Clear StartSend flag which may have been previously set
         clearBitMask(PcdRegister.BIT_FRAMING_REG, (byte) 0x80); // StartSend[0]
 
         // Handle potential timeout of PICC command execution
         if (deadlineReached) {
-            throw new RfidTimeoutException("Deadline reached after " + PICC_COMMAND_TIMEOUT_MS + " milliseconds");
+            return false;
         }
 
+        // Retrieve error register, FIFO level and last bits using a single transfer
+        transaction.begin()
+            .read(PcdRegister.ERROR_REG)
+            .read(PcdRegister.FIFO_LEVEL_REG)
+            .read(PcdRegister.CONTROL_REG)
+            .execute();
+        final byte errorReg = transaction.getResult(0);
+        final byte fifoLevelReg = transaction.getResult(1);
+        final byte controlReg = transaction.getResult(2);
+
         // Throw an exception if error register contains any unexpected error
-        final byte errorReg = readRegister(PcdRegister.ERROR_REG);
-        final var earlyError = PcdError.matchErrReg(errorReg, PcdError.BUFFER_OVFL, PcdError.PARITY_ERR, PcdError.PROTOCOL_ERR);
+        final var earlyError = PcdError.matchErrReg(errorReg, EARLY_ERRORS);
         if (earlyError != null) {
             throw new RfidException(earlyError);
         }
 
         // Prepare default response values
-        byte[] rxData = new byte[0];
+        final byte[] rxData = response.getBuffer();
         int rxLength = 0;
         int rxLastBits = 0;
 
         // Receive data from PICC if not authentication
         if (command != PcdCommand.MF_AUTHENT) {
-            rxLength = readRegister(PcdRegister.FIFO_LEVEL_REG) & 0xFF;
-            rxData = readRegister(PcdRegister.FIFO_DATA_REG, rxLength, rxAlignBits);
-            rxLastBits = readRegister(PcdRegister.CONTROL_REG) & 0x07;
+            rxLength = Math.min(fifoLevelReg & 0x7F, rxData.length);
+            readRegister(PcdRegister.FIFO_DATA_REG, rxData, rxLength, rxAlignBits);
+            rxLastBits = controlReg & 0x07;
         }
+        response.update(rxLength, rxLastBits);
 
         // Check for collision error
-        var lateError = PcdError.matchErrReg(errorReg, PcdError.COLL_ERR);
-        if (lateError != null) {
+        if (PcdError.COLL_ERR.isSet(errorReg)) {
             throw new RfidCollisionException();
         }
 
@@ -812,20 +1152,53 @@ public class MFRC522 extends Component {
             }
 
             // Determine actual checksum and calculate expected checksum using CRC_A
-            final var actualChecksum = new byte[]{rxData[rxLength - 2], rxData[rxLength - 1]};
-            final var expectedChecksum = calculateCrc(Arrays.copyOfRange(rxData, 0, rxLength - 2));
+            final int actualChecksum = (rxData[rxLength - 2] & 0xFF) | ((rxData[rxLength - 1] & 0xFF) << 8);
+            final int expectedChecksum = calculateCrc(rxData, 0, rxLength - 2);
 
             // Throw an exception if the checksums do not match
-            if (!Arrays.equals(actualChecksum, expectedChecksum)) {
+            if (actualChecksum != expectedChecksum) {
                 throw new RfidException("CRC checksum mismatch during verification");
             }
 
             // Strip CRC from response
-            rxLength -= 2;
-            rxData = Arrays.copyOfRange(rxData, 0, rxLength);
+            response.update(rxLength - 2, rxLastBits);
         }
 
-        return new PiccResponse(rxData, rxLength, rxLastBits);
+        return true;
+    }
+
+    /**
+     * Waits until any bit of the given mask is set within the specified register or the timeout has been reached.
+     * Without an IRQ pin, the register gets polled continuously. Otherwise the current thread is parked in between
+     * and only reads the register again once the IRQ output of the PCD has been asserted or the deadline has passed.
+     *
+     * @param register  PCD register to watch, usually {@link PcdRegister#COM_IRQ_REG} or {@link PcdRegister#DIV_IRQ_REG}
+     * @param mask      Bitmask of interrupt request bits to wait for
+     * @param timeoutMs Timeout in milliseconds
+     * @return Last value read from the register, caller must check the bits to determine if a timeout occurred
+     */
+    private byte awaitRegister(PcdRegister register, byte mask, long timeoutMs) {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        if (irqPin != null) {
+            irqWaiter = Thread.currentThread();
+        }
+
+        try {
+            while (true) {
+                final byte value = readRegister(register);
+                final long remaining = deadline - System.nanoTime();
+                if ((value & mask) != 0 || remaining <= 0) {
+                    return value;
+                }
+
+                // Wait for the interrupt, a signal which arrived before parking is not lost as it leaves a permit behind
+                if (irqPin != null) {
+                    LockSupport.parkNanos(this, remaining);
+                }
+            }
+        } finally {
+            irqWaiter = null;
+        }
     }
 
     /**
@@ -844,34 +1217,7 @@ public class MFRC522 extends Component {
      * @param value    Byte to be written
      */
     private void writeRegister(PcdRegister register, byte value) {
-        spi.transfer(new byte[]{register.getWriteAddress(), value});
-    }
-
-    /**
-     * Writes one or more bytes to the specified PCD register.
-     *
-     * @param register PCD register to write
-     * @param values   Bytes to be written
-     */
-    private void writeRegister(PcdRegister register, byte[] values) {
-        final var buffer = new byte[values.length + 1];
-        buffer[0] = register.getWriteAddress();
-        System.arraycopy(values, 0, buffer, 1, values.length);
-
-        spi.transfer(buffer);
-    }
-
-    /**
-     * Writes a short to the specified PCD registers by splitting into two bytes.
-     *
-     * @param registerHigh PCD register where upper half (MSB) is stored
-     * @param registerLow  PCD register where lower half (LSB) is stored
-     * @param value        Short to be written to registers
-     */
-    private void writeRegister(PcdRegister registerHigh, PcdRegister registerLow, short value) {
-        int tmp = value & 0xFFFF;
-        writeRegister(registerHigh, (byte) ((tmp >> 8) & 0xFF));
-        writeRegister(registerLow, (byte) (tmp & 0xFF));
+        transaction.begin().write(register, value).execute();
     }
 
     /**
@@ -881,82 +1227,76 @@ public class MFRC522 extends Component {
      * @return Byte read from register
      */
     private byte readRegister(PcdRegister register) {
-        final var buffer = new byte[]{register.getReadAddress(), 0};
-        spi.transfer(buffer);
-        return buffer[1];
+        final byte value = transaction.begin().read(register).execute().getResult(0);
+        transaction.updateShadow(register, value);
+        return value;
     }
 
     /**
-     * Reads the specified amount of bytes from the specified PCD register.
-     * Supports bit-oriented frames where the first relevant bit is shifted accordingly.
+     * Reads the specified amount of bytes from the specified PCD register into the given buffer.
+     * Supports bit-oriented frames where the first relevant bit is shifted accordingly, clearing all bits before it.
      *
      * @param register    PCD register to read
+     * @param dest        Destination buffer, starting at the first byte
      * @param length      Amount of bytes to read from the PCD including the partial byte (only applicable if rxAlignBits != 0)
      * @param rxAlignBits Position of first bit which is relevant, specify 0 to consider all 8 bits valid
-     * @return Byte array with retrieved data
      */
-    private byte[] readRegister(PcdRegister register, int length, int rxAlignBits) {
+    private void readRegister(PcdRegister register, byte[] dest, int length, int rxAlignBits) {
         // Break out early if zero-length was given
         if (length == 0) {
-            return new byte[]{};
-        }
-
-        // Create buffer for retrieving data
-        final var buffer = new byte[length + 1];
-        for (int i = 0; i < length; i++) {
-            buffer[i] = register.getReadAddress();
+            return;
         }
-        buffer[buffer.length - 1] = 0;
 
-        // Transfer buffer
-        spi.transfer(buffer);
-
-        // Prepare result buffer
-        final var result = new byte[length];
-        int resultIndex = 0;
-
-        // Start at buffer position 1 as the first byte (where the command was stored) is always zero
-        int bufferIndex = 1;
+        // Read all bytes within a single transfer and copy them into the destination buffer
+        transaction.begin().read(register, length).execute();
+        transaction.copyResults(0, dest, 0, length);
 
         // Adjust first byte for bit-oriented frames
         if (rxAlignBits != 0) {
             // Create bitmask where LSB is shifted by given amount
             byte mask = (byte) ((0xFF << rxAlignBits) & 0xFF);
-            // Mask received first byte and store into result buffer
-            result[resultIndex++] = (byte) (buffer[bufferIndex++] & ~mask);
+            // Clear bits before the first received bit, which do not contain any received data
+            dest[0] = (byte) (dest[0] & mask);
         }
+    }
 
-        // Copy all pending bytes into the result buffer
-        System.arraycopy(buffer, bufferIndex, result, resultIndex, length - bufferIndex + 1);
-
-        return result;
+    /**
+     * Returns the current value of the specified PCD register, using the shadow value if available.
+     *
+     * @param register PCD register to retrieve
+     * @return Current register value
+     */
+    private byte readShadowedRegister(PcdRegister register) {
+        return transaction.hasShadow(register) ? transaction.getShadow(register) : readRegister(register);
     }
 
     /**
-     * Manipulates the specified PCD register by setting all bits according to the bitmask
+     * Manipulates the specified PCD register by setting all bits according to the bitmask.
+     * Shadowed registers are not read from the PCD, so only a single write is needed.
      *
      * @param register PCD register to manipulate
      * @param mask     Bitmask to set
      */
     private void setBitMask(PcdRegister register, byte mask) {
-        final byte oldValue = readRegister(register);
+        final byte oldValue = readShadowedRegister(register);
         final byte newValue = (byte) (oldValue | mask);
         if (oldValue != newValue) {
-            writeRegister(register, (byte) (oldValue | mask));
+            writeRegister(register, newValue);
         }
     }
 
     /**
-     * Manipulates the specified PCD register by clearing all bits according to the bitmask
+     * Manipulates the specified PCD register by clearing all bits according to the bitmask.
+     * Shadowed registers are not read from the PCD, so only a single write is needed.
      *
      * @param register PCD register to manipulate
      * @param mask     Bitmask to clear
      */
     private void clearBitMask(PcdRegister register, byte mask) {
-        final byte oldValue = readRegister(register);
+        final byte oldValue = readShadowedRegister(register);
         final byte newValue = (byte) (oldValue & ~mask);
         if (oldValue != newValue) {
-            writeRegister(register, (byte) (oldValue & ~mask));
+            writeRegister(register, newValue);
         }
     }
 }
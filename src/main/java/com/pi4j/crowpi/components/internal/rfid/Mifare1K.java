@@ -3,15 +3,23 @@ package com.pi4j.crowpi.components.internal.rfid;
 import com.pi4j.crowpi.components.exceptions.RfidException;
 import com.pi4j.crowpi.components.helpers.ByteHelpers;
 
-import java.io.ByteArrayOutputStream;
-import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Implementation of MIFARE Classic 1K cards with 16 sectors with 4 blocks (16 bytes) each.
  * First sector with manufacturer block and sector trailers are explicitly hidden from the user.
+ * <p>
+ * Data is stored with a small header containing a magic value and the payload length, which allows reading only the blocks
+ * which are actually in use. Cards written without this header are still supported by falling back to reading all blocks.
+ * Recently read or written blocks are cached per card UID, so repeated reads of the same card only need to read the first
+ * data block from the PICC. Cached blocks are only used as long as this block still matches, as the card might have been
+ * written by another reader in the meantime. The cached blocks are also used for writing, so that only blocks whose
+ * contents actually changed get written again.
  */
 public final class Mifare1K extends RfidCard {
     /**
@@ -31,6 +39,40 @@ public final class Mifare1K extends RfidCard {
      */
     private static final byte BLOCK_COUNT = SECTOR_COUNT * BLOCKS_PER_SECTOR;
 
+    /**
+     * Magic bytes at the start of the first data block which indicate the presence of a payload header
+     */
+    private static final byte[] HEADER_MAGIC = new byte[]{(byte) 0xC5, (byte) 0x4A};
+    /**
+     * Size of the payload header in bytes, consisting of the magic bytes and a 16-bit payload length
+     */
+    private static final int HEADER_SIZE = HEADER_MAGIC.length + 2;
+
+    /**
+     * Key used for authenticating all sectors, which is the default key B
+     */
+    private static final MifareKey AUTH_KEY = MifareKey.getDefaultKeyB();
+
+    /**
+     * Maximum number of cards whose blocks are kept within the read cache
+     */
+    private static final int READ_CACHE_SIZE = 16;
+    /**
+     * Time in milliseconds after which cached blocks are considered stale and read again from the card
+     */
+    private static final long READ_CACHE_TTL_MS = 30000;
+    /**
+     * Cache of recently read or written blocks, using the card serial as key and evicting the least recently used entry
+     */
+    private static final Map<String, CachedImage> READ_CACHE = Collections.synchronizedMap(
+        new LinkedHashMap<>(READ_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedImage> eldest) {
+                return size() > READ_CACHE_SIZE;
+            }
+        }
+    );
+
     /**
      * Instance of MFRC522 which created this card instance
      */
@@ -40,10 +82,31 @@ public final class Mifare1K extends RfidCard {
      * Set of integers to be considered as forbidden blocks
      */
     private final Set<Integer> forbiddenBlocks;
+    /**
+     * Addresses of all blocks which may be used for data in ascending order
+     */
+    private final int[] dataBlocks;
     /**
      * Pre-calculated capacity in bytes of this card
      */
     private final int totalCapacity;
+    /**
+     * Preallocated buffer holding the raw contents of all data blocks including the payload header
+     */
+    private final byte[] image;
+    /**
+     * Number of leading data blocks within {@link #image} whose contents are known to match the card
+     */
+    private int knownBlocks;
+    /**
+     * Specifies for each data block if its contents within {@link #image} were read from or written to the card by this
+     * instance, as opposed to being restored from the read cache which might be outdated
+     */
+    private final boolean[] confirmedBlocks;
+    /**
+     * Preallocated buffer holding the cached contents of the first data block while it gets read again from the card
+     */
+    private final byte[] cachedHeader = new byte[BYTES_PER_BLOCK];
     /**
      * Cache for storing the most recently authenticated sector
      */
@@ -59,41 +122,63 @@ public final class Mifare1K extends RfidCard {
         super(uid);
         this.mfrc522 = mfrc522;
         this.forbiddenBlocks = determineForbiddenBlocks();
-        this.totalCapacity = (BLOCK_COUNT - forbiddenBlocks.size()) * BYTES_PER_BLOCK;
+        this.dataBlocks = determineDataBlocks(forbiddenBlocks);
+        this.totalCapacity = dataBlocks.length * BYTES_PER_BLOCK;
+        this.image = new byte[totalCapacity];
+        this.confirmedBlocks = new boolean[dataBlocks.length];
+
+        // Restore previously cached blocks of this card
+        final var cached = READ_CACHE.get(getSerial());
+        if (cached != null && !cached.isExpired()) {
+            System.arraycopy(cached.getImage(), 0, image, 0, cached.getBlocks() * BYTES_PER_BLOCK);
+            this.knownBlocks = cached.getBlocks();
+        }
     }
 
     /**
      * {@inheritDoc}
+     * The returned capacity already excludes the payload header.
      */
     public int getCapacity() {
-        return totalCapacity;
+        return totalCapacity - HEADER_SIZE;
     }
 
     /**
      * {@inheritDoc}
+     * Only the blocks covered by the payload header are read, unless the card was written without a header.
+     * The first data block is always read from the PICC, the remaining blocks are taken from the cache as long as the
+     * first block did not change since they were cached.
      */
     @Override
     protected byte[] readBytes() throws RfidException {
-        final var buffer = new ByteArrayOutputStream();
+        // Read first data block which contains the payload header
+        refreshHeader();
 
-        // Read all available blocks from card
-        for (int blockAddr = 0; blockAddr < BLOCK_COUNT; blockAddr++) {
-            // Skip block if marked as forbidden
-            if (forbiddenBlocks.contains(blockAddr)) {
-                logger.trace("Skipping read of forbidden block #%s", blockAddr);
-                continue;
+        final byte[] data;
+        if (hasHeader()) {
+            // Only read the blocks which are required for the payload
+            final int length = ((image[HEADER_MAGIC.length] & 0xFF) << 8) | (image[HEADER_MAGIC.length + 1] & 0xFF);
+            if (length > getCapacity()) {
+                throw new RfidException("Payload header specifies " + length + " bytes which exceeds card capacity");
             }
 
-            // Read block from card into buffer
-            authenticate(blockAddr);
-            buffer.writeBytes(mfrc522.mifareRead((byte) blockAddr));
+            readBlocks(blocksFor(HEADER_SIZE + length));
+            data = Arrays.copyOfRange(image, HEADER_SIZE, HEADER_SIZE + length);
+        } else {
+            // Card has been written without header, read all available blocks
+            logger.debug("No payload header found, reading all blocks from card");
+            readBlocks(dataBlocks.length);
+            data = image.clone();
         }
 
-        return buffer.toByteArray();
+        updateCache();
+        return data;
     }
 
     /**
      * {@inheritDoc}
+     * A payload header gets written in front of the data, so that future reads can stop after the used blocks.
+     * Depending on {@link #getWriteMode()}, blocks whose contents did not change are skipped.
      */
     @Override
     protected void writeBytes(byte[] data) throws RfidException, IllegalArgumentException {
@@ -102,41 +187,183 @@ public final class Mifare1K extends RfidCard {
             throw new IllegalArgumentException("Unable to store data with " + data.length + " bytes, maximum capacity is " + getCapacity() + " bytes");
         }
 
-        // Split byte array into list of chunks with block size
-        final var chunks = new ArrayDeque<byte[]>();
-        int start = 0;
-        while (start < data.length) {
-            final int end = Math.min(data.length, start + BYTES_PER_BLOCK);
-            final var chunk = new byte[BYTES_PER_BLOCK];
-            System.arraycopy(data, start, chunk, 0, end - start);
-            chunks.add(chunk);
-            start += BYTES_PER_BLOCK;
-        }
+        // Prepare new contents with payload header followed by data, padding the last block with zeroes
+        final int length = HEADER_SIZE + data.length;
+        final int blockCount = blocksFor(length);
+        final var contents = new byte[blockCount * BYTES_PER_BLOCK];
+        System.arraycopy(HEADER_MAGIC, 0, contents, 0, HEADER_MAGIC.length);
+        contents[HEADER_MAGIC.length] = (byte) ((data.length >> 8) & 0xFF);
+        contents[HEADER_MAGIC.length + 1] = (byte) (data.length & 0xFF);
+        System.arraycopy(data, 0, contents, HEADER_SIZE, data.length);
 
-        // Write chunks into available blocks
-        int blockAddr = 0;
-        while (blockAddr < BLOCK_COUNT && !chunks.isEmpty()) {
-            // Write next chunk into block if not forbidden
-            if (!forbiddenBlocks.contains(blockAddr)) {
-                final var chunk = chunks.pop();
+        final var writeMode = getWriteMode();
+        final boolean verify = isVerifyWrites();
+        int writtenBlocks = 0;
+        try {
+            for (int i = 0; i < blockCount; i++) {
+                final int offset = i * BYTES_PER_BLOCK;
+
+                // Read current block contents first if requested and not yet known
+                if (writeMode == WriteMode.READ_COMPARE && i >= knownBlocks) {
+                    readBlocks(i + 1);
+                }
+
+                // Skip block if its known contents already match, confirming contents restored from the cache first
+                if (writeMode != WriteMode.FULL && i < knownBlocks && blockEquals(i, contents, offset)) {
+                    if (!confirmedBlocks[i]) {
+                        readBlock(i);
+                    }
+                    if (blockEquals(i, contents, offset)) {
+                        continue;
+                    }
+                }
+
+                final int blockAddr = dataBlocks[i];
+                final var chunk = Arrays.copyOfRange(contents, offset, offset + BYTES_PER_BLOCK);
 
                 logger.debug("Writing chunk %s to block #%s", ByteHelpers.toString(chunk), blockAddr);
                 authenticate(blockAddr);
                 mfrc522.mifareWrite((byte) blockAddr, chunk);
-            } else {
-                logger.trace("Skipping write of forbidden block #%s", blockAddr);
+                writtenBlocks++;
+
+                // Read block again and ensure it contains the expected data
+                if (verify) {
+                    final var actual = mfrc522.mifareRead((byte) blockAddr);
+                    if (actual.length < BYTES_PER_BLOCK || !Arrays.equals(actual, 0, BYTES_PER_BLOCK, chunk, 0, BYTES_PER_BLOCK)) {
+                        throw new RfidException("Verification of block #" + blockAddr + " failed, read " + ByteHelpers.toString(actual));
+                    }
+                }
+
+                // Blocks are processed in ascending order, so the written block is always adjacent to the known ones
+                System.arraycopy(chunk, 0, image, offset, BYTES_PER_BLOCK);
+                confirmedBlocks[i] = true;
+                knownBlocks = Math.max(knownBlocks, i + 1);
             }
+        } catch (RfidException e) {
+            // Contents of the card are unknown after a failed write
+            knownBlocks = 0;
+            Arrays.fill(confirmedBlocks, false);
+            READ_CACHE.remove(getSerial());
+            throw e;
+        }
+
+        logger.debug("Wrote %s of %s blocks to card", writtenBlocks, blockCount);
+        updateCache();
+    }
 
-            // Advance to next block
-            blockAddr++;
+    /**
+     * Ensures that the given amount of leading data blocks is available within the preallocated {@link #image}.
+     * Blocks which are already known are not read again.
+     *
+     * @param count Number of leading data blocks which must be known
+     * @throws RfidException Reading data from card failed
+     */
+    private void readBlocks(int count) throws RfidException {
+        for (int i = knownBlocks; i < count; i++) {
+            readBlock(i);
+            knownBlocks = i + 1;
         }
+    }
 
-        // Throw an exception if not all chunks were written
-        if (!chunks.isEmpty()) {
-            throw new RfidException("Could not write all data into card, data will most likely be corrupted");
+    /**
+     * Reads the first data block from the card, even if it is already known. All other known blocks are discarded if the
+     * first block no longer matches its known contents, as the card has been modified in the meantime.
+     *
+     * @throws RfidException Reading data from card failed
+     */
+    private void refreshHeader() throws RfidException {
+        if (knownBlocks == 0) {
+            readBlocks(1);
+            return;
+        }
+
+        System.arraycopy(image, 0, cachedHeader, 0, BYTES_PER_BLOCK);
+        try {
+            readBlock(0);
+        } catch (RfidException e) {
+            knownBlocks = 0;
+            throw e;
+        }
+
+        if (!blockEquals(0, cachedHeader, 0)) {
+            logger.debug("First data block changed, discarding cached blocks");
+            knownBlocks = 1;
+            Arrays.fill(confirmedBlocks, 1, confirmedBlocks.length, false);
         }
     }
 
+    /**
+     * Reads a single data block from the card into {@link #image}, replacing any cached contents.
+     *
+     * @param index Index of data block, not to be confused with the block address
+     * @throws RfidException Reading data from card failed or returned an incomplete block
+     */
+    private void readBlock(int index) throws RfidException {
+        final int blockAddr = dataBlocks[index];
+        authenticate(blockAddr);
+
+        final int length = mfrc522.mifareRead((byte) blockAddr, image, index * BYTES_PER_BLOCK);
+        if (length != BYTES_PER_BLOCK) {
+            confirmedBlocks[index] = false;
+            throw new RfidException("Reading block #" + blockAddr + " returned " + length + " instead of " + BYTES_PER_BLOCK + " bytes");
+        }
+        confirmedBlocks[index] = true;
+    }
+
+    /**
+     * Compares a data block within {@link #image} against the given contents.
+     *
+     * @param index    Index of data block, not to be confused with the block address
+     * @param contents Expected contents
+     * @param offset   Offset of the block within expected contents
+     * @return True if block is identical, otherwise false
+     */
+    private boolean blockEquals(int index, byte[] contents, int offset) {
+        final int imageOffset = index * BYTES_PER_BLOCK;
+        return Arrays.equals(image, imageOffset, imageOffset + BYTES_PER_BLOCK, contents, offset, offset + BYTES_PER_BLOCK);
+    }
+
+    /**
+     * Stores a copy of all currently known blocks within the read cache.
+     */
+    private void updateCache() {
+        READ_CACHE.put(getSerial(), new CachedImage(Arrays.copyOf(image, knownBlocks * BYTES_PER_BLOCK), knownBlocks));
+    }
+
+    /**
+     * Checks if the first data block within {@link #image} starts with the payload header.
+     *
+     * @return True if header is present, otherwise false
+     */
+    private boolean hasHeader() {
+        for (int i = 0; i < HEADER_MAGIC.length; i++) {
+            if (image[i] != HEADER_MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates the number of data blocks required to store the given amount of bytes.
+     *
+     * @param length Number of bytes
+     * @return Number of required data blocks
+     */
+    private static int blocksFor(int length) {
+        return (length + BYTES_PER_BLOCK - 1) / BYTES_PER_BLOCK;
+    }
+
+    /**
+     * Removes any cached blocks of the card with the given serial.
+     * This must be used whenever a card might have been modified by something else than this class.
+     *
+     * @param serial Card serial as returned by {@link #getSerial()}
+     */
+    public static void invalidateCache(String serial) {
+        READ_CACHE.remove(serial);
+    }
+
     /**
      * Starts MIFARE authentication for the sector of the specified block address.
      * To avoid unnecessary repetition for contiguous blocks in the same sector, this method remembers the most recently authed sector.
@@ -150,7 +377,7 @@ public final class Mifare1K extends RfidCard {
         final int sectorAddr = blockAddr / BLOCKS_PER_SECTOR;
         if (lastAuthedSector != sectorAddr) {
             logger.debug("Using MIFARE authentication for block #%s in sector #%s", blockAddr, sectorAddr);
-            mfrc522.mifareAuth(MifareKey.getDefaultKeyB(), (byte) blockAddr, getUid());
+            mfrc522.mifareAuth(AUTH_KEY, (byte) blockAddr, getUid());
             lastAuthedSector = sectorAddr;
         }
     }
@@ -178,4 +405,48 @@ public final class Mifare1K extends RfidCard {
 
         return Collections.unmodifiableSet(forbiddenBlocks);
     }
+
+    /**
+     * Determine all blocks which may be used for storing data, which are all blocks not being forbidden.
+     *
+     * @param forbiddenBlocks Addresses of forbidden blocks
+     * @return Addresses of data blocks in ascending order
+     */
+    private static int[] determineDataBlocks(Set<Integer> forbiddenBlocks) {
+        final var dataBlocks = new int[BLOCK_COUNT - forbiddenBlocks.size()];
+        int index = 0;
+        for (int blockAddr = 0; blockAddr < BLOCK_COUNT; blockAddr++) {
+            if (!forbiddenBlocks.contains(blockAddr)) {
+                dataBlocks[index++] = blockAddr;
+            }
+        }
+        return dataBlocks;
+    }
+
+    /**
+     * Entry of the read cache, storing the leading data blocks of a card together with the time they were cached.
+     */
+    private static final class CachedImage {
+        private final byte[] image;
+        private final int blocks;
+        private final long timestamp;
+
+        CachedImage(byte[] image, int blocks) {
+            this.image = image;
+            this.blocks = blocks;
+            this.timestamp = System.currentTimeMillis();
+        }
+
+        byte[] getImage() {
+            return image;
+        }
+
+        int getBlocks() {
+            return blocks;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - timestamp > READ_CACHE_TTL_MS;
+        }
+    }
 }
@@ -16,7 +16,7 @@ enum PcdRegister {
     /**
      * enable and disable interrupt request control bits
      */
-    DIV_I_EN_REG(0x02),
+    DIV_I_EN_REG(0x03),
     /**
      * interrupt request bits
      */
@@ -56,7 +56,7 @@ enum PcdRegister {
     /**
      * adjustments for bit-oriented frames
      */
-    BIT_FRAMING_REG(0x0D),
+    BIT_FRAMING_REG(0x0D, true),
     /**
      * bit position of the first bit-collision detected on the RF interface
      */
@@ -77,7 +77,7 @@ enum PcdRegister {
     /**
      * controls the logical behavior of the antenna driver pins TX1 and TX2
      */
-    TX_CONTROL_REG(0x14),
+    TX_CONTROL_REG(0x14, true),
     /**
      * controls the setting of the transmission modulation
      */
@@ -167,9 +167,14 @@ enum PcdRegister {
     private final byte value;
     private final byte writeAddress;
     private final byte readAddress;
+    private final boolean shadowed;
 
     PcdRegister(int value) {
-        this((byte) value);
+        this(value, false);
+    }
+
+    PcdRegister(int value, boolean shadowed) {
+        this((byte) value, shadowed);
     }
 
     /**
@@ -177,12 +182,17 @@ enum PcdRegister {
      * To differentiate between a read and a write, reads have the MSB set, whereas writes have the MSB clear.
      * While this could be calculated on-the-fly, these values are used so often that it makes sense to cache them.
      *
-     * @param value Raw address of register with MSB unset, used for calculating R/W addresses
+     * Registers which are only ever modified by the host and never by the PCD itself can be marked as shadowed.
+     * The last written value of such registers is cached on the host, allowing bitmask updates without reading them first.
+     *
+     * @param value    Raw address of register with MSB unset, used for calculating R/W addresses
+     * @param shadowed True if the register is exclusively written by the host and may be cached
      */
-    PcdRegister(byte value) {
+    PcdRegister(byte value, boolean shadowed) {
         this.value = value;
         this.writeAddress = (byte) ((value << 1) & 0x7E);
         this.readAddress = (byte) (writeAddress | 0x80);
+        this.shadowed = shadowed;
     }
 
     public byte getValue() {
@@ -196,4 +206,8 @@ enum PcdRegister {
     public byte getWriteAddress() {
         return writeAddress;
     }
+
+    public boolean isShadowed() {
+        return shadowed;
+    }
 }
@@ -0,0 +1,301 @@
+package com.pi4j.crowpi.components.internal.rfid;
+
+import com.pi4j.io.spi.Spi;
+
+/**
+ * Reusable builder for batching multiple register accesses of the PCD into as few SPI transfers as possible.
+ * All operations are queued into preallocated arrays and only executed once {@link #execute()} gets called.
+ * <p>
+ * The MFRC522 SPI protocol allows reading an arbitrary sequence of registers within a single transfer, as every byte sent
+ * after the first one is both the next read address and the clock for the previous result. Writes on the other hand always
+ * target a single register per transfer, so consecutive reads get merged while each write uses its own transfer.
+ * <p>
+ * Additionally, this class keeps a shadow copy of all registers marked with {@link PcdRegister#isShadowed()}.
+ * As these registers are never modified by the PCD itself, their current value is known without reading it first.
+ * This class is not thread-safe, a transaction must be built and executed without any interleaving register access.
+ */
+final class PcdTransaction {
+    /**
+     * Maximum number of operations which can be queued within a single transaction
+     */
+    private static final int MAX_OPERATIONS = 16;
+    /**
+     * Size of internal buffers, large enough to transfer the whole 64 byte FIFO plus a few additional registers
+     */
+    private static final int BUFFER_SIZE = 80;
+
+    /**
+     * Pi4J SPI instance
+     */
+    private final Spi spi;
+
+    /**
+     * Reusable buffer which is passed to the SPI for each transfer
+     */
+    private final byte[] transferBuffer = new byte[BUFFER_SIZE + 1];
+    /**
+     * Payload of all queued write operations, referenced by {@link #opOffset} and {@link #opLength}
+     */
+    private final byte[] payload = new byte[BUFFER_SIZE];
+    /**
+     * Results of all read operations in the order they were queued
+     */
+    private final byte[] results = new byte[BUFFER_SIZE];
+
+    /**
+     * Registers targeted by the queued operations
+     */
+    private final PcdRegister[] opRegister = new PcdRegister[MAX_OPERATIONS];
+    /**
+     * Flags if the queued operation is a read (true) or a write (false)
+     */
+    private final boolean[] opRead = new boolean[MAX_OPERATIONS];
+    /**
+     * Offset of the write payload within {@link #payload}, unused for reads
+     */
+    private final int[] opOffset = new int[MAX_OPERATIONS];
+    /**
+     * Length of the write payload or number of consecutive reads of the same register
+     */
+    private final int[] opLength = new int[MAX_OPERATIONS];
+
+    /**
+     * Number of currently queued operations
+     */
+    private int opCount;
+    /**
+     * Number of payload bytes used by the currently queued write operations
+     */
+    private int payloadLength;
+    /**
+     * Number of result bytes which will be produced by the currently queued read operations
+     */
+    private int resultLength;
+
+    /**
+     * Shadow values of registers marked with {@link PcdRegister#isShadowed()}, indexed by register address
+     */
+    private final byte[] shadowValues = new byte[0x40];
+    /**
+     * Flags if the respective entry in {@link #shadowValues} is currently known
+     */
+    private final boolean[] shadowValid = new boolean[0x40];
+
+    /**
+     * Creates a new transaction builder for the given SPI instance.
+     *
+     * @param spi SPI instance
+     */
+    PcdTransaction(Spi spi) {
+        this.spi = spi;
+    }
+
+    /**
+     * Discards all queued operations and results, allowing this instance to be reused for a new transaction.
+     *
+     * @return This transaction for chaining
+     */
+    PcdTransaction begin() {
+        opCount = 0;
+        payloadLength = 0;
+        resultLength = 0;
+        return this;
+    }
+
+    /**
+     * Queues a write of a single byte to the specified register.
+     *
+     * @param register PCD register to write
+     * @param value    Byte to be written
+     * @return This transaction for chaining
+     */
+    PcdTransaction write(PcdRegister register, byte value) {
+        ensureCapacity(1, 0);
+        payload[payloadLength] = value;
+        queue(register, false, payloadLength, 1);
+        payloadLength++;
+        return this;
+    }
+
+    /**
+     * Queues a write of multiple bytes to the specified register, which is only useful for the FIFO data register.
+     *
+     * @param register PCD register to write
+     * @param values   Bytes to be written
+     * @param offset   Offset of first byte within values
+     * @param length   Number of bytes to be written
+     * @return This transaction for chaining
+     */
+    PcdTransaction write(PcdRegister register, byte[] values, int offset, int length) {
+        ensureCapacity(length, 0);
+        System.arraycopy(values, offset, payload, payloadLength, length);
+        queue(register, false, payloadLength, length);
+        payloadLength += length;
+        return this;
+    }
+
+    /**
+     * Queues a read of a single byte from the specified register.
+     *
+     * @param register PCD register to read
+     * @return This transaction for chaining
+     */
+    PcdTransaction read(PcdRegister register) {
+        return read(register, 1);
+    }
+
+    /**
+     * Queues multiple consecutive reads from the specified register, which is only useful for the FIFO data register.
+     *
+     * @param register PCD register to read
+     * @param count    Number of bytes to read
+     * @return This transaction for chaining
+     */
+    PcdTransaction read(PcdRegister register, int count) {
+        ensureCapacity(0, count);
+        queue(register, true, 0, count);
+        resultLength += count;
+        return this;
+    }
+
+    /**
+     * Executes all queued operations in order with as few SPI transfers as possible.
+     * Consecutive reads are merged into a single transfer, whereas every write uses a separate transfer.
+     *
+     * @return This transaction for retrieving results
+     */
+    PcdTransaction execute() {
+        int resultIndex = 0;
+        int op = 0;
+        while (op < opCount) {
+            if (!opRead[op]) {
+                // Transfer register address followed by payload
+                final var register = opRegister[op];
+                transferBuffer[0] = register.getWriteAddress();
+                System.arraycopy(payload, opOffset[op], transferBuffer, 1, opLength[op]);
+                spi.transfer(transferBuffer, 0, opLength[op] + 1);
+
+                // Remember last written value of shadowed registers
+                if (register.isShadowed()) {
+                    shadowValues[register.getValue()] = payload[opOffset[op] + opLength[op] - 1];
+                    shadowValid[register.getValue()] = true;
+                }
+                op++;
+            } else {
+                // Collect all consecutive reads into a single transfer, terminated by a zero byte
+                int length = 0;
+                while (op < opCount && opRead[op]) {
+                    for (int i = 0; i < opLength[op]; i++) {
+                        transferBuffer[length++] = opRegister[op].getReadAddress();
+                    }
+                    op++;
+                }
+                transferBuffer[length] = 0;
+                spi.transfer(transferBuffer, 0, length + 1);
+
+                // The first received byte is meaningless, every following byte is the value of the previous address
+                System.arraycopy(transferBuffer, 1, results, resultIndex, length);
+                resultIndex += length;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Returns a single result byte of a previously executed transaction.
+     *
+     * @param index Index of read result, counted over all queued reads in order
+     * @return Byte read from register
+     */
+    byte getResult(int index) {
+        if (index < 0 || index >= resultLength) {
+            throw new IndexOutOfBoundsException("Result index must be between 0 and " + (resultLength - 1));
+        }
+        return results[index];
+    }
+
+    /**
+     * Copies multiple result bytes of a previously executed transaction into the given buffer.
+     *
+     * @param index  Index of first read result, counted over all queued reads in order
+     * @param dest   Destination buffer
+     * @param offset Offset within destination buffer
+     * @param length Number of bytes to copy
+     */
+    void copyResults(int index, byte[] dest, int offset, int length) {
+        if (index < 0 || index + length > resultLength) {
+            throw new IndexOutOfBoundsException("Result range exceeds the " + resultLength + " available bytes");
+        }
+        System.arraycopy(results, index, dest, offset, length);
+    }
+
+    /**
+     * Returns if the current value of the given register is known without reading it from the PCD.
+     *
+     * @param register PCD register to check
+     * @return True if shadow value is available, otherwise false
+     */
+    boolean hasShadow(PcdRegister register) {
+        return register.isShadowed() && shadowValid[register.getValue()];
+    }
+
+    /**
+     * Returns the last written value of a shadowed register.
+     * Must only be called if {@link #hasShadow(PcdRegister)} returned true.
+     *
+     * @param register PCD register to retrieve
+     * @return Last written value
+     */
+    byte getShadow(PcdRegister register) {
+        return shadowValues[register.getValue()];
+    }
+
+    /**
+     * Updates the shadow value of a register after its value has been read from the PCD.
+     * This method silently ignores registers which are not shadowed.
+     *
+     * @param register PCD register to update
+     * @param value    Current register value
+     */
+    void updateShadow(PcdRegister register, byte value) {
+        if (register.isShadowed()) {
+            shadowValues[register.getValue()] = value;
+            shadowValid[register.getValue()] = true;
+        }
+    }
+
+    /**
+     * Discards all shadow values, must be called whenever the PCD has been reset.
+     */
+    void invalidateShadows() {
+        for (int i = 0; i < shadowValid.length; i++) {
+            shadowValid[i] = false;
+        }
+    }
+
+    /**
+     * Stores a new operation within the internal arrays.
+     */
+    private void queue(PcdRegister register, boolean read, int offset, int length) {
+        opRegister[opCount] = register;
+        opRead[opCount] = read;
+        opOffset[opCount] = offset;
+        opLength[opCount] = length;
+        opCount++;
+    }
+
+    /**
+     * Ensures that another operation with the given payload and result size still fits into this transaction.
+     *
+     * @param payloadBytes Number of additional payload bytes
+     * @param resultBytes  Number of additional result bytes
+     */
+    private void ensureCapacity(int payloadBytes, int resultBytes) {
+        if (opCount >= MAX_OPERATIONS) {
+            throw new IllegalStateException("Transaction can not contain more than " + MAX_OPERATIONS + " operations");
+        }
+        if (payloadLength + payloadBytes > BUFFER_SIZE || resultLength + resultBytes > BUFFER_SIZE) {
+            throw new IllegalStateException("Transaction can not transfer more than " + BUFFER_SIZE + " bytes");
+        }
+    }
+}
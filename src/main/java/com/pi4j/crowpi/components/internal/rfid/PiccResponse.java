@@ -2,24 +2,72 @@ package com.pi4j.crowpi.components.internal.rfid;
 
 import com.pi4j.crowpi.components.helpers.ByteHelpers;
 
+import java.util.Arrays;
+
+/**
+ * Reusable response of a PICC, backed by a preallocated buffer.
+ * A single instance gets updated by every request, so its contents are only valid until the next request.
+ */
 final class PiccResponse {
-    private final byte[] bytes;
-    private final int length;
-    private final int lastBits;
-
-    public PiccResponse(byte[] bytes, int length, int lastBits) {
-        // Ensure provided response has same length as expected length
-        if (bytes.length != length) {
-            throw new IllegalArgumentException("Provided response buffer does not match expected length");
+    private final byte[] buffer;
+    private int length;
+    private int lastBits;
+
+    /**
+     * Creates a new empty response with the given buffer capacity.
+     *
+     * @param capacity Maximum number of bytes which can be stored
+     */
+    public PiccResponse(int capacity) {
+        this.buffer = new byte[capacity];
+    }
+
+    /**
+     * Updates the length and number of valid bits in the last byte after new data was stored within {@link #getBuffer()}.
+     *
+     * @param length   Number of valid bytes
+     * @param lastBits Number of valid bits in the last byte, 0 means all 8 bits are valid
+     */
+    void update(int length, int lastBits) {
+        // Ensure provided length fits into the preallocated buffer
+        if (length < 0 || length > buffer.length) {
+            throw new IllegalArgumentException("Provided response length exceeds buffer capacity");
         }
 
-        this.bytes = bytes;
         this.length = length;
         this.lastBits = lastBits & 0x7;
     }
 
+    /**
+     * Returns the internal buffer of this response, only the first {@link #getLength()} bytes are valid.
+     *
+     * @return Internal buffer without copying
+     */
+    public byte[] getBuffer() {
+        return this.buffer;
+    }
+
+    /**
+     * Returns a single byte of this response.
+     *
+     * @param index Index of byte, must be less than {@link #getLength()}
+     * @return Byte at given index
+     */
+    public byte getByte(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Response index must be between 0 and " + (length - 1));
+        }
+        return this.buffer[index];
+    }
+
+    /**
+     * Returns a copy of all valid bytes within this response.
+     * As this allocates a new array, prefer {@link #getBuffer()} or {@link #getByte(int)} for frequent access.
+     *
+     * @return Copy of response bytes
+     */
     public byte[] getBytes() {
-        return this.bytes;
+        return Arrays.copyOf(this.buffer, this.length);
     }
 
     public int getLength() {
@@ -32,6 +80,6 @@ final class PiccResponse {
 
     @Override
     public String toString() {
-        return "PiccResponse(" + length + "," + lastBits + ")[" + ByteHelpers.toString(bytes) + "]";
+        return "PiccResponse(" + length + "," + lastBits + ")[" + ByteHelpers.toString(getBytes()) + "]";
     }
 }
@@ -3,13 +3,6 @@ package com.pi4j.crowpi.components.internal.rfid;
 import com.pi4j.crowpi.components.exceptions.RfidException;
 import com.pi4j.crowpi.components.helpers.Logger;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
-
 /**
  * Abstract base class to be implemented by all supported RFID cards.
  * Provides various helper methods to abstract away internal details of various PICC types.
@@ -25,6 +18,15 @@ public abstract class RfidCard {
      */
     protected final Logger logger = new Logger();
 
+    /**
+     * Strategy used for writing data onto the card
+     */
+    private volatile WriteMode writeMode = WriteMode.FULL;
+    /**
+     * Specifies if every written block should be read back and compared
+     */
+    private volatile boolean verifyWrites = false;
+
     /**
      * Creates a new RFID card instance for the given PICC UID.
      *
@@ -50,24 +52,26 @@ public abstract class RfidCard {
      *
      * @param data Serializable object to be stored on card
      * @throws RfidException Object serialization or write process failed
+     * @see SerializableCodec
      */
     public synchronized void writeObject(Object data) throws RfidException {
-        // Serialize object into compressed byte stream
-        // All exceptions will be converted into RfidException for simplicity
-        final var byteArrayOutputStream = new ByteArrayOutputStream();
-        try {
-            final var gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream);
-            final var objectStream = new ObjectOutputStream(gzipOutputStream);
-            objectStream.writeObject(data);
-            objectStream.close();
-            gzipOutputStream.finish();
-        } catch (Exception e) {
-            throw new RfidException("Could not write object to card: " + e.getMessage(), e);
-        }
-
-        // Write serialized bytes to card
-        logger.debug("Writing object with %s bytes to card", byteArrayOutputStream.size());
-        writeBytes(byteArrayOutputStream.toByteArray());
+        writeObject(data, new SerializableCodec<>(Object.class));
+    }
+
+    /**
+     * Stores a single object onto the card by encoding it with the given codec.
+     * While this method may be called multiple times, only a single object can be stored at once on the card.
+     * The same codec must be used with {@link #readObject(RfidCardCodec)} to read the object again.
+     *
+     * @param data  Object to be stored on card
+     * @param codec Codec used for encoding the object
+     * @param <T>   Type of object handled by codec
+     * @throws RfidException Object encoding or write process failed
+     */
+    public synchronized <T> void writeObject(T data, RfidCardCodec<T> codec) throws RfidException {
+        final var bytes = codec.encode(data);
+        logger.debug("Writing object with %s bytes to card", bytes.length);
+        writeBytes(bytes);
     }
 
     /**
@@ -88,30 +92,62 @@ public abstract class RfidCard {
      * @param <T>  Target type for deserialized object, determined by {@code type} parameter.
      * @return Deserialized object read from card
      * @throws RfidException Object deserialization or read process failed
+     * @see SerializableCodec
      */
     public synchronized <T> T readObject(Class<T> type) throws RfidException {
-        // Read all available bytes from tag
-        final var data = readBytes();
-
-        // Deserialize compressed byte stream into object
-        // All exceptions will be converted into RfidException for simplicity
-        final Object object;
-        try {
-            final var byteArrayInputStream = new ByteArrayInputStream(data);
-            final var gzipInputStream = new GZIPInputStream(byteArrayInputStream);
-            final var objectStream = new ObjectInputStream(gzipInputStream);
-            object = objectStream.readObject();
-        } catch (Exception e) {
-            throw new RfidException("Could not read object from card: " + e.getMessage(), e);
-        }
-
-        // Attempt to cast object into specified target type
-        // Failure to do so will be casted into RfidException for simplicity
-        try {
-            return type.cast(object);
-        } catch (ClassCastException e) {
-            throw new RfidException("Could not read object with unexpected type [" + object.getClass().getCanonicalName() + "] from card");
-        }
+        return readObject(new SerializableCodec<>(type));
+    }
+
+    /**
+     * Reads a single object from the card by decoding it with the given codec.
+     * The codec must match the one which was previously used with {@link #writeObject(Object, RfidCardCodec)}.
+     *
+     * @param codec Codec used for decoding the object
+     * @param <T>   Type of object handled by codec
+     * @return Decoded object read from card
+     * @throws RfidException Object decoding or read process failed
+     */
+    public synchronized <T> T readObject(RfidCardCodec<T> codec) throws RfidException {
+        return codec.decode(readBytes());
+    }
+
+    /**
+     * Returns the strategy which is used for writing data onto the card.
+     *
+     * @return Current write mode
+     */
+    public WriteMode getWriteMode() {
+        return writeMode;
+    }
+
+    /**
+     * Sets the strategy which is used for writing data onto the card, which defaults to {@link WriteMode#FULL}.
+     * Cards which do not support partial writes silently ignore this setting and always write all data.
+     *
+     * @param writeMode New write mode
+     */
+    public void setWriteMode(WriteMode writeMode) {
+        this.writeMode = writeMode;
+    }
+
+    /**
+     * Returns if every written block gets read back and compared against the expected contents.
+     *
+     * @return True if writes are verified, otherwise false
+     */
+    public boolean isVerifyWrites() {
+        return verifyWrites;
+    }
+
+    /**
+     * Enables or disables verification of written blocks.
+     * When enabled, every written block gets read back and a mismatch results in a {@link RfidException}.
+     * This doubles the number of round trips for changed blocks, but detects cards which were removed during a write.
+     *
+     * @param verifyWrites True to verify all written blocks, otherwise false
+     */
+    public void setVerifyWrites(boolean verifyWrites) {
+        this.verifyWrites = verifyWrites;
     }
 
     /**
@@ -149,4 +185,26 @@ public abstract class RfidCard {
      * @throws IllegalArgumentException Given data exceeds card capacity
      */
     protected abstract void writeBytes(byte[] data) throws RfidException, IllegalArgumentException;
+
+    /**
+     * All available strategies for writing data onto a card
+     */
+    public enum WriteMode {
+        /**
+         * Always write all blocks which are required for the data, regardless of their current contents
+         */
+        FULL,
+        /**
+         * Skip blocks whose current contents are already known from a previous read or write and identical to the new data.
+         * Blocks with unknown contents get written without reading them first. Contents which are only known from the
+         * read cache of an earlier detection of the card are read again before a block gets skipped, as the card might
+         * have been modified elsewhere in the meantime.
+         */
+        DIFFERENTIAL,
+        /**
+         * Same as {@link #DIFFERENTIAL}, but blocks with unknown contents get read first and are only written if they differ.
+         * This is beneficial if the card most likely contains similar data, as a read needs less round trips than a write.
+         */
+        READ_COMPARE
+    }
 }
@@ -0,0 +1,29 @@
+package com.pi4j.crowpi.components.internal.rfid;
+
+import com.pi4j.crowpi.components.exceptions.RfidException;
+
+/**
+ * Generic interface for converting objects into bytes which can be stored on a {@link RfidCard} and vice-versa.
+ * Use {@link BinaryCodec} for a compact representation or {@link SerializableCodec} for Java serialization.
+ *
+ * @param <T> Type of objects handled by this codec
+ */
+public interface RfidCardCodec<T> {
+    /**
+     * Encodes the given object into bytes.
+     *
+     * @param value Object to encode
+     * @return Encoded bytes
+     * @throws RfidException Object could not be encoded
+     */
+    byte[] encode(T value) throws RfidException;
+
+    /**
+     * Decodes an object from bytes previously created by {@link #encode(Object)}.
+     *
+     * @param data Encoded bytes
+     * @return Decoded object
+     * @throws RfidException Bytes could not be decoded
+     */
+    T decode(byte[] data) throws RfidException;
+}
@@ -17,6 +17,11 @@ public enum RfidCardType {
     ISO_14443_4(0x20),
     ISO_18092(0x40);
 
+    /**
+     * Cached copy of all values, as {@link #values()} allocates a new array on every call
+     */
+    private static final RfidCardType[] VALUES = values();
+
     private final byte sak;
 
     RfidCardType(int sak) {
@@ -39,7 +44,7 @@ public enum RfidCardType {
      * @throws IllegalArgumentException Unknown SAK byte
      */
     public static RfidCardType fromSak(byte sak) {
-        for (final var type : RfidCardType.values()) {
+        for (final var type : VALUES) {
             if (type.getSak() == sak) {
                 return type;
             }
@@ -0,0 +1,119 @@
+package com.pi4j.crowpi.components.internal.rfid;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a single inventory cycle which enumerated all PICCs within the proximity of the PCD.
+ * Besides the UIDs of all discovered PICCs, this class contains a timing report of the cycle.
+ */
+public final class RfidInventory {
+    /**
+     * UIDs of all discovered PICCs in order of discovery
+     */
+    private final List<RfidCardUid> uids;
+    /**
+     * Time in nanoseconds required for discovering each PICC, measured from the end of the previous discovery
+     */
+    private final long[] discoveryNanos;
+    /**
+     * Total duration of the inventory cycle in nanoseconds
+     */
+    private final long durationNanos;
+    /**
+     * Number of collisions which had to be resolved during the inventory cycle
+     */
+    private final int collisions;
+    /**
+     * Number of PICCs which responded but could not be selected
+     */
+    private final int failures;
+
+    /**
+     * Creates a new inventory result with the given UIDs and timing report.
+     *
+     * @param uids           UIDs of discovered PICCs
+     * @param discoveryNanos Time in nanoseconds required for discovering each PICC
+     * @param durationNanos  Total duration of inventory cycle in nanoseconds
+     * @param collisions     Number of resolved collisions
+     * @param failures       Number of failed selections
+     */
+    RfidInventory(List<RfidCardUid> uids, long[] discoveryNanos, long durationNanos, int collisions, int failures) {
+        this.uids = Collections.unmodifiableList(uids);
+        this.discoveryNanos = discoveryNanos;
+        this.durationNanos = durationNanos;
+        this.collisions = collisions;
+        this.failures = failures;
+    }
+
+    /**
+     * Returns the UIDs of all discovered PICCs in order of discovery.
+     *
+     * @return Unmodifiable list of UIDs
+     */
+    public List<RfidCardUid> getUids() {
+        return uids;
+    }
+
+    /**
+     * Returns the number of discovered PICCs.
+     *
+     * @return Number of PICCs
+     */
+    public int size() {
+        return uids.size();
+    }
+
+    /**
+     * Returns true if no PICC has been discovered during this cycle.
+     *
+     * @return True if inventory is empty, otherwise false
+     */
+    public boolean isEmpty() {
+        return uids.isEmpty();
+    }
+
+    /**
+     * Returns the time in nanoseconds which was required for discovering the PICC at the given position.
+     * This includes the request, the anti-collision loop and halting the PICC afterwards.
+     *
+     * @param index Position of PICC as returned by {@link #getUids()}
+     * @return Discovery time in nanoseconds
+     */
+    public long getDiscoveryNanos(int index) {
+        return discoveryNanos[index];
+    }
+
+    /**
+     * Returns the total duration of the inventory cycle in nanoseconds.
+     *
+     * @return Duration in nanoseconds
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Returns the number of collisions between multiple PICCs which had to be resolved during this cycle.
+     *
+     * @return Number of collisions
+     */
+    public int getCollisions() {
+        return collisions;
+    }
+
+    /**
+     * Returns the number of PICCs which answered the request but could not be selected, e.g. due to transmission errors.
+     *
+     * @return Number of failed selections
+     */
+    public int getFailures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return "RfidInventory{cards=" + uids.size() + ", durationUs=" + (durationNanos / 1000) +
+            ", collisions=" + collisions + ", failures=" + failures + ", uids=" + uids + "}";
+    }
+}
@@ -0,0 +1,88 @@
+package com.pi4j.crowpi.components.internal.rfid;
+
+import com.pi4j.crowpi.components.exceptions.RfidException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Legacy codec which stores objects using Java serialization as a GZIP-compressed byte stream.
+ * This is the default codec of {@link RfidCard#writeObject(Object)} and {@link RfidCard#readObject(Class)} for compatibility with existing cards.
+ * Please note that Java serialization adds a lot of overhead for small objects and deserializing untrusted cards is unsafe.
+ * Prefer {@link BinaryCodec} for new applications.
+ *
+ * @param <T> Type of objects handled by this codec
+ */
+public final class SerializableCodec<T> implements RfidCardCodec<T> {
+    /**
+     * Target type for deserialized objects
+     */
+    private final Class<T> type;
+
+    /**
+     * Creates a new serializable codec which casts all deserialized objects into the given type.
+     *
+     * @param type Class instance of target type for deserialized objects
+     */
+    public SerializableCodec(Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Serializes the passed object into a GZIP-compressed byte stream.
+     *
+     * @param value Serializable object to encode
+     * @return Compressed byte stream
+     * @throws RfidException Object serialization failed
+     */
+    @Override
+    public byte[] encode(T value) throws RfidException {
+        // Serialize object into compressed byte stream
+        // All exceptions will be converted into RfidException for simplicity
+        final var byteArrayOutputStream = new ByteArrayOutputStream();
+        try {
+            final var gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream);
+            final var objectStream = new ObjectOutputStream(gzipOutputStream);
+            objectStream.writeObject(value);
+            objectStream.close();
+            gzipOutputStream.finish();
+        } catch (Exception e) {
+            throw new RfidException("Could not write object to card: " + e.getMessage(), e);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * Deserializes a GZIP-compressed byte stream and casts the result into the target type of this codec.
+     *
+     * @param data Compressed byte stream
+     * @return Deserialized object
+     * @throws RfidException Object deserialization failed or object has unexpected type
+     */
+    @Override
+    public T decode(byte[] data) throws RfidException {
+        // Deserialize compressed byte stream into object
+        // All exceptions will be converted into RfidException for simplicity
+        final Object object;
+        try {
+            final var byteArrayInputStream = new ByteArrayInputStream(data);
+            final var gzipInputStream = new GZIPInputStream(byteArrayInputStream);
+            final var objectStream = new ObjectInputStream(gzipInputStream);
+            object = objectStream.readObject();
+        } catch (Exception e) {
+            throw new RfidException("Could not read object from card: " + e.getMessage(), e);
+        }
+
+        // Attempt to cast object into specified target type
+        // Failure to do so will be casted into RfidException for simplicity
+        try {
+            return type.cast(object);
+        } catch (ClassCastException e) {
+            throw new RfidException("Could not read object with unexpected type [" + object.getClass().getCanonicalName() + "] from card");
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.pi4j.crowpi;
 
 import com.pi4j.context.Context;
+import com.pi4j.crowpi.components.events.ActivityDetector;
+import com.pi4j.crowpi.components.events.DigitalEvent;
+import com.pi4j.crowpi.components.events.DigitalEventFilter;
 import com.pi4j.crowpi.components.events.DigitalEventProvider;
+import com.pi4j.crowpi.components.events.EventDispatcher;
 import com.pi4j.crowpi.components.events.EventHandler;
 import com.pi4j.io.gpio.digital.DigitalInput;
 import com.pi4j.io.gpio.digital.DigitalInputConfig;
@@ -10,6 +14,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class DigitalEventHandlingTest extends ComponentTest {
@@ -53,6 +64,233 @@ public class DigitalEventHandlingTest extends ComponentTest {
         assertNotEquals(listener1, listener2);
     }
 
+    @Test
+    void testDispatchedListenerKeepsOrder() {
+        // given
+        final var dispatcher = new EventDispatcher();
+        final var values = new CopyOnWriteArrayList<Boolean>();
+        component.addListener(values::add, dispatcher);
+        final var digitalInput = toMock(component.getDigitalInput());
+
+        // when
+        digitalInput.mockState(DigitalState.HIGH);
+        digitalInput.mockState(DigitalState.LOW);
+        digitalInput.mockState(DigitalState.HIGH);
+
+        // then
+        while (dispatcher.getMetrics().dispatched() < 3) {
+            Thread.onSpinWait();
+        }
+        assertEquals(List.of(true, false, true), values);
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testCoalesceLatestEvent() throws InterruptedException {
+        // given
+        final var dispatcher = new EventDispatcher(1, 1, EventDispatcher.OverflowPolicy.COALESCE_LATEST);
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var values = new CopyOnWriteArrayList<Integer>();
+        final EventHandler<Integer> handler = dispatcher.wrap(component, value -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+            values.add(value);
+        });
+
+        // when
+        handler.handle(1);
+        started.await();
+        handler.handle(2);
+        handler.handle(3);
+        handler.handle(4);
+        release.countDown();
+
+        // then
+        while (dispatcher.getMetrics().dispatched() < 2) {
+            Thread.onSpinWait();
+        }
+        assertEquals(List.of(1, 4), values);
+        assertEquals(2, dispatcher.getMetrics().coalesced());
+        assertEquals(0, dispatcher.getMetrics().dropped());
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testTimedListenerRecordsLatency() {
+        // given
+        final var events = new CopyOnWriteArrayList<DigitalEvent<Boolean>>();
+        final var listener = component.addTimedListener(events::add);
+        final var digitalInput = toMock(component.getDigitalInput());
+        final long before = System.nanoTime();
+
+        // when
+        digitalInput.mockState(DigitalState.HIGH);
+        digitalInput.mockState(DigitalState.LOW);
+
+        // then
+        assertEquals(2, events.size());
+        assertEquals(1, events.get(0).sequence());
+        assertEquals(2, events.get(1).sequence());
+        assertEquals(true, events.get(0).value());
+        assertEquals(DigitalState.LOW, events.get(1).state());
+        assertTrue(events.get(0).timestampNanos() >= before);
+        assertEquals(2, listener.getLatencyHistogram().getCount());
+    }
+
+    @Test
+    void testTimedListenersShareSequenceAndHistogram() {
+        // given
+        final var first = new CopyOnWriteArrayList<DigitalEvent<Boolean>>();
+        final var second = new CopyOnWriteArrayList<DigitalEvent<Boolean>>();
+        final var firstListener = component.addTimedListener(first::add);
+        final var secondListener = component.addTimedListener(second::add);
+        final var plainListener = component.addListener(value -> {
+        });
+        final var digitalInput = toMock(component.getDigitalInput());
+
+        // when
+        digitalInput.mockState(DigitalState.HIGH);
+        digitalInput.mockState(DigitalState.LOW);
+
+        // then
+        assertEquals(first, second);
+        assertEquals(2, second.get(1).sequence());
+        assertSame(component.getLatencyHistogram(), firstListener.getLatencyHistogram());
+        assertSame(firstListener.getLatencyHistogram(), secondListener.getLatencyHistogram());
+        assertEquals(4, component.getLatencyHistogram().getCount());
+        assertNull(plainListener.getLatencyHistogram());
+    }
+
+    @Test
+    void testFilterRecordedTrace() {
+        // given
+        final var forwarded = new CopyOnWriteArrayList<DigitalState>();
+        final var filter = new DigitalEventFilter.Builder()
+            .minPulseWidth(1000)
+            .debounce(10000)
+            .manualFlush()
+            .<Boolean>build(event -> forwarded.add(event.state()));
+
+        // when replaying a bouncing press, a glitch and a bouncing release (times in ms)
+        final long[] times = {0, 2, 3, 5, 30, 30, 60, 61, 62};
+        final DigitalState[] states = {
+            DigitalState.HIGH, DigitalState.LOW, DigitalState.HIGH, DigitalState.LOW,
+            DigitalState.HIGH, DigitalState.LOW, DigitalState.HIGH, DigitalState.LOW, DigitalState.HIGH
+        };
+        for (int i = 0; i < times.length; i++) {
+            filter.handle(new DigitalEvent<>(true, states[i], times[i] * 1_000_000, i + 1));
+        }
+        filter.flush(100_000_000);
+
+        // then
+        assertEquals(List.of(DigitalState.HIGH, DigitalState.LOW, DigitalState.HIGH), forwarded);
+        assertEquals(9, filter.getReceivedCount());
+        assertEquals(3, filter.getForwardedCount());
+    }
+
+    @Test
+    void testFilterRateLimit() {
+        // given
+        final var forwarded = new CopyOnWriteArrayList<DigitalState>();
+        final var lockHeld = new AtomicInteger();
+        final var filterRef = new AtomicReference<DigitalEventFilter<Boolean>>();
+        final var filter = new DigitalEventFilter.Builder()
+            .rateLimit(1, 10)
+            .manualFlush()
+            .<Boolean>build(event -> {
+                if (Thread.holdsLock(filterRef.get())) {
+                    lockHeld.incrementAndGet();
+                }
+                forwarded.add(event.state());
+            });
+        filterRef.set(filter);
+
+        // when replaying a trace starting at zero with one event allowed per 10ms (times in ms)
+        final long[] times = {0, 10, 12, 13, 30};
+        final DigitalState[] states = {
+            DigitalState.HIGH, DigitalState.LOW, DigitalState.HIGH, DigitalState.LOW, DigitalState.HIGH
+        };
+        for (int i = 0; i < times.length; i++) {
+            filter.handle(new DigitalEvent<>(true, states[i], times[i] * 1_000_000, i + 1));
+        }
+
+        // then
+        assertEquals(List.of(DigitalState.HIGH, DigitalState.LOW, DigitalState.HIGH), forwarded);
+        assertEquals(5, filter.getReceivedCount());
+        assertEquals(3, filter.getForwardedCount());
+        assertEquals(1, filter.getRateLimitedCount());
+        assertEquals(0, lockHeld.get());
+    }
+
+    @Test
+    void testFilterTimerReleasesEarliestDeadline() throws InterruptedException {
+        // given
+        final var forwarded = new CopyOnWriteArrayList<DigitalState>();
+        final var latch = new CountDownLatch(2);
+        final var filter = new DigitalEventFilter.Builder()
+            .minPulseWidth(150_000)
+            .debounce(300_000)
+            .<Boolean>build(event -> {
+                forwarded.add(event.state());
+                latch.countDown();
+            });
+
+        // when leaving a debounced release pending at +250ms and a new press pending at +390ms (times in ms)
+        final long base = System.nanoTime();
+        final long[] times = {-200, -40, 240};
+        final DigitalState[] states = {DigitalState.HIGH, DigitalState.LOW, DigitalState.HIGH};
+        for (int i = 0; i < times.length; i++) {
+            filter.handle(new DigitalEvent<>(true, states[i], base + times[i] * 1_000_000, i + 1));
+        }
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+        final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - base);
+
+        // then
+        assertEquals(List.of(DigitalState.HIGH, DigitalState.LOW), forwarded);
+        assertTrue(elapsedMs < 370, "Debounced event released after " + elapsedMs + "ms");
+    }
+
+    @Test
+    void testActivityDetectorBurstAndSustained() {
+        // given
+        final var bursts = new AtomicInteger();
+        final var sustained = new AtomicInteger();
+        final var detector = new ActivityDetector<Boolean>(100);
+        detector.onBurst(3, bursts::incrementAndGet);
+        detector.onSustained(2, 200, sustained::incrementAndGet);
+
+        // when recording two short bursts and a slower period of activity (times in ms)
+        final long[] times = {0, 10, 20, 30, 40, 300, 310, 320, 330, 400, 470, 540, 610};
+        for (final long time : times) {
+            detector.record(time * 1_000_000);
+        }
+
+        // then
+        assertEquals(2, bursts.get());
+        assertEquals(1, sustained.get());
+        assertEquals(times.length, detector.getTotalCount());
+    }
+
+    @Test
+    void testActivityDetectorNegativeTimestamps() {
+        // given
+        final var sustained = new AtomicInteger();
+        final var detector = new ActivityDetector<Boolean>(100);
+        detector.onSustained(2, 200, sustained::incrementAndGet);
+
+        // when recording steady activity at negative times, which System.nanoTime() may return (times in ms)
+        for (long time = -500; time <= -200; time += 50) {
+            detector.record(time * 1_000_000);
+        }
+
+        // then
+        assertEquals(1, sustained.get());
+    }
+
     private final static class DummyComponent implements DigitalEventProvider<Boolean> {
         private final DigitalInput digitalInput;
 
@@ -75,7 +313,7 @@ public class DigitalEventHandlingTest extends ComponentTest {
 
         @Override
         public Boolean mapDigitalState(DigitalState digitalState) {
-            return true;
+            return digitalState == DigitalState.HIGH;
         }
     }
 }
@@ -1,12 +1,16 @@
 package com.pi4j.crowpi.components;
 
 import com.pi4j.crowpi.ComponentTest;
+import com.pi4j.crowpi.components.helpers.Melody;
 import com.pi4j.io.pwm.Pwm;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class BuzzerComponentTest extends ComponentTest {
     protected static final double DUTY_CYCLE_DELTA = 0.1;
@@ -76,4 +80,66 @@ public class BuzzerComponentTest extends ComponentTest {
         // then
         assertTrue(buzzerPwm.isOff());
     }
+
+    @Test
+    public void testAlarmInterruptsMelody() {
+        // given
+        final var tune = new Melody.Builder().tone(1000, 50_000).tone(0, 50_000).build();
+        final var alarm = new Melody.Builder().tone(2000, 10_000).build();
+        final var tuneFuture = buzzer.play(tune, BuzzerComponent.PRIORITY_BACKGROUND);
+
+        // when
+        final var alarmFuture = buzzer.play(alarm, BuzzerComponent.PRIORITY_ALARM);
+        alarmFuture.join();
+
+        // then
+        assertFalse(tuneFuture.isDone());
+        tuneFuture.join();
+        assertTrue(buzzerPwm.isOff());
+    }
+
+    @Test
+    public void testStopMelody() {
+        // given
+        final var melody = new Melody.Builder().tempo(60).note(1000, 1).build();
+        final var future = buzzer.play(melody);
+
+        // when
+        buzzer.stopMelody();
+
+        // then
+        assertTrue(future.isCancelled());
+        while (buzzer.isPlayingMelody()) {
+            Thread.onSpinWait();
+        }
+        assertTrue(buzzerPwm.isOff());
+    }
+
+    @Test
+    public void testRtttlMelodySaveAndLoad(@TempDir Path tempDir) throws IOException {
+        // given
+        final var rtttl = "beep:d=8,o=4,b=120:a,p,4a#.,c6";
+        final var file = tempDir.resolve("beep.melody");
+
+        // when
+        final var melody = Melody.fromRtttl(rtttl);
+        melody.save(file);
+        final var loaded = Melody.load(file);
+
+        // then
+        assertSame(melody, Melody.fromRtttl(rtttl));
+        assertEquals(4, loaded.size());
+        assertEquals(440, loaded.getFrequency(0));
+        assertEquals(0, loaded.getFrequency(1));
+        assertEquals(466, loaded.getFrequency(2));
+        assertEquals(750_000, loaded.getDuration(2));
+        assertEquals(1047, loaded.getFrequency(3));
+        assertEquals(melody.getTotalDuration(), loaded.getTotalDuration());
+    }
+
+    @Test
+    public void testRtttlSharpPauseRejected() {
+        // when + then
+        assertThrows(IllegalArgumentException.class, () -> Melody.fromRtttl("beep:d=8,o=5,b=120:a,p#,c6"));
+    }
 }
@@ -1,8 +1,15 @@
 package com.pi4j.crowpi.components;
 
 import com.pi4j.crowpi.ComponentTest;
+import com.pi4j.crowpi.components.helpers.SampleBuffer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,4 +38,124 @@ class HumiTempComponentTest extends ComponentTest {
         assertEquals(43.4, customSensor.getHumidity());
         assertEquals(26.1, customSensor.getTemperature());
     }
+
+    @Test
+    void testRereadChangedFile(@TempDir Path tempDir) throws IOException {
+        // given
+        final var humiFile = tempDir.resolve("humidity");
+        final var tempFile = tempDir.resolve("temperature");
+        Files.writeString(humiFile, "51200\n");
+        Files.writeString(tempFile, "-1500\n");
+        final var customSensor = new HumiTempComponent(humiFile.toString(), tempFile.toString(), 10);
+        while (customSensor.getTemperature() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // when
+        Files.writeString(tempFile, "22750\n");
+        while (customSensor.getTemperature() < 0) {
+            Thread.onSpinWait();
+        }
+
+        // then
+        assertEquals(51.2, customSensor.getHumidity());
+        assertEquals(22.75, customSensor.getTemperature());
+        assertEquals(0, customSensor.getReadFailures());
+    }
+
+    @Test
+    void testCountReadFailures(@TempDir Path tempDir) {
+        // given
+        final var missingFile = tempDir.resolve("missing").toString();
+
+        // when
+        final var customSensor = new HumiTempComponent(missingFile, missingFile, 10);
+        while (customSensor.getReadFailures() < 2) {
+            Thread.onSpinWait();
+        }
+
+        // then
+        assertEquals(0, customSensor.getHumidity());
+        assertEquals(0, customSensor.getTemperature());
+    }
+
+    @Test
+    void testBackOffWhileReadsFail(@TempDir Path tempDir) throws IOException {
+        // given
+        final var humiFile = tempDir.resolve("humidity");
+        final var tempFile = tempDir.resolve("temperature");
+        final var customSensor = new HumiTempComponent(humiFile.toString(), tempFile.toString(), 10);
+
+        // when
+        while (customSensor.getPoller().getPeriod() < 160) {
+            Thread.onSpinWait();
+        }
+        final long failures = customSensor.getReadFailures();
+        while (customSensor.getReadFailures() < failures + 4) {
+            Thread.onSpinWait();
+        }
+        final long maxPeriod = customSensor.getPoller().getPeriod();
+        Files.writeString(humiFile, "40000\n");
+        Files.writeString(tempFile, "20000\n");
+        while (customSensor.getTemperature() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // then
+        assertEquals(160, maxPeriod);
+        assertTrue(customSensor.getReadRetries() > 0);
+        assertEquals(10, customSensor.getPoller().getPeriod());
+    }
+
+    @Test
+    void testThresholdEventAndStatistics(@TempDir Path tempDir) throws IOException {
+        // given
+        final var humiFile = tempDir.resolve("humidity");
+        final var tempFile = tempDir.resolve("temperature");
+        Files.writeString(humiFile, "40000\n");
+        Files.writeString(tempFile, "20000\n");
+        final var triggered = new AtomicReference<HumiTempComponent.Measurement>();
+        final var customSensor = new HumiTempComponent(humiFile.toString(), tempFile.toString(), 10);
+        customSensor.onTemperatureAbove(25, triggered::set);
+        while (customSensor.getTemperature() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // when
+        Files.writeString(tempFile, "30000\n");
+        while (triggered.get() == null) {
+            Thread.onSpinWait();
+        }
+
+        // then
+        assertEquals(30.0, triggered.get().temperature());
+        assertEquals(40.0, triggered.get().humidity());
+        final var statistics = customSensor.getTemperatureStatistics();
+        assertEquals(20.0, statistics.min());
+        assertEquals(30.0, statistics.max());
+        assertTrue(statistics.count() >= 2);
+    }
+
+    @Test
+    void testHistoryDumpAndRestore(@TempDir Path tempDir) throws IOException {
+        // given
+        final String humiPath = "src/test/java/com/pi4j/crowpi/resources/HumiTestFile";
+        final String tempPath = "src/test/java/com/pi4j/crowpi/resources/TempTestFile";
+        final var customSensor = new HumiTempComponent(humiPath, tempPath, 10);
+        customSensor.enableHistory(2);
+        while (customSensor.getTemperatureHistory().getTotalCount() < 3) {
+            Thread.onSpinWait();
+        }
+
+        // when
+        final var dumpFile = tempDir.resolve("temperature.bin");
+        customSensor.getTemperatureHistory().dump(dumpFile);
+        final var restored = SampleBuffer.restore(dumpFile).snapshot();
+
+        // then
+        assertEquals(2, restored.size());
+        assertEquals(26.1, restored.getValue(0));
+        assertEquals(26.1, restored.getValue(1));
+        assertTrue(restored.getTimestamp(0) <= restored.getTimestamp(1));
+    }
 }
@@ -2,10 +2,16 @@ package com.pi4j.crowpi.components;
 
 import com.pi4j.crowpi.ComponentTest;
 import com.pi4j.io.i2c.I2C;
+import com.pi4j.plugin.mock.provider.i2c.MockI2C;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LightSensorComponentTest extends ComponentTest {
     protected LightSensorComponent lightSensor;
@@ -54,4 +60,88 @@ public class LightSensorComponentTest extends ComponentTest {
         // then
         assertEquals(102.92, result, 0.1);
     }
+
+    @Test
+    public void testMeasurementToLuxWithModeAndMeasurementTime() {
+        // given
+        double measuredValue = 240;
+
+        // when
+        double defaultResult = lightSensor.calculateLux(measuredValue, LightSensorComponent.Mode.HIGH_RES, 69);
+        double doubledResult = lightSensor.calculateLux(measuredValue, LightSensorComponent.Mode.HIGH_RES_2, 138);
+
+        // then
+        assertEquals(200, defaultResult, 0.01);
+        assertEquals(50, doubledResult, 0.01);
+    }
+
+    @Test
+    public void testContinuousMode() {
+        // given
+        final MockI2C mockI2C = toMock(i2c);
+        lightSensor.setSmoothing(0.5);
+        lightSensor.enableHistory(4);
+        final long startMillis = System.currentTimeMillis();
+
+        // when
+        lightSensor.startContinuous(LightSensorComponent.Mode.HIGH_RES);
+        awaitExecutions(1);
+
+        // then
+        assertTrue(lightSensor.isContinuous());
+        assertEquals(180, lightSensor.getSampler().getPeriod());
+        assertArrayEquals(new int[]{0x01, 0x42, 0x65, 0x10}, new int[]{mockI2C.read(), mockI2C.read(), mockI2C.read(), mockI2C.read()});
+        assertNull(lightSensor.getReading());
+
+        // when
+        mockI2C.write(new byte[]{0x01, 0x2C});
+        awaitExecutions(2);
+
+        // then
+        final var first = lightSensor.getReading();
+        assertNotNull(first);
+        assertEquals(250, first.rawLux(), 0.01);
+        assertEquals(250, first.lux(), 0.01);
+
+        // when
+        mockI2C.write(new byte[]{0x02, 0x58});
+        awaitExecutions(3);
+
+        // then
+        final var second = lightSensor.getReading();
+        assertEquals(500, second.rawLux(), 0.01);
+        assertEquals(375, second.lux(), 0.01);
+        assertTrue(second.timestamp() > first.timestamp());
+        assertEquals(375, lightSensor.readLight(), 0.01);
+        assertThrows(IllegalStateException.class, () -> lightSensor.readLight(1));
+        final var history = lightSensor.getHistory().snapshot();
+        assertEquals(2, history.size());
+        assertEquals(500, history.getValue(1), 0.01);
+        assertTrue(history.getTimestamp(0) >= startMillis);
+        assertTrue(history.getTimestamp(1) <= System.currentTimeMillis());
+
+        // when
+        lightSensor.stopContinuous();
+
+        // then
+        assertNull(lightSensor.getSampler());
+        assertEquals(375, lightSensor.getLight(), 0.01);
+    }
+
+    @Test
+    public void testInvalidResolutionRejected() {
+        // when + then
+        assertThrows(IllegalArgumentException.class, () -> lightSensor.readLight(3));
+        assertThrows(IllegalArgumentException.class, () -> lightSensor.readLight(-1));
+    }
+
+    /**
+     * Waits until the sampler has finished the given number of runs. The sampler is idle for a whole period afterwards,
+     * so the mock can be accessed without racing the next run.
+     */
+    private void awaitExecutions(long executions) {
+        while (lightSensor.getSampler().getMetrics().executions() < executions) {
+            Thread.onSpinWait();
+        }
+    }
 }
@@ -0,0 +1,184 @@
+package com.pi4j.crowpi.components;
+
+import com.pi4j.crowpi.ComponentTest;
+import com.pi4j.crowpi.components.MotionCoordinator.Interpolation;
+import com.pi4j.crowpi.components.MotionCoordinator.Waypoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotionCoordinatorTest extends ComponentTest {
+    @Test
+    void testCoordinatedMotionReachesWaypoints() {
+        // given
+        final var stepMotor = new StepMotorComponent(pi4j);
+        final var servoMotor = new ServoMotorComponent(pi4j);
+        servoMotor.setAngle(0);
+        final var coordinator = new MotionCoordinator(MotionCoordinator.axis(stepMotor), MotionCoordinator.axis(servoMotor));
+
+        // when
+        coordinator.execute(List.of(
+            new Waypoint(50, 10, 45),
+            new Waypoint(100, 20, 90)
+        ), Interpolation.CUBIC).join();
+
+        // then
+        assertEquals(20, stepMotor.getPosition());
+        assertEquals(90, servoMotor.getAngle());
+        assertTrue(coordinator.getStatistics().ticks() > 0);
+    }
+
+    @Test
+    void testLinearInterpolationDoesNotOvershoot() {
+        // given
+        final var linearAxis = new RecordingAxis();
+        final var cubicAxis = new RecordingAxis();
+        final var waypoints = List.of(new Waypoint(0, 0), new Waypoint(50, 100), new Waypoint(100, 100));
+
+        // when
+        new MotionCoordinator(linearAxis).execute(waypoints, Interpolation.LINEAR).join();
+        new MotionCoordinator(cubicAxis).execute(waypoints, Interpolation.CUBIC).join();
+
+        // then expect the linear axis to stop at the second waypoint, whereas the spline passes through it with speed
+        assertEquals(100, linearAxis.getMaxUpdate());
+        assertTrue(cubicAxis.getMaxUpdate() > 100);
+        assertEquals(100, linearAxis.getPosition());
+        assertEquals(100, cubicAxis.getPosition());
+        for (final double position : linearAxis.updates) {
+            assertTrue(position >= 0 && position <= 100);
+        }
+    }
+
+    @Test
+    void testStopCancelsTrajectory() {
+        // given
+        final var axis = new RecordingAxis();
+        final var coordinator = new MotionCoordinator(axis);
+        final var future = coordinator.execute(List.of(new Waypoint(10_000, 1000)), Interpolation.LINEAR);
+        while (axis.updates.size() < 10) {
+            Thread.onSpinWait();
+        }
+
+        // when
+        coordinator.stop();
+        while (coordinator.isRunning()) {
+            Thread.onSpinWait();
+        }
+
+        // then
+        assertTrue(future.isCancelled());
+        assertEquals(1, axis.finishes.get());
+        assertTrue(axis.getPosition() < 1000);
+    }
+
+    @Test
+    void testExecuteReplacesRunningTrajectory() {
+        // given
+        final var axis = new RecordingAxis();
+        final var coordinator = new MotionCoordinator(axis);
+        final var first = coordinator.execute(List.of(new Waypoint(10_000, 1000)), Interpolation.LINEAR);
+        while (axis.updates.isEmpty()) {
+            Thread.onSpinWait();
+        }
+
+        // when
+        final var second = coordinator.execute(List.of(new Waypoint(0, -5), new Waypoint(20, -5)), Interpolation.LINEAR);
+        second.join();
+        while (coordinator.isRunning()) {
+            Thread.onSpinWait();
+        }
+
+        // then
+        assertTrue(first.isCancelled());
+        assertEquals(-5, axis.getPosition());
+        assertEquals(2, axis.starts.get());
+        assertEquals(1, axis.finishes.get());
+    }
+
+    @Test
+    void testSettleTimeoutCompletesLaggingAxis() {
+        // given an axis which never leaves its position
+        final var axis = new RecordingAxis();
+        axis.follow = false;
+        final var coordinator = new MotionCoordinator(axis);
+
+        // when
+        final long start = System.nanoTime();
+        coordinator.execute(List.of(new Waypoint(0, 0), new Waypoint(20, 100)), Interpolation.LINEAR).join();
+        final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // then expect the trajectory to wait for the axis for one second before completing anyway
+        assertTrue(elapsedMs >= 1000, "Completed after " + elapsedMs + "ms");
+        assertEquals(0, axis.getPosition());
+        assertEquals(100, axis.getMaxUpdate());
+    }
+
+    @Test
+    void testStatisticsCountOverrunsAndJitter() {
+        // given an axis whose updates take longer than the period of 1ms
+        final var axis = new RecordingAxis();
+        axis.delayMillis = 3;
+        final var coordinator = new MotionCoordinator(1000, axis);
+
+        // when
+        coordinator.execute(List.of(new Waypoint(0, 0), new Waypoint(50, 10)), Interpolation.LINEAR).join();
+
+        // then
+        final var statistics = coordinator.getStatistics();
+        assertTrue(statistics.ticks() > 0);
+        assertTrue(statistics.overruns() > 0);
+        assertTrue(statistics.meanJitterNanos() >= 0);
+        assertTrue(statistics.maxJitterNanos() >= statistics.meanJitterNanos());
+    }
+
+    /**
+     * Axis which records all updates and optionally follows them immediately.
+     */
+    private static final class RecordingAxis implements MotionCoordinator.Axis {
+        private final List<Double> updates = new CopyOnWriteArrayList<>();
+        private final AtomicInteger starts = new AtomicInteger();
+        private final AtomicInteger finishes = new AtomicInteger();
+        private volatile boolean follow = true;
+        private volatile long delayMillis;
+        private volatile double position;
+
+        @Override
+        public double getPosition() {
+            return position;
+        }
+
+        @Override
+        public void start() {
+            starts.incrementAndGet();
+        }
+
+        @Override
+        public void update(double position) {
+            updates.add(position);
+            if (follow) {
+                this.position = position;
+            }
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void finish() {
+            finishes.incrementAndGet();
+        }
+
+        private double getMaxUpdate() {
+            return updates.stream().mapToDouble(Double::doubleValue).max().orElse(Double.NaN);
+        }
+    }
+}
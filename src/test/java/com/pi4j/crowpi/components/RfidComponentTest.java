@@ -6,6 +6,8 @@ import com.pi4j.plugin.mock.provider.spi.MockSpi;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.CompletionException;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class RfidComponentTest extends ComponentTest {
@@ -26,6 +28,16 @@ class RfidComponentTest extends ComponentTest {
         assertTrue(resetPin.isHigh());
     }
 
+    @Test
+    void testIrqPinInitialization() {
+        // when
+        final var irqRfid = new RfidComponent(pi4j, 26, 5, 1, 1000000);
+
+        // then
+        assertNotNull(irqRfid.getIrqPin());
+        assertNull(rfid.getIrqPin());
+    }
+
     @Test
     void testPollerAutoStart() {
         // when
@@ -67,4 +79,107 @@ class RfidComponentTest extends ComponentTest {
         assertNull(rfid.getPoller());
         assertTrue(oldPoller.isDone());
     }
+
+    @Test
+    void testInventoryPollerKeepsRunning() {
+        // given
+        rfid.onCardDetected(card -> {
+        });
+        rfid.onInventory(inventory -> {
+        });
+
+        // when
+        rfid.onCardDetected(null);
+
+        // then
+        assertNotNull(rfid.getPoller());
+        assertFalse(rfid.getPoller().isDone());
+    }
+
+    @Test
+    void testWaitForCardCancellation() {
+        // given
+        final var future = rfid.waitForNewCard(card -> {
+        });
+        assertNotNull(rfid.getPoller());
+
+        // when
+        future.cancel(true);
+
+        // then
+        assertNull(rfid.getPoller());
+    }
+
+    @Test
+    void testWaitForCardFailsWithInventoryHandler() {
+        // given
+        rfid.onInventory(inventory -> {
+        });
+
+        // when
+        final var future = rfid.waitForNewCard(card -> {
+        });
+
+        // then
+        assertTrue(future.isCompletedExceptionally());
+        final var exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertFalse(rfid.getPoller().isDone());
+    }
+
+    @Test
+    void testWaitForCardFailsWithPresenceTracking() {
+        // given
+        rfid.onCardArrived(card -> {
+        });
+
+        // when
+        final var future = rfid.waitForAnyCard(card -> {
+        });
+
+        // then
+        final var exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    void testWaitForCardInterruptedByInventoryHandler() {
+        // given
+        final var future = rfid.waitForNewCard(card -> {
+        });
+        assertFalse(future.isDone());
+
+        // when
+        rfid.onInventory(inventory -> {
+        });
+
+        // then
+        final var exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertNotNull(rfid.getPoller());
+
+        // when
+        rfid.onInventory(null);
+
+        // then
+        assertNull(rfid.getPoller());
+    }
+
+    @Test
+    void testPresenceTrackingPollerAutoStop() {
+        // given
+        rfid.onCardArrived(card -> {
+        });
+        rfid.onCardLeft(uid -> {
+        });
+        final var oldPoller = rfid.getPoller();
+
+        // when
+        rfid.onCardArrived(null);
+        rfid.onCardLeft(null);
+
+        // then
+        assertNull(rfid.getPoller());
+        assertTrue(oldPoller.isDone());
+    }
 }
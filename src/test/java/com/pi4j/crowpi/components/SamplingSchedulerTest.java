@@ -0,0 +1,94 @@
+package com.pi4j.crowpi.components;
+
+import com.pi4j.crowpi.ComponentTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingSchedulerTest extends ComponentTest {
+    @Test
+    void testSharedInstancePerContext() {
+        // when
+        final var first = SamplingScheduler.getInstance(pi4j);
+        final var second = SamplingScheduler.getInstance(pi4j);
+
+        // then
+        assertSame(first, second);
+        assertFalse(first.isShutdown());
+    }
+
+    @Test
+    void testTaskMetrics() {
+        // given
+        final var counter = new AtomicInteger();
+        final var scheduler = SamplingScheduler.getInstance(pi4j);
+
+        // when
+        final var task = scheduler.schedule("test", counter::incrementAndGet, 1, SamplingScheduler.PRIORITY_NORMAL);
+        while (task.getMetrics().executions() < 3) {
+            Thread.onSpinWait();
+        }
+        task.cancel();
+
+        // then
+        assertTrue(task.isDone());
+        assertTrue(counter.get() >= 3);
+        assertEquals(0, task.getMetrics().failures());
+        assertFalse(scheduler.getTasks().contains(task));
+    }
+
+    @Test
+    void testDispatchedHandlerDoesNotBlockTask() throws InterruptedException {
+        // given
+        final var scheduler = SamplingScheduler.getInstance(pi4j);
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var handlerThread = new AtomicReference<String>();
+        final var releases = new AtomicInteger();
+
+        // when
+        final var task = scheduler.schedule("test", () -> {
+            if (releases.getAndIncrement() == 0) {
+                scheduler.dispatch(this, () -> {
+                    handlerThread.set(Thread.currentThread().getName());
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        }, 1, SamplingScheduler.PRIORITY_NORMAL);
+        started.await();
+        final long executions = task.getMetrics().executions();
+        while (task.getMetrics().executions() < executions + 3) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        task.cancel();
+
+        // then
+        assertFalse(handlerThread.get().startsWith("SamplingScheduler"));
+        assertEquals(0, task.getMetrics().failures());
+    }
+
+    @Test
+    void testShutdownCancelsTasks() {
+        // given
+        final var scheduler = SamplingScheduler.getInstance(pi4j);
+        final var task = scheduler.schedule("test", () -> {
+        }, 1, SamplingScheduler.PRIORITY_LOW);
+
+        // when
+        pi4j.shutdown();
+
+        // then
+        assertTrue(scheduler.isShutdown());
+        assertTrue(task.isDone());
+    }
+}
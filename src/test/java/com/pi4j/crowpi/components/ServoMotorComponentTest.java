@@ -7,7 +7,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class ServoMotorComponentTest extends ComponentTest {
     private ServoMotorComponent servoMotor;
@@ -162,4 +165,51 @@ class ServoMotorComponentTest extends ComponentTest {
         // then
         assertEquals(DUTY_CYCLE_CENTER, pwm.getDutyCycle());
     }
+
+    @Test
+    void testMoveToReachesTarget() {
+        // given
+        servoMotor.setAngle(ANGLE_MIN);
+
+        // when
+        final var future = servoMotor.moveTo(ANGLE_MAX, 3000, 30000, ServoMotionEngine.Profile.S_CURVE);
+        future.join();
+
+        // then
+        assertFalse(servoMotor.isMoving());
+        assertEquals(ANGLE_MAX, servoMotor.getAngle());
+        assertEquals(DUTY_CYCLE_MAX, pwm.getDutyCycle(), 0.001);
+    }
+
+    @Test
+    void testSetAngleCancelsMotion() {
+        // given
+        servoMotor.setAngle(ANGLE_MIN);
+        final var future = servoMotor.moveTo(ANGLE_MAX, 1, 1);
+
+        // when
+        servoMotor.setAngle(ANGLE_CENTER);
+
+        // then
+        assertFalse(servoMotor.isMoving());
+        assertThrows(CancellationException.class, future::join);
+        assertEquals(DUTY_CYCLE_CENTER, pwm.getDutyCycle());
+    }
+
+    @Test
+    void testRedundantUpdatesSuppressed() {
+        // given
+        final var otherServo = new ServoMotorComponent(pi4j, 1, FREQUENCY, ANGLE_MIN, ANGLE_MAX, DUTY_CYCLE_MIN, DUTY_CYCLE_MAX);
+        servoMotor.setAngle(ANGLE_CENTER);
+
+        // when
+        servoMotor.setAngle(ANGLE_CENTER + 0.01f);
+        ServoMotionEngine.getInstance(pi4j).setAngles(Map.of(servoMotor, ANGLE_CENTER, otherServo, ANGLE_MAX));
+
+        // then
+        assertEquals(2, servoMotor.getSuppressedUpdates());
+        assertEquals(0, otherServo.getSuppressedUpdates());
+        assertEquals(DUTY_CYCLE_CENTER, pwm.getDutyCycle());
+        assertEquals(DUTY_CYCLE_MAX, otherServo.getPwm().getDutyCycle());
+    }
 }
@@ -15,7 +15,7 @@ import java.util.List;
 
 import static com.pi4j.io.gpio.digital.DigitalState.HIGH;
 import static com.pi4j.io.gpio.digital.DigitalState.LOW;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 class StepMotorComponentTest extends ComponentTest {
     protected StepMotorComponent stepMotor;
@@ -74,39 +74,145 @@ class StepMotorComponentTest extends ComponentTest {
         digitalOutputMonitor.assertStateChanges(getBackwardSteps());
     }
 
+    @Test
+    void testTurnForwardDirectMode() {
+        // given
+        stepMotor.setDriveMode(StepMotorComponent.DriveMode.DIRECT);
+
+        // when
+        stepMotor.turnForward(1);
+
+        // then expect only differing outputs to be toggled
+        digitalOutputMonitor.assertStateChanges(new StateChange[]{
+            stateChange(0, HIGH),
+            stateChange(1, HIGH),
+            stateChange(0, LOW),
+            stateChange(2, HIGH),
+            stateChange(1, LOW),
+            stateChange(3, HIGH),
+            stateChange(2, LOW),
+            stateChange(0, HIGH),
+            stateChange(0, LOW), stateChange(3, LOW),
+        });
+    }
+
+    @Test
+    void testTurnContinuesFromCurrentPhase() {
+        // given
+        stepMotor.setMaxSpeed(20000);
+        stepMotor.setAcceleration(1000000);
+        stepMotor.moveTo(3).join();
+        while (stepMotor.isMoving()) {
+            Thread.onSpinWait();
+        }
+        stepMotor.setDriveMode(StepMotorComponent.DriveMode.DIRECT);
+        final var monitor = new DigitalOutputMonitor(digitalOutputs);
+
+        // when
+        stepMotor.turnForward(1);
+
+        // then expect the sequence to continue with entry #4 and end at entry #3 again
+        monitor.assertStateChanges(new StateChange[]{
+            stateChange(1, HIGH), stateChange(2, HIGH),
+            stateChange(1, LOW),
+            stateChange(3, HIGH),
+            stateChange(2, LOW),
+            stateChange(0, HIGH),
+            stateChange(3, LOW),
+            stateChange(1, HIGH),
+            stateChange(0, LOW),
+            stateChange(1, LOW),
+        });
+        assertEquals(11, stepMotor.getPosition());
+    }
+
+    @Test
+    void testMoveToAbsolutePosition() {
+        // given
+        stepMotor.setMaxSpeed(20000);
+        stepMotor.setAcceleration(1000000);
+
+        // when
+        stepMotor.moveTo(16).join();
+        stepMotor.moveTo(12).join();
+
+        // then
+        assertEquals(12, stepMotor.getPosition());
+        while (stepMotor.isMoving()) {
+            Thread.onSpinWait();
+        }
+        for (final var digitalOutput : digitalOutputs) {
+            assertEquals(LOW, digitalOutput.state());
+        }
+    }
+
+    @Test
+    void testCancelMotion() {
+        // given
+        stepMotor.setMaxSpeed(100);
+        final var future = stepMotor.moveBy(1000);
+
+        // when
+        future.cancel(false);
+        while (stepMotor.isMoving()) {
+            Thread.onSpinWait();
+        }
+
+        // then
+        assertTrue(stepMotor.getPosition() < 1000);
+    }
+
+    @Test
+    void testTurnStopsActiveMotion() {
+        // given
+        stepMotor.setMaxSpeed(100);
+        final var future = stepMotor.moveBy(1000);
+
+        // when
+        stepMotor.turnForward(1);
+
+        // then
+        assertTrue(future.isCancelled());
+        assertFalse(stepMotor.isMoving());
+        assertTrue(stepMotor.getPosition() >= 8 && stepMotor.getPosition() < 1008);
+        for (final var digitalOutput : digitalOutputs) {
+            assertEquals(LOW, digitalOutput.state());
+        }
+    }
+
     private StateChange[] getForwardSteps() {
         return new StateChange[]{
             // Step #0
-            stateChange(3, HIGH), stateChange(0, HIGH),
-            stateChange(3, LOW), stateChange(0, LOW),
-
-            // Step #1
             stateChange(0, HIGH),
             stateChange(0, LOW),
 
-            // Step #2
+            // Step #1
             stateChange(0, HIGH), stateChange(1, HIGH),
             stateChange(0, LOW), stateChange(1, LOW),
 
-            // Step #3
+            // Step #2
             stateChange(1, HIGH),
             stateChange(1, LOW),
 
-            // Step #4
+            // Step #3
             stateChange(1, HIGH), stateChange(2, HIGH),
             stateChange(1, LOW), stateChange(2, LOW),
 
-            // Step #5
+            // Step #4
             stateChange(2, HIGH),
             stateChange(2, LOW),
 
-            // Step #6
+            // Step #5
             stateChange(3, HIGH), stateChange(2, HIGH),
             stateChange(3, LOW), stateChange(2, LOW),
 
-            // Step #7
+            // Step #6
             stateChange(3, HIGH),
             stateChange(3, LOW),
+
+            // Step #7
+            stateChange(3, HIGH), stateChange(0, HIGH),
+            stateChange(3, LOW), stateChange(0, LOW),
         };
     }
 
@@ -0,0 +1,73 @@
+package com.pi4j.crowpi.components.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteHelpersTest {
+    @Test
+    void testToArray() {
+        // when
+        final var result = ByteHelpers.toArray(List.of((byte) 0x01, (byte) 0x7F, (byte) 0x80));
+
+        // then
+        assertArrayEquals(new byte[]{0x01, 0x7F, (byte) 0x80}, result);
+    }
+
+    @Test
+    void testToString() {
+        // when + then
+        assertEquals("0x0A", ByteHelpers.toString((byte) 0x0A));
+        assertEquals("0xFF", ByteHelpers.toString((byte) 0xFF));
+        assertEquals("00FF10", ByteHelpers.toString(new byte[]{0x00, (byte) 0xFF, 0x10}));
+        assertEquals("<null>", ByteHelpers.toString((byte[]) null));
+    }
+
+    @Test
+    void testCrc16CheckValue() {
+        // given
+        final var data = "123456789".getBytes(StandardCharsets.US_ASCII);
+
+        // when
+        final int crc = ByteHelpers.crc16(data, 0, data.length);
+
+        // then
+        assertEquals(0x29B1, crc);
+    }
+
+    @Test
+    void testCrc16OfEmptyRange() {
+        // when + then
+        assertEquals(0xFFFF, ByteHelpers.crc16(new byte[0], 0, 0));
+        assertEquals(0xFFFF, ByteHelpers.crc16(new byte[]{0x12, 0x34}, 1, 0));
+    }
+
+    @Test
+    void testCrc16UsesOnlyGivenRange() {
+        // given
+        final var data = "123456789".getBytes(StandardCharsets.US_ASCII);
+        final var padded = "xx123456789yy".getBytes(StandardCharsets.US_ASCII);
+
+        // when
+        final int crc = ByteHelpers.crc16(padded, 2, data.length);
+
+        // then
+        assertEquals(ByteHelpers.crc16(data, 0, data.length), crc);
+    }
+
+    @Test
+    void testCrc16DetectsSingleBitFlip() {
+        // given
+        final var data = new byte[]{0x10, 0x20, 0x30, 0x40};
+        final int original = ByteHelpers.crc16(data, 0, data.length);
+
+        // when
+        data[2] ^= 0x01;
+
+        // then
+        assertNotEquals(original, ByteHelpers.crc16(data, 0, data.length));
+    }
+}
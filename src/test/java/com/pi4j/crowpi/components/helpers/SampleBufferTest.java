@@ -0,0 +1,62 @@
+package com.pi4j.crowpi.components.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampleBufferTest {
+    @Test
+    void testSnapshotAfterWrapAround() {
+        // given
+        final var buffer = new SampleBuffer(3);
+
+        // when
+        for (int i = 1; i <= 5; i++) {
+            buffer.add(i * 1000L, i);
+        }
+        final var snapshot = buffer.snapshot();
+
+        // then
+        assertEquals(3, snapshot.size());
+        assertEquals(5, buffer.getTotalCount());
+        assertEquals(3000L, snapshot.getTimestamp(0));
+        assertEquals(3.0, snapshot.getValue(0));
+        assertEquals(5000L, snapshot.getTimestamp(2));
+        assertEquals(5.0, snapshot.getValue(2));
+    }
+
+    @Test
+    void testConcurrentSnapshotsAreConsistent() throws InterruptedException {
+        // given
+        final var buffer = new SampleBuffer(8);
+        final var running = new AtomicBoolean(true);
+        final var writer = new Thread(() -> {
+            for (long i = 0; running.get(); i++) {
+                buffer.add(i, i);
+            }
+        });
+        final var timestamps = new long[8];
+        final var values = new double[8];
+
+        // when
+        writer.start();
+        try {
+            for (int round = 0; round < 100_000; round++) {
+                final int size = buffer.snapshot(timestamps, values);
+
+                // then every sample is intact and samples are contiguous
+                for (int i = 0; i < size; i++) {
+                    assertEquals((double) timestamps[i], values[i]);
+                    if (i > 0) {
+                        assertEquals(timestamps[i - 1] + 1, timestamps[i]);
+                    }
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.pi4j.crowpi.components.internal.rfid;
+
+import com.pi4j.crowpi.components.exceptions.RfidException;
+import com.pi4j.crowpi.components.helpers.ByteHelpers;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodecTest {
+    /**
+     * Zig-zag encoded variable-length representation of {@link Long#MAX_VALUE}
+     */
+    private static final byte[] MAX_SIGNED_VARINT = new byte[]{
+        (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+        (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01
+    };
+
+    @Test
+    void testRecordRoundTrip() throws RfidException {
+        // given
+        final var codec = new BinaryCodec<>(Sample.class);
+        final var value = new Sample(true, (byte) -7, (short) -300, 123456, Long.MIN_VALUE, 'λ', -1.5f, Math.PI,
+            42, "Hello CrowPi", Level.HIGH, new UUID(0x0123456789ABCDEFL, 0xFEDCBA9876543210L),
+            LocalDate.of(1969, 7, 20), Instant.ofEpochSecond(-1, 999_999_999), new Point(-1, 2));
+
+        // when
+        final var result = codec.decode(codec.encode(value));
+
+        // then
+        assertEquals(value, result);
+    }
+
+    @Test
+    void testRecordRoundTripWithNullFields() throws RfidException {
+        // given
+        final var codec = new BinaryCodec<>(Sample.class);
+        final var value = new Sample(false, (byte) 0, (short) 0, 0, 0, '\0', 0f, 0d,
+            null, null, null, null, null, null, null);
+
+        // when
+        final var result = codec.decode(codec.encode(value));
+
+        // then
+        assertEquals(value, result);
+    }
+
+    @Test
+    void testPojoRoundTrip() throws RfidException {
+        // given
+        final var codec = new BinaryCodec<>(Account.class);
+        final var value = new Account();
+        value.owner = "Alice";
+        value.balance = -2500;
+        value.data = new byte[]{0x00, (byte) 0xFF, 0x10};
+        value.origin = new Point(3, -4);
+        value.session = 99;
+
+        // when
+        final var result = codec.decode(codec.encode(value));
+
+        // then
+        assertEquals("Alice", result.owner);
+        assertEquals(-2500, result.balance);
+        assertArrayEquals(new byte[]{0x00, (byte) 0xFF, 0x10}, result.data);
+        assertEquals(new Point(3, -4), result.origin);
+        assertEquals(0, result.session);
+    }
+
+    @Test
+    void testPojoDistinguishesEmptyFromNull() throws RfidException {
+        // given
+        final var codec = new BinaryCodec<>(Account.class);
+        final var value = new Account();
+        value.owner = "";
+
+        // when
+        final var result = codec.decode(codec.encode(value));
+
+        // then
+        assertEquals("", result.owner);
+        assertNull(result.data);
+        assertNull(result.origin);
+    }
+
+    @Test
+    void testVarintSizes() throws RfidException {
+        // given
+        final var codec = new BinaryCodec<>(Counter.class);
+
+        // when + then
+        assertEquals(1, payloadSize(codec.encode(new Counter(0))));
+        assertEquals(1, payloadSize(codec.encode(new Counter(-1))));
+        assertEquals(1, payloadSize(codec.encode(new Counter(63))));
+        assertEquals(2, payloadSize(codec.encode(new Counter(64))));
+        assertEquals(2, payloadSize(codec.encode(new Counter(-300))));
+        assertEquals(5, payloadSize(codec.encode(new Counter(Integer.MIN_VALUE))));
+        assertEquals(10, payloadSize(codec.encode(new Counter(Long.MAX_VALUE))));
+        assertEquals(new Counter(Long.MIN_VALUE), codec.decode(codec.encode(new Counter(Long.MIN_VALUE))));
+    }
+
+    @Test
+    void testFloatingPointSpecialValues() throws RfidException {
+        // given
+        final var codec = new BinaryCodec<>(Measurement.class);
+        final var value = new Measurement(Float.NaN, Double.NEGATIVE_INFINITY, -0.0f);
+
+        // when
+        final var result = codec.decode(codec.encode(value));
+
+        // then
+        assertTrue(Float.isNaN(result.ratio()));
+        assertEquals(Double.NEGATIVE_INFINITY, result.total());
+        assertEquals(Float.floatToIntBits(-0.0f), Float.floatToIntBits(result.offset()));
+    }
+
+    @Test
+    void testCorruptedDataRejected() throws RfidException {
+        // given
+        final var codec = new BinaryCodec<>(Point.class);
+        final var data = codec.encode(new Point(10, 20));
+
+        // when
+        data[3] ^= 0x01;
+
+        // then
+        final var exception = assertThrows(RfidException.class, () -> codec.decode(data));
+        assertTrue(exception.getMessage().contains("checksum"));
+    }
+
+    @Test
+    void testUnknownFormatRejected() {
+        // given
+        final var codec = new BinaryCodec<>(Point.class);
+
+        // when + then
+        assertThrows(RfidException.class, () -> codec.decode(new byte[]{0x00, 0x00, 0x00, 0x00, 0x00}));
+        assertThrows(RfidException.class, () -> codec.decode(new byte[]{(byte) 0xB1, 0x00}));
+    }
+
+    @Test
+    void testSchemaMismatchRejected() throws RfidException {
+        // given
+        final var data = new BinaryCodec<>(Point.class).encode(new Point(1, 2));
+        final var codec = new BinaryCodec<>(Counter.class);
+
+        // when
+        final var exception = assertThrows(RfidException.class, () -> codec.decode(data));
+
+        // then
+        assertTrue(exception.getMessage().contains("different schema"));
+    }
+
+    @Test
+    void testTrailingDataRejected() throws RfidException {
+        // given
+        final var codec = new BinaryCodec<>(Point.class);
+        final var encoded = codec.encode(new Point(1, 2));
+        final var body = Arrays.copyOf(encoded, encoded.length - 1);
+        body[body.length - 1] = 0x00;
+
+        // when
+        final var exception = assertThrows(RfidException.class, () -> codec.decode(withChecksum(body)));
+
+        // then
+        assertTrue(exception.getMessage().contains("trailing data"));
+    }
+
+    @Test
+    void testTruncatedDataRejected() throws RfidException {
+        // given
+        final var codec = new BinaryCodec<>(Point.class);
+        final var encoded = codec.encode(new Point(1, 2));
+
+        // when + then
+        assertThrows(RfidException.class, () -> codec.decode(withChecksum(Arrays.copyOf(encoded, encoded.length - 3))));
+    }
+
+    @Test
+    void testDateOutOfRangeRejected() throws RfidException {
+        // given
+        final var codec = new BinaryCodec<>(Dated.class);
+        final var header = Arrays.copyOf(codec.encode(new Dated(null)), 3);
+
+        // when
+        final var data = withChecksum(concat(header, new byte[]{0x01}, MAX_SIGNED_VARINT));
+
+        // then
+        assertThrows(RfidException.class, () -> codec.decode(data));
+    }
+
+    @Test
+    void testInstantOutOfRangeRejected() throws RfidException {
+        // given
+        final var codec = new BinaryCodec<>(Stamped.class);
+        final var header = Arrays.copyOf(codec.encode(new Stamped(null)), 3);
+
+        // when
+        final var data = withChecksum(concat(header, new byte[]{0x01}, MAX_SIGNED_VARINT, new byte[]{0x00}));
+
+        // then
+        assertThrows(RfidException.class, () -> codec.decode(data));
+    }
+
+    @Test
+    void testSelfReferenceRejected() {
+        // when + then
+        assertThrows(IllegalArgumentException.class, () -> new BinaryCodec<>(Node.class));
+        assertThrows(IllegalArgumentException.class, () -> new BinaryCodec<>(Parent.class));
+    }
+
+    @Test
+    void testRepeatedNestedTypeAccepted() throws RfidException {
+        // given
+        final var codec = new BinaryCodec<>(Line.class);
+        final var value = new Line(new Point(0, 0), new Point(-5, 5));
+
+        // when
+        final var result = codec.decode(codec.encode(value));
+
+        // then
+        assertEquals(value, result);
+    }
+
+    /**
+     * Returns the number of bytes used for the fields, excluding header and checksum.
+     */
+    private static int payloadSize(byte[] data) {
+        return data.length - 5;
+    }
+
+    /**
+     * Appends a valid checksum to the given header and payload.
+     */
+    private static byte[] withChecksum(byte[] body) {
+        final int checksum = ByteHelpers.crc16(body, 0, body.length);
+        return concat(body, new byte[]{(byte) (checksum >> 8), (byte) checksum});
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        final var result = new byte[Arrays.stream(parts).mapToInt(part -> part.length).sum()];
+        int offset = 0;
+        for (final var part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+
+    private enum Level {LOW, MEDIUM, HIGH}
+
+    private record Point(int x, int y) {
+    }
+
+    private record Line(Point start, Point end) {
+    }
+
+    private record Counter(long value) {
+    }
+
+    private record Measurement(float ratio, double total, float offset) {
+    }
+
+    private record Dated(LocalDate date) {
+    }
+
+    private record Stamped(Instant at) {
+    }
+
+    private record Sample(boolean flag, byte tiny, short small, int medium, long large, char letter, float ratio,
+                          double precise, Integer boxed, String text, Level level, UUID id, LocalDate date,
+                          Instant at, Point point) {
+    }
+
+    private record Node(String name, Node next) {
+    }
+
+    private record Parent(Child child) {
+    }
+
+    private record Child(Parent parent) {
+    }
+
+    private static class Account {
+        private String owner;
+        private long balance;
+        private byte[] data;
+        private Point origin;
+        private transient int session;
+    }
+}
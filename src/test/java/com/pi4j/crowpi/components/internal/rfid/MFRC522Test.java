@@ -0,0 +1,212 @@
+package com.pi4j.crowpi.components.internal.rfid;
+
+import com.pi4j.crowpi.ComponentTest;
+import com.pi4j.crowpi.components.exceptions.RfidException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MFRC522Test extends ComponentTest {
+    protected MockPcd pcd;
+    protected MFRC522 mfrc522;
+
+    @BeforeEach
+    void setUp() {
+        this.pcd = new MockPcd(pi4j);
+        this.mfrc522 = new MFRC522(pcd);
+    }
+
+    @Test
+    void testInitializationEnablesAntenna() {
+        // then
+        assertEquals(0x03, pcd.getRegister(PcdRegister.TX_CONTROL_REG) & 0x03);
+    }
+
+    @Test
+    void testShadowedWriteSkippedIfUnchanged() {
+        // given
+        pcd.clearTransfers();
+
+        // when
+        mfrc522.setAntennaState(true);
+
+        // then
+        assertTrue(pcd.getTransfers().isEmpty());
+    }
+
+    @Test
+    void testShadowedWriteWithoutRead() {
+        // given
+        pcd.clearTransfers();
+
+        // when
+        mfrc522.setAntennaState(false);
+
+        // then
+        final var transfers = pcd.getTransfers();
+        assertEquals(1, transfers.size());
+        assertArrayEquals(new byte[]{0x28, 0x00}, transfers.get(0));
+        assertEquals(0x00, pcd.getRegister(PcdRegister.TX_CONTROL_REG));
+    }
+
+    @Test
+    void testResetInvalidatesShadows() {
+        // given
+        pcd.clearTransfers();
+
+        // when
+        mfrc522.reset();
+
+        // then
+        assertTrue(pcd.getTransfers().stream().anyMatch(transfer -> transfer[0] == PcdRegister.TX_CONTROL_REG.getReadAddress()));
+        assertEquals(0x03, pcd.getRegister(PcdRegister.TX_CONTROL_REG) & 0x03);
+    }
+
+    @Test
+    void testRequestWithoutBitFramingRead() {
+        // given
+        pcd.clearTransfers();
+
+        // when
+        final boolean present = mfrc522.isNewCardPresent();
+
+        // then
+        assertFalse(present);
+        for (final var transfer : pcd.getTransfers()) {
+            if ((transfer[0] & 0x80) != 0) {
+                for (final byte address : transfer) {
+                    assertNotEquals(PcdRegister.BIT_FRAMING_REG.getReadAddress(), address);
+                }
+            }
+        }
+        assertEquals(0x00, pcd.getRegister(PcdRegister.BIT_FRAMING_REG) & 0x80);
+    }
+
+    @Test
+    void testSelectSingleSizeUid() throws RfidException {
+        // given
+        pcd.addPicc(new byte[]{0x12, 0x34, 0x56, 0x78}, (byte) 0x08);
+        assertTrue(mfrc522.isNewCardPresent());
+
+        // when
+        final var uid = mfrc522.select();
+
+        // then
+        assertArrayEquals(new byte[]{0x12, 0x34, 0x56, 0x78}, uid.getUid());
+        assertEquals(0x08, uid.getSak());
+    }
+
+    @Test
+    void testSelectDoubleSizeUid() throws RfidException {
+        // given
+        pcd.addPicc(new byte[]{0x04, 0x11, 0x22, 0x33, 0x44, 0x55, 0x66}, (byte) 0x00);
+        assertTrue(mfrc522.isNewCardPresent());
+
+        // when
+        final var uid = mfrc522.select();
+
+        // then
+        assertArrayEquals(new byte[]{0x04, 0x11, 0x22, 0x33, 0x44, 0x55, 0x66}, uid.getUid());
+        assertEquals(0x00, uid.getSak());
+    }
+
+    @Test
+    void testSelectTripleSizeUid() throws RfidException {
+        // given
+        pcd.addPicc(new byte[]{0x04, 0x11, 0x22, 0x33, 0x44, 0x55, 0x66, 0x77, (byte) 0x88, (byte) 0x99}, (byte) 0x20);
+        assertTrue(mfrc522.isNewCardPresent());
+
+        // when
+        final var uid = mfrc522.select();
+
+        // then
+        assertArrayEquals(new byte[]{0x04, 0x11, 0x22, 0x33, 0x44, 0x55, 0x66, 0x77, (byte) 0x88, (byte) 0x99}, uid.getUid());
+        assertEquals(0x20, uid.getSak());
+    }
+
+    @Test
+    void testSelectResolvesCollisionAtFirstBit() throws RfidException {
+        // given
+        pcd.addPicc(new byte[]{0x10, 0x20, 0x30, 0x40}, (byte) 0x08);
+        pcd.addPicc(new byte[]{0x11, 0x20, 0x30, 0x40}, (byte) 0x08);
+        assertTrue(mfrc522.isNewCardPresent());
+
+        // when
+        final var uid = mfrc522.select();
+
+        // then
+        assertArrayEquals(new byte[]{0x11, 0x20, 0x30, 0x40}, uid.getUid());
+    }
+
+    @Test
+    void testSelectResolvesCollisionWithinPartialByte() throws RfidException {
+        // given
+        pcd.addPicc(new byte[]{0x10, 0x20, 0x30, 0x40}, (byte) 0x08);
+        pcd.addPicc(new byte[]{0x10, 0x28, 0x35, 0x40}, (byte) 0x08);
+        assertTrue(mfrc522.isNewCardPresent());
+
+        // when
+        final var uid = mfrc522.select();
+
+        // then
+        assertArrayEquals(new byte[]{0x10, 0x28, 0x35, 0x40}, uid.getUid());
+    }
+
+    @Test
+    void testSelectResolvesCollisionInSecondCascadeLevel() throws RfidException {
+        // given
+        pcd.addPicc(new byte[]{0x04, 0x11, 0x22, 0x33, 0x44, 0x55, 0x66}, (byte) 0x00);
+        pcd.addPicc(new byte[]{0x04, 0x11, 0x22, 0x33, 0x44, 0x55, 0x67}, (byte) 0x00);
+        assertTrue(mfrc522.isNewCardPresent());
+
+        // when
+        final var uid = mfrc522.select();
+
+        // then
+        assertArrayEquals(new byte[]{0x04, 0x11, 0x22, 0x33, 0x44, 0x55, 0x67}, uid.getUid());
+    }
+
+    @Test
+    void testInventoryEnumeratesCollidingCards() {
+        // given
+        pcd.addPicc(new byte[]{0x10, 0x20, 0x30, 0x40}, (byte) 0x08);
+        pcd.addPicc(new byte[]{0x11, 0x20, 0x30, 0x40}, (byte) 0x08);
+        pcd.addPicc(new byte[]{0x10, 0x28, 0x30, 0x40}, (byte) 0x08);
+        pcd.addPicc(new byte[]{0x04, 0x11, 0x22, 0x33, 0x44, 0x55, 0x66}, (byte) 0x00);
+
+        // when
+        final var inventory = mfrc522.inventory(16);
+
+        // then
+        final var serials = inventory.getUids().stream().map(RfidCardUid::getSerial).collect(Collectors.toSet());
+        assertEquals(4, inventory.size());
+        assertEquals(Set.of("10203040", "11203040", "10283040", "04112233445566"), serials);
+        assertTrue(inventory.getCollisions() >= 3);
+        assertEquals(0, inventory.getFailures());
+    }
+
+    @Test
+    void testSelectKnownUid() throws RfidException {
+        // given
+        pcd.addPicc(new byte[]{0x10, 0x20, 0x30, 0x40}, (byte) 0x08);
+        final var target = pcd.addPicc(new byte[]{0x04, 0x11, 0x22, 0x33, 0x44, 0x55, 0x66}, (byte) 0x00);
+        assertTrue(mfrc522.isNewCardPresent());
+
+        // when + then
+        assertDoesNotThrow(() -> mfrc522.select(target.getUid()));
+    }
+
+    @Test
+    void testSelectUnknownUidFails() {
+        // given
+        pcd.addPicc(new byte[]{0x10, 0x20, 0x30, 0x40}, (byte) 0x08);
+        assertTrue(mfrc522.isNewCardPresent());
+
+        // when + then
+        assertThrows(RfidException.class, () -> mfrc522.select(new RfidCardUid(new byte[]{0x10, 0x20, 0x30, 0x41}, (byte) 0x08)));
+    }
+}
@@ -0,0 +1,304 @@
+package com.pi4j.crowpi.components.internal.rfid;
+
+import com.pi4j.crowpi.ComponentTest;
+import com.pi4j.crowpi.components.exceptions.RfidException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Mifare1KTest extends ComponentTest {
+    private static final byte[] UID = new byte[]{0x12, 0x34, 0x56, 0x78};
+    private static final byte SAK = 0x08;
+
+    protected MockPcd pcd;
+    protected MockPcd.Picc picc;
+    protected MFRC522 mfrc522;
+
+    @BeforeEach
+    void setUp() {
+        this.pcd = new MockPcd(pi4j);
+        this.picc = pcd.addPicc(UID, SAK);
+        this.mfrc522 = new MFRC522(pcd);
+        Mifare1K.invalidateCache(picc.getUid().getSerial());
+    }
+
+    @Test
+    void testCapacityExcludesHeader() throws RfidException {
+        // when
+        final var card = detectCard();
+
+        // then
+        assertEquals(45 * 16 - 4, card.getCapacity());
+    }
+
+    @Test
+    void testHeaderRoundTrip() throws RfidException {
+        // given
+        final var data = new byte[]{0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0A, 0x0B, 0x0C, 0x0D, 0x0E, 0x0F};
+        detectCard().writeBytes(data);
+        Mifare1K.invalidateCache(picc.getUid().getSerial());
+        picc.clearAccessLog();
+
+        // when
+        final var result = detectCard().readBytes();
+
+        // then
+        assertArrayEquals(new byte[]{(byte) 0xC5, 0x4A, 0x00, 0x0F, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09, 0x0A, 0x0B, 0x0C}, picc.getBlock(4));
+        assertArrayEquals(new byte[]{0x0D, 0x0E, 0x0F, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}, picc.getBlock(5));
+        assertArrayEquals(data, result);
+        assertEquals(List.of(4, 5), picc.getReadBlocks());
+    }
+
+    @Test
+    void testBadMagicFallsBackToAllBlocks() throws RfidException {
+        // given
+        picc.setBlock(4, new byte[]{(byte) 0xC5, 0x4B, 0x00, 0x01, 0x42, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+
+        // when
+        final var result = detectCard().readBytes();
+
+        // then
+        assertEquals(45 * 16, result.length);
+        assertEquals((byte) 0x4B, result[1]);
+        assertEquals(45, picc.getReadBlocks().size());
+    }
+
+    @Test
+    void testHeaderExceedingCapacityRejected() throws RfidException {
+        // given
+        picc.setBlock(4, new byte[]{(byte) 0xC5, 0x4A, 0x02, (byte) 0xCD, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+        final var card = detectCard();
+
+        // when + then
+        assertThrows(RfidException.class, card::readBytes);
+        assertEquals(List.of(4), picc.getReadBlocks());
+    }
+
+    @Test
+    void testCachedReadOnlyReadsFirstBlock() throws RfidException {
+        // given
+        detectCard().writeBytes(blockData(40, (byte) 0x11));
+        picc.clearAccessLog();
+
+        // when
+        final var result = detectCard().readBytes();
+
+        // then
+        assertArrayEquals(blockData(40, (byte) 0x11), result);
+        assertEquals(List.of(4), picc.getReadBlocks());
+    }
+
+    @Test
+    void testChangedFirstBlockDiscardsCache() throws RfidException {
+        // given
+        detectCard().writeBytes(blockData(40, (byte) 0x11));
+        final var header = blockData(16, (byte) 0x22);
+        header[0] = (byte) 0xC5;
+        header[1] = 0x4A;
+        header[2] = 0x00;
+        header[3] = 0x14;
+        picc.setBlock(4, header);
+        picc.setBlock(5, blockData(16, (byte) 0x22));
+        picc.clearAccessLog();
+
+        // when
+        final var result = detectCard().readBytes();
+
+        // then
+        assertArrayEquals(blockData(20, (byte) 0x22), result);
+        assertEquals(List.of(4, 5), picc.getReadBlocks());
+    }
+
+    @Test
+    void testWriteReplacesCachedData() throws RfidException {
+        // given
+        detectCard().writeBytes(new byte[]{0x11, 0x22, 0x33});
+        detectCard().readBytes();
+
+        // when
+        detectCard().writeBytes(new byte[]{0x44, 0x55});
+        final var result = detectCard().readBytes();
+
+        // then
+        assertArrayEquals(new byte[]{0x44, 0x55}, result);
+    }
+
+    @Test
+    void testInvalidateCacheReadsCardAgain() throws RfidException {
+        // given
+        detectCard().writeBytes(blockData(20, (byte) 0x11));
+        picc.setBlock(5, new byte[]{0x66, 0x77, 0x66, 0x77, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+        picc.clearAccessLog();
+
+        // when
+        final var cached = detectCard().readBytes();
+        Mifare1K.invalidateCache(picc.getUid().getSerial());
+        final var result = detectCard().readBytes();
+
+        // then
+        assertEquals(0x11, cached[19]);
+        assertEquals(0x77, result[15]);
+        assertEquals(List.of(4, 4, 5), picc.getReadBlocks());
+    }
+
+    @Test
+    void testIncompleteBlockRejected() throws RfidException {
+        // given
+        final var shortReads = new MFRC522(pcd) {
+            @Override
+            protected int mifareRead(byte blockAddr, byte[] dest, int offset) throws RfidException {
+                return super.mifareRead(blockAddr, dest, offset) - 1;
+            }
+        };
+        shortReads.uninitializeCard();
+        assertTrue(shortReads.isAnyCardPresent());
+        final var card = (Mifare1K) shortReads.initializeCard();
+
+        // when + then
+        assertThrows(RfidException.class, card::readBytes);
+    }
+
+    @Test
+    void testFailedWriteInvalidatesCache() throws RfidException {
+        // given
+        detectCard().writeBytes(new byte[]{0x11, 0x22, 0x33});
+        final var card = detectCard();
+        pcd.removePicc(picc);
+
+        // when
+        assertThrows(RfidException.class, () -> card.writeBytes(new byte[]{0x44, 0x55}));
+        pcd.addPicc(UID, SAK).setBlock(4, new byte[]{(byte) 0xC5, 0x4A, 0x00, 0x01, 0x66, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+        final var result = detectCard().readBytes();
+
+        // then
+        assertArrayEquals(new byte[]{0x66}, result);
+    }
+
+    @Test
+    void testFullWriteModeIsDefault() throws RfidException {
+        // given
+        final var card = detectCard();
+        card.writeBytes(new byte[]{0x11, 0x22, 0x33});
+        picc.clearAccessLog();
+
+        // when
+        card.writeBytes(new byte[]{0x11, 0x22, 0x33});
+
+        // then
+        assertEquals(RfidCard.WriteMode.FULL, card.getWriteMode());
+        assertEquals(List.of(4), picc.getWrittenBlocks());
+    }
+
+    @Test
+    void testDifferentialWriteSkipsUnchangedBlocks() throws RfidException {
+        // given
+        final var card = detectCard();
+        card.setWriteMode(RfidCard.WriteMode.DIFFERENTIAL);
+        card.writeBytes(blockData(20, (byte) 0x11));
+        picc.clearAccessLog();
+
+        // when
+        final var data = blockData(20, (byte) 0x11);
+        data[19] = 0x22;
+        card.writeBytes(data);
+
+        // then
+        assertEquals(List.of(5), picc.getWrittenBlocks());
+        assertTrue(picc.getReadBlocks().isEmpty());
+        assertEquals(0x22, picc.getBlock(5)[7]);
+    }
+
+    @Test
+    void testDifferentialWriteWithoutKnownContents() throws RfidException {
+        // given
+        final var card = detectCard();
+        card.setWriteMode(RfidCard.WriteMode.DIFFERENTIAL);
+
+        // when
+        card.writeBytes(blockData(20, (byte) 0x11));
+
+        // then
+        assertEquals(List.of(4, 5), picc.getWrittenBlocks());
+        assertTrue(picc.getReadBlocks().isEmpty());
+    }
+
+    @Test
+    void testDifferentialWriteConfirmsStaleCache() throws RfidException {
+        // given
+        detectCard().writeBytes(blockData(20, (byte) 0x11));
+        final var modified = picc.getBlock(4);
+        modified[8] = 0x7F;
+        picc.setBlock(4, modified);
+        picc.clearAccessLog();
+
+        // when
+        final var card = detectCard();
+        card.setWriteMode(RfidCard.WriteMode.DIFFERENTIAL);
+        card.writeBytes(blockData(20, (byte) 0x11));
+
+        // then
+        assertEquals(List.of(4, 5), picc.getReadBlocks());
+        assertEquals(List.of(4), picc.getWrittenBlocks());
+        assertEquals(0x11, picc.getBlock(4)[8]);
+    }
+
+    @Test
+    void testReadCompareWriteReadsUnknownBlocks() throws RfidException {
+        // given
+        detectCard().writeBytes(blockData(20, (byte) 0x11));
+        Mifare1K.invalidateCache(picc.getUid().getSerial());
+        picc.clearAccessLog();
+
+        // when
+        final var card = detectCard();
+        card.setWriteMode(RfidCard.WriteMode.READ_COMPARE);
+        final var data = blockData(20, (byte) 0x11);
+        data[19] = 0x22;
+        card.writeBytes(data);
+
+        // then
+        assertEquals(List.of(4, 5), picc.getReadBlocks());
+        assertEquals(List.of(5), picc.getWrittenBlocks());
+        assertEquals(0x22, picc.getBlock(5)[7]);
+    }
+
+    @Test
+    void testReadCompareWriteConfirmsStaleCache() throws RfidException {
+        // given
+        detectCard().writeBytes(blockData(20, (byte) 0x11));
+        final var modified = picc.getBlock(5);
+        modified[0] = 0x7F;
+        picc.setBlock(5, modified);
+        picc.clearAccessLog();
+
+        // when
+        final var card = detectCard();
+        card.setWriteMode(RfidCard.WriteMode.READ_COMPARE);
+        card.writeBytes(blockData(20, (byte) 0x11));
+
+        // then
+        assertEquals(List.of(4, 5), picc.getReadBlocks());
+        assertEquals(List.of(5), picc.getWrittenBlocks());
+        assertEquals(0x11, picc.getBlock(5)[0]);
+    }
+
+    private Mifare1K detectCard() throws RfidException {
+        // Halt any previously selected card, so it can be detected again
+        mfrc522.uninitializeCard();
+        assertTrue(mfrc522.isAnyCardPresent());
+        return (Mifare1K) mfrc522.initializeCard();
+    }
+
+    /**
+     * Creates data of the given length where every byte has the same value.
+     */
+    private static byte[] blockData(int length, byte value) {
+        final var data = new byte[length];
+        Arrays.fill(data, value);
+        return data;
+    }
+}
@@ -0,0 +1,510 @@
+package com.pi4j.crowpi.components.internal.rfid;
+
+import com.pi4j.context.Context;
+import com.pi4j.io.spi.Spi;
+import com.pi4j.plugin.mock.provider.spi.MockSpi;
+import com.pi4j.plugin.mock.provider.spi.MockSpiProvider;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Emulates a MFRC522 PCD with any number of PICCs in its field on top of the SPI mock of Pi4J.
+ * Register accesses, the FIFO buffer, CRC_A calculation and the PICC side of REQA, WUPA, ANTICOLLISION, SELECT, HLTA
+ * and MIFARE authentication, read and write behave like a real PCD, so the driver can be tested without hardware.
+ * Every transfer gets recorded exactly as sent by the host to allow verifying the SPI traffic.
+ */
+public final class MockPcd extends MockSpi {
+    private static final int COMMAND_REG = PcdRegister.COMMAND_REG.getValue();
+    private static final int COM_IRQ_REG = PcdRegister.COM_IRQ_REG.getValue();
+    private static final int DIV_IRQ_REG = PcdRegister.DIV_IRQ_REG.getValue();
+    private static final int ERROR_REG = PcdRegister.ERROR_REG.getValue();
+    private static final int STATUS_2_REG = PcdRegister.STATUS_2_REG.getValue();
+    private static final int FIFO_DATA_REG = PcdRegister.FIFO_DATA_REG.getValue();
+    private static final int FIFO_LEVEL_REG = PcdRegister.FIFO_LEVEL_REG.getValue();
+    private static final int CONTROL_REG = PcdRegister.CONTROL_REG.getValue();
+    private static final int BIT_FRAMING_REG = PcdRegister.BIT_FRAMING_REG.getValue();
+    private static final int COLL_REG = PcdRegister.COLL_REG.getValue();
+    private static final int CRC_RESULT_REG_HIGH = PcdRegister.CRC_RESULT_REG_HIGH.getValue();
+    private static final int CRC_RESULT_REG_LOW = PcdRegister.CRC_RESULT_REG_LOW.getValue();
+
+    private static final int FIFO_SIZE = 64;
+    private static final byte MIFARE_ACK = 0x0A;
+
+    private final byte[] registers = new byte[0x40];
+    private final ArrayDeque<Byte> fifo = new ArrayDeque<>();
+    private final List<byte[]> transfers = Collections.synchronizedList(new ArrayList<>());
+    private final List<Picc> piccs = new ArrayList<>();
+
+    public MockPcd(Context pi4j) {
+        super(MockSpiProvider.newInstance(), Spi.newConfigBuilder(pi4j)
+            .id("MOCK-PCD")
+            .name("Mock PCD")
+            .address(0)
+            .build());
+    }
+
+    /**
+     * Places a new PICC in IDLE state within the field of the PCD.
+     *
+     * @param uid UID with 4, 7 or 10 bytes
+     * @param sak SAK of the final cascade level, e.g. 0x08 for MIFARE Classic 1K
+     * @return Emulated PICC
+     */
+    public synchronized Picc addPicc(byte[] uid, byte sak) {
+        final var picc = new Picc(uid, sak);
+        piccs.add(picc);
+        return picc;
+    }
+
+    /**
+     * Removes a PICC from the field of the PCD.
+     *
+     * @param picc Emulated PICC
+     */
+    public synchronized void removePicc(Picc picc) {
+        piccs.remove(picc);
+    }
+
+    public synchronized byte getRegister(PcdRegister register) {
+        return registers[register.getValue()];
+    }
+
+    public synchronized void setRegister(PcdRegister register, byte value) {
+        registers[register.getValue()] = value;
+    }
+
+    /**
+     * Returns a copy of all transfers since creation or the last call to {@link #clearTransfers()}.
+     *
+     * @return Transferred bytes as sent by the host
+     */
+    public List<byte[]> getTransfers() {
+        synchronized (transfers) {
+            return new ArrayList<>(transfers);
+        }
+    }
+
+    public void clearTransfers() {
+        transfers.clear();
+    }
+
+    @Override
+    public int transfer(byte[] buffer, int offset, int numberOfBytes) {
+        return transfer(buffer, offset, buffer, offset, numberOfBytes);
+    }
+
+    @Override
+    public synchronized int transfer(byte[] write, int writeOffset, byte[] read, int readOffset, int numberOfBytes) {
+        final var data = Arrays.copyOfRange(write, writeOffset, writeOffset + numberOfBytes);
+        transfers.add(data);
+
+        if ((data[0] & 0x80) != 0) {
+            // Every byte is the next read address, its result gets clocked out with the following byte
+            read[readOffset] = 0;
+            for (int i = 0; i < numberOfBytes - 1; i++) {
+                read[readOffset + i + 1] = readRegister((data[i] >> 1) & 0x3F);
+            }
+        } else {
+            // The first byte addresses the register, all following bytes are written to it
+            final int address = (data[0] >> 1) & 0x3F;
+            for (int i = 1; i < numberOfBytes; i++) {
+                writeRegister(address, data[i]);
+            }
+        }
+        return numberOfBytes;
+    }
+
+    /**
+     * Calculates a CRC_A checksum according to ISO 14443-3, just like the coprocessor of the PCD.
+     *
+     * @param data   Buffer containing the payload
+     * @param offset Offset of payload within buffer
+     * @param length Length of payload
+     * @return Checksum with the first byte in the lower and the second byte in the upper 8 bits
+     */
+    static int crcA(byte[] data, int offset, int length) {
+        int crc = 0x6363;
+        for (int i = offset; i < offset + length; i++) {
+            int ch = (data[i] ^ crc) & 0xFF;
+            ch = (ch ^ (ch << 4)) & 0xFF;
+            crc = ((crc >> 8) ^ (ch << 8) ^ (ch << 3) ^ (ch >> 4)) & 0xFFFF;
+        }
+        return crc;
+    }
+
+    private byte readRegister(int address) {
+        if (address == FIFO_DATA_REG) {
+            return fifo.isEmpty() ? 0 : fifo.poll();
+        } else if (address == FIFO_LEVEL_REG) {
+            return (byte) fifo.size();
+        }
+        return registers[address];
+    }
+
+    private void writeRegister(int address, byte value) {
+        if (address == FIFO_DATA_REG) {
+            if (fifo.size() < FIFO_SIZE) {
+                fifo.add(value);
+            }
+        } else if (address == FIFO_LEVEL_REG) {
+            if ((value & 0x80) != 0) {
+                fifo.clear();
+            }
+        } else if (address == COM_IRQ_REG || address == DIV_IRQ_REG) {
+            // Set1 decides if the masked bits get set or cleared
+            if ((value & 0x80) != 0) {
+                registers[address] |= (byte) (value & 0x7F);
+            } else {
+                registers[address] &= (byte) ~value;
+            }
+        } else if (address == COMMAND_REG) {
+            registers[address] = value;
+            executeCommand(value & 0x0F);
+        } else if (address == BIT_FRAMING_REG) {
+            registers[address] = value;
+            if ((value & 0x80) != 0 && (registers[COMMAND_REG] & 0x0F) == PcdCommand.TRANSCEIVE.getValue()) {
+                transceive();
+            }
+        } else {
+            registers[address] = value;
+        }
+    }
+
+    private void executeCommand(int command) {
+        if (command == PcdCommand.SOFT_RESET.getValue()) {
+            Arrays.fill(registers, (byte) 0);
+            fifo.clear();
+        } else if (command == PcdCommand.CALC_CRC.getValue()) {
+            final var data = drainFifo();
+            final int crc = crcA(data, 0, data.length);
+            registers[CRC_RESULT_REG_LOW] = (byte) (crc & 0xFF);
+            registers[CRC_RESULT_REG_HIGH] = (byte) (crc >> 8);
+            registers[DIV_IRQ_REG] |= PcdDivIrq.CRC_IRQ.getValue();
+        } else if (command == PcdCommand.MF_AUTHENT.getValue()) {
+            final var data = drainFifo();
+            final var picc = findActive();
+            if (picc != null && data.length == 12 && Arrays.equals(Arrays.copyOfRange(data, 8, 12), picc.getLastUidBytes())) {
+                registers[STATUS_2_REG] |= 0x08; // MFCrypto1On[1]
+                registers[COM_IRQ_REG] |= PcdComIrq.IDLE_IRQ.getValue();
+            } else {
+                registers[COM_IRQ_REG] |= PcdComIrq.TIMER_IRQ.getValue();
+            }
+        }
+    }
+
+    private void transceive() {
+        final var frame = drainFifo();
+        final int txLastBits = registers[BIT_FRAMING_REG] & 0x07;
+        final int rxAlign = (registers[BIT_FRAMING_REG] >> 4) & 0x07;
+        registers[ERROR_REG] = 0;
+        registers[CONTROL_REG] = 0;
+        registers[COLL_REG] = (byte) ((registers[COLL_REG] & 0x80) | 0x20); // CollPosNotValid[1]
+
+        final var response = respond(frame, txLastBits);
+        if (response == null) {
+            // Nobody answered, so only the timer expires
+            registers[COM_IRQ_REG] |= PcdComIrq.TIMER_IRQ.getValue();
+            return;
+        }
+
+        // Bits in front of RxAlign are undefined on a real PCD, set them to catch any missing masking
+        if (rxAlign != 0 && response.data.length > 0) {
+            response.data[0] |= (byte) ((1 << rxAlign) - 1);
+        }
+        for (final byte value : response.data) {
+            fifo.add(value);
+        }
+        registers[CONTROL_REG] = (byte) (response.lastBits & 0x07);
+        if (response.collisionPos > 0) {
+            registers[ERROR_REG] |= PcdError.COLL_ERR.getValue();
+            registers[COLL_REG] = (byte) ((registers[COLL_REG] & 0x80) | (response.collisionPos & 0x1F));
+        }
+        registers[COM_IRQ_REG] |= (byte) (PcdComIrq.RX_IRQ.getValue() | PcdComIrq.IDLE_IRQ.getValue());
+    }
+
+    private Response respond(byte[] frame, int txLastBits) {
+        if (frame.length == 0) {
+            return null;
+        }
+
+        // REQA and WUPA are the only 7-bit frames
+        if (frame.length == 1 && txLastBits == 7) {
+            final boolean wakeup = frame[0] == PiccCommand.WUPA.getValue();
+            final var responders = new ArrayList<Picc>();
+            for (final var picc : piccs) {
+                if (picc.state == State.IDLE || (wakeup && picc.state == State.HALT)) {
+                    picc.state = State.READY;
+                    picc.level = 0;
+                    responders.add(picc);
+                }
+            }
+            return responders.isEmpty() ? null : new Response(responders.get(0).getAtqa(), 0, 0);
+        }
+
+        final int command = frame[0] & 0xFF;
+        if (command == (PiccCommand.HLTA.getValue() & 0xFF)) {
+            final var picc = findActive();
+            if (picc != null && frame.length == 4 && hasValidCrc(frame)) {
+                picc.state = State.HALT;
+                picc.halted = true;
+            }
+            return null;
+        }
+
+        for (final var level : PiccCascadeLevel.values()) {
+            if (command == (level.getCommand().getValue() & 0xFF)) {
+                return frame[1] == 0x70 ? select(level.ordinal(), frame) : anticollision(level.ordinal(), frame, txLastBits);
+            }
+        }
+
+        final var picc = findActive();
+        return picc != null ? mifare(picc, frame) : null;
+    }
+
+    private Response anticollision(int level, byte[] frame, int txLastBits) {
+        final int knownBits = (((frame[1] >> 4) & 0x0F) - 2) * 8 + (frame[1] & 0x0F);
+        if (knownBits < 0 || frame.length != 2 + (knownBits + 7) / 8 || txLastBits != knownBits % 8) {
+            return null;
+        }
+
+        // Only PICCs whose UID starts with the known bits of this level answer
+        final var responders = new ArrayList<Picc>();
+        for (final var picc : piccs) {
+            if (picc.state == State.READY && picc.level == level && matchesBits(picc.getLevelData(level), frame, knownBits)) {
+                responders.add(picc);
+            }
+        }
+        if (responders.isEmpty()) {
+            return null;
+        }
+
+        // Superimpose all answers and report the first bit where they differ
+        final int firstByte = knownBits / 8;
+        final var data = new byte[5 - firstByte];
+        int collisionPos = 0;
+        for (int bit = knownBits; bit < 40; bit++) {
+            boolean any = false;
+            boolean all = true;
+            for (final var picc : responders) {
+                final boolean set = getBit(picc.getLevelData(level), bit);
+                any |= set;
+                all &= set;
+            }
+            if (any) {
+                data[bit / 8 - firstByte] |= (byte) (1 << (bit % 8));
+            }
+            if (any != all && collisionPos == 0) {
+                collisionPos = bit + 1;
+            }
+        }
+        return new Response(data, 0, collisionPos);
+    }
+
+    private Response select(int level, byte[] frame) {
+        if (frame.length != 9 || !hasValidCrc(frame)) {
+            return null;
+        }
+
+        // The addressed PICCs answer with their SAK, all other PICCs return to their previous state
+        // Multiple PICCs only match on incomplete levels, e.g. when their UIDs share the first bytes
+        final var selected = new ArrayList<Picc>();
+        for (final var picc : piccs) {
+            if (picc.state != State.READY || picc.level != level) {
+                continue;
+            }
+            if (Arrays.equals(picc.getLevelData(level), Arrays.copyOfRange(frame, 2, 7))) {
+                selected.add(picc);
+            } else {
+                picc.state = picc.halted ? State.HALT : State.IDLE;
+            }
+        }
+        if (selected.isEmpty()) {
+            return null;
+        }
+
+        final byte sak;
+        if (level < selected.get(0).getLevels() - 1) {
+            sak = RfidCardType.NOT_COMPLETE.getSak();
+            selected.forEach(picc -> picc.level++);
+        } else {
+            sak = selected.get(0).sak;
+            selected.get(0).state = State.ACTIVE;
+        }
+        return withCrc(new byte[]{sak});
+    }
+
+    private Response mifare(Picc picc, byte[] frame) {
+        if (!hasValidCrc(frame)) {
+            return null;
+        }
+        final boolean authenticated = (registers[STATUS_2_REG] & 0x08) != 0;
+
+        // Second step of a write contains the block data
+        if (picc.pendingWrite >= 0) {
+            final int block = picc.pendingWrite;
+            picc.pendingWrite = -1;
+            if (frame.length != 18) {
+                return null;
+            }
+            System.arraycopy(frame, 0, picc.blocks[block], 0, 16);
+            picc.writtenBlocks.add(block);
+            return new Response(new byte[]{MIFARE_ACK}, 4, 0);
+        }
+
+        final int command = frame[0] & 0xFF;
+        final int block = frame[1] & 0xFF;
+        if (frame.length != 4 || !authenticated || block >= picc.blocks.length) {
+            return null;
+        }
+        if (command == (PiccCommand.MF_READ.getValue() & 0xFF)) {
+            picc.readBlocks.add(block);
+            return withCrc(picc.blocks[block]);
+        } else if (command == (PiccCommand.MF_WRITE.getValue() & 0xFF)) {
+            picc.pendingWrite = block;
+            return new Response(new byte[]{MIFARE_ACK}, 4, 0);
+        }
+        return null;
+    }
+
+    private Picc findActive() {
+        for (final var picc : piccs) {
+            if (picc.state == State.ACTIVE) {
+                return picc;
+            }
+        }
+        return null;
+    }
+
+    private byte[] drainFifo() {
+        final var data = new byte[fifo.size()];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = fifo.poll();
+        }
+        return data;
+    }
+
+    private static Response withCrc(byte[] payload) {
+        final var data = Arrays.copyOf(payload, payload.length + 2);
+        final int crc = crcA(payload, 0, payload.length);
+        data[payload.length] = (byte) (crc & 0xFF);
+        data[payload.length + 1] = (byte) (crc >> 8);
+        return new Response(data, 0, 0);
+    }
+
+    private static boolean hasValidCrc(byte[] frame) {
+        if (frame.length < 3) {
+            return false;
+        }
+        final int crc = crcA(frame, 0, frame.length - 2);
+        return (frame[frame.length - 2] & 0xFF) == (crc & 0xFF) && (frame[frame.length - 1] & 0xFF) == (crc >> 8);
+    }
+
+    private static boolean matchesBits(byte[] levelData, byte[] frame, int knownBits) {
+        for (int bit = 0; bit < knownBits; bit++) {
+            if (getBit(levelData, bit) != getBit(frame, 16 + bit)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean getBit(byte[] data, int bit) {
+        return (data[bit / 8] & (1 << (bit % 8))) != 0;
+    }
+
+    private enum State {
+        IDLE, READY, ACTIVE, HALT
+    }
+
+    private static final class Response {
+        private final byte[] data;
+        private final int lastBits;
+        private final int collisionPos;
+
+        Response(byte[] data, int lastBits, int collisionPos) {
+            this.data = data;
+            this.lastBits = lastBits;
+            this.collisionPos = collisionPos;
+        }
+    }
+
+    /**
+     * Emulated PICC with 64 blocks of 16 bytes, which keeps track of all blocks read and written by the PCD.
+     */
+    public static final class Picc {
+        private final byte[] uid;
+        private final byte sak;
+        private final byte[][] blocks = new byte[64][16];
+        private final List<Integer> readBlocks = new ArrayList<>();
+        private final List<Integer> writtenBlocks = new ArrayList<>();
+        private State state = State.IDLE;
+        private boolean halted;
+        private int level;
+        private int pendingWrite = -1;
+
+        private Picc(byte[] uid, byte sak) {
+            if (uid.length != 4 && uid.length != 7 && uid.length != 10) {
+                throw new IllegalArgumentException("UID must have 4, 7 or 10 bytes");
+            }
+            this.uid = uid.clone();
+            this.sak = sak;
+        }
+
+        public RfidCardUid getUid() {
+            return new RfidCardUid(uid.clone(), sak);
+        }
+
+        public byte[] getBlock(int block) {
+            return blocks[block].clone();
+        }
+
+        public void setBlock(int block, byte[] data) {
+            System.arraycopy(data, 0, blocks[block], 0, 16);
+        }
+
+        public List<Integer> getReadBlocks() {
+            return readBlocks;
+        }
+
+        public List<Integer> getWrittenBlocks() {
+            return writtenBlocks;
+        }
+
+        public void clearAccessLog() {
+            readBlocks.clear();
+            writtenBlocks.clear();
+        }
+
+        private int getLevels() {
+            return uid.length == 4 ? 1 : uid.length == 7 ? 2 : 3;
+        }
+
+        private byte[] getAtqa() {
+            // UID size bits, single for 4, double for 7 and triple for 10 bytes
+            return new byte[]{(byte) ((getLevels() - 1) << 6 | 0x04), 0x00};
+        }
+
+        private byte[] getLastUidBytes() {
+            return Arrays.copyOfRange(uid, uid.length - 4, uid.length);
+        }
+
+        /**
+         * Returns the 4 UID bytes of the given cascade level followed by the BCC, using a cascade tag on all but the last level.
+         */
+        private byte[] getLevelData(int level) {
+            final var data = new byte[5];
+            if (level < getLevels() - 1) {
+                data[0] = PiccCommand.CASCADE_TAG.getValue();
+                System.arraycopy(uid, level * 3, data, 1, 3);
+            } else {
+                System.arraycopy(uid, level * 3, data, 0, 4);
+            }
+            data[4] = (byte) (data[0] ^ data[1] ^ data[2] ^ data[3]);
+            return data;
+        }
+    }
+}
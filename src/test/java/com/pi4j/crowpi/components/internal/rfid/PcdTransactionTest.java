@@ -0,0 +1,167 @@
+package com.pi4j.crowpi.components.internal.rfid;
+
+import com.pi4j.crowpi.ComponentTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PcdTransactionTest extends ComponentTest {
+    protected MockPcd pcd;
+    protected PcdTransaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        this.pcd = new MockPcd(pi4j);
+        this.transaction = new PcdTransaction(pcd);
+    }
+
+    @Test
+    void testConsecutiveReadsUseSingleTransfer() {
+        // given
+        pcd.setRegister(PcdRegister.ERROR_REG, (byte) 0x08);
+        pcd.setRegister(PcdRegister.CONTROL_REG, (byte) 0x04);
+
+        // when
+        transaction.begin()
+            .read(PcdRegister.ERROR_REG)
+            .read(PcdRegister.FIFO_LEVEL_REG)
+            .read(PcdRegister.CONTROL_REG)
+            .execute();
+
+        // then
+        final var transfers = pcd.getTransfers();
+        assertEquals(1, transfers.size());
+        assertArrayEquals(new byte[]{(byte) 0x8C, (byte) 0x94, (byte) 0x98, 0x00}, transfers.get(0));
+        assertEquals(0x08, transaction.getResult(0));
+        assertEquals(0x00, transaction.getResult(1));
+        assertEquals(0x04, transaction.getResult(2));
+    }
+
+    @Test
+    void testRepeatedReadOfFifo() {
+        // given
+        transaction.begin().write(PcdRegister.FIFO_DATA_REG, new byte[]{0x11, 0x22, 0x33}, 0, 3).execute();
+        pcd.clearTransfers();
+
+        // when
+        final var result = new byte[3];
+        transaction.begin().read(PcdRegister.FIFO_DATA_REG, 3).execute().copyResults(0, result, 0, 3);
+
+        // then
+        final var transfers = pcd.getTransfers();
+        assertEquals(1, transfers.size());
+        assertArrayEquals(new byte[]{(byte) 0x92, (byte) 0x92, (byte) 0x92, 0x00}, transfers.get(0));
+        assertArrayEquals(new byte[]{0x11, 0x22, 0x33}, result);
+    }
+
+    @Test
+    void testEveryWriteUsesOwnTransfer() {
+        // when
+        transaction.begin()
+            .write(PcdRegister.TX_MODE_REG, (byte) 0x00)
+            .write(PcdRegister.RX_MODE_REG, (byte) 0x00)
+            .write(PcdRegister.MOD_WIDTH_REG, (byte) 0x26)
+            .write(PcdRegister.FIFO_DATA_REG, new byte[]{0x01, 0x02, 0x03, 0x04}, 1, 2)
+            .execute();
+
+        // then
+        final var transfers = pcd.getTransfers();
+        assertEquals(4, transfers.size());
+        assertArrayEquals(new byte[]{0x24, 0x00}, transfers.get(0));
+        assertArrayEquals(new byte[]{0x26, 0x00}, transfers.get(1));
+        assertArrayEquals(new byte[]{0x48, 0x26}, transfers.get(2));
+        assertArrayEquals(new byte[]{0x12, 0x02, 0x03}, transfers.get(3));
+        assertEquals(0x26, pcd.getRegister(PcdRegister.MOD_WIDTH_REG));
+    }
+
+    @Test
+    void testMixedOperationsKeepOrder() {
+        // given
+        pcd.setRegister(PcdRegister.COLL_REG, (byte) 0x05);
+        pcd.setRegister(PcdRegister.STATUS_2_REG, (byte) 0x08);
+
+        // when
+        transaction.begin()
+            .write(PcdRegister.TX_ASK_REG, (byte) 0x40)
+            .read(PcdRegister.TX_ASK_REG)
+            .read(PcdRegister.COLL_REG)
+            .write(PcdRegister.TX_ASK_REG, (byte) 0x00)
+            .read(PcdRegister.TX_ASK_REG)
+            .read(PcdRegister.STATUS_2_REG)
+            .execute();
+
+        // then
+        final var transfers = pcd.getTransfers();
+        assertEquals(4, transfers.size());
+        assertArrayEquals(new byte[]{0x2A, 0x40}, transfers.get(0));
+        assertArrayEquals(new byte[]{(byte) 0xAA, (byte) 0x9C, 0x00}, transfers.get(1));
+        assertArrayEquals(new byte[]{0x2A, 0x00}, transfers.get(2));
+        assertArrayEquals(new byte[]{(byte) 0xAA, (byte) 0x90, 0x00}, transfers.get(3));
+        assertEquals(0x40, transaction.getResult(0));
+        assertEquals(0x05, transaction.getResult(1));
+        assertEquals(0x00, transaction.getResult(2));
+        assertEquals(0x08, transaction.getResult(3));
+    }
+
+    @Test
+    void testReuseDiscardsPreviousOperations() {
+        // given
+        transaction.begin().read(PcdRegister.ERROR_REG).read(PcdRegister.COLL_REG).execute();
+        pcd.clearTransfers();
+
+        // when
+        transaction.begin().read(PcdRegister.CONTROL_REG).execute();
+
+        // then
+        assertEquals(1, pcd.getTransfers().size());
+        assertArrayEquals(new byte[]{(byte) 0x98, 0x00}, pcd.getTransfers().get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> transaction.getResult(1));
+    }
+
+    @Test
+    void testCapacityLimits() {
+        // given
+        transaction.begin();
+        for (int i = 0; i < 16; i++) {
+            transaction.read(PcdRegister.ERROR_REG);
+        }
+
+        // when + then
+        assertThrows(IllegalStateException.class, () -> transaction.read(PcdRegister.ERROR_REG));
+        assertThrows(IllegalStateException.class, () -> transaction.begin().read(PcdRegister.FIFO_DATA_REG, 81));
+    }
+
+    @Test
+    void testShadowTracksWrittenValues() {
+        // when
+        transaction.begin()
+            .write(PcdRegister.BIT_FRAMING_REG, (byte) 0x07)
+            .write(PcdRegister.TX_CONTROL_REG, (byte) 0x83)
+            .write(PcdRegister.MODE_REG, (byte) 0x3D)
+            .execute();
+
+        // then
+        assertTrue(transaction.hasShadow(PcdRegister.BIT_FRAMING_REG));
+        assertEquals(0x07, transaction.getShadow(PcdRegister.BIT_FRAMING_REG));
+        assertTrue(transaction.hasShadow(PcdRegister.TX_CONTROL_REG));
+        assertEquals((byte) 0x83, transaction.getShadow(PcdRegister.TX_CONTROL_REG));
+        assertFalse(transaction.hasShadow(PcdRegister.MODE_REG));
+    }
+
+    @Test
+    void testShadowUpdateAndInvalidation() {
+        // given
+        transaction.updateShadow(PcdRegister.TX_CONTROL_REG, (byte) 0x80);
+        transaction.updateShadow(PcdRegister.ERROR_REG, (byte) 0x01);
+
+        // when
+        final boolean knownBefore = transaction.hasShadow(PcdRegister.TX_CONTROL_REG);
+        transaction.invalidateShadows();
+
+        // then
+        assertTrue(knownBefore);
+        assertFalse(transaction.hasShadow(PcdRegister.TX_CONTROL_REG));
+        assertFalse(transaction.hasShadow(PcdRegister.ERROR_REG));
+    }
+}